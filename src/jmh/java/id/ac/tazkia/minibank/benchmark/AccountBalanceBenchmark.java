@@ -0,0 +1,59 @@
+package id.ac.tazkia.minibank.benchmark;
+
+import id.ac.tazkia.minibank.entity.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal arithmetic and validation of the Account balance methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBalanceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("125000.50");
+
+    private Account account;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new Account();
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        // Large enough that withdrawals never run out during an iteration
+        account.setBalance(new BigDecimal("1000000000000000.00"));
+    }
+
+    @Benchmark
+    public BigDecimal deposit() {
+        account.deposit(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal withdraw() {
+        account.withdraw(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal transferOut() {
+        account.transferOut(AMOUNT);
+        return account.getBalance();
+    }
+}
@@ -0,0 +1,68 @@
+package id.ac.tazkia.minibank.benchmark;
+
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.entity.PersonalCustomer;
+import id.ac.tazkia.minibank.entity.Product;
+import id.ac.tazkia.minibank.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Detached entities for the PDF benchmarks, built without a database.
+ */
+final class PdfFixtures {
+
+    private PdfFixtures() {
+    }
+
+    static Account account() {
+        PersonalCustomer customer = new PersonalCustomer();
+        customer.setFirstName("Ahmad");
+        customer.setLastName("Suharto");
+
+        Product product = new Product();
+        product.setProductName("Tabungan Wadiah Basic");
+
+        Account account = new Account();
+        account.setId(UUID.randomUUID());
+        account.setAccountNumber("A2000001");
+        account.setAccountName("Ahmad Suharto");
+        account.setCustomer(customer);
+        account.setProduct(product);
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        account.setBalance(new BigDecimal("1000000.00"));
+        return account;
+    }
+
+    /**
+     * Alternating deposits and withdrawals with a consistent running balance.
+     */
+    static List<Transaction> transactions(Account account, int count) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        BigDecimal balance = new BigDecimal("1000000.00");
+        LocalDateTime date = LocalDateTime.of(2025, 1, 1, 8, 0);
+        for (int i = 0; i < count; i++) {
+            boolean deposit = i % 2 == 0;
+            BigDecimal amount = deposit ? new BigDecimal("150000.00") : new BigDecimal("50000.00");
+            Transaction transaction = new Transaction();
+            transaction.setId(UUID.randomUUID());
+            transaction.setAccount(account);
+            transaction.setTransactionNumber(String.format("TXN%07d", i + 1));
+            transaction.setTransactionType(deposit ? Transaction.TransactionType.DEPOSIT : Transaction.TransactionType.WITHDRAWAL);
+            transaction.setChannel(Transaction.TransactionChannel.TELLER);
+            transaction.setAmount(amount);
+            transaction.setBalanceBefore(balance);
+            balance = deposit ? balance.add(amount) : balance.subtract(amount);
+            transaction.setBalanceAfter(balance);
+            transaction.setDescription(deposit ? "Setoran tunai" : "Penarikan tunai");
+            transaction.setTransactionDate(date.plusMinutes(i));
+            transaction.setProcessedDate(date.plusMinutes(i));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
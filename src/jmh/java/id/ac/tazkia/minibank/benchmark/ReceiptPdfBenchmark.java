@@ -0,0 +1,45 @@
+package id.ac.tazkia.minibank.benchmark;
+
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.TransactionReceiptPdfService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering cost of one transaction receipt, i.e. what a receipt cache miss costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReceiptPdfBenchmark {
+
+    private TransactionReceiptPdfService receiptPdfService;
+    private Account account;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        receiptPdfService = new TransactionReceiptPdfService();
+        account = PdfFixtures.account();
+        transaction = PdfFixtures.transactions(account, 1).get(0);
+    }
+
+    @Benchmark
+    public byte[] generateReceipt() {
+        return receiptPdfService.generateTransactionReceiptPdf(transaction, account, transaction.getBalanceAfter());
+    }
+}
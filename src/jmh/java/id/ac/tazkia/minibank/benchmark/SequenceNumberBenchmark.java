@@ -0,0 +1,52 @@
+package id.ac.tazkia.minibank.benchmark;
+
+import id.ac.tazkia.minibank.entity.SequenceNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction number formatting, which runs once per posting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SequenceNumberBenchmark {
+
+    private SequenceNumber sequenceNumber;
+    private long number;
+
+    @Setup
+    public void setUp() {
+        sequenceNumber = new SequenceNumber();
+        sequenceNumber.setSequenceName("TRANSACTION_NUMBER");
+        sequenceNumber.setPrefix("TXN");
+    }
+
+    @Benchmark
+    public String generateNextSequence() {
+        return sequenceNumber.generateNextSequence();
+    }
+
+    @Benchmark
+    public String formatWithPrefix() {
+        return SequenceNumber.format("TXN", ++number);
+    }
+
+    @Benchmark
+    public String formatWithoutPrefix() {
+        return SequenceNumber.format(null, ++number);
+    }
+}
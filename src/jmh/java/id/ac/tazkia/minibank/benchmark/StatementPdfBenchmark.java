@@ -0,0 +1,72 @@
+package id.ac.tazkia.minibank.benchmark;
+
+import id.ac.tazkia.minibank.dto.StatementAccount;
+import id.ac.tazkia.minibank.dto.StatementLine;
+import id.ac.tazkia.minibank.dto.StatementSummary;
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.AccountStatementPdfService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement rendering by number of rows: the in-memory path used by the synchronous download and
+ * the incremental path used by streaming, background jobs and month-end runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class StatementPdfBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    @Param({"10", "1000", "50000"})
+    public int rows;
+
+    private AccountStatementPdfService statementPdfService;
+    private Account account;
+    private List<Transaction> transactions;
+    private StatementAccount statementAccount;
+    private List<StatementLine> lines;
+    private StatementSummary summary;
+
+    @Setup
+    public void setUp() {
+        // Neither benchmarked method reads from the database
+        statementPdfService = new AccountStatementPdfService(null);
+        account = PdfFixtures.account();
+        transactions = PdfFixtures.transactions(account, rows);
+        statementAccount = StatementAccount.of(account);
+        lines = transactions.stream().map(StatementLine::of).toList();
+        summary = StatementSummary.of(transactions.get(0).getBalanceBefore(), lines);
+    }
+
+    @Benchmark
+    public byte[] inMemory() {
+        return statementPdfService.generateAccountStatementPdf(account, transactions, START, END);
+    }
+
+    @Benchmark
+    public void incremental() {
+        statementPdfService.writeAccountStatementPdf(statementAccount, summary, lines, START, END,
+            OutputStream.nullOutputStream());
+    }
+}
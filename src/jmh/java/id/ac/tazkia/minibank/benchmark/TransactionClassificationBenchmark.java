@@ -0,0 +1,66 @@
+package id.ac.tazkia.minibank.benchmark;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debit/credit classification over a mix of transaction types, as done for every statement row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionClassificationBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private Transaction[] transactions;
+
+    @Setup
+    public void setUp() {
+        Transaction.TransactionType[] types = Transaction.TransactionType.values();
+        Random random = new Random(42);
+        transactions = new Transaction[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionType(types[random.nextInt(types.length)]);
+            transactions[i] = transaction;
+        }
+    }
+
+    @Benchmark
+    public int isDebitTransaction() {
+        int debits = 0;
+        for (Transaction transaction : transactions) {
+            if (transaction.isDebitTransaction()) {
+                debits++;
+            }
+        }
+        return debits;
+    }
+
+    @Benchmark
+    public int isCreditTransaction() {
+        int credits = 0;
+        for (Transaction transaction : transactions) {
+            if (transaction.isCreditTransaction()) {
+                credits++;
+            }
+        }
+        return credits;
+    }
+}
@@ -0,0 +1,48 @@
+package id.ac.tazkia.minibank.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-memory caches for reference data that rarely changes.
+ *
+ * Caches are Caffeine-backed and record statistics, which Spring Boot publishes as the
+ * {@code cache.gets} (hit/miss), {@code cache.puts} and {@code cache.evictions} meters. The
+ * manager is transaction-aware: puts and evictions made inside a transaction are applied after
+ * it commits, so a rolled-back product update never evicts and a reader cannot re-cache the old
+ * row between the eviction and the commit of the writer.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_BY_ID = "products";
+    public static final String PRODUCTS_BY_CODE = "productsByCode";
+    public static final String ACTIVE_PRODUCTS = "activeProducts";
+    public static final String PRODUCT_CATEGORIES = "productCategories";
+    public static final String APPROVAL_PENDING_COUNTS = "approvalPendingCounts";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${minibank.cache.products.spec:maximumSize=1000,expireAfterWrite=1h}") String spec,
+                                     @Value("${minibank.cache.approval-counts.spec:maximumSize=10,expireAfterWrite=10s}") String approvalCountsSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(Caffeine.from(spec).recordStats());
+        caffeineCacheManager.setAllowNullValues(false);
+        // Fixed names so the caches exist, and get their meters, before first use
+        caffeineCacheManager.setCacheNames(List.of(PRODUCTS_BY_ID, PRODUCTS_BY_CODE, ACTIVE_PRODUCTS, PRODUCT_CATEGORIES));
+        // Pending approval counts change with every request and decision; the short expiry bounds
+        // how stale another node's counts can be
+        caffeineCacheManager.registerCustomCache(APPROVAL_PENDING_COUNTS,
+            Caffeine.from(approvalCountsSpec).recordStats().build());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
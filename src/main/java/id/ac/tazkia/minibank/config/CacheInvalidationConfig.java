@@ -0,0 +1,56 @@
+package id.ac.tazkia.minibank.config;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.CacheInvalidationHandler;
+
+/**
+ * What each {@link CacheInvalidationBus} topic evicts on this node when another node publishes it.
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    /**
+     * Product lookups are cached under several keys (id, code, lists), so any product change
+     * clears all product caches, as the local {@code @CacheEvict} does.
+     */
+    @Bean
+    public CacheInvalidationHandler productCacheInvalidation(CacheManager cacheManager) {
+        List<String> cacheNames = List.of(CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_CODE,
+            CacheConfig.ACTIVE_PRODUCTS, CacheConfig.PRODUCT_CATEGORIES);
+        return handler(CacheInvalidationBus.TOPIC_PRODUCTS, entityKey -> cacheNames.forEach(name -> {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }));
+    }
+
+    @Bean
+    public CacheInvalidationHandler rbacInvalidation(AuthorizationVersionService authorizationVersionService) {
+        return handler(CacheInvalidationBus.TOPIC_RBAC,
+            entityKey -> authorizationVersionService.invalidateLocally("changed on another node"));
+    }
+
+    private static CacheInvalidationHandler handler(String topic, Consumer<String> invalidate) {
+        return new CacheInvalidationHandler() {
+            @Override
+            public String topic() {
+                return topic;
+            }
+
+            @Override
+            public void invalidate(String entityKey) {
+                invalidate.accept(entityKey);
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package id.ac.tazkia.minibank.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import id.ac.tazkia.minibank.service.StatementJobService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer setup for the banking operations.
+ *
+ * Service methods carry {@code @Timed} with a {@code minibank.*} name; percentiles and histogram
+ * buckets for those timers are configured in application.properties. Connection pool, Hibernate
+ * and HTTP metrics come from Spring Boot's auto-configuration, which also binds MeterBinder beans
+ * such as TransferService's retry counters. Everything is scraped from /actuator/prometheus on
+ * the management port.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder statementJobMetrics(StatementJobService statementJobService) {
+        return registry -> Gauge.builder("minibank.statement.jobs.queued", statementJobService,
+                StatementJobService::getQueueDepth)
+            .description("Statement jobs waiting for a worker")
+            .register(registry);
+    }
+}
@@ -0,0 +1,89 @@
+package id.ac.tazkia.minibank.config;
+
+import java.io.IOException;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import id.ac.tazkia.minibank.security.UserPrincipal;
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
+import id.ac.tazkia.minibank.service.CustomUserDetailsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebuilds the session's principal after role or permission assignments changed.
+ *
+ * A request whose principal is at the current authorization version passes straight through
+ * without touching the database. A stale principal is reloaded once and stored back in the
+ * session; if the user has since been removed or disabled the session is ended and the request
+ * continues unauthenticated.
+ */
+@Slf4j
+public class PrincipalRefreshFilter extends OncePerRequestFilter {
+
+    private final AuthorizationVersionService authorizationVersionService;
+    private final CustomUserDetailsService userDetailsService;
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+    private final SecurityContextHolderStrategy securityContextHolderStrategy =
+        SecurityContextHolder.getContextHolderStrategy();
+
+    public PrincipalRefreshFilter(AuthorizationVersionService authorizationVersionService,
+                                  CustomUserDetailsService userDetailsService) {
+        this.authorizationVersionService = authorizationVersionService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = securityContextHolderStrategy.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && !authorizationVersionService.isCurrent(principal.getAuthorizationVersion())) {
+            refresh(authentication, principal, request, response);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void refresh(Authentication authentication, UserPrincipal stale,
+                         HttpServletRequest request, HttpServletResponse response) {
+        UserPrincipal principal;
+        try {
+            principal = userDetailsService.loadUserByUsername(stale.getUsername());
+        } catch (UsernameNotFoundException e) {
+            principal = null;
+        }
+
+        if (principal == null || !principal.isEnabled() || !principal.isAccountNonLocked()) {
+            log.info("Ending session of {}: user no longer exists or is disabled", stale.getUsername());
+            securityContextHolderStrategy.clearContext();
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
+            return;
+        }
+
+        principal.eraseCredentials();
+        UsernamePasswordAuthenticationToken refreshed = UsernamePasswordAuthenticationToken.authenticated(
+            principal, null, principal.getAuthorities());
+        refreshed.setDetails(authentication.getDetails());
+        SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+        context.setAuthentication(refreshed);
+        securityContextHolderStrategy.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+        log.debug("Refreshed principal of {} to authorization version {}", principal.getUsername(),
+            principal.getAuthorizationVersion());
+    }
+}
@@ -0,0 +1,120 @@
+package id.ac.tazkia.minibank.config;
+
+import java.io.IOException;
+
+import org.slf4j.MDC;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import id.ac.tazkia.minibank.util.QueryStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts the SQL statements and database time of each HTTP request.
+ *
+ * The totals go into a {@code Server-Timing} header (visible in the browser's network panel),
+ * into the {@code db.statements} and {@code db.time_ms} MDC fields of the request log line, and
+ * into the {@code minibank.http.db.statements} summary per route. Requests above the statement
+ * budget are logged as warnings, which is usually an N+1 over a lazy association.
+ *
+ * The header is written when the response commits, so statements run while a large view is
+ * still rendering after that point are only in the log line and the metric.
+ */
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+    private final int requestBudget;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry, int requestBudget) {
+        this.meterRegistry = meterRegistry;
+        this.requestBudget = requestBudget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/css/") || path.startsWith("/js/") || path.startsWith("/images/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryStats.Counter counter = QueryStats.start()) {
+            ServerTimingResponse timingResponse = new ServerTimingResponse(response, counter);
+            try {
+                filterChain.doFilter(request, timingResponse);
+            } finally {
+                timingResponse.writeServerTiming();
+                report(request, response, counter);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, QueryStats.Counter counter) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "UNMAPPED";
+        DistributionSummary.builder("minibank.http.db.statements")
+            .description("SQL statements executed per HTTP request")
+            .tag("method", request.getMethod())
+            .tag("uri", route)
+            .register(meterRegistry)
+            .record(counter.getStatements());
+
+        MDC.put("db.statements", String.valueOf(counter.getStatements()));
+        MDC.put("db.time_ms", String.valueOf(counter.getElapsedMillis()));
+        try {
+            if (counter.getStatements() > requestBudget) {
+                log.warn("{} {} ran {} SQL statements ({} selects, {} ms), budget is {}",
+                    request.getMethod(), route, counter.getStatements(), counter.getSelects(),
+                    counter.getElapsedMillis(), requestBudget);
+            } else {
+                log.debug("{} {} -> {} ran {} SQL statements in {} ms", request.getMethod(), route,
+                    response.getStatus(), counter.getStatements(), counter.getElapsedMillis());
+            }
+        } finally {
+            MDC.remove("db.statements");
+            MDC.remove("db.time_ms");
+        }
+    }
+
+    private static String serverTiming(QueryStats.Counter counter) {
+        return "db;dur=" + counter.getElapsedMillis() + ";desc=\"" + counter.getStatements() + " queries\"";
+    }
+
+    /**
+     * Adds the header right before the response commits, while headers can still be changed.
+     */
+    private static class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final QueryStats.Counter counter;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, QueryStats.Counter counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeServerTiming();
+        }
+
+        void writeServerTiming() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (!written && !response.isCommitted()) {
+                response.setHeader(SERVER_TIMING_HEADER, serverTiming(counter));
+            }
+            written = true;
+        }
+    }
+}
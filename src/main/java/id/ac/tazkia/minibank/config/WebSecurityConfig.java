@@ -1,5 +1,6 @@
 package id.ac.tazkia.minibank.config;
 
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
 import id.ac.tazkia.minibank.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +10,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 
 @Configuration
@@ -20,12 +22,19 @@ public class WebSecurityConfig {
     @Autowired
     private AuthenticationSuccessHandler customSuccessHandler;
 
+    @Autowired
+    private AuthorizationVersionService authorizationVersionService;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
           .csrf().disable()
           .authorizeHttpRequests(auth -> auth
               .antMatchers("/css/**", "/js/**", "/images/**", "/", "/signup", "/register", "/login", "/h2-console/**").permitAll()
+              // Only reachable on the management port, which listens on localhost
+              .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+              .antMatchers("/api/admin/**").hasAuthority("SYSTEM_PROFILE")
+              .antMatchers("/api/approvals/**").hasAuthority("APPROVAL_VIEW")
               .anyRequest().authenticated()
           )
           .formLogin(form -> form
@@ -39,7 +48,10 @@ public class WebSecurityConfig {
               .logoutUrl("/logout")
               .logoutSuccessUrl("/login?logout")
               .permitAll()
-          );
+          )
+          // Not a bean, so it only runs inside this chain and not also as a servlet filter
+          .addFilterBefore(new PrincipalRefreshFilter(authorizationVersionService, userDetailsService),
+              AuthorizationFilter.class);
 
         return http.build();
     }
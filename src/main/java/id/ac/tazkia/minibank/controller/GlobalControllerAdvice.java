@@ -6,40 +6,28 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
-import id.ac.tazkia.minibank.entity.User;
-import id.ac.tazkia.minibank.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import id.ac.tazkia.minibank.security.UserPrincipal;
 
 /**
  * Global controller advice to provide common model attributes to all views
  */
 @ControllerAdvice
-@RequiredArgsConstructor
 public class GlobalControllerAdvice {
     
-    private final UserRepository userRepository;
-    
     /**
-     * Add current user's role name to all views
+     * Add current user's role name and permissions to all views. Both come from the principal
+     * resolved at login, so this runs no queries.
      */
     @ModelAttribute
     public void addCurrentUserRole(Model model) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
-        if (authentication != null && authentication.isAuthenticated() && 
-            !"anonymousUser".equals(authentication.getName())) {
-            
-            String username = authentication.getName();
-            userRepository.findByUsername(username)
-                .ifPresent(user -> {
-                    // Get the first active role for the user
-                    user.getUserRoles().stream()
-                        .filter(userRole -> userRole.getRole().getIsActive())
-                        .findFirst()
-                        .ifPresent(userRole -> {
-                            model.addAttribute("currentUserRoleName", userRole.getRole().getRoleName());
-                        });
-                });
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            if (principal.getDisplayRoleName() != null) {
+                model.addAttribute("currentUserRoleName", principal.getDisplayRoleName());
+            }
+            model.addAttribute("currentUserPermissions", principal.getPermissionCodes());
         }
     }
 }
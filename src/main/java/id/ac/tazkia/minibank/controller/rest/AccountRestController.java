@@ -1,25 +1,33 @@
 package id.ac.tazkia.minibank.controller.rest;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import id.ac.tazkia.minibank.dto.AccountOpeningRequest;
 import id.ac.tazkia.minibank.dto.AccountOpeningResponse;
 import id.ac.tazkia.minibank.dto.AccountStatementRequest;
+import id.ac.tazkia.minibank.dto.StatementJob;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.CorporateCustomer;
 import id.ac.tazkia.minibank.entity.Customer;
@@ -30,10 +38,11 @@ import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.BranchRepository;
 import id.ac.tazkia.minibank.repository.CorporateCustomerRepository;
 import id.ac.tazkia.minibank.repository.PersonalCustomerRepository;
-import id.ac.tazkia.minibank.repository.ProductRepository;
 import id.ac.tazkia.minibank.service.AccountStatementService;
 import id.ac.tazkia.minibank.service.AccountStatementPdfService;
+import id.ac.tazkia.minibank.service.ProductService;
 import id.ac.tazkia.minibank.service.SequenceNumberService;
+import id.ac.tazkia.minibank.service.StatementJobService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -47,28 +56,31 @@ public class AccountRestController {
     private final PersonalCustomerRepository personalCustomerRepository;
     private final CorporateCustomerRepository corporateCustomerRepository;
     private final AccountRepository accountRepository;
-    private final ProductRepository productRepository;
+    private final ProductService productService;
     private final BranchRepository branchRepository;
     private final SequenceNumberService sequenceNumberService;
     private final AccountStatementService accountStatementService;
     private final AccountStatementPdfService accountStatementPdfService;
+    private final StatementJobService statementJobService;
     
     public AccountRestController(PersonalCustomerRepository personalCustomerRepository,
                                CorporateCustomerRepository corporateCustomerRepository,
                                AccountRepository accountRepository,
-                               ProductRepository productRepository,
+                               ProductService productService,
                                BranchRepository branchRepository,
                                SequenceNumberService sequenceNumberService,
                                AccountStatementService accountStatementService,
-                               AccountStatementPdfService accountStatementPdfService) {
+                               AccountStatementPdfService accountStatementPdfService,
+                               StatementJobService statementJobService) {
         this.personalCustomerRepository = personalCustomerRepository;
         this.corporateCustomerRepository = corporateCustomerRepository;
         this.accountRepository = accountRepository;
-        this.productRepository = productRepository;
+        this.productService = productService;
         this.branchRepository = branchRepository;
         this.sequenceNumberService = sequenceNumberService;
         this.accountStatementService = accountStatementService;
         this.accountStatementPdfService = accountStatementPdfService;
+        this.statementJobService = statementJobService;
     }
 
     @PostMapping("/open")
@@ -99,7 +111,7 @@ public class AccountRestController {
             }
 
             // Validate product exists and is active
-            Optional<Product> productOpt = productRepository.findById(request.getProductId());
+            Optional<Product> productOpt = productService.findById(request.getProductId());
             if (productOpt.isEmpty()) {
                 Map<String, String> error = new HashMap<>();
                 error.put(PRODUCT_ID_FIELD, "Product not found");
@@ -259,6 +271,117 @@ public class AccountRestController {
         }
     }
 
+    /**
+     * Streams the statement PDF while it is being generated, for periods too large to build in memory.
+     */
+    @GetMapping("/statement/pdf/stream")
+    public ResponseEntity<StreamingResponseBody> streamAccountStatementPdf(
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        if (startDate.isAfter(endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<Account> accountOpt;
+        if (accountId != null) {
+            accountOpt = accountStatementService.findAccountById(accountId);
+        } else if (accountNumber != null && !accountNumber.trim().isEmpty()) {
+            accountOpt = accountStatementService.findAccountByAccountNumber(accountNumber.trim());
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        if (accountOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Account account = accountOpt.get();
+        String filename = String.format("statement_%s_%s_to_%s.pdf",
+            account.getAccountNumber(), startDate, endDate);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", filename);
+
+        UUID statementAccountId = account.getId();
+        StreamingResponseBody body = outputStream ->
+            accountStatementPdfService.writeAccountStatementPdf(statementAccountId, startDate, endDate, outputStream);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    /**
+     * Queues a statement for background generation. Poll the returned job and download the file
+     * once it is COMPLETED; submitting the same account and period while that job is still queued or
+     * running returns the same job.
+     */
+    @PostMapping("/statement/jobs")
+    public ResponseEntity<Object> submitStatementJob(@Valid @RequestBody AccountStatementRequest request,
+                                                     BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            Map<String, String> errors = new HashMap<>();
+            bindingResult.getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage())
+            );
+            return ResponseEntity.badRequest().body(errors);
+        }
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            return ResponseEntity.badRequest().body(Map.of("startDate", "Start date must not be after end date"));
+        }
+
+        Optional<Account> accountOpt;
+        if (request.getAccountId() != null) {
+            accountOpt = accountStatementService.findAccountById(request.getAccountId());
+        } else if (request.getAccountNumber() != null && !request.getAccountNumber().trim().isEmpty()) {
+            accountOpt = accountStatementService.findAccountByAccountNumber(request.getAccountNumber().trim());
+        } else {
+            return ResponseEntity.badRequest().body(Map.of("accountId", "Account ID or account number is required"));
+        }
+        if (accountOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("accountId", "Account not found"));
+        }
+
+        try {
+            StatementJob job = statementJobService.submit(accountOpt.get(), request.getStartDate(), request.getEndDate());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/accounts/statement/jobs/" + job.getJobId())
+                .body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/statement/jobs/{jobId}")
+    public ResponseEntity<StatementJob> getStatementJob(@PathVariable UUID jobId) {
+        return statementJobService.findJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/statement/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadStatementJob(@PathVariable UUID jobId) {
+        Optional<StatementJob> jobOpt = statementJobService.findJob(jobId);
+        if (jobOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StatementJob job = jobOpt.get();
+        if (job.getStatus() != StatementJob.JobStatus.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        FileSystemResource file = new FileSystemResource(job.getFile());
+        if (!file.exists()) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", job.getFilename());
+        headers.setContentLength(job.getFileSize());
+        return ResponseEntity.ok().headers(headers).body(file);
+    }
+
     @GetMapping("/statement/pdf")
     public ResponseEntity<byte[]> generateAccountStatementPdfByParams(
             @RequestParam(required = false) String accountId,
@@ -0,0 +1,56 @@
+package id.ac.tazkia.minibank.controller.rest;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import id.ac.tazkia.minibank.dto.BulkDecisionRequest;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult;
+import id.ac.tazkia.minibank.service.ApprovalService;
+import id.ac.tazkia.minibank.service.AuthenticationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Approval decisions for integrations and bulk clean-up of the approval queue.
+ */
+@RestController
+@RequestMapping("/api/approvals")
+@RequiredArgsConstructor
+public class ApprovalRestController {
+
+    private final ApprovalService approvalService;
+    private final AuthenticationService authenticationService;
+
+    /**
+     * Approves or rejects the listed requests in one transaction. Requests that cannot be decided
+     * are reported per item rather than failing the batch.
+     */
+    @PostMapping("/bulk-decision")
+    public ResponseEntity<Object> bulkDecision(@Valid @RequestBody BulkDecisionRequest request,
+                                               BindingResult bindingResult, Principal principal) {
+        if (bindingResult.hasErrors()) {
+            Map<String, String> errors = new HashMap<>();
+            bindingResult.getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage())
+            );
+            return ResponseEntity.badRequest().body(errors);
+        }
+
+        try {
+            BulkDecisionResult result = approvalService.bulkDecide(request.getRequestIds(), request.getDecision(),
+                principal.getName(), request.getRejectionReason(), request.getReviewNotes(),
+                authenticationService.getApprovableEntityTypes());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package id.ac.tazkia.minibank.controller.rest;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import id.ac.tazkia.minibank.dto.FlightRecordingStatus;
+import id.ac.tazkia.minibank.service.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Starts, stops and dumps the JDK Flight Recorder recording. Files are written on the server's
+ * local disk; the response only names the file. Requires the SYSTEM_PROFILE permission.
+ */
+@RestController
+@RequestMapping("/api/admin/flight-recordings")
+@RequiredArgsConstructor
+public class FlightRecordingRestController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    @GetMapping
+    public ResponseEntity<FlightRecordingStatus> getStatus() {
+        return ResponseEntity.ok(flightRecordingService.status());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<Object> start(@RequestParam(required = false) String settings) {
+        try {
+            return ResponseEntity.ok(flightRecordingService.start(settings));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("settings", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/dump")
+    public ResponseEntity<Object> dump() {
+        try {
+            return ResponseEntity.ok(file(flightRecordingService.dump()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Object> stop() {
+        try {
+            return ResponseEntity.ok(file(flightRecordingService.stop()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, String> file(Path path) {
+        return Map.of("file", path.toString());
+    }
+}
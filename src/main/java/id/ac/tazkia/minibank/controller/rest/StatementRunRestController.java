@@ -0,0 +1,80 @@
+package id.ac.tazkia.minibank.controller.rest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import id.ac.tazkia.minibank.dto.StatementRunRequest;
+import id.ac.tazkia.minibank.dto.StatementRunStatus;
+import id.ac.tazkia.minibank.service.BulkStatementRunService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Month-end statement runs over all active accounts.
+ */
+@RestController
+@RequestMapping("/api/statement-runs")
+@RequiredArgsConstructor
+public class StatementRunRestController {
+
+    private final BulkStatementRunService bulkStatementRunService;
+
+    /**
+     * Starts the run for a period, or resumes it when an earlier execution did not finish.
+     */
+    @PostMapping
+    public ResponseEntity<Object> startRun(@Valid @RequestBody StatementRunRequest request, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            Map<String, String> errors = new HashMap<>();
+            bindingResult.getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage())
+            );
+            return ResponseEntity.badRequest().body(errors);
+        }
+
+        try {
+            StatementRunStatus run = bulkStatementRunService.startRun(request.getPeriodStart(), request.getPeriodEnd());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/statement-runs/" + run.getRunId())
+                .body(run);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("periodStart", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<StatementRunStatus> getRun(@PathVariable UUID runId) {
+        return bulkStatementRunService.findRun(runId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{runId}/manifest")
+    public ResponseEntity<Resource> downloadManifest(@PathVariable UUID runId) {
+        Optional<Path> manifest = bulkStatementRunService.findManifest(runId);
+        if (manifest.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "statement-run-" + runId + ".csv");
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(manifest.get()));
+    }
+}
@@ -1,236 +1,318 @@
 package id.ac.tazkia.minibank.controller.rest;
 
+import id.ac.tazkia.minibank.dto.BulkTransferResult;
+import id.ac.tazkia.minibank.dto.CursorPage;
 import id.ac.tazkia.minibank.dto.DepositRequest;
 import id.ac.tazkia.minibank.dto.DepositResponse;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.dto.TransactionHistoryItem;
+import id.ac.tazkia.minibank.dto.TransferRequest;
 import id.ac.tazkia.minibank.dto.WithdrawalRequest;
 import id.ac.tazkia.minibank.dto.WithdrawalResponse;
-import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
-import id.ac.tazkia.minibank.repository.AccountRepository;
-import id.ac.tazkia.minibank.repository.TransactionRepository;
-import id.ac.tazkia.minibank.service.SequenceNumberService;
+import id.ac.tazkia.minibank.service.BulkTransferService;
+import id.ac.tazkia.minibank.service.IdempotencyService;
+import id.ac.tazkia.minibank.service.IdempotencyService.IdempotencyConflictException;
+import id.ac.tazkia.minibank.service.IdempotencyService.StoredResponse;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.PostingService.PostingRejectedException;
+import id.ac.tazkia.minibank.service.TransactionHistoryService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionRestController {
-    
+
     private static final String ACCOUNT_ID_FIELD = "accountId";
+    private static final String AMOUNT_FIELD = "amount";
+    private static final String BATCH_FIELD = "batch";
+    private static final String CURSOR_FIELD = "cursor";
+    private static final String IDEMPOTENCY_KEY_FIELD = "idempotencyKey";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
     private static final String TRANSACTION_PROCESSING_FAILED = "Transaction processing failed";
-    
-    private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
-    private final SequenceNumberService sequenceNumberService;
-    
-    public TransactionRestController(AccountRepository accountRepository,
-                                   TransactionRepository transactionRepository,
-                                   SequenceNumberService sequenceNumberService) {
-        this.accountRepository = accountRepository;
-        this.transactionRepository = transactionRepository;
-        this.sequenceNumberService = sequenceNumberService;
+
+    private final PostingService postingService;
+    private final BulkTransferService bulkTransferService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionHistoryService transactionHistoryService;
+
+    public TransactionRestController(PostingService postingService,
+                                   BulkTransferService bulkTransferService,
+                                   IdempotencyService idempotencyService,
+                                   TransactionHistoryService transactionHistoryService) {
+        this.postingService = postingService;
+        this.bulkTransferService = bulkTransferService;
+        this.idempotencyService = idempotencyService;
+        this.transactionHistoryService = transactionHistoryService;
     }
-    
+
     @PostMapping("/deposit")
-    @Transactional
-    public ResponseEntity<Object> deposit(@Valid @RequestBody DepositRequest request, BindingResult bindingResult) {
+    public ResponseEntity<Object> deposit(@Valid @RequestBody DepositRequest request, BindingResult bindingResult,
+                                          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (bindingResult.hasErrors()) {
+            return validationErrors(bindingResult);
+        }
+        if (idempotencyKey == null) {
+            return postDeposit(request);
+        }
+        return idempotent("DEPOSIT", idempotencyKey, request, () -> postDeposit(request));
+    }
+
+    @PostMapping("/withdrawal")
+    public ResponseEntity<Object> withdrawal(@Valid @RequestBody WithdrawalRequest request, BindingResult bindingResult,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (bindingResult.hasErrors()) {
-            Map<String, String> errors = new HashMap<>();
-            bindingResult.getFieldErrors().forEach(error -> 
-                errors.put(error.getField(), error.getDefaultMessage())
-            );
-            return ResponseEntity.badRequest().body(errors);
+            return validationErrors(bindingResult);
         }
-        
+        if (idempotencyKey == null) {
+            return postWithdrawal(request);
+        }
+        return idempotent("WITHDRAWAL", idempotencyKey, request, () -> postWithdrawal(request));
+    }
+
+    /**
+     * Transaction history, newest first. Pass {@code nextCursor} as {@code after} to read older
+     * transactions, or {@code previousCursor} as {@code before} to go back.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<Object> history(@RequestParam(required = false) UUID accountId,
+                                          @RequestParam(required = false) Transaction.TransactionType transactionType,
+                                          @RequestParam(required = false) String after,
+                                          @RequestParam(required = false) String before,
+                                          @RequestParam(defaultValue = "20") int size) {
         try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(request.getAccountId());
-            if (accountOpt.isEmpty()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account not found");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account is not active");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.DEPOSIT);
-            transaction.setAmount(request.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(request.getDescription());
-            transaction.setReferenceNumber(request.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process deposit using business method
-            account.deposit(request.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
-            
-            // Save transaction and account
-            Transaction savedTransaction = transactionRepository.save(transaction);
-            Account savedAccount = accountRepository.save(account);
-            
-            // Build response
+            CursorPage<TransactionHistoryItem> page =
+                transactionHistoryService.findHistory(accountId, transactionType, after, before, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put(CURSOR_FIELD, e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Object> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<TransactionHistoryItem> results = transactionHistoryService.search(q, limit);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("q", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    private ResponseEntity<Object> postDeposit(DepositRequest request) {
+        try {
+            PostingResult result = postingService.deposit(request.getAccountId(), request.getAmount(),
+                request.getDescription(), request.getReferenceNumber());
+
             DepositResponse response = new DepositResponse();
-            response.setTransactionId(savedTransaction.getId());
-            response.setTransactionNumber(savedTransaction.getTransactionNumber());
-            response.setAccountId(savedAccount.getId());
-            response.setAccountNumber(savedAccount.getAccountNumber());
-            response.setAmount(savedTransaction.getAmount());
-            response.setBalanceBefore(savedTransaction.getBalanceBefore());
-            response.setBalanceAfter(savedTransaction.getBalanceAfter());
-            response.setDescription(savedTransaction.getDescription());
-            response.setReferenceNumber(savedTransaction.getReferenceNumber());
-            response.setCurrency(savedTransaction.getCurrency());
-            response.setChannel(savedTransaction.getChannel().name());
-            response.setTransactionDate(savedTransaction.getTransactionDate());
-            response.setProcessedDate(savedTransaction.getProcessedDate());
-            
-            // Account info
+            response.setTransactionId(result.getTransactionId());
+            response.setTransactionNumber(result.getTransactionNumber());
+            response.setAccountId(result.getAccountId());
+            response.setAccountNumber(result.getAccountNumber());
+            response.setAmount(result.getAmount());
+            response.setBalanceBefore(result.getBalanceBefore());
+            response.setBalanceAfter(result.getBalanceAfter());
+            response.setDescription(result.getDescription());
+            response.setReferenceNumber(result.getReferenceNumber());
+            response.setCurrency(result.getCurrency());
+            response.setChannel(result.getChannel());
+            response.setTransactionDate(result.getTransactionDate());
+            response.setProcessedDate(result.getProcessedDate());
+
             DepositResponse.AccountInfo accountInfo = new DepositResponse.AccountInfo();
-            accountInfo.setId(savedAccount.getId());
-            accountInfo.setAccountNumber(savedAccount.getAccountNumber());
-            accountInfo.setAccountName(savedAccount.getAccountName());
-            accountInfo.setCurrentBalance(savedAccount.getBalance());
+            accountInfo.setId(result.getAccountId());
+            accountInfo.setAccountNumber(result.getAccountNumber());
+            accountInfo.setAccountName(result.getAccountName());
+            accountInfo.setCurrentBalance(result.getBalanceAfter());
             response.setAccount(accountInfo);
-            
+
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
+
         } catch (IllegalArgumentException e) {
-            log.warn("Invalid transaction amount: {}", e.getMessage());
-            Map<String, String> error = new HashMap<>();
-            error.put("amount", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            return rejected(e);
         } catch (RuntimeException e) {
-            log.error(TRANSACTION_PROCESSING_FAILED, e);
-            Map<String, String> error = new HashMap<>();
-            error.put("error", TRANSACTION_PROCESSING_FAILED);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return processingFailed(e);
         }
     }
-    
-    @PostMapping("/withdrawal")
-    @Transactional
-    public ResponseEntity<Object> withdrawal(@Valid @RequestBody WithdrawalRequest request, BindingResult bindingResult) {
-        if (bindingResult.hasErrors()) {
-            Map<String, String> errors = new HashMap<>();
-            bindingResult.getFieldErrors().forEach(error -> 
-                errors.put(error.getField(), error.getDefaultMessage())
-            );
-            return ResponseEntity.badRequest().body(errors);
-        }
-        
+
+    private ResponseEntity<Object> postWithdrawal(WithdrawalRequest request) {
         try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(request.getAccountId());
-            if (accountOpt.isEmpty()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account not found");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account is not active");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.WITHDRAWAL);
-            transaction.setAmount(request.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(request.getDescription());
-            transaction.setReferenceNumber(request.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process withdrawal using business method
-            account.withdraw(request.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
-            
-            // Save transaction and account
-            Transaction savedTransaction = transactionRepository.save(transaction);
-            Account savedAccount = accountRepository.save(account);
-            
-            // Build response
+            PostingResult result = postingService.withdraw(request.getAccountId(), request.getAmount(),
+                request.getDescription(), request.getReferenceNumber());
+
             WithdrawalResponse response = new WithdrawalResponse();
-            response.setTransactionId(savedTransaction.getId());
-            response.setTransactionNumber(savedTransaction.getTransactionNumber());
-            response.setAccountId(savedAccount.getId());
-            response.setAccountNumber(savedAccount.getAccountNumber());
-            response.setAmount(savedTransaction.getAmount());
-            response.setBalanceBefore(savedTransaction.getBalanceBefore());
-            response.setBalanceAfter(savedTransaction.getBalanceAfter());
-            response.setDescription(savedTransaction.getDescription());
-            response.setReferenceNumber(savedTransaction.getReferenceNumber());
-            response.setCurrency(savedTransaction.getCurrency());
-            response.setChannel(savedTransaction.getChannel().name());
-            response.setTransactionDate(savedTransaction.getTransactionDate());
-            response.setProcessedDate(savedTransaction.getProcessedDate());
-            
-            // Account info
+            response.setTransactionId(result.getTransactionId());
+            response.setTransactionNumber(result.getTransactionNumber());
+            response.setAccountId(result.getAccountId());
+            response.setAccountNumber(result.getAccountNumber());
+            response.setAmount(result.getAmount());
+            response.setBalanceBefore(result.getBalanceBefore());
+            response.setBalanceAfter(result.getBalanceAfter());
+            response.setDescription(result.getDescription());
+            response.setReferenceNumber(result.getReferenceNumber());
+            response.setCurrency(result.getCurrency());
+            response.setChannel(result.getChannel());
+            response.setTransactionDate(result.getTransactionDate());
+            response.setProcessedDate(result.getProcessedDate());
+
             WithdrawalResponse.AccountInfo accountInfo = new WithdrawalResponse.AccountInfo();
-            accountInfo.setId(savedAccount.getId());
-            accountInfo.setAccountNumber(savedAccount.getAccountNumber());
-            accountInfo.setAccountName(savedAccount.getAccountName());
-            accountInfo.setCurrentBalance(savedAccount.getBalance());
+            accountInfo.setId(result.getAccountId());
+            accountInfo.setAccountNumber(result.getAccountNumber());
+            accountInfo.setAccountName(result.getAccountName());
+            accountInfo.setCurrentBalance(result.getBalanceAfter());
             response.setAccount(accountInfo);
-            
+
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
+
         } catch (IllegalArgumentException e) {
-            log.warn("Invalid transaction amount: {}", e.getMessage());
-            Map<String, String> error = new HashMap<>();
-            error.put("amount", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            return rejected(e);
+        } catch (RuntimeException e) {
+            return processingFailed(e);
+        }
+    }
+
+    /**
+     * Bulk transfer from a JSON array of transfer lines. All lines must share the same source
+     * account unless fromAccountId is given explicitly.
+     */
+    @PostMapping(value = "/transfer/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> batchTransfer(@RequestBody List<TransferRequest> lines,
+                                                @RequestParam(required = false) UUID fromAccountId,
+                                                @RequestParam(required = false) String referenceNumber,
+                                                @RequestParam(required = false) String description) {
+        UUID sourceAccountId = fromAccountId;
+        if (sourceAccountId == null && lines != null && !lines.isEmpty()) {
+            sourceAccountId = lines.get(0).getFromAccountId();
+            for (TransferRequest line : lines) {
+                if (line.getFromAccountId() != null && !line.getFromAccountId().equals(sourceAccountId)) {
+                    return batchRejected("All lines in a batch must use the same source account");
+                }
+            }
+        }
+        return processBatch(sourceAccountId, lines, referenceNumber, description);
+    }
+
+    /**
+     * Bulk transfer from an uploaded CSV file with columns toAccountNumber, amount, description, referenceNumber.
+     */
+    @PostMapping(value = "/transfer/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Object> batchTransferFile(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam UUID fromAccountId,
+                                                    @RequestParam(required = false) String referenceNumber,
+                                                    @RequestParam(required = false) String description) {
+        List<TransferRequest> lines;
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            lines = bulkTransferService.readCsvLines(reader);
+        } catch (IllegalArgumentException | IOException e) {
+            return batchRejected("Invalid batch file: " + e.getMessage());
+        }
+        return processBatch(fromAccountId, lines, referenceNumber, description);
+    }
+
+    private ResponseEntity<Object> processBatch(UUID sourceAccountId, List<TransferRequest> lines,
+                                                String referenceNumber, String description) {
+        try {
+            BulkTransferResult result = bulkTransferService.processBatch(sourceAccountId, lines, referenceNumber, description);
+            HttpStatus status = result.getPostedLines() > 0 ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY;
+            return ResponseEntity.status(status).body(result);
+        } catch (IllegalArgumentException e) {
+            return batchRejected(e.getMessage());
         } catch (RuntimeException e) {
-            log.error(TRANSACTION_PROCESSING_FAILED, e);
+            return processingFailed(e);
+        }
+    }
+
+    private ResponseEntity<Object> batchRejected(String message) {
+        log.warn("Bulk transfer rejected: {}", message);
+        Map<String, String> error = new HashMap<>();
+        error.put(BATCH_FIELD, message);
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    /**
+     * Runs a posting at most once per Idempotency-Key. Retries get the stored response back
+     * with an Idempotent-Replayed header instead of posting again.
+     */
+    private ResponseEntity<Object> idempotent(String scope, String idempotencyKey, Object request,
+                                              Supplier<ResponseEntity<Object>> posting) {
+        try {
+            StoredResponse stored = idempotencyService.execute(scope, idempotencyKey,
+                idempotencyService.fingerprint(request), () -> {
+                    ResponseEntity<Object> response = posting.get();
+                    return idempotencyService.toStoredResponse(response.getStatusCode().value(), response.getBody());
+                });
+            return ResponseEntity.status(stored.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(stored.replayed()))
+                .body(stored.body());
+        } catch (IdempotencyConflictException e) {
+            log.warn("Idempotency key {} rejected: {}", idempotencyKey, e.getMessage());
             Map<String, String> error = new HashMap<>();
-            error.put("error", TRANSACTION_PROCESSING_FAILED);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            error.put(IDEMPOTENCY_KEY_FIELD, e.getMessage());
+            HttpStatus status = e.getReason() == IdempotencyConflictException.Reason.KEY_REUSED
+                ? HttpStatus.UNPROCESSABLE_ENTITY
+                : HttpStatus.CONFLICT;
+            return ResponseEntity.status(status).body(error);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put(IDEMPOTENCY_KEY_FIELD, e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         }
     }
+
+    private ResponseEntity<Object> validationErrors(BindingResult bindingResult) {
+        Map<String, String> errors = new HashMap<>();
+        bindingResult.getFieldErrors().forEach(error ->
+            errors.put(error.getField(), error.getDefaultMessage())
+        );
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    private ResponseEntity<Object> rejected(IllegalArgumentException e) {
+        log.warn("Transaction rejected: {}", e.getMessage());
+        String field = AMOUNT_FIELD;
+        if (e instanceof PostingRejectedException rejection
+                && rejection.getReason() != PostingRejectedException.Reason.INSUFFICIENT_BALANCE) {
+            field = ACCOUNT_ID_FIELD;
+        }
+        Map<String, String> error = new HashMap<>();
+        error.put(field, e.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    private ResponseEntity<Object> processingFailed(RuntimeException e) {
+        log.error(TRANSACTION_PROCESSING_FAILED, e);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", TRANSACTION_PROCESSING_FAILED);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
 }
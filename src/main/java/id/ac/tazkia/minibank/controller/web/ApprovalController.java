@@ -1,10 +1,21 @@
 package id.ac.tazkia.minibank.controller.web;
 
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,12 +25,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import id.ac.tazkia.minibank.dto.ApprovalTarget;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.ApprovalRequest;
 import id.ac.tazkia.minibank.entity.Customer;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.CustomerRepository;
+import id.ac.tazkia.minibank.security.UserPrincipal;
+import id.ac.tazkia.minibank.service.ApprovalQueueService;
 import id.ac.tazkia.minibank.service.ApprovalService;
+import id.ac.tazkia.minibank.service.ApprovalTargetResolver;
+import id.ac.tazkia.minibank.service.AuthenticationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,35 +59,127 @@ public class ApprovalController {
     private static final String ERROR_MESSAGE_ATTR = "errorMessage";
     private static final String SUCCESS_MESSAGE_ATTR = "successMessage";
     private static final String APPROVAL_NOT_FOUND_MSG = "Approval request not found";
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final ApprovalService approvalService;
+    private final ApprovalQueueService approvalQueueService;
+    private final ApprovalTargetResolver approvalTargetResolver;
     private final CustomerRepository customerRepository;
     private final AccountRepository accountRepository;
+    private final AuthenticationService authenticationService;
 
     /**
-     * Display approval queue with all pending approval requests
+     * Display one page of the pending approval requests, the reviewer's claimed requests and the
+     * pending count per request type. The customers and accounts of all listed requests are
+     * resolved together, so the number of queries does not depend on the page size.
      */
     @GetMapping("/queue")
-    public String queue(@RequestParam(required = false) String filterType, Model model) {
-        log.info("Displaying approval queue");
+    public String queue(@RequestParam(required = false) String filterType,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        Principal principal,
+                        Model model) {
+        log.info("Displaying approval queue page {}", page);
+
+        ApprovalRequest.RequestType requestType = parseRequestType(filterType);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+            Sort.by("requestedDate").descending().and(Sort.by("id")));
+        Page<ApprovalRequest> pendingPage = approvalQueueService.getPendingPage(requestType, pageable);
+        Map<ApprovalRequest.RequestType, Long> typeCounts = approvalQueueService.countPendingByType();
+        List<ApprovalRequest> myClaims = approvalQueueService.getActiveClaims(reviewer(principal));
+        List<ApprovalRequest> listed = new ArrayList<>(pendingPage.getContent());
+        listed.addAll(myClaims);
+        Map<UUID, ApprovalTarget> targets = approvalTargetResolver.resolve(listed);
+
+        model.addAttribute("pendingApprovals", pendingPage.getContent());
+        model.addAttribute("pendingPage", pendingPage);
+        model.addAttribute("currentPage", pendingPage.getNumber());
+        model.addAttribute("pageSize", pendingPage.getSize());
+        model.addAttribute("myClaims", myClaims);
+        model.addAttribute("targets", targets);
+        model.addAttribute("filterType", filterType);
+        model.addAttribute("requestTypes", ApprovalRequest.RequestType.values());
+        model.addAttribute("typeCounts", typeCounts);
+        model.addAttribute("pendingCount", typeCounts.values().stream().mapToLong(Long::longValue).sum());
+        model.addAttribute("now", LocalDateTime.now());
+
+        return APPROVAL_QUEUE_VIEW;
+    }
 
-        List<ApprovalRequest> pendingApprovals;
+    /**
+     * Claim the next pending requests of the reviewer's branch
+     */
+    @PostMapping("/claim")
+    public String claim(@RequestParam(defaultValue = "5") int count,
+                        @RequestParam(required = false) String filterType,
+                        Authentication authentication,
+                        RedirectAttributes redirectAttributes) {
+        try {
+            UUID branchId = authentication != null && authentication.getPrincipal() instanceof UserPrincipal user
+                ? user.getBranchId() : null;
+            List<ApprovalRequest> claimed = approvalQueueService.claimNext(reviewer(authentication), branchId,
+                parseRequestType(filterType), count);
+            if (claimed.isEmpty()) {
+                redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, "No unclaimed approval requests left");
+            } else {
+                redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR,
+                    "Claimed " + claimed.size() + " approval request(s)");
+            }
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, e.getMessage());
+        }
+        return APPROVAL_QUEUE_REDIRECT;
+    }
 
-        if (filterType != null && !filterType.trim().isEmpty()) {
-            // Filter by request type
-            ApprovalRequest.RequestType requestType = ApprovalRequest.RequestType.valueOf(filterType);
-            pendingApprovals = approvalService.getPendingApprovalsByType(requestType);
+    /**
+     * Give a claimed request back to the queue
+     */
+    @PostMapping("/release/{id}")
+    public String release(@PathVariable UUID id, Principal principal, RedirectAttributes redirectAttributes) {
+        if (approvalQueueService.release(id, reviewer(principal))) {
+            redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Approval request released");
         } else {
-            // Get all pending approvals
-            pendingApprovals = approvalService.getAllPendingApprovals();
+            redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, "You do not hold a claim on this request");
         }
+        return APPROVAL_QUEUE_REDIRECT;
+    }
 
-        model.addAttribute("pendingApprovals", pendingApprovals);
-        model.addAttribute("filterType", filterType);
-        model.addAttribute("requestTypes", ApprovalRequest.RequestType.values());
-        model.addAttribute("pendingCount", pendingApprovals.size());
+    /**
+     * Approve or reject the requests ticked in the queue in one go
+     */
+    @PostMapping("/bulk")
+    public String bulkDecision(@RequestParam(required = false) List<UUID> requestIds,
+                               @RequestParam BulkDecisionResult.Decision decision,
+                               @RequestParam(required = false) String rejectionReason,
+                               @RequestParam(required = false) String reviewNotes,
+                               Principal principal,
+                               RedirectAttributes redirectAttributes) {
+        if (requestIds == null || requestIds.isEmpty()) {
+            redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, "Select at least one approval request");
+            return APPROVAL_QUEUE_REDIRECT;
+        }
 
-        return APPROVAL_QUEUE_VIEW;
+        try {
+            BulkDecisionResult result = approvalService.bulkDecide(requestIds, decision, reviewer(principal),
+                rejectionReason, reviewNotes, authenticationService.getApprovableEntityTypes());
+            String verb = decision == BulkDecisionResult.Decision.APPROVE ? "Approved" : "Rejected";
+            redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR,
+                verb + " " + result.getDecidedItems() + " of " + result.getTotalItems() + " approval request(s)");
+            if (result.getSkippedItems() > 0) {
+                Map<BulkDecisionResult.ItemStatus, Long> skipped = result.getItems().stream()
+                    .filter(item -> !item.isDecided())
+                    .collect(Collectors.groupingBy(BulkDecisionResult.ItemResult::getStatus,
+                        () -> new EnumMap<>(BulkDecisionResult.ItemStatus.class), Collectors.counting()));
+                redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, "Skipped " + result.getSkippedItems() + ": "
+                    + skipped.entrySet().stream()
+                        .map(entry -> entry.getKey() + " " + entry.getValue())
+                        .collect(Collectors.joining(", ")));
+            }
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to apply bulk decision: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, e.getMessage());
+        }
+        return APPROVAL_QUEUE_REDIRECT;
     }
 
     /**
@@ -93,7 +202,8 @@ public class ApprovalController {
                     model.addAttribute("customer", customerOpt.get());
                 }
             } else if (approvalRequest.getEntityType() == ApprovalRequest.EntityType.ACCOUNT) {
-                Optional<Account> accountOpt = accountRepository.findById(approvalRequest.getEntityId());
+                Optional<Account> accountOpt = accountRepository.findByIdWithCustomerAndProduct(
+                    approvalRequest.getEntityId());
                 if (accountOpt.isPresent()) {
                     Account account = accountOpt.get();
                     model.addAttribute("account", account);
@@ -119,12 +229,12 @@ public class ApprovalController {
     @PreAuthorize("hasAuthority('CUSTOMER_APPROVE')")
     public String approveCustomer(@PathVariable UUID id,
                                   @RequestParam(required = false) String reviewNotes,
+                                  Principal principal,
                                   RedirectAttributes redirectAttributes) {
         log.info("Approving customer request ID: {}", id);
 
         try {
-            // TODO: Get actual username from security context when authentication is implemented
-            String reviewedBy = "branch-manager";
+            String reviewedBy = reviewer(principal);
 
             Customer customer = approvalService.approveCustomer(id, reviewedBy, reviewNotes);
 
@@ -153,6 +263,7 @@ public class ApprovalController {
     public String rejectCustomer(@PathVariable UUID id,
                                  @RequestParam String rejectionReason,
                                  @RequestParam(required = false) String reviewNotes,
+                                 Principal principal,
                                  RedirectAttributes redirectAttributes) {
         log.info("Rejecting customer request ID: {}", id);
 
@@ -164,8 +275,7 @@ public class ApprovalController {
         }
 
         try {
-            // TODO: Get actual username from security context when authentication is implemented
-            String reviewedBy = "branch-manager";
+            String reviewedBy = reviewer(principal);
 
             Customer customer = approvalService.rejectCustomer(id, reviewedBy,
                 rejectionReason, reviewNotes);
@@ -194,12 +304,12 @@ public class ApprovalController {
     @PreAuthorize("hasAuthority('ACCOUNT_APPROVE')")
     public String approveAccount(@PathVariable UUID id,
                                 @RequestParam(required = false) String reviewNotes,
+                                Principal principal,
                                 RedirectAttributes redirectAttributes) {
         log.info("Approving account request ID: {}", id);
 
         try {
-            // TODO: Get actual username from security context when authentication is implemented
-            String reviewedBy = "branch-manager";
+            String reviewedBy = reviewer(principal);
 
             Account account = approvalService.approveAccount(id, reviewedBy, reviewNotes);
 
@@ -228,6 +338,7 @@ public class ApprovalController {
     public String rejectAccount(@PathVariable UUID id,
                                @RequestParam String rejectionReason,
                                @RequestParam(required = false) String reviewNotes,
+                               Principal principal,
                                RedirectAttributes redirectAttributes) {
         log.info("Rejecting account request ID: {}", id);
 
@@ -239,8 +350,7 @@ public class ApprovalController {
         }
 
         try {
-            // TODO: Get actual username from security context when authentication is implemented
-            String reviewedBy = "branch-manager";
+            String reviewedBy = reviewer(principal);
 
             Account account = approvalService.rejectAccount(id, reviewedBy,
                 rejectionReason, reviewNotes);
@@ -260,4 +370,13 @@ public class ApprovalController {
             return "redirect:/approval/detail/" + id;
         }
     }
+
+    private ApprovalRequest.RequestType parseRequestType(String filterType) {
+        return filterType != null && !filterType.trim().isEmpty()
+            ? ApprovalRequest.RequestType.valueOf(filterType) : null;
+    }
+
+    private String reviewer(Principal principal) {
+        return principal != null ? principal.getName() : "anonymous";
+    }
 }
@@ -7,6 +7,7 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -14,14 +15,17 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import id.ac.tazkia.minibank.dto.PassbookPage;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.TransactionRepository;
+import id.ac.tazkia.minibank.service.PassbookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,6 +40,7 @@ public class PassbookController {
     
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final PassbookService passbookService;
     
     @Value("${minibank.logo.path:/images/bank-logo.png}")
     private String bankLogoPath;
@@ -89,10 +94,6 @@ public class PassbookController {
             return "redirect:/passbook/select-account";
         }
         
-        // Build transaction query with optional date filters
-        Pageable pageable = PageRequest.of(page, size, Sort.by("transactionDate").ascending());
-        Page<Transaction> transactions;
-        
         LocalDate startDate = null;
         LocalDate endDate = null;
         
@@ -110,26 +111,29 @@ public class PassbookController {
             return "redirect:/passbook/select-account";
         }
         
-        if (startDate != null && endDate != null) {
-            transactions = transactionRepository.findByAccountAndTransactionDateBetween(
-                account, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), pageable);
-        } else if (startDate != null) {
-            transactions = transactionRepository.findByAccountAndTransactionDateGreaterThanEqual(
-                account, startDate.atStartOfDay(), pageable);
-        } else if (endDate != null) {
-            transactions = transactionRepository.findByAccountAndTransactionDateLessThan(
-                account, endDate.plusDays(1).atStartOfDay(), pageable);
+        Page<Transaction> transactions;
+        if (startDate == null && endDate == null) {
+            // Regular print: only the lines not yet printed in the passbook
+            PassbookPage passbookPage = passbookService.findUnprintedLines(accountId, size);
+            transactions = new PageImpl<>(passbookPage.getLines());
+            model.addAttribute("passbookPage", passbookPage);
         } else {
-            transactions = transactionRepository.findByAccount(account, pageable);
+            // Reprint of a date range
+            Pageable pageable = PageRequest.of(page, size, Sort.by("transactionDate").ascending());
+            if (startDate != null && endDate != null) {
+                transactions = transactionRepository.findByAccountAndTransactionDateBetween(
+                    account, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), pageable);
+            } else if (startDate != null) {
+                transactions = transactionRepository.findByAccountAndTransactionDateGreaterThanEqual(
+                    account, startDate.atStartOfDay(), pageable);
+            } else {
+                transactions = transactionRepository.findByAccountAndTransactionDateLessThan(
+                    account, endDate.plusDays(1).atStartOfDay(), pageable);
+            }
         }
         
-        // Calculate running balance for display
-        // Note: In a real implementation, you might want to optimize this
-        List<Transaction> allPreviousTransactions = transactionRepository.findByAccountOrderByTransactionDateAsc(account);
-        
         model.addAttribute("account", account);
         model.addAttribute("transactions", transactions);
-        model.addAttribute("allTransactions", allPreviousTransactions);
         model.addAttribute("fromDate", fromDate);
         model.addAttribute("toDate", toDate);
         model.addAttribute("printDate", LocalDate.now());
@@ -140,6 +144,21 @@ public class PassbookController {
         return "passbook/print";
     }
     
+    @PostMapping("/print/{accountId}/confirm")
+    public String confirmPrinted(@PathVariable UUID accountId,
+                                @RequestParam UUID lastTransactionId,
+                                RedirectAttributes redirectAttributes) {
+        try {
+            long printed = passbookService.confirmPrinted(accountId, lastTransactionId);
+            redirectAttributes.addFlashAttribute("successMessage",
+                printed > 0 ? printed + " lines marked as printed" : "These lines were already marked as printed");
+        } catch (IllegalArgumentException e) {
+            log.warn("Passbook print confirmation failed: {}", e.getMessage());
+            redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, e.getMessage());
+        }
+        return "redirect:/passbook/print/" + accountId;
+    }
+    
     @GetMapping("/preview/{accountId}")
     public String previewPassbook(@PathVariable UUID accountId,
                                  @RequestParam(required = false) String fromDate,
@@ -4,6 +4,7 @@ import id.ac.tazkia.minibank.entity.Permission;
 import id.ac.tazkia.minibank.entity.RolePermission;
 import id.ac.tazkia.minibank.repository.PermissionRepository;
 import id.ac.tazkia.minibank.repository.RolePermissionRepository;
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -37,6 +38,7 @@ public class PermissionController {
     
     private final PermissionRepository permissionRepository;
     private final RolePermissionRepository rolePermissionRepository;
+    private final AuthorizationVersionService authorizationVersionService;
     
     @GetMapping("/list")
     public String permissionList(
@@ -100,6 +102,7 @@ public class PermissionController {
         try {
             permission.setCreatedBy("system");
             permissionRepository.save(permission);
+            authorizationVersionService.invalidate("permission " + permission.getPermissionCode() + " created");
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Permission created successfully");
             return REDIRECT_PERMISSIONS_LIST;
         } catch (Exception e) {
@@ -158,6 +161,7 @@ public class PermissionController {
             existing.setDescription(permission.getDescription());
             
             permissionRepository.save(existing);
+            authorizationVersionService.invalidate("permission " + id + " updated");
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Permission updated successfully");
             return REDIRECT_PERMISSIONS_LIST;
         } catch (Exception e) {
@@ -190,6 +194,7 @@ public class PermissionController {
             Optional<Permission> permissionOpt = permissionRepository.findById(id);
             if (permissionOpt.isPresent()) {
                 permissionRepository.deleteById(id);
+                authorizationVersionService.invalidate("permission " + id + " deleted");
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Permission deleted successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, PERMISSION_NOT_FOUND_MSG);
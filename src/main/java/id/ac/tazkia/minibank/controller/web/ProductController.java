@@ -200,11 +200,7 @@ public class ProductController {
     @PostMapping("/activate/{id}")
     public String activate(@PathVariable UUID id, RedirectAttributes redirectAttributes) {
         try {
-            Optional<Product> productOpt = productService.findById(id);
-            if (productOpt.isPresent()) {
-                Product product = productOpt.get();
-                product.setIsActive(true);
-                productService.update(product);
+            if (productService.activate(id)) {
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Product activated successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, PRODUCT_NOT_FOUND_MSG);
@@ -6,6 +6,7 @@ import id.ac.tazkia.minibank.entity.RolePermission;
 import id.ac.tazkia.minibank.repository.RoleRepository;
 import id.ac.tazkia.minibank.repository.PermissionRepository;
 import id.ac.tazkia.minibank.repository.RolePermissionRepository;
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -32,6 +33,7 @@ public class RoleController {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final RolePermissionRepository rolePermissionRepository;
+    private final AuthorizationVersionService authorizationVersionService;
     
     @GetMapping("/list")
     public String roleList(
@@ -135,6 +137,7 @@ public class RoleController {
             existing.setUpdatedBy("system");
             
             roleRepository.save(existing);
+            authorizationVersionService.invalidate("role " + id + " updated");
             redirectAttributes.addFlashAttribute("successMessage", "Role updated successfully");
             return "redirect:/rbac/roles/list";
         } catch (Exception e) {
@@ -199,6 +202,7 @@ public class RoleController {
             rolePermission.setPermission(permission);
             rolePermission.setGrantedBy("system");
             rolePermissionRepository.save(rolePermission);
+            authorizationVersionService.invalidate("permission granted to role " + id);
             
             redirectAttributes.addFlashAttribute("successMessage", "Permission assigned successfully");
         } catch (Exception e) {
@@ -215,6 +219,7 @@ public class RoleController {
                            RedirectAttributes redirectAttributes) {
         try {
             rolePermissionRepository.deleteById(rolePermissionId);
+            authorizationVersionService.invalidate("permission revoked from role " + id);
             redirectAttributes.addFlashAttribute("successMessage", "Permission removed successfully");
         } catch (Exception e) {
             log.error("Error removing permission from role", e);
@@ -233,6 +238,7 @@ public class RoleController {
                 role.setIsActive(true);
                 role.setUpdatedBy("system");
                 roleRepository.save(role);
+                authorizationVersionService.invalidate("role " + id + " activated");
                 redirectAttributes.addFlashAttribute("successMessage", "Role activated successfully");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Role not found");
@@ -253,6 +259,7 @@ public class RoleController {
                 role.setIsActive(false);
                 role.setUpdatedBy("system");
                 roleRepository.save(role);
+                authorizationVersionService.invalidate("role " + id + " deactivated");
                 redirectAttributes.addFlashAttribute("successMessage", "Role deactivated successfully");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Role not found");
@@ -270,6 +277,7 @@ public class RoleController {
             Optional<Role> roleOpt = roleRepository.findById(id);
             if (roleOpt.isPresent()) {
                 roleRepository.deleteById(id);
+                authorizationVersionService.invalidate("role " + id + " deleted");
                 redirectAttributes.addFlashAttribute("successMessage", "Role deleted successfully");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Role not found");
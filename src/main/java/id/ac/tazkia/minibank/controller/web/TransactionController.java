@@ -1,15 +1,10 @@
 package id.ac.tazkia.minibank.controller.web;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -17,22 +12,33 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import id.ac.tazkia.minibank.dto.CursorPage;
 import id.ac.tazkia.minibank.dto.DepositRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
 import id.ac.tazkia.minibank.dto.WithdrawalRequest;
 import id.ac.tazkia.minibank.dto.TransferRequest;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.TransactionRepository;
-import id.ac.tazkia.minibank.service.SequenceNumberService;
+import id.ac.tazkia.minibank.service.IdempotencyService;
+import id.ac.tazkia.minibank.service.IdempotencyService.IdempotencyConflictException;
+import id.ac.tazkia.minibank.service.IdempotencyService.StoredResponse;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.TransactionHistoryService;
 import id.ac.tazkia.minibank.service.TransferService;
-import id.ac.tazkia.minibank.service.TransactionReceiptPdfService;
+import id.ac.tazkia.minibank.service.ReceiptCacheService;
+import id.ac.tazkia.minibank.service.ReceiptCacheService.Receipt;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import lombok.RequiredArgsConstructor;
@@ -59,30 +65,31 @@ public class TransactionController {
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
-    private final SequenceNumberService sequenceNumberService;
+    private final PostingService postingService;
     private final TransferService transferService;
-    private final TransactionReceiptPdfService receiptPdfService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final IdempotencyService idempotencyService;
+    private final ReceiptCacheService receiptCacheService;
     private final AuditorAware<String> auditorAware;
     
     @GetMapping("/list")
     public String transactionList(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String transactionType,
             Model model) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("transactionDate").descending());
-        Page<Transaction> transactions;
-        
-        if (search != null && !search.trim().isEmpty()) {
-            transactions = transactionRepository.findByTransactionNumberContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                search.trim(), search.trim(), pageable);
-        } else if (transactionType != null && !transactionType.trim().isEmpty()) {
-            transactions = transactionRepository.findByTransactionType(
-                Transaction.TransactionType.valueOf(transactionType), pageable);
-        } else {
-            transactions = transactionRepository.findAll(pageable);
+        Transaction.TransactionType type = transactionType != null && !transactionType.trim().isEmpty()
+            ? Transaction.TransactionType.valueOf(transactionType)
+            : null;
+        CursorPage<Transaction> transactions;
+        try {
+            transactions = transactionHistoryService.findTransactions(null, type, search, after, before, size);
+        } catch (IllegalArgumentException e) {
+            // Stale or tampered cursor; start again from the newest transactions
+            transactions = transactionHistoryService.findTransactions(null, type, search, null, null, size);
         }
         
         model.addAttribute("transactions", transactions);
@@ -154,51 +161,15 @@ public class TransactionController {
         }
         
         try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(depositRequest.getAccountId());
-            if (accountOpt.isEmpty()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, ACCOUNT_NOT_FOUND_MSG);
-                return prepareDepositFormWithErrors(depositRequest, model, null);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, "Account is not active");
-                return prepareDepositFormWithErrors(depositRequest, model, null);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.DEPOSIT);
-            transaction.setAmount(depositRequest.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(depositRequest.getDescription() != null ?
-                depositRequest.getDescription() : "Setoran Tunai");
-            transaction.setReferenceNumber(depositRequest.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process deposit using business method
-            account.deposit(depositRequest.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
-            
-            // Save transaction and account
-            transactionRepository.save(transaction);
-            accountRepository.save(account);
+            PostingResult result = postingService.deposit(
+                depositRequest.getAccountId(),
+                depositRequest.getAmount(),
+                depositRequest.getDescription() != null ? depositRequest.getDescription() : "Setoran Tunai",
+                depositRequest.getReferenceNumber());
             
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, 
                 String.format("Setoran tunai berhasil diproses. Nomor Transaksi: %s, Saldo Baru: %,.2f", 
-                    transactionNumber, account.getBalance()));
+                    result.getTransactionNumber(), result.getBalanceAfter()));
             return TRANSACTION_LIST_REDIRECT;
             
         } catch (IllegalArgumentException e) {
@@ -285,51 +256,15 @@ public class TransactionController {
         }
         
         try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(withdrawalRequest.getAccountId());
-            if (accountOpt.isEmpty()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, ACCOUNT_NOT_FOUND_MSG);
-                return prepareWithdrawalFormWithErrors(withdrawalRequest, model, null);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, "Account is not active");
-                return prepareWithdrawalFormWithErrors(withdrawalRequest, model, null);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.WITHDRAWAL);
-            transaction.setAmount(withdrawalRequest.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(withdrawalRequest.getDescription() != null ?
-                withdrawalRequest.getDescription() : "Penarikan Tunai");
-            transaction.setReferenceNumber(withdrawalRequest.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process withdrawal using business method
-            account.withdraw(withdrawalRequest.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
-            
-            // Save transaction and account
-            transactionRepository.save(transaction);
-            accountRepository.save(account);
+            PostingResult result = postingService.withdraw(
+                withdrawalRequest.getAccountId(),
+                withdrawalRequest.getAmount(),
+                withdrawalRequest.getDescription() != null ? withdrawalRequest.getDescription() : "Penarikan Tunai",
+                withdrawalRequest.getReferenceNumber());
             
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, 
                 String.format("Penarikan tunai berhasil diproses. Nomor Transaksi: %s, Saldo Baru: %,.2f", 
-                    transactionNumber, account.getBalance()));
+                    result.getTransactionNumber(), result.getBalanceAfter()));
             return TRANSACTION_LIST_REDIRECT;
             
         } catch (IllegalArgumentException e) {
@@ -429,6 +364,9 @@ public class TransactionController {
             if (transferRequest.getReferenceNumber() == null || transferRequest.getReferenceNumber().trim().isEmpty()) {
                 transferRequest.setReferenceNumber("TRF" + System.currentTimeMillis());
             }
+            if (transferRequest.getIdempotencyKey() == null || transferRequest.getIdempotencyKey().isBlank()) {
+                transferRequest.setIdempotencyKey(UUID.randomUUID().toString());
+            }
             
             // Validate transfer and populate destination account info
             TransferRequest validatedRequest = transferService.validateTransfer(transferRequest);
@@ -452,33 +390,57 @@ public class TransactionController {
         }
     }
     
+    /**
+     * Posted and rejected transfers redirect, to the transaction list or back to the form.
+     * Unexpected failures (exhausted lock retries, database errors) render the form again with a
+     * 500 status, so clients and monitoring can tell them apart from business rejections.
+     */
     @PostMapping("/transfer/process")
     public String processTransfer(@ModelAttribute TransferRequest transferRequest,
+                                 Model model,
+                                 HttpServletResponse response,
                                  RedirectAttributes redirectAttributes) {
         
         try {
-            // Process the transfer
-            transferService.processTransfer(transferRequest);
-            
-            redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, 
-                String.format("Transfer berhasil diproses. Referensi: %s, Jumlah: %,.2f dari %s ke %s", 
-                    transferRequest.getReferenceNumber(), 
-                    transferRequest.getAmount(),
-                    transferService.getAccountById(transferRequest.getFromAccountId()).getAccountNumber(),
-                    transferRequest.getToAccountNumber()));
+            String successMessage;
+            if (transferRequest.getIdempotencyKey() == null || transferRequest.getIdempotencyKey().isBlank()) {
+                successMessage = postTransfer(transferRequest);
+            } else {
+                // A double-clicked or resubmitted confirmation replays the first result instead of posting again
+                StoredResponse stored = idempotencyService.execute("TRANSFER_WEB", transferRequest.getIdempotencyKey(),
+                    idempotencyService.fingerprint(transferRequest),
+                    () -> idempotencyService.toStoredResponse(200, postTransfer(transferRequest)));
+                successMessage = stored.body();
+            }
+
+            redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, successMessage);
             return TRANSACTION_LIST_REDIRECT;
             
+        } catch (IdempotencyConflictException e) {
+            log.warn("Transfer {} rejected: {}", transferRequest.getIdempotencyKey(), e.getMessage());
+            redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, e.getMessage());
+            return TRANSACTION_LIST_REDIRECT;
         } catch (IllegalArgumentException e) {
             log.warn("Transfer processing failed: {}", e.getMessage());
             redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, e.getMessage());
             return "redirect:/transaction/transfer/" + transferRequest.getFromAccountId();
         } catch (Exception e) {
             log.error("Failed to process transfer", e);
-            redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, "Failed to process transfer: " + e.getMessage());
-            return "redirect:/transaction/transfer/" + transferRequest.getFromAccountId();
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            model.addAttribute(ERROR_MESSAGE_ATTR, "Failed to process transfer: " + e.getMessage());
+            return prepareTransferFormWithErrors(transferRequest, model, null);
         }
     }
     
+    private String postTransfer(TransferRequest transferRequest) {
+        transferService.processTransfer(transferRequest);
+        return String.format("Transfer berhasil diproses. Referensi: %s, Jumlah: %,.2f dari %s ke %s",
+            transferRequest.getReferenceNumber(),
+            transferRequest.getAmount(),
+            transferService.getAccountById(transferRequest.getFromAccountId()).getAccountNumber(),
+            transferRequest.getToAccountNumber());
+    }
+
     @PostMapping("/transfer/cancel")
     public String cancelTransfer(@RequestParam UUID fromAccountId, RedirectAttributes redirectAttributes) {
         redirectAttributes.addFlashAttribute("infoMessage", "Transfer dibatalkan");
@@ -499,49 +461,61 @@ public class TransactionController {
         return TRANSFER_FORM_VIEW;
     }
 
+    /**
+     * A receipt's content never changes once its transaction is posted, so it is served from the
+     * receipt cache and may be cached by the browser indefinitely. The ETag is weak because a
+     * re-rendered receipt is equivalent but not byte-identical.
+     */
     @GetMapping("/receipt/{transactionId}")
-    public ResponseEntity<byte[]> downloadTransactionReceipt(@PathVariable UUID transactionId) {
-        log.info("Generating PDF receipt for transaction: {}", transactionId);
-        
+    public ResponseEntity<byte[]> downloadTransactionReceipt(@PathVariable UUID transactionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            // Get transaction details
-            Optional<Transaction> transactionOpt = transactionRepository.findById(transactionId);
-            if (transactionOpt.isEmpty()) {
+            Optional<Receipt> receiptOpt = receiptCacheService.findReceipt(transactionId);
+            if (receiptOpt.isEmpty()) {
                 log.warn("Transaction not found: {}", transactionId);
                 return ResponseEntity.notFound().build();
             }
-            
-            Transaction transaction = transactionOpt.get();
-            Account account = transaction.getAccount();
-            
-            // Calculate balance after transaction based on transaction type
-            BigDecimal balanceAfter = calculateBalanceAfter(transaction, account);
-            
-            // Generate PDF receipt
-            byte[] pdfContent = receiptPdfService.generateTransactionReceiptPdf(transaction, account, balanceAfter);
-            
-            // Create filename with transaction number
-            String filename = "receipt_" + transaction.getTransactionNumber() + ".pdf";
-            
-            log.info("Generated PDF receipt for transaction {} with {} bytes", 
-                    transaction.getTransactionNumber(), pdfContent.length);
-            
+
+            Receipt receipt = receiptOpt.get();
+            CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+            if (matchesEtag(ifNoneMatch, receipt.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(receipt.etag())
+                        .cacheControl(cacheControl)
+                        .build();
+            }
+
             return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .eTag(receipt.etag())
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + receipt.filename() + "\"")
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PDF_VALUE)
-                    .body(pdfContent);
-                    
+                    .body(receipt.content());
+
         } catch (Exception e) {
             log.error("Error generating transaction receipt for transaction: {}", transactionId, e);
             return ResponseEntity.internalServerError().build();
         }
     }
-    
-    private BigDecimal calculateBalanceAfter(Transaction transaction, Account account) {
-        // For deposit transactions, balance after = current balance (already includes the deposit)
-        // For withdrawal/transfer out, balance after = current balance (already deducted)
-        // For transfer in, balance after = current balance (already added)
-        // We'll use the current account balance as it represents the state after the transaction
-        return account.getBalance();
+
+    /**
+     * If-None-Match uses weak comparison and may list several tags or "*".
+     */
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaqueTag = withoutWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = withoutWeakPrefix(candidate.trim());
+            if (tag.equals("*") || tag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String withoutWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
     }
 }
@@ -0,0 +1,37 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The customer or account an approval request is about, with just what the approval queue shows.
+ * Account targets carry the balance the account was opened with as the initial deposit.
+ */
+public record ApprovalTarget(UUID entityId,
+                             EntityType entityType,
+                             String customerNumber,
+                             String customerName,
+                             String accountNumber,
+                             String accountName,
+                             String productName,
+                             BigDecimal initialDeposit) {
+
+    public ApprovalTarget(UUID customerId, String customerNumber, String customerName) {
+        this(customerId, EntityType.CUSTOMER, customerNumber, customerName, null, null, null, null);
+    }
+
+    public ApprovalTarget(UUID accountId, String accountNumber, String accountName, String productName,
+                          BigDecimal initialDeposit, String customerNumber, String customerName) {
+        this(accountId, EntityType.ACCOUNT, customerNumber, customerName, accountNumber, accountName, productName,
+            initialDeposit);
+    }
+
+    /**
+     * Customer number or account number, whichever identifies the target
+     */
+    public String reference() {
+        return entityType == EntityType.ACCOUNT ? accountNumber : customerNumber;
+    }
+}
@@ -0,0 +1,23 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.dto.BulkDecisionResult.Decision;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkDecisionRequest {
+
+    @NotEmpty(message = "At least one approval request is required")
+    private List<UUID> requestIds;
+
+    @NotNull(message = "Decision is required")
+    private Decision decision;
+
+    private String rejectionReason;
+
+    private String reviewNotes;
+}
@@ -0,0 +1,46 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class BulkDecisionResult {
+
+    private Decision decision;
+    private String reviewedBy;
+    private LocalDateTime reviewedDate;
+    private int totalItems;
+    private int decidedItems;
+    private int skippedItems;
+    private List<ItemResult> items = new ArrayList<>();
+
+    public enum Decision {
+        APPROVE, REJECT
+    }
+
+    public enum ItemStatus {
+        APPROVED, REJECTED, NOT_FOUND, NOT_PENDING, NOT_PERMITTED, CLAIMED_BY_OTHER, TARGET_NOT_FOUND
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ItemResult {
+        private UUID approvalRequestId;
+        private EntityType entityType;
+        private UUID entityId;
+        private String reference;
+        private ItemStatus status;
+        private String message;
+
+        public boolean isDecided() {
+            return status == ItemStatus.APPROVED || status == ItemStatus.REJECTED;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class BulkTransferResult {
+    
+    private String batchReference;
+    private UUID sourceAccountId;
+    private String sourceAccountNumber;
+    private String debitTransactionNumber;
+    private BigDecimal sourceBalanceBefore;
+    private BigDecimal sourceBalanceAfter;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private int totalLines;
+    private int postedLines;
+    private int rejectedLines;
+    private LocalDateTime processedDate;
+    private List<LineResult> lines = new ArrayList<>();
+    
+    public enum LineStatus {
+        POSTED, REJECTED
+    }
+    
+    @Data
+    @NoArgsConstructor
+    public static class LineResult {
+        private int lineNumber;
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private LineStatus status;
+        private String transactionNumber;
+        private BigDecimal balanceAfter;
+        private String message;
+    }
+}
@@ -0,0 +1,45 @@
+package id.ac.tazkia.minibank.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset paginated list. Moving to another page means passing
+ * {@code nextCursor} or {@code previousCursor} back; there are no page numbers.
+ */
+@Data
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content = new ArrayList<>();
+    private int size;
+    private boolean hasNext;
+    private boolean hasPrevious;
+    private String nextCursor;
+    private String previousCursor;
+
+    // Planner estimate of the unfiltered total, null when a filter is applied
+    private Long estimatedTotal;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        CursorPage<R> mapped = new CursorPage<>();
+        mapped.setContent(content.stream().map(mapper).toList());
+        mapped.setSize(size);
+        mapped.setHasNext(hasNext);
+        mapped.setHasPrevious(hasPrevious);
+        mapped.setNextCursor(nextCursor);
+        mapped.setPreviousCursor(previousCursor);
+        mapped.setEstimatedTotal(estimatedTotal);
+        return mapped;
+    }
+}
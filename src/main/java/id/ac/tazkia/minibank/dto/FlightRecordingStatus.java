@@ -0,0 +1,13 @@
+package id.ac.tazkia.minibank.dto;
+
+import java.time.Instant;
+
+/**
+ * State of the application's flight recording and the last file written to disk.
+ */
+public record FlightRecordingStatus(boolean running,
+                                    String settings,
+                                    Instant startedAt,
+                                    long bytesRecorded,
+                                    String lastDumpPath) {
+}
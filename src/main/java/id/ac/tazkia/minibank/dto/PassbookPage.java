@@ -0,0 +1,28 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The next unprinted lines of a passbook.
+ */
+@Data
+@NoArgsConstructor
+public class PassbookPage {
+
+    private List<Transaction> lines = new ArrayList<>();
+
+    // Passbook line number of the first entry in lines
+    private long firstLineNumber;
+
+    // More unprinted lines remain after this page
+    private boolean hasMore;
+
+    // Confirmed by the teller once the page is printed
+    private UUID lastTransactionId;
+}
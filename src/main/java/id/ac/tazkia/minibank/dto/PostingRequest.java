@@ -0,0 +1,28 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class PostingRequest {
+    
+    private UUID accountId;
+    private Transaction.TransactionType transactionType;
+    private BigDecimal amount;
+    private String description;
+    private String referenceNumber;
+    private Transaction.TransactionChannel channel = Transaction.TransactionChannel.TELLER;
+    private UUID destinationAccountId;
+    private String createdBy;
+    
+    public PostingRequest(UUID accountId, Transaction.TransactionType transactionType, BigDecimal amount) {
+        this.accountId = accountId;
+        this.transactionType = transactionType;
+        this.amount = amount;
+    }
+}
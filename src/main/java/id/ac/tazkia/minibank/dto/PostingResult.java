@@ -0,0 +1,32 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of a posting, read back from the same statement that applied it.
+ */
+@Data
+@NoArgsConstructor
+public class PostingResult {
+    
+    private UUID transactionId;
+    private String transactionNumber;
+    private String transactionType;
+    private UUID accountId;
+    private String accountNumber;
+    private String accountName;
+    private BigDecimal amount;
+    private BigDecimal balanceBefore;
+    private BigDecimal balanceAfter;
+    private String description;
+    private String referenceNumber;
+    private String currency;
+    private String channel;
+    private LocalDateTime transactionDate;
+    private LocalDateTime processedDate;
+}
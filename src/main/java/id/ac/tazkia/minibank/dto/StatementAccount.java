@@ -0,0 +1,22 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Account;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Account details printed in the statement header.
+ */
+public record StatementAccount(UUID id,
+                               String accountNumber,
+                               String accountName,
+                               String customerName,
+                               String productName,
+                               BigDecimal balance) {
+
+    public static StatementAccount of(Account account) {
+        return new StatementAccount(account.getId(), account.getAccountNumber(), account.getAccountName(),
+            account.getCustomer().getDisplayName(), account.getProduct().getProductName(), account.getBalance());
+    }
+}
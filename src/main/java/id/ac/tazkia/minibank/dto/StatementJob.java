@@ -0,0 +1,48 @@
+package id.ac.tazkia.minibank.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous statement generation job.
+ */
+@Data
+@NoArgsConstructor
+public class StatementJob {
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private UUID jobId;
+    private UUID accountId;
+    private String accountNumber;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile LocalDateTime expiresAt;
+    private volatile Long fileSize;
+    private volatile String errorMessage;
+
+    @JsonIgnore
+    private volatile Path file;
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED;
+    }
+
+    @JsonIgnore
+    public String getFilename() {
+        return String.format("statement_%s_%s_to_%s.pdf", accountNumber, startDate, endDate);
+    }
+}
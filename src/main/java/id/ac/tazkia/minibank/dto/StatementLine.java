@@ -0,0 +1,31 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an account statement. Read as a JPQL projection so streamed rows are never
+ * attached to the persistence context.
+ */
+public record StatementLine(LocalDateTime transactionDate,
+                            String transactionNumber,
+                            Transaction.TransactionType transactionType,
+                            String description,
+                            Transaction.TransactionChannel channel,
+                            BigDecimal amount,
+                            BigDecimal balanceAfter) {
+
+    public static StatementLine of(Transaction transaction) {
+        return new StatementLine(transaction.getTransactionDate(), transaction.getTransactionNumber(),
+            transaction.getTransactionType(), transaction.getDescription(), transaction.getChannel(),
+            transaction.getAmount(), transaction.getBalanceAfter());
+    }
+
+    public boolean isDebit() {
+        return transactionType == Transaction.TransactionType.WITHDRAWAL
+            || transactionType == Transaction.TransactionType.TRANSFER_OUT
+            || transactionType == Transaction.TransactionType.FEE;
+    }
+}
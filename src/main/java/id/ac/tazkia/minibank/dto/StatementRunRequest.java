@@ -0,0 +1,19 @@
+package id.ac.tazkia.minibank.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class StatementRunRequest {
+
+    @NotNull(message = "Period start is required")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate periodStart;
+
+    @NotNull(message = "Period end is required")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate periodEnd;
+}
@@ -0,0 +1,36 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk statement run.
+ */
+@Data
+public class StatementRunStatus {
+
+    public enum RunStatus {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private UUID runId;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private RunStatus status;
+    private String outputDirectory;
+    private int totalPartitions;
+    private int completedPartitions;
+    private int totalAccounts;
+    private int processedAccounts;
+    private int failedAccounts;
+    private long elapsedMs;
+    private LocalDateTime startedDate;
+    private LocalDateTime finishedDate;
+
+    public double getAccountsPerSecond() {
+        return elapsedMs > 0 ? processedAccounts * 1000.0 / elapsedMs : 0;
+    }
+}
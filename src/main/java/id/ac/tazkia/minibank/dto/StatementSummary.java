@@ -0,0 +1,39 @@
+package id.ac.tazkia.minibank.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Totals of an account statement period.
+ */
+public record StatementSummary(BigDecimal openingBalance,
+                               BigDecimal totalDebit,
+                               BigDecimal totalCredit,
+                               long transactionCount) {
+
+    public StatementSummary {
+        openingBalance = openingBalance != null ? openingBalance : BigDecimal.ZERO;
+        totalDebit = totalDebit != null ? totalDebit : BigDecimal.ZERO;
+        totalCredit = totalCredit != null ? totalCredit : BigDecimal.ZERO;
+    }
+
+    /**
+     * Totals of lines that are already in memory, e.g. fetched for a whole partition of accounts.
+     */
+    public static StatementSummary of(BigDecimal openingBalance, List<StatementLine> lines) {
+        BigDecimal totalDebit = BigDecimal.ZERO;
+        BigDecimal totalCredit = BigDecimal.ZERO;
+        for (StatementLine line : lines) {
+            if (line.isDebit()) {
+                totalDebit = totalDebit.add(line.amount());
+            } else {
+                totalCredit = totalCredit.add(line.amount());
+            }
+        }
+        return new StatementSummary(openingBalance, totalDebit, totalCredit, lines.size());
+    }
+
+    public BigDecimal closingBalance() {
+        return openingBalance.add(totalCredit).subtract(totalDebit);
+    }
+}
@@ -0,0 +1,29 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class TransactionHistoryItem {
+
+    private UUID transactionId;
+    private String transactionNumber;
+    private String transactionType;
+    private UUID accountId;
+    private String accountNumber;
+    private String accountName;
+    private BigDecimal amount;
+    private BigDecimal balanceBefore;
+    private BigDecimal balanceAfter;
+    private String currency;
+    private String description;
+    private String referenceNumber;
+    private String channel;
+    private LocalDateTime transactionDate;
+    private String createdBy;
+}
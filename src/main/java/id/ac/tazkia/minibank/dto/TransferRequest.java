@@ -37,4 +37,7 @@ public class TransferRequest {
     private String destinationAccountName;
     private String destinationCustomerName;
     private UUID toAccountId; // Set after validation
+
+    @Size(max = 100, message = "Idempotency key cannot exceed 100 characters")
+    private String idempotencyKey; // Issued with the confirmation page so a resubmitted form posts once
 }
@@ -79,6 +79,12 @@ public class ApprovalRequest {
     @JoinColumn(name = "branch_id")
     private Branch branch;
 
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
     @CreationTimestamp
     @Column(name = "created_date", nullable = false, updatable = false)
     private LocalDateTime createdDate;
@@ -124,6 +130,14 @@ public class ApprovalRequest {
         return this.approvalStatus == ApprovalStatus.PENDING;
     }
 
+    /**
+     * Check if another reviewer holds an unexpired claim on the request
+     */
+    public boolean isClaimedByOther(String reviewer, LocalDateTime now) {
+        return claimedBy != null && !claimedBy.equals(reviewer)
+            && claimedUntil != null && claimedUntil.isAfter(now);
+    }
+
     /**
      * Check if request is approved
      */
@@ -0,0 +1,67 @@
+package id.ac.tazkia.minibank.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_idempotency_keys_scope_key", columnNames = {"scope", "idempotency_key"})
+})
+@Data
+@NoArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "scope", nullable = false, length = 50)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private KeyStatus status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    public enum KeyStatus {
+        IN_PROGRESS, COMPLETED, OUTCOME_UNKNOWN
+    }
+
+    public boolean isCompleted() {
+        return status == KeyStatus.COMPLETED;
+    }
+
+    public boolean isOutcomeUnknown() {
+        return status == KeyStatus.OUTCOME_UNKNOWN;
+    }
+}
@@ -0,0 +1,47 @@
+package id.ac.tazkia.minibank.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Last transaction printed in an account's passbook. Lines after this position are unprinted.
+ */
+@Entity
+@Table(name = "passbook_cursors")
+@Data
+@NoArgsConstructor
+public class PassbookCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "id_accounts", unique = true, nullable = false)
+    private UUID accountId;
+
+    @Column(name = "last_transaction_date", nullable = false)
+    private LocalDateTime lastTransactionDate;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private UUID lastTransactionId;
+
+    @Column(name = "printed_lines", nullable = false)
+    private Long printedLines = 0L;
+
+    @CreationTimestamp
+    @Column(name = "created_date", updatable = false)
+    private LocalDateTime createdDate;
+
+    @UpdateTimestamp
+    @Column(name = "updated_date")
+    private LocalDateTime updatedDate;
+
+    @Column(name = "updated_by", length = 100)
+    private String updatedBy;
+}
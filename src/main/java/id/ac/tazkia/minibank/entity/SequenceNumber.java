@@ -43,11 +43,14 @@ public class SequenceNumber {
     }
     
     public String generateNextSequence() {
-        Long nextNumber = getNextNumber();
+        return format(prefix, getNextNumber());
+    }
+    
+    public static String format(String prefix, long number) {
         if (prefix != null && !prefix.isEmpty()) {
-            return prefix + String.format("%07d", nextNumber);
+            return prefix + String.format("%07d", number);
         }
-        return String.format("%07d", nextNumber);
+        return String.format("%07d", number);
     }
     
     public void resetSequence(Long startNumber) {
@@ -0,0 +1,37 @@
+package id.ac.tazkia.minibank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to ApprovalService.bulkDecide, covering every request decided in the batch.
+ */
+@Name("id.ac.tazkia.minibank.ApprovalBulkDecision")
+@Label("Approval Bulk Decision")
+@Category({"Minibank", "Approval"})
+@Description("Approval or rejection of many pending customers and accounts at once")
+@StackTrace(false)
+public class ApprovalBulkDecisionEvent extends jdk.jfr.Event {
+
+    @Label("Decision")
+    @Description("approve or reject")
+    public String decision;
+
+    @Label("Reviewed By")
+    public String reviewedBy;
+
+    @Label("Total Items")
+    public int totalItems;
+
+    @Label("Decided Customers")
+    public int decidedCustomers;
+
+    @Label("Decided Accounts")
+    public int decidedAccounts;
+
+    @Label("Skipped Items")
+    public int skippedItems;
+}
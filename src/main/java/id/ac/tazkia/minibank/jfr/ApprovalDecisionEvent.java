@@ -0,0 +1,34 @@
+package id.ac.tazkia.minibank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One approve or reject decision taken through ApprovalService.
+ */
+@Name("id.ac.tazkia.minibank.ApprovalDecision")
+@Label("Approval Decision")
+@Category({"Minibank", "Approval"})
+@Description("Approval or rejection of a pending customer or account")
+@StackTrace(false)
+public class ApprovalDecisionEvent extends jdk.jfr.Event {
+
+    @Label("Approval Request Id")
+    public String approvalRequestId;
+
+    @Label("Entity Type")
+    public String entityType;
+
+    @Label("Entity Id")
+    public String entityId;
+
+    @Label("Decision")
+    @Description("approve or reject")
+    public String decision;
+
+    @Label("Reviewed By")
+    public String reviewedBy;
+}
@@ -0,0 +1,38 @@
+package id.ac.tazkia.minibank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Rendering of one statement or receipt PDF.
+ */
+@Name("id.ac.tazkia.minibank.PdfRender")
+@Label("PDF Render")
+@Category({"Minibank", "Documents"})
+@Description("Statement or receipt PDF generation")
+@StackTrace(false)
+public class PdfRenderEvent extends jdk.jfr.Event {
+
+    @Label("Document")
+    @Description("statement or receipt")
+    public String document;
+
+    @Label("Mode")
+    @Description("buffered, streamed or bulk")
+    public String mode;
+
+    @Label("Account Number")
+    public String accountNumber;
+
+    @Label("Transaction Count")
+    public long transactionCount;
+
+    @Label("Size")
+    @DataAmount
+    @Description("Bytes produced, when the document is rendered into memory")
+    public long size;
+}
@@ -0,0 +1,34 @@
+package id.ac.tazkia.minibank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One transaction leg posted by PostingService: a deposit, a withdrawal or one side of a transfer.
+ */
+@Name("id.ac.tazkia.minibank.Posting")
+@Label("Posting")
+@Category({"Minibank", "Posting"})
+@Description("Balance update and transaction insert for a single leg")
+@StackTrace(false)
+public class PostingEvent extends jdk.jfr.Event {
+
+    @Label("Account Id")
+    public String accountId;
+
+    @Label("Transaction Type")
+    public String transactionType;
+
+    @Label("Amount")
+    public double amount;
+
+    @Label("Transaction Number")
+    public String transactionNumber;
+
+    @Label("Rejection Reason")
+    @Description("Set when the posting was rejected, empty otherwise")
+    public String rejectionReason;
+}
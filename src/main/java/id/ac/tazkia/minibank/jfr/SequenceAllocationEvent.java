@@ -0,0 +1,28 @@
+package id.ac.tazkia.minibank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One number handed out by SequenceNumberService.
+ */
+@Name("id.ac.tazkia.minibank.SequenceAllocation")
+@Label("Sequence Allocation")
+@Category({"Minibank", "Sequence"})
+@Description("Sequence number allocation, from a reserved block or the locked sequence row")
+@StackTrace(false)
+public class SequenceAllocationEvent extends jdk.jfr.Event {
+
+    @Label("Sequence Name")
+    public String sequenceName;
+
+    @Label("Block Allocated")
+    public boolean blockAllocated;
+
+    @Label("Block Reserved")
+    @Description("This call had to reserve a new block from the database")
+    public boolean blockReserved;
+}
@@ -0,0 +1,37 @@
+package id.ac.tazkia.minibank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to TransferService.processTransfer, including every retried attempt.
+ */
+@Name("id.ac.tazkia.minibank.Transfer")
+@Label("Transfer")
+@Category({"Minibank", "Posting"})
+@Description("Transfer between two accounts including lock retries")
+@StackTrace(false)
+public class TransferEvent extends jdk.jfr.Event {
+
+    @Label("Reference Number")
+    public String referenceNumber;
+
+    @Label("Source Account Id")
+    public String fromAccountId;
+
+    @Label("Destination Account Number")
+    public String toAccountNumber;
+
+    @Label("Amount")
+    public double amount;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Outcome")
+    @Description("POSTED, REJECTED or FAILED")
+    public String outcome;
+}
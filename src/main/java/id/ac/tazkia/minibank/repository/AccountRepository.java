@@ -1,16 +1,21 @@
 package id.ac.tazkia.minibank.repository;
 
+import id.ac.tazkia.minibank.dto.ApprovalTarget;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Customer;
 import id.ac.tazkia.minibank.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -75,11 +80,58 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Query("SELECT a FROM Account a JOIN FETCH a.product WHERE a.customer = :customer")
     List<Account> findByCustomerWithProduct(@Param("customer") Customer customer);
     
+    // Paged lists render customer and product on every row; fetch them with the page, not per row
+    @Override
+    @EntityGraph(attributePaths = {"customer", "product"})
+    Page<Account> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"customer", "product"})
     Page<Account> findByAccountNumberContainingIgnoreCaseOrAccountNameContainingIgnoreCase(
         String accountNumber, String accountName, Pageable pageable);
     
     List<Account> findByAccountNumberContainingIgnoreCaseOrAccountNameContainingIgnoreCase(
         String accountNumber, String accountName);
     
+    @EntityGraph(attributePaths = {"customer", "product"})
     Page<Account> findByStatus(Account.AccountStatus status, Pageable pageable);
+    
+    /**
+     * Locks the source and destination accounts of a transfer in one statement. Rows are locked
+     * in id order so opposite-direction transfers between the same pair cannot deadlock.
+     */
+    @Query(value = "SELECT * FROM accounts WHERE id = :fromAccountId OR account_number = :toAccountNumber " +
+           "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Account> findTransferAccountsForUpdate(@Param("fromAccountId") UUID fromAccountId,
+                                                @Param("toAccountNumber") String toAccountNumber);
+
+    /**
+     * Approval queue view of many accounts in one query, with product and customer name
+     */
+    @Query("SELECT new id.ac.tazkia.minibank.dto.ApprovalTarget(a.id, a.accountNumber, a.accountName, " +
+           "p.productName, a.balance, c.customerNumber, " +
+           "CASE WHEN pc.id IS NOT NULL THEN CONCAT(pc.firstName, ' ', pc.lastName) ELSE cc.companyName END) " +
+           "FROM Account a JOIN a.product p JOIN a.customer c " +
+           "LEFT JOIN PersonalCustomer pc ON c.id = pc.id " +
+           "LEFT JOIN CorporateCustomer cc ON c.id = cc.id " +
+           "WHERE a.id IN :ids")
+    List<ApprovalTarget> findApprovalTargetsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Account with its customer and product, for the approval detail page
+     */
+    @Query("SELECT a FROM Account a JOIN FETCH a.customer JOIN FETCH a.product WHERE a.id = :id")
+    Optional<Account> findByIdWithCustomerAndProduct(@Param("id") UUID id);
+
+    /**
+     * Sets the approval and account status of many accounts in one statement. A bulk update
+     * bypasses JPA auditing, so the caller passes the user to record as updated_by.
+     */
+    @Modifying
+    @Query("UPDATE Account a SET a.approvalStatus = :approvalStatus, a.status = :status, " +
+           "a.updatedDate = :updatedDate, a.updatedBy = :updatedBy WHERE a.id IN :ids")
+    int updateApprovalStatus(@Param("ids") Collection<UUID> ids,
+                             @Param("approvalStatus") Account.ApprovalStatus approvalStatus,
+                             @Param("status") Account.AccountStatus status,
+                             @Param("updatedDate") LocalDateTime updatedDate,
+                             @Param("updatedBy") String updatedBy);
 }
@@ -5,11 +5,18 @@ import id.ac.tazkia.minibank.entity.ApprovalRequest.ApprovalStatus;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.RequestType;
 import id.ac.tazkia.minibank.entity.Branch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -113,4 +120,105 @@ public interface ApprovalRequestRepository extends JpaRepository<ApprovalRequest
            "WHERE ar.branch = :branch AND ar.approvalStatus = 'PENDING' " +
            "ORDER BY ar.requestedDate DESC")
     List<ApprovalRequest> findPendingApprovalsByBranch(@Param("branch") Branch branch);
+
+    /**
+     * Lock an approval request for a decision, so two reviewers cannot decide it at once
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ar FROM ApprovalRequest ar WHERE ar.id = :id")
+    Optional<ApprovalRequest> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Lock the oldest pending requests nobody holds a lease on. Rows locked by another claim or a
+     * decision in progress are skipped rather than waited for. A null branch claims across branches.
+     */
+    @Query(value = """
+        SELECT ar.id FROM approval_requests ar
+         WHERE ar.approval_status = 'PENDING'
+           AND (CAST(:branchId AS uuid) IS NULL OR ar.branch_id = CAST(:branchId AS uuid))
+           AND ar.request_type IN (:requestTypes)
+           AND (ar.claimed_until IS NULL OR ar.claimed_until < :now)
+         ORDER BY ar.requested_date, ar.id
+         LIMIT :limit
+         FOR UPDATE OF ar SKIP LOCKED
+        """, nativeQuery = true)
+    List<UUID> lockClaimable(@Param("branchId") String branchId,
+                             @Param("requestTypes") Collection<String> requestTypes,
+                             @Param("now") LocalDateTime now,
+                             @Param("limit") int limit);
+
+    /**
+     * Give the reviewer a lease on requests locked by {@link #lockClaimable}
+     */
+    @Modifying
+    @Query("UPDATE ApprovalRequest ar SET ar.claimedBy = :reviewer, ar.claimedUntil = :claimedUntil " +
+           "WHERE ar.id IN :ids")
+    int claim(@Param("ids") Collection<UUID> ids,
+              @Param("reviewer") String reviewer,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    /**
+     * Drop the reviewer's lease on a pending request
+     */
+    @Modifying
+    @Query("UPDATE ApprovalRequest ar SET ar.claimedBy = NULL, ar.claimedUntil = NULL " +
+           "WHERE ar.id = :id AND ar.claimedBy = :reviewer AND ar.approvalStatus = 'PENDING'")
+    int release(@Param("id") UUID id, @Param("reviewer") String reviewer);
+
+    /**
+     * Pending requests the reviewer holds an unexpired lease on
+     */
+    @Query("SELECT ar FROM ApprovalRequest ar LEFT JOIN FETCH ar.branch " +
+           "WHERE ar.claimedBy = :reviewer AND ar.claimedUntil > :now AND ar.approvalStatus = 'PENDING' " +
+           "ORDER BY ar.requestedDate")
+    List<ApprovalRequest> findActiveClaims(@Param("reviewer") String reviewer, @Param("now") LocalDateTime now);
+
+    /**
+     * Find requests by id with their branch, oldest first
+     */
+    @Query("SELECT ar FROM ApprovalRequest ar LEFT JOIN FETCH ar.branch " +
+           "WHERE ar.id IN :ids ORDER BY ar.requestedDate")
+    List<ApprovalRequest> findByIdInWithBranch(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Page of requests by status
+     */
+    Page<ApprovalRequest> findByApprovalStatus(ApprovalStatus status, Pageable pageable);
+
+    /**
+     * Page of requests by request type and status
+     */
+    Page<ApprovalRequest> findByRequestTypeAndApprovalStatus(RequestType requestType, ApprovalStatus status,
+                                                              Pageable pageable);
+
+    /**
+     * Count requests per request type for a status: one row of (RequestType, Long) per type present
+     */
+    @Query("SELECT ar.requestType, COUNT(ar) FROM ApprovalRequest ar " +
+           "WHERE ar.approvalStatus = :status GROUP BY ar.requestType")
+    List<Object[]> countByRequestType(@Param("status") ApprovalStatus status);
+
+    /**
+     * Lock many approval requests for a bulk decision, in id order so two overlapping bulk
+     * decisions cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ar FROM ApprovalRequest ar WHERE ar.id IN :ids ORDER BY ar.id")
+    List<ApprovalRequest> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Record one decision on many pending requests. Bypasses the loaded entities, so the
+     * persistence context is cleared afterwards.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ApprovalRequest ar SET ar.approvalStatus = :status, ar.reviewedBy = :reviewedBy, " +
+           "ar.reviewNotes = :reviewNotes, ar.rejectionReason = :rejectionReason, " +
+           "ar.reviewedDate = :reviewedDate, ar.updatedDate = :reviewedDate " +
+           "WHERE ar.id IN :ids AND ar.approvalStatus = 'PENDING'")
+    int decideAll(@Param("ids") Collection<UUID> ids,
+                  @Param("status") ApprovalStatus status,
+                  @Param("reviewedBy") String reviewedBy,
+                  @Param("reviewNotes") String reviewNotes,
+                  @Param("rejectionReason") String rejectionReason,
+                  @Param("reviewedDate") LocalDateTime reviewedDate);
 }
@@ -1,13 +1,17 @@
 package id.ac.tazkia.minibank.repository;
 
+import id.ac.tazkia.minibank.dto.ApprovalTarget;
 import id.ac.tazkia.minibank.entity.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,4 +57,30 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     
     @Query("SELECT COUNT(c) FROM Customer c")
     Long countAllCustomers();
+
+    /**
+     * Approval queue view of many customers in one query, with the personal or company name
+     */
+    @Query("SELECT new id.ac.tazkia.minibank.dto.ApprovalTarget(c.id, c.customerNumber, " +
+           "CASE WHEN pc.id IS NOT NULL THEN CONCAT(pc.firstName, ' ', pc.lastName) ELSE cc.companyName END) " +
+           "FROM Customer c " +
+           "LEFT JOIN PersonalCustomer pc ON c.id = pc.id " +
+           "LEFT JOIN CorporateCustomer cc ON c.id = cc.id " +
+           "WHERE c.id IN :ids")
+    List<ApprovalTarget> findApprovalTargetsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Sets the approval and customer status of many customers in one statement. Native, because
+     * both columns live in the root table and a JPQL update on the joined hierarchy would go
+     * through Hibernate's multi-table strategy. Like any bulk update it bypasses JPA auditing, so
+     * the caller passes the user to record as updated_by.
+     */
+    @Modifying
+    @Query(value = "UPDATE customers SET approval_status = :approvalStatus, status = :status, " +
+           "updated_date = :updatedDate, updated_by = :updatedBy WHERE id IN (:ids)", nativeQuery = true)
+    int updateApprovalStatus(@Param("ids") Collection<UUID> ids,
+                             @Param("approvalStatus") String approvalStatus,
+                             @Param("status") String status,
+                             @Param("updatedDate") LocalDateTime updatedDate,
+                             @Param("updatedBy") String updatedBy);
 }
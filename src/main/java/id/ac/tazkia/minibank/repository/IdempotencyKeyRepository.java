@@ -0,0 +1,80 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, UUID> {
+    
+    Optional<IdempotencyKey> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+    
+    /**
+     * Claims a key for the caller until {@code lockedUntil}. Returns 1 when the key was free or its
+     * previous use had expired, 0 when another request owns it. A claim whose lease lapsed is not
+     * taken over, since its request may already have posted. The claim's created_date identifies
+     * it to {@link #complete}, {@link #markOutcomeUnknown} and {@link #release}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, status, created_date, expires_at, locked_until) " +
+           "VALUES (:scope, :idempotencyKey, :requestHash, 'IN_PROGRESS', :now, :expiresAt, :lockedUntil) " +
+           "ON CONFLICT (scope, idempotency_key) DO UPDATE SET " +
+           "request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', response_status = NULL, response_body = NULL, " +
+           "created_date = EXCLUDED.created_date, completed_date = NULL, expires_at = EXCLUDED.expires_at, " +
+           "locked_until = EXCLUDED.locked_until " +
+           "WHERE idempotency_keys.expires_at < :now", nativeQuery = true)
+    int claim(@Param("scope") String scope,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+    
+    /**
+     * Stores the response of the claim made at {@code claimedAt}. Returns 0 when that claim has
+     * expired and was claimed again.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = 'COMPLETED', k.responseStatus = :responseStatus, " +
+           "k.responseBody = :responseBody, k.completedDate = :now, k.lockedUntil = NULL " +
+           "WHERE k.scope = :scope AND k.idempotencyKey = :idempotencyKey " +
+           "AND k.status = 'IN_PROGRESS' AND k.createdDate = :claimedAt")
+    int complete(@Param("scope") String scope,
+                 @Param("idempotencyKey") String idempotencyKey,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("now") LocalDateTime now);
+    
+    /**
+     * Closes the claim made at {@code claimedAt} without a response, for a request that may have
+     * committed but whose response could not be stored. The key then answers with a conflict until
+     * it expires.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = 'OUTCOME_UNKNOWN', k.completedDate = :now, k.lockedUntil = NULL " +
+           "WHERE k.scope = :scope AND k.idempotencyKey = :idempotencyKey " +
+           "AND k.status = 'IN_PROGRESS' AND k.createdDate = :claimedAt")
+    int markOutcomeUnknown(@Param("scope") String scope,
+                           @Param("idempotencyKey") String idempotencyKey,
+                           @Param("claimedAt") LocalDateTime claimedAt,
+                           @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.scope = :scope AND k.idempotencyKey = :idempotencyKey " +
+           "AND k.status = 'IN_PROGRESS' AND k.createdDate = :claimedAt")
+    int release(@Param("scope") String scope,
+                @Param("idempotencyKey") String idempotencyKey,
+                @Param("claimedAt") LocalDateTime claimedAt);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
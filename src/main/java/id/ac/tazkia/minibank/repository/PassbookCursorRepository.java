@@ -0,0 +1,83 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.entity.PassbookCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PassbookCursorRepository extends JpaRepository<PassbookCursor, UUID> {
+
+    Optional<PassbookCursor> findByAccountId(UUID accountId);
+
+    /**
+     * Moves the account's cursor forward to (lastDate, lastId), creating it on the first confirmation,
+     * and returns the number of lines newly marked as printed. A cursor already at or past that
+     * position is left as it is and nothing is returned, so concurrent or resubmitted confirmations
+     * neither move it backwards nor count lines twice. When a concurrent first confirmation creates
+     * the cursor first, this one advances from where that one left it.
+     */
+    default Optional<Long> advance(UUID accountId, LocalDateTime lastDate, UUID lastId, String updatedBy) {
+        return create(accountId, lastDate, lastId, updatedBy)
+            .or(() -> advanceExisting(accountId, lastDate, lastId, updatedBy));
+    }
+
+    /**
+     * Creates the cursor with every line up to (lastDate, lastId) printed. Returns nothing when the
+     * account already has a cursor. Not marked {@code @Modifying} because the statement returns a
+     * row through RETURNING.
+     */
+    @Query(value = """
+        INSERT INTO passbook_cursors (id_accounts, last_transaction_date, last_transaction_id, printed_lines, updated_by)
+        SELECT :accountId, :lastDate, :lastId, COUNT(*), :updatedBy
+          FROM transactions t
+         WHERE t.id_accounts = :accountId
+           AND (t.transaction_date, t.id) <= (:lastDate, :lastId)
+        ON CONFLICT (id_accounts) DO NOTHING
+        RETURNING printed_lines
+        """, nativeQuery = true)
+    Optional<Long> create(@Param("accountId") UUID accountId,
+                          @Param("lastDate") LocalDateTime lastDate,
+                          @Param("lastId") UUID lastId,
+                          @Param("updatedBy") String updatedBy);
+
+    /**
+     * Advances an existing cursor and returns the lines between its locked, current position and
+     * (lastDate, lastId). Returns nothing when the cursor is already at or past that position.
+     */
+    @Query(value = """
+        WITH current_cursor AS (
+            SELECT id, last_transaction_date, last_transaction_id
+              FROM passbook_cursors
+             WHERE id_accounts = :accountId
+               AND (last_transaction_date, last_transaction_id) < (:lastDate, :lastId)
+               FOR UPDATE
+        ), advanced AS (
+            SELECT c.id, COUNT(t.id) AS lines
+              FROM current_cursor c
+              LEFT JOIN transactions t
+                ON t.id_accounts = :accountId
+               AND (t.transaction_date, t.id) > (c.last_transaction_date, c.last_transaction_id)
+               AND (t.transaction_date, t.id) <= (:lastDate, :lastId)
+             GROUP BY c.id
+        )
+        UPDATE passbook_cursors c
+           SET last_transaction_date = :lastDate,
+               last_transaction_id = :lastId,
+               printed_lines = c.printed_lines + a.lines,
+               updated_by = :updatedBy,
+               updated_date = CURRENT_TIMESTAMP
+          FROM advanced a
+         WHERE c.id = a.id
+        RETURNING a.lines
+        """, nativeQuery = true)
+    Optional<Long> advanceExisting(@Param("accountId") UUID accountId,
+                                   @Param("lastDate") LocalDateTime lastDate,
+                                   @Param("lastId") UUID lastId,
+                                   @Param("updatedBy") String updatedBy);
+}
@@ -0,0 +1,200 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.PostingResult;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Applies balance changes and writes the matching transaction row in a single statement.
+ *
+ * The conditional UPDATE only touches the account when it is ACTIVE and the resulting balance
+ * stays non-negative, so concurrent postings never lose updates and never need a read lock.
+ * When the condition fails no row is returned and nothing is written.
+ *
+ * The transaction is stamped with {@code clock_timestamp()} taken in RETURNING, after the account
+ * row is locked. Postings on one account therefore get timestamps in the order they hold the
+ * lock, so ordering by (transaction_date, id) follows the balance_before/balance_after chain.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostingRepository {
+
+    private static final String POST_SQL = """
+        WITH upd AS (
+            UPDATE accounts
+               SET balance = balance + :delta,
+                   updated_date = CAST(clock_timestamp() AS TIMESTAMP),
+                   updated_by = :createdBy
+             WHERE id = :accountId
+               AND status = 'ACTIVE'
+               AND balance + :delta >= 0
+            RETURNING id, account_number, account_name, balance - :delta AS balance_before, balance AS balance_after,
+                      CAST(clock_timestamp() AS TIMESTAMP) AS posted_at
+        ), ins AS (
+            INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, currency,
+                                      balance_before, balance_after, description, reference_number, channel,
+                                      id_accounts_destination, transaction_date, processed_date, created_by)
+            SELECT id, :transactionNumber, :transactionType, :amount, 'IDR',
+                   balance_before, balance_after, :description, :referenceNumber, :channel,
+                   CAST(:destinationAccountId AS UUID), posted_at, posted_at, :createdBy
+              FROM upd
+            RETURNING id, transaction_number, transaction_type, amount, currency, balance_before, balance_after,
+                      description, reference_number, channel, transaction_date, processed_date
+        )
+        SELECT ins.*, upd.id AS account_id, upd.account_number, upd.account_name
+          FROM ins CROSS JOIN upd
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<PostingResult> post(UUID accountId, BigDecimal delta, BigDecimal amount, String transactionType,
+                                        String transactionNumber, String description, String referenceNumber,
+                                        String channel, UUID destinationAccountId, String createdBy) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("accountId", accountId)
+            .addValue("delta", delta)
+            .addValue("amount", amount)
+            .addValue("transactionType", transactionType)
+            .addValue("transactionNumber", transactionNumber)
+            .addValue("description", description)
+            .addValue("referenceNumber", referenceNumber)
+            .addValue("channel", channel)
+            .addValue("destinationAccountId", destinationAccountId != null ? destinationAccountId.toString() : null)
+            .addValue("createdBy", createdBy);
+
+        List<PostingResult> results = jdbcTemplate.query(POST_SQL, params, (rs, rowNum) -> {
+            PostingResult result = new PostingResult();
+            result.setTransactionId(rs.getObject("id", UUID.class));
+            result.setTransactionNumber(rs.getString("transaction_number"));
+            result.setTransactionType(rs.getString("transaction_type"));
+            result.setAccountId(rs.getObject("account_id", UUID.class));
+            result.setAccountNumber(rs.getString("account_number"));
+            result.setAccountName(rs.getString("account_name"));
+            result.setAmount(rs.getBigDecimal("amount"));
+            result.setBalanceBefore(rs.getBigDecimal("balance_before"));
+            result.setBalanceAfter(rs.getBigDecimal("balance_after"));
+            result.setDescription(rs.getString("description"));
+            result.setReferenceNumber(rs.getString("reference_number"));
+            result.setCurrency(rs.getString("currency"));
+            result.setChannel(rs.getString("channel"));
+            result.setTransactionDate(rs.getObject("transaction_date", LocalDateTime.class));
+            result.setProcessedDate(rs.getObject("processed_date", LocalDateTime.class));
+            return result;
+        });
+        return results.stream().findFirst();
+    }
+
+    /**
+     * Reads the current status of an account, used only to explain why a posting was rejected.
+     */
+    public Optional<String> findAccountStatus(UUID accountId) {
+        List<String> statuses = jdbcTemplate.queryForList(
+            "SELECT status FROM accounts WHERE id = :accountId",
+            new MapSqlParameterSource("accountId", accountId), String.class);
+        return statuses.stream().findFirst();
+    }
+
+    /**
+     * Locks the source account of a batch together with all destination accounts, in id order,
+     * and returns the state needed to validate every line without further lookups.
+     */
+    public List<LockedAccount> lockAccountsForBatch(UUID sourceAccountId, Collection<String> destinationAccountNumbers) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("sourceAccountId", sourceAccountId)
+            .addValue("accountNumbers", destinationAccountNumbers);
+        // An empty IN list is not valid SQL, so a batch without usable destinations locks only the source
+        String destinationFilter = destinationAccountNumbers.isEmpty()
+            ? ""
+            : " OR a.account_number IN (:accountNumbers)";
+        return jdbcTemplate.query("""
+            SELECT a.id, a.account_number, a.account_name, a.balance, a.status, c.customer_type
+              FROM accounts a
+              JOIN customers c ON c.id = a.id_customers
+             WHERE (a.id = :sourceAccountId%s)
+             ORDER BY a.id
+               FOR UPDATE OF a
+            """.formatted(destinationFilter), params, (rs, rowNum) -> new LockedAccount(
+                rs.getObject("id", UUID.class),
+                rs.getString("account_number"),
+                rs.getString("account_name"),
+                rs.getBigDecimal("balance"),
+                rs.getString("status"),
+                rs.getString("customer_type")));
+    }
+
+    /**
+     * Reads the database clock, so rows written in Java are stamped on the same clock as
+     * {@link #post} and after any lock the current transaction already holds.
+     */
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(
+            "SELECT CAST(clock_timestamp() AS TIMESTAMP)", LocalDateTime.class);
+    }
+
+    /**
+     * Writes final balances for accounts that are already locked by the current transaction.
+     */
+    public void batchUpdateBalances(Map<UUID, BigDecimal> balances, String updatedBy, LocalDateTime updatedAt) {
+        List<Map.Entry<UUID, BigDecimal>> entries = List.copyOf(balances.entrySet());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+            "UPDATE accounts SET balance = ?, updated_date = ?, updated_by = ? WHERE id = ?",
+            entries, entries.size(), (ps, entry) -> {
+                ps.setBigDecimal(1, entry.getValue());
+                ps.setTimestamp(2, Timestamp.valueOf(updatedAt));
+                ps.setString(3, updatedBy);
+                ps.setObject(4, entry.getKey());
+            });
+    }
+
+    public void batchInsertTransactions(List<TransactionRow> rows) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate("""
+            INSERT INTO transactions (id, id_accounts, transaction_number, transaction_type, amount, currency,
+                                      balance_before, balance_after, description, reference_number, channel,
+                                      id_accounts_destination, transaction_date, processed_date, created_by)
+            VALUES (?, ?, ?, ?, ?, 'IDR', ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """, rows, 500, (ps, row) -> {
+                Timestamp postedAt = Timestamp.valueOf(row.postedAt());
+                ps.setObject(1, row.id());
+                ps.setObject(2, row.accountId());
+                ps.setString(3, row.transactionNumber());
+                ps.setString(4, row.transactionType());
+                ps.setBigDecimal(5, row.amount());
+                ps.setBigDecimal(6, row.balanceBefore());
+                ps.setBigDecimal(7, row.balanceAfter());
+                ps.setString(8, row.description());
+                ps.setString(9, row.referenceNumber());
+                ps.setString(10, row.channel());
+                if (row.destinationAccountId() != null) {
+                    ps.setObject(11, row.destinationAccountId());
+                } else {
+                    ps.setNull(11, Types.OTHER);
+                }
+                ps.setTimestamp(12, postedAt);
+                ps.setTimestamp(13, postedAt);
+                ps.setString(14, row.createdBy());
+            });
+    }
+
+    public record LockedAccount(UUID id, String accountNumber, String accountName, BigDecimal balance,
+                                String status, String customerType) {
+    }
+
+    public record TransactionRow(UUID id, UUID accountId, String transactionNumber, String transactionType,
+                                 BigDecimal amount, BigDecimal balanceBefore, BigDecimal balanceAfter,
+                                 String description, String referenceNumber, String channel,
+                                 UUID destinationAccountId, String createdBy, LocalDateTime postedAt) {
+    }
+}
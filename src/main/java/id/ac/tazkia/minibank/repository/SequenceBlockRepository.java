@@ -0,0 +1,104 @@
+package id.ac.tazkia.minibank.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Backs block-allocated business sequences with PostgreSQL sequences that advance by a whole block
+ * per {@code nextval}.
+ *
+ * {@code nextval} is not transactional: a reserved block stays reserved when the caller rolls back,
+ * so it can run on the caller's own connection inside the caller's transaction. Each value returned
+ * is the inclusive upper bound of the block, which makes a later change of the increment safe for
+ * blocks already handed out.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SequenceBlockRepository {
+
+    private static final Pattern SEQUENCE_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private static final String RESERVE_SQL = """
+        SELECT nextval(CAST(:sequence AS regclass)) AS last_number,
+               (SELECT increment_by FROM pg_sequences
+                 WHERE schemaname = current_schema() AND sequencename = :sequence) AS block_size,
+               COALESCE((SELECT prefix FROM sequence_numbers WHERE sequence_name = :sequenceName), :prefix) AS prefix
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the database sequence on first use, continuing after the last number stored in
+     * sequence_numbers, and applies the configured block size. Nodes starting together are
+     * serialised with an advisory lock; must run inside a transaction.
+     */
+    public void provision(String sequenceName, long blockSize) {
+        String sequence = databaseSequence(sequenceName);
+        MapSqlParameterSource params = params(sequenceName, sequence);
+        jdbcTemplate.queryForObject(
+            "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext(:sequence))) AS provision_lock",
+            params, Integer.class);
+
+        Long increment = jdbcTemplate.query("""
+            SELECT increment_by FROM pg_sequences
+             WHERE schemaname = current_schema() AND sequencename = :sequence
+            """, params, rs -> rs.next() ? rs.getLong(1) : null);
+        if (increment == null) {
+            jdbcTemplate.getJdbcTemplate().execute(
+                "CREATE SEQUENCE " + sequence + " MINVALUE 0 INCREMENT BY " + blockSize);
+            jdbcTemplate.queryForObject("""
+                SELECT setval(CAST(:sequence AS regclass),
+                              COALESCE((SELECT last_number FROM sequence_numbers WHERE sequence_name = :sequenceName), 0))
+                """, params, Long.class);
+        } else if (increment != blockSize) {
+            jdbcTemplate.getJdbcTemplate().execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + blockSize);
+        }
+    }
+
+    public SequenceBlockAllocation reserveBlock(String sequenceName, String prefix) {
+        return jdbcTemplate.queryForObject(RESERVE_SQL,
+            params(sequenceName, databaseSequence(sequenceName)).addValue("prefix", prefix),
+            (rs, rowNum) -> new SequenceBlockAllocation(
+                rs.getLong("last_number"), rs.getLong("block_size"), rs.getString("prefix")));
+    }
+
+    /** Highest number reserved by any node, 0 before the first block. */
+    public long currentValue(String sequenceName) {
+        Long value = jdbcTemplate.queryForObject("""
+            SELECT COALESCE(last_value, 0) FROM pg_sequences
+             WHERE schemaname = current_schema() AND sequencename = :sequence
+            """, params(sequenceName, databaseSequence(sequenceName)), Long.class);
+        return value != null ? value : 0L;
+    }
+
+    /** The next block reserved by any node starts right after {@code lastNumber}. */
+    public void reset(String sequenceName, long lastNumber) {
+        jdbcTemplate.queryForObject("SELECT setval(CAST(:sequence AS regclass), :lastNumber)",
+            params(sequenceName, databaseSequence(sequenceName)).addValue("lastNumber", lastNumber), Long.class);
+    }
+
+    private static MapSqlParameterSource params(String sequenceName, String sequence) {
+        return new MapSqlParameterSource()
+            .addValue("sequenceName", sequenceName)
+            .addValue("sequence", sequence);
+    }
+
+    private static String databaseSequence(String sequenceName) {
+        if (!SEQUENCE_NAME.matcher(sequenceName).matches()) {
+            throw new IllegalArgumentException("Invalid block-allocated sequence name: " + sequenceName);
+        }
+        return sequenceName.toLowerCase(Locale.ROOT) + "_block_seq";
+    }
+
+    /**
+     * A reserved range [lastNumber - blockSize + 1, lastNumber].
+     */
+    public record SequenceBlockAllocation(long lastNumber, long blockSize, String prefix) {
+    }
+}
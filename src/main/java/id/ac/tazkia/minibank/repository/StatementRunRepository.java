@@ -0,0 +1,335 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.StatementAccount;
+import id.ac.tazkia.minibank.dto.StatementLine;
+import id.ac.tazkia.minibank.dto.StatementRunStatus;
+import id.ac.tazkia.minibank.entity.Transaction;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Run and partition bookkeeping for bulk statement runs, plus the set-based reads that load a
+ * whole partition of accounts at once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatementRunRepository {
+
+    private static final String SELECT_RUN = """
+        SELECT r.*,
+               (SELECT COUNT(*) FROM statement_run_partitions p
+                 WHERE p.id_statement_runs = r.id AND p.status = 'COMPLETED') AS completed_partitions
+          FROM statement_runs r
+        """;
+
+    private static final RowMapper<StatementRunStatus> RUN_MAPPER = (rs, rowNum) -> {
+        StatementRunStatus run = new StatementRunStatus();
+        run.setRunId(rs.getObject("id", UUID.class));
+        run.setPeriodStart(rs.getObject("period_start", LocalDate.class));
+        run.setPeriodEnd(rs.getObject("period_end", LocalDate.class));
+        run.setStatus(StatementRunStatus.RunStatus.valueOf(rs.getString("status")));
+        run.setOutputDirectory(rs.getString("output_directory"));
+        run.setTotalPartitions(rs.getInt("total_partitions"));
+        run.setCompletedPartitions(rs.getInt("completed_partitions"));
+        run.setTotalAccounts(rs.getInt("total_accounts"));
+        run.setProcessedAccounts(rs.getInt("processed_accounts"));
+        run.setFailedAccounts(rs.getInt("failed_accounts"));
+        run.setElapsedMs(rs.getLong("elapsed_ms"));
+        run.setStartedDate(rs.getObject("started_date", LocalDateTime.class));
+        run.setFinishedDate(rs.getObject("finished_date", LocalDateTime.class));
+        return run;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the run for a period, or does nothing when the period already has one.
+     */
+    public Optional<UUID> insertRun(LocalDate periodStart, LocalDate periodEnd, String outputDirectory, String createdBy) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("periodStart", periodStart)
+            .addValue("periodEnd", periodEnd)
+            .addValue("outputDirectory", outputDirectory)
+            .addValue("createdBy", createdBy);
+        List<UUID> ids = jdbcTemplate.queryForList("""
+            INSERT INTO statement_runs (period_start, period_end, status, output_directory, created_by)
+            VALUES (:periodStart, :periodEnd, 'RUNNING', :outputDirectory, :createdBy)
+            ON CONFLICT (period_start, period_end) DO NOTHING
+            RETURNING id
+            """, params, UUID.class);
+        return ids.stream().findFirst();
+    }
+
+    /**
+     * Splits the ACTIVE accounts into contiguous id ranges of at most {@code partitionSize}
+     * accounts and records the run totals.
+     */
+    public int createPartitions(UUID runId, int partitionSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("runId", runId)
+            .addValue("partitionSize", partitionSize);
+        int partitions = jdbcTemplate.update("""
+            INSERT INTO statement_run_partitions (id_statement_runs, partition_number, first_account_id,
+                                                  last_account_id, account_count)
+            SELECT :runId, bucket + 1,
+                   (ARRAY_AGG(id ORDER BY id))[1],
+                   (ARRAY_AGG(id ORDER BY id DESC))[1],
+                   COUNT(*)
+              FROM (SELECT id, (ROW_NUMBER() OVER (ORDER BY id) - 1) / :partitionSize AS bucket
+                      FROM accounts
+                     WHERE status = 'ACTIVE') numbered
+             GROUP BY bucket
+            """, params);
+        jdbcTemplate.update("""
+            UPDATE statement_runs
+               SET total_partitions = :partitions,
+                   total_accounts = (SELECT COALESCE(SUM(account_count), 0) FROM statement_run_partitions
+                                      WHERE id_statement_runs = :runId)
+             WHERE id = :runId
+            """, params.addValue("partitions", partitions));
+        return partitions;
+    }
+
+    public Optional<StatementRunStatus> findRun(UUID runId) {
+        return jdbcTemplate.query(SELECT_RUN + " WHERE r.id = :runId",
+            new MapSqlParameterSource("runId", runId), RUN_MAPPER).stream().findFirst();
+    }
+
+    public Optional<StatementRunStatus> findRunByPeriod(LocalDate periodStart, LocalDate periodEnd) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("periodStart", periodStart)
+            .addValue("periodEnd", periodEnd);
+        return jdbcTemplate.query(SELECT_RUN + " WHERE r.period_start = :periodStart AND r.period_end = :periodEnd",
+            params, RUN_MAPPER).stream().findFirst();
+    }
+
+    public List<RunPartition> findPendingPartitions(UUID runId) {
+        return jdbcTemplate.query("""
+            SELECT id, partition_number, first_account_id, last_account_id
+              FROM statement_run_partitions
+             WHERE id_statement_runs = :runId AND status = 'PENDING'
+             ORDER BY partition_number
+            """, new MapSqlParameterSource("runId", runId), (rs, rowNum) -> new RunPartition(
+                rs.getObject("id", UUID.class),
+                rs.getInt("partition_number"),
+                rs.getObject("first_account_id", UUID.class),
+                rs.getObject("last_account_id", UUID.class)));
+    }
+
+    /**
+     * ACTIVE accounts of a partition in id order, with the balance carried into the period.
+     */
+    public List<RunAccount> findPartitionAccounts(RunPartition partition, LocalDate periodStart) {
+        MapSqlParameterSource params = partitionParams(partition)
+            .addValue("periodStart", periodStart.atStartOfDay());
+        return jdbcTemplate.query("""
+            SELECT a.id, a.account_number, a.account_name, a.balance, p.product_name,
+                   COALESCE(cc.company_name, pc.first_name || ' ' || pc.last_name) AS customer_name,
+                   (SELECT t.balance_after FROM transactions t
+                     WHERE t.id_accounts = a.id AND t.transaction_date < :periodStart
+                     ORDER BY t.transaction_date DESC, t.id DESC
+                     LIMIT 1) AS opening_balance
+              FROM accounts a
+              JOIN products p ON p.id = a.id_products
+              LEFT JOIN personal_customers pc ON pc.id = a.id_customers
+              LEFT JOIN corporate_customers cc ON cc.id = a.id_customers
+             WHERE a.id BETWEEN :firstAccountId AND :lastAccountId
+               AND a.status = 'ACTIVE'
+             ORDER BY a.id
+            """, params, (rs, rowNum) -> new RunAccount(
+                new StatementAccount(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("account_number"),
+                    rs.getString("account_name"),
+                    rs.getString("customer_name"),
+                    rs.getString("product_name"),
+                    rs.getBigDecimal("balance")),
+                rs.getBigDecimal("opening_balance")));
+    }
+
+    /**
+     * Transactions of every account in the partition within the period, read with one ordered
+     * query and grouped by account.
+     */
+    public Map<UUID, List<StatementLine>> findPartitionLines(RunPartition partition, LocalDate periodStart,
+                                                             LocalDate periodEnd) {
+        MapSqlParameterSource params = partitionParams(partition)
+            .addValue("periodStart", periodStart.atStartOfDay())
+            .addValue("periodEndExclusive", periodEnd.plusDays(1).atStartOfDay());
+        Map<UUID, List<StatementLine>> linesByAccount = new HashMap<>();
+        jdbcTemplate.query("""
+            SELECT id_accounts, transaction_date, transaction_number, transaction_type, description, channel,
+                   amount, balance_after
+              FROM transactions
+             WHERE id_accounts BETWEEN :firstAccountId AND :lastAccountId
+               AND transaction_date >= :periodStart
+               AND transaction_date < :periodEndExclusive
+             ORDER BY id_accounts, transaction_date, id
+            """, params, (RowCallbackHandler) rs -> {
+                String channel = rs.getString("channel");
+                linesByAccount.computeIfAbsent(rs.getObject("id_accounts", UUID.class), id -> new ArrayList<>())
+                    .add(new StatementLine(
+                        rs.getObject("transaction_date", LocalDateTime.class),
+                        rs.getString("transaction_number"),
+                        Transaction.TransactionType.valueOf(rs.getString("transaction_type")),
+                        rs.getString("description"),
+                        channel != null ? Transaction.TransactionChannel.valueOf(channel) : null,
+                        rs.getBigDecimal("amount"),
+                        rs.getBigDecimal("balance_after")));
+            });
+        return linesByAccount;
+    }
+
+    /**
+     * Checkpoints a partition and adds its counts to the run in one statement. A partition that
+     * was already completed, or that {@code owner} no longer holds, is left as it is.
+     */
+    public void completePartition(UUID partitionId, String owner, int processedAccounts, int failedAccounts,
+                                  LocalDateTime completedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("partitionId", partitionId)
+            .addValue("owner", owner)
+            .addValue("processed", processedAccounts)
+            .addValue("failed", failedAccounts)
+            .addValue("completedAt", completedAt);
+        jdbcTemplate.update("""
+            WITH done AS (
+                UPDATE statement_run_partitions
+                   SET status = 'COMPLETED', processed_accounts = :processed, failed_accounts = :failed,
+                       completed_date = :completedAt, locked_by = NULL, locked_until = NULL
+                 WHERE id = :partitionId AND status = 'PENDING' AND locked_by = :owner
+                RETURNING id_statement_runs
+            )
+            UPDATE statement_runs r
+               SET processed_accounts = r.processed_accounts + :processed,
+                   failed_accounts = r.failed_accounts + :failed
+              FROM done
+             WHERE r.id = done.id_statement_runs
+            """, params);
+    }
+
+    /**
+     * Claims an unfinished run for {@code owner} until {@code lockedUntil} and marks it RUNNING.
+     * Returns false when the run is completed or another execution holds an unexpired lease.
+     */
+    public boolean claimRun(UUID runId, String owner, LocalDateTime now, LocalDateTime lockedUntil) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("runId", runId)
+            .addValue("owner", owner)
+            .addValue("now", now)
+            .addValue("lockedUntil", lockedUntil);
+        return !jdbcTemplate.queryForList("""
+            UPDATE statement_runs
+               SET status = 'RUNNING', finished_date = NULL, locked_by = :owner, locked_until = :lockedUntil
+             WHERE id = :runId AND status <> 'COMPLETED'
+               AND (locked_until IS NULL OR locked_until < :now)
+            RETURNING id
+            """, params, UUID.class).isEmpty();
+    }
+
+    /**
+     * Extends the run lease of {@code owner}. Returns false when the lease was lost.
+     */
+    public boolean renewRun(UUID runId, String owner, LocalDateTime lockedUntil) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("runId", runId)
+            .addValue("owner", owner)
+            .addValue("lockedUntil", lockedUntil);
+        return jdbcTemplate.update(
+            "UPDATE statement_runs SET locked_until = :lockedUntil WHERE id = :runId AND locked_by = :owner", params) == 1;
+    }
+
+    /**
+     * Claims a pending partition for {@code owner} until {@code lockedUntil}. Returns false when
+     * it is already completed or another execution is rendering it.
+     */
+    public boolean claimPartition(UUID partitionId, String owner, LocalDateTime now, LocalDateTime lockedUntil) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("partitionId", partitionId)
+            .addValue("owner", owner)
+            .addValue("now", now)
+            .addValue("lockedUntil", lockedUntil);
+        return !jdbcTemplate.queryForList("""
+            UPDATE statement_run_partitions
+               SET locked_by = :owner, locked_until = :lockedUntil
+             WHERE id = :partitionId AND status = 'PENDING'
+               AND (locked_until IS NULL OR locked_until < :now)
+            RETURNING id
+            """, params, UUID.class).isEmpty();
+    }
+
+    /**
+     * Extends the partition lease of {@code owner}. Returns false when the partition was claimed
+     * by another execution after the lease lapsed, or is no longer pending.
+     */
+    public boolean renewPartition(UUID partitionId, String owner, LocalDateTime lockedUntil) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("partitionId", partitionId)
+            .addValue("owner", owner)
+            .addValue("lockedUntil", lockedUntil);
+        return jdbcTemplate.update("""
+            UPDATE statement_run_partitions SET locked_until = :lockedUntil
+             WHERE id = :partitionId AND locked_by = :owner AND status = 'PENDING'
+            """, params) == 1;
+    }
+
+    /**
+     * Gives up the claim on a partition that failed, so the next execution can retry it at once.
+     */
+    public void releasePartition(UUID partitionId, String owner) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("partitionId", partitionId)
+            .addValue("owner", owner);
+        jdbcTemplate.update("""
+            UPDATE statement_run_partitions SET locked_by = NULL, locked_until = NULL
+             WHERE id = :partitionId AND locked_by = :owner AND status = 'PENDING'
+            """, params);
+    }
+
+    /**
+     * Records the outcome of one execution and releases its lease; elapsed time adds up across
+     * resumed executions. Does nothing when {@code owner} no longer holds the run.
+     */
+    public void finishRun(UUID runId, String owner, StatementRunStatus.RunStatus status, long elapsedMs,
+                          LocalDateTime finishedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("runId", runId)
+            .addValue("owner", owner)
+            .addValue("status", status.name())
+            .addValue("elapsedMs", elapsedMs)
+            .addValue("finishedAt", finishedAt);
+        jdbcTemplate.update("""
+            UPDATE statement_runs
+               SET status = :status, elapsed_ms = elapsed_ms + :elapsedMs, finished_date = :finishedAt,
+                   locked_by = NULL, locked_until = NULL
+             WHERE id = :runId AND locked_by = :owner
+            """, params);
+    }
+
+    private MapSqlParameterSource partitionParams(RunPartition partition) {
+        return new MapSqlParameterSource()
+            .addValue("firstAccountId", partition.firstAccountId())
+            .addValue("lastAccountId", partition.lastAccountId());
+    }
+
+    public record RunPartition(UUID id, int partitionNumber, UUID firstAccountId, UUID lastAccountId) {
+    }
+
+    public record RunAccount(StatementAccount account, BigDecimal openingBalance) {
+    }
+}
@@ -0,0 +1,130 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.TransactionCursor;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.util.SearchPatterns;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keyset queries over transactions ordered by (transaction_date, id), newest first.
+ *
+ * Only the filters actually given are added to the query, so each variant seeks straight into
+ * its composite index instead of relying on "param IS NULL OR ..." predicates. The cursor is
+ * compared as a row value, which PostgreSQL turns into a single index range condition.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionHistoryRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * @param backward when true, returns rows newer than the cursor in ascending order
+     */
+    public List<Transaction> findSlice(UUID accountId, Transaction.TransactionType transactionType, String searchTerm,
+                                       TransactionCursor cursor, boolean backward, int limit) {
+        List<String> predicates = new ArrayList<>();
+        if (accountId != null) {
+            predicates.add("t.account.id = :accountId");
+        }
+        if (transactionType != null) {
+            predicates.add("t.transactionType = :transactionType");
+        }
+        if (searchTerm != null) {
+            predicates.add("(t.transactionNumber ILIKE :searchPattern ESCAPE '!' "
+                + "OR t.description ILIKE :searchPattern ESCAPE '!' "
+                + "OR t.referenceNumber ILIKE :searchPattern ESCAPE '!')");
+        }
+        if (cursor != null) {
+            predicates.add(backward
+                ? "(t.transactionDate, t.id) > (:cursorDate, :cursorId)"
+                : "(t.transactionDate, t.id) < (:cursorDate, :cursorId)");
+        }
+
+        String direction = backward ? "ASC" : "DESC";
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Transaction t JOIN FETCH t.account");
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        jpql.append(" ORDER BY t.transactionDate ").append(direction).append(", t.id ").append(direction);
+
+        TypedQuery<Transaction> query = entityManager.createQuery(jpql.toString(), Transaction.class);
+        if (accountId != null) {
+            query.setParameter("accountId", accountId);
+        }
+        if (transactionType != null) {
+            query.setParameter("transactionType", transactionType);
+        }
+        if (searchTerm != null) {
+            query.setParameter("searchPattern", SearchPatterns.containing(searchTerm));
+        }
+        if (cursor != null) {
+            query.setParameter("cursorDate", cursor.transactionDate());
+            query.setParameter("cursorId", cursor.id());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Planner estimate of the row count, kept current by autovacuum. Returns a negative value
+     * when the table has never been analyzed.
+     */
+    public long estimateRowCount() {
+        Number estimate = (Number) entityManager.createNativeQuery("""
+            SELECT CAST(c.reltuples AS BIGINT)
+              FROM pg_class c
+              JOIN pg_namespace n ON n.oid = c.relnamespace
+             WHERE c.relname = 'transactions'
+               AND n.nspname = current_schema()
+            """).getSingleResult();
+        return estimate.longValue();
+    }
+
+    public long countRows() {
+        return entityManager.createQuery("SELECT COUNT(t) FROM Transaction t", Long.class).getSingleResult();
+    }
+
+    /**
+     * Ids of transactions containing {@code term} in their number, description or reference,
+     * best trigram similarity first. The ILIKE filter is answered from the trigram indexes;
+     * ranking only touches the matching rows.
+     */
+    @SuppressWarnings("unchecked")
+    public List<UUID> findRankedIds(String term, int limit) {
+        return entityManager.createNativeQuery("""
+            SELECT t.id
+              FROM transactions t
+             WHERE t.transaction_number ILIKE :pattern ESCAPE '!'
+                OR t.description ILIKE :pattern ESCAPE '!'
+                OR t.reference_number ILIKE :pattern ESCAPE '!'
+             ORDER BY GREATEST(similarity(t.transaction_number, :term),
+                               similarity(t.description, :term),
+                               similarity(t.reference_number, :term)) DESC,
+                      t.transaction_date DESC, t.id DESC
+             LIMIT :limit
+            """, UUID.class)
+            .setParameter("pattern", SearchPatterns.containing(term))
+            .setParameter("term", term)
+            .setParameter("limit", limit)
+            .getResultList();
+    }
+
+    public List<Transaction> findAllWithAccountByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                "SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.id IN :ids", Transaction.class)
+            .setParameter("ids", ids)
+            .getResultList();
+    }
+}
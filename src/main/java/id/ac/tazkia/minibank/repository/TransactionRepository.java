@@ -1,20 +1,27 @@
 package id.ac.tazkia.minibank.repository;
 
+import id.ac.tazkia.minibank.dto.StatementLine;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
@@ -44,25 +51,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
                                                 @Param("endDate") LocalDateTime endDate,
                                                 Pageable pageable);
     
-    @Query("SELECT t FROM Transaction t WHERE " +
-           "(:accountId IS NULL OR t.account.id = :accountId) AND " +
-           "(:transactionType IS NULL OR t.transactionType = :transactionType) AND " +
-           "(:channel IS NULL OR t.channel = :channel) AND " +
-           "(:startDate IS NULL OR t.transactionDate >= :startDate) AND " +
-           "(:endDate IS NULL OR t.transactionDate <= :endDate) AND " +
-           "(:searchTerm IS NULL OR " +
-           "LOWER(t.transactionNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(t.referenceNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "ORDER BY t.transactionDate DESC")
-    Page<Transaction> findTransactionsWithFilters(@Param("accountId") UUID accountId,
-                                                @Param("transactionType") Transaction.TransactionType transactionType,
-                                                @Param("channel") Transaction.TransactionChannel channel,
-                                                @Param("startDate") LocalDateTime startDate,
-                                                @Param("endDate") LocalDateTime endDate,
-                                                @Param("searchTerm") String searchTerm,
-                                                Pageable pageable);
-    
     @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.account.id = :accountId " +
            "AND t.transactionType = :transactionType " +
            "AND t.transactionDate BETWEEN :startDate AND :endDate")
@@ -90,19 +78,29 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
            "WHERE t.transactionNumber = :transactionNumber")
     Optional<Transaction> findByTransactionNumberWithDetails(@Param("transactionNumber") String transactionNumber);
     
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.id = :id")
+    Optional<Transaction> findByIdWithAccount(@Param("id") UUID id);
+    
     @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId ORDER BY t.transactionDate DESC LIMIT 1")
     Optional<Transaction> findLastTransactionByAccountId(@Param("accountId") UUID accountId);
     
-    // Search methods for transaction list
-    Page<Transaction> findByTransactionNumberContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-        String transactionNumber, String description, Pageable pageable);
-    
     Page<Transaction> findByTransactionType(Transaction.TransactionType transactionType, Pageable pageable);
     
     // Passbook printing methods
     Page<Transaction> findByAccount(Account account, Pageable pageable);
     
-    List<Transaction> findByAccountOrderByTransactionDateAsc(Account account);
+    // Incremental passbook printing: keyset reads after the account's last printed line
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<Transaction> findPassbookLines(@Param("accountId") UUID accountId, Limit limit);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND (t.transactionDate, t.id) > (:afterDate, :afterId) " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<Transaction> findPassbookLinesAfter(@Param("accountId") UUID accountId,
+                                             @Param("afterDate") LocalDateTime afterDate,
+                                             @Param("afterId") UUID afterId,
+                                             Limit limit);
     
     Page<Transaction> findByAccountAndTransactionDateBetween(Account account, 
                                                            LocalDateTime startDate, 
@@ -124,4 +122,41 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
                                                              Sort sort);
     
     List<Transaction> findByAccountIdOrderByTransactionDateDesc(UUID accountId);
+    
+    // Streaming statement generation: rows are fetched from a server-side cursor in batches
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new id.ac.tazkia.minibank.dto.StatementLine(t.transactionDate, t.transactionNumber, " +
+           "t.transactionType, t.description, t.channel, t.amount, t.balanceAfter) " +
+           "FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    Stream<StatementLine> streamStatementLines(@Param("accountId") UUID accountId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT SUM(CASE WHEN t.transactionType IN :debitTypes THEN t.amount ELSE 0 END) AS totalDebit, " +
+           "SUM(CASE WHEN t.transactionType IN :debitTypes THEN 0 ELSE t.amount END) AS totalCredit, " +
+           "COUNT(t) AS transactionCount " +
+           "FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate")
+    StatementTotals sumStatementTotals(@Param("accountId") UUID accountId,
+                                       @Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate,
+                                       @Param("debitTypes") Collection<Transaction.TransactionType> debitTypes);
+    
+    @Query("SELECT t.balanceAfter FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.transactionDate < :before " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<BigDecimal> findBalancesBefore(@Param("accountId") UUID accountId,
+                                        @Param("before") LocalDateTime before,
+                                        Limit limit);
+    
+    interface StatementTotals {
+        BigDecimal getTotalDebit();
+        BigDecimal getTotalCredit();
+        Long getTransactionCount();
+    }
 }
@@ -0,0 +1,121 @@
+package id.ac.tazkia.minibank.repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loads what the security layer needs: a user's credentials, account state and active roles in one
+ * statement, and the role-to-permission assignments that are compiled into the permission table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserAuthorizationRepository {
+
+    private static final RowMapper<UserAuthorization> MAPPER = (rs, rowNum) -> new UserAuthorization(
+        rs.getObject("id", UUID.class),
+        rs.getString("username"),
+        rs.getString("full_name"),
+        rs.getObject("id_branches", UUID.class),
+        rs.getString("password_hash"),
+        rs.getBoolean("is_active"),
+        rs.getBoolean("is_locked"),
+        rs.getObject("locked_until", LocalDateTime.class),
+        strings(rs, "role_codes"),
+        strings(rs, "role_names"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Roles are listed in assignment order; inactive roles are left out.
+     */
+    public Optional<UserAuthorization> findByUsername(String username) {
+        List<UserAuthorization> users = jdbcTemplate.query("""
+            SELECT u.id, u.username, u.full_name, u.id_branches,
+                   COALESCE(u.is_active, true) AS is_active,
+                   COALESCE(u.is_locked, false) AS is_locked,
+                   u.locked_until,
+                   (SELECT up.password_hash FROM user_passwords up
+                     WHERE up.id_users = u.id AND COALESCE(up.is_active, true)
+                     ORDER BY up.created_date DESC LIMIT 1) AS password_hash,
+                   ARRAY(SELECT r.role_code FROM user_roles ur JOIN roles r ON r.id = ur.id_roles
+                          WHERE ur.id_users = u.id AND COALESCE(r.is_active, true)
+                          ORDER BY ur.assigned_date, r.role_code) AS role_codes,
+                   ARRAY(SELECT r.role_name FROM user_roles ur JOIN roles r ON r.id = ur.id_roles
+                          WHERE ur.id_users = u.id AND COALESCE(r.is_active, true)
+                          ORDER BY ur.assigned_date, r.role_code) AS role_names
+              FROM users u
+             WHERE u.username = :username
+            """, Map.of("username", username), MAPPER);
+        return users.stream().findFirst();
+    }
+
+    /**
+     * Every permission code, oldest first so that ordinals assigned on first load follow creation order.
+     */
+    public List<String> findPermissionCodes() {
+        return jdbcTemplate.queryForList(
+            "SELECT permission_code FROM permissions ORDER BY created_date, permission_code", Map.of(), String.class);
+    }
+
+    /**
+     * Permission codes granted to each active role. Active roles without permissions map to an
+     * empty list.
+     */
+    public Map<String, List<String>> findActiveRoleGrants() {
+        Map<String, List<String>> grants = new HashMap<>();
+        jdbcTemplate.query("""
+            SELECT r.role_code, p.permission_code
+              FROM roles r
+              LEFT JOIN role_permissions rp ON rp.id_roles = r.id
+              LEFT JOIN permissions p ON p.id = rp.id_permissions
+             WHERE COALESCE(r.is_active, true)
+            """, Map.of(), (RowCallbackHandler) rs -> {
+                List<String> granted = grants.computeIfAbsent(rs.getString("role_code"), roleCode -> new ArrayList<>());
+                String permissionCode = rs.getString("permission_code");
+                if (permissionCode != null) {
+                    granted.add(permissionCode);
+                }
+            });
+        return grants;
+    }
+
+    private static List<String> strings(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        if (array == null) {
+            return List.of();
+        }
+        try {
+            return Arrays.asList((String[]) array.getArray());
+        } finally {
+            array.free();
+        }
+    }
+
+    public record UserAuthorization(UUID id,
+                                    String username,
+                                    String fullName,
+                                    UUID branchId,
+                                    String passwordHash,
+                                    boolean active,
+                                    boolean locked,
+                                    LocalDateTime lockedUntil,
+                                    List<String> roleCodes,
+                                    List<String> roleNames) {
+    }
+}
@@ -0,0 +1,112 @@
+package id.ac.tazkia.minibank.security;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of permissions as a bitset over the ordinals assigned by {@link PermissionTable}.
+ *
+ * A user's effective permissions are the bitwise OR of the sets of their roles, and a check is a
+ * single word lookup with no allocation.
+ */
+public final class PermissionSet implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    static PermissionSet of(int... ordinals) {
+        long[] words = new long[0];
+        for (int ordinal : ordinals) {
+            int index = ordinal >>> 6;
+            if (index >= words.length) {
+                words = Arrays.copyOf(words, index + 1);
+            }
+            words[index] |= 1L << ordinal;
+        }
+        return words.length == 0 ? EMPTY : new PermissionSet(words);
+    }
+
+    /**
+     * False for negative ordinals, which is what the table returns for unknown permissions.
+     */
+    public boolean contains(int ordinal) {
+        if (ordinal < 0) {
+            return false;
+        }
+        int index = ordinal >>> 6;
+        return index < words.length && (words[index] & (1L << ordinal)) != 0;
+    }
+
+    public PermissionSet or(PermissionSet other) {
+        if (other.words.length == 0) {
+            return this;
+        }
+        if (words.length == 0) {
+            return other;
+        }
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] union = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            union[i] |= shorter[i];
+        }
+        return new PermissionSet(union);
+    }
+
+    public boolean isEmpty() {
+        return cardinality() == 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int index = 0; index < words.length; index++) {
+            long word = words[index];
+            while (word != 0) {
+                action.accept(index * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PermissionSet set)) {
+            return false;
+        }
+        int length = Math.max(words.length, set.words.length);
+        for (int i = 0; i < length; i++) {
+            long mine = i < words.length ? words[i] : 0;
+            long theirs = i < set.words.length ? set.words[i] : 0;
+            if (mine != theirs) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+}
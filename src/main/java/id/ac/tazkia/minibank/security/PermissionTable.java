@@ -0,0 +1,128 @@
+package id.ac.tazkia.minibank.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compiled role-to-permission assignments.
+ *
+ * Every permission code gets an ordinal and every active role an immutable {@link PermissionSet}.
+ * Ordinals are stable for the life of the process: a rebuild keeps the ordinal of every permission
+ * that still exists and appends new ones, so sets compiled from an older table stay meaningful.
+ * Tables are never modified, a rebuild produces a new one.
+ */
+public final class PermissionTable {
+
+    public static final PermissionTable EMPTY = new PermissionTable(new String[0], Map.of(), Map.of());
+
+    private final String[] codes;
+    private final Map<String, Integer> ordinals;
+    private final Map<String, Map<String, Integer>> ordinalsByResource;
+    private final Map<String, PermissionSet> rolePermissions;
+
+    private PermissionTable(String[] codes, Map<String, Integer> ordinals, Map<String, PermissionSet> rolePermissions) {
+        this.codes = codes;
+        this.ordinals = ordinals;
+        this.rolePermissions = rolePermissions;
+
+        // resource -> action -> ordinal, case-insensitive so checks need not build an upper-case code.
+        // A code is registered under each underscore it could be split at.
+        Map<String, Map<String, Integer>> byResource = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        ordinals.forEach((code, ordinal) -> {
+            for (int split = code.indexOf('_'); split > 0; split = code.indexOf('_', split + 1)) {
+                byResource.computeIfAbsent(code.substring(0, split), resource -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+                    .put(code.substring(split + 1), ordinal);
+            }
+        });
+        this.ordinalsByResource = byResource;
+    }
+
+    /**
+     * @param previous        table whose ordinals are kept; {@link #EMPTY} on first load
+     * @param permissionCodes every permission code, new ones get ordinals in this order
+     * @param roleGrants      permission codes granted to each active role
+     */
+    public static PermissionTable compile(PermissionTable previous, List<String> permissionCodes,
+                                          Map<String, ? extends Collection<String>> roleGrants) {
+        Map<String, Integer> ordinals = new HashMap<>();
+        int next = previous.codes.length;
+        for (String code : permissionCodes) {
+            Integer ordinal = previous.ordinals.get(code);
+            ordinals.put(code, ordinal != null ? ordinal : next++);
+        }
+        String[] codes = new String[next];
+        ordinals.forEach((code, ordinal) -> codes[ordinal] = code);
+
+        Map<String, PermissionSet> rolePermissions = new HashMap<>();
+        roleGrants.forEach((roleCode, granted) -> rolePermissions.put(roleCode, PermissionSet.of(
+            granted.stream().map(ordinals::get).filter(ordinal -> ordinal != null).mapToInt(Integer::intValue).toArray())));
+
+        return new PermissionTable(codes, Collections.unmodifiableMap(ordinals),
+            Collections.unmodifiableMap(rolePermissions));
+    }
+
+    /**
+     * Ordinal of a permission code, or -1 when there is no such permission.
+     */
+    public int ordinal(String permissionCode) {
+        Integer ordinal = ordinals.get(permissionCode);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Ordinal of the permission {@code RESOURCE_ACTION}, matched case-insensitively, or -1.
+     */
+    public int ordinal(String resource, String action) {
+        Map<String, Integer> actions = ordinalsByResource.get(resource);
+        if (actions == null) {
+            return -1;
+        }
+        Integer ordinal = actions.get(action);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public PermissionSet permissionsOf(String roleCode) {
+        return rolePermissions.getOrDefault(roleCode, PermissionSet.EMPTY);
+    }
+
+    /**
+     * Union of the permissions of the given roles; unknown or inactive roles grant nothing.
+     */
+    public PermissionSet effectivePermissions(Collection<String> roleCodes) {
+        PermissionSet effective = PermissionSet.EMPTY;
+        for (String roleCode : roleCodes) {
+            effective = effective.or(permissionsOf(roleCode));
+        }
+        return effective;
+    }
+
+    /**
+     * Permission codes in a set, in code order. Ordinals of deleted permissions are skipped.
+     */
+    public Set<String> codesOf(PermissionSet permissions) {
+        List<String> granted = new ArrayList<>(permissions.cardinality());
+        permissions.forEach(ordinal -> {
+            if (ordinal < codes.length && codes[ordinal] != null) {
+                granted.add(codes[ordinal]);
+            }
+        });
+        Collections.sort(granted);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(granted));
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionTable[" + ordinals.size() + " permissions, roles=" + rolePermissions.keySet() + "]";
+    }
+}
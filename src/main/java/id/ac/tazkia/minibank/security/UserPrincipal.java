@@ -0,0 +1,105 @@
+package id.ac.tazkia.minibank.security;
+
+import java.io.Serial;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import id.ac.tazkia.minibank.repository.UserAuthorizationRepository.UserAuthorization;
+import lombok.Getter;
+
+/**
+ * The authenticated user as kept in the session.
+ *
+ * Roles, permissions and the role name shown in the page header are resolved once at login, so
+ * rendering a page needs no user or role queries. Permissions are the union of the compiled role
+ * bitsets from {@link PermissionTable}. Authorities are {@code ROLE_<roleCode>} for every active
+ * role plus each permission code. {@code authorizationVersion} records which RBAC
+ * version the principal was built from; when roles or permissions change the version moves on and
+ * the principal is rebuilt on the user's next request.
+ */
+@Getter
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final UUID id;
+    private final String username;
+    private final String fullName;
+    private final UUID branchId;
+    private String password;
+    private final boolean enabled;
+    private final boolean accountNonLocked;
+    private final List<String> roleCodes;
+    private final String displayRoleName;
+    private final PermissionSet permissions;
+    private final Set<String> permissionCodes;
+    private final List<GrantedAuthority> authorities;
+    private final long authorizationVersion;
+
+    public UserPrincipal(UserAuthorization user, PermissionTable permissionTable, long authorizationVersion) {
+        this.id = user.id();
+        this.username = user.username();
+        this.fullName = user.fullName();
+        this.branchId = user.branchId();
+        this.password = user.passwordHash();
+        this.enabled = user.active();
+        this.accountNonLocked = !user.locked()
+            || (user.lockedUntil() != null && user.lockedUntil().isBefore(LocalDateTime.now()));
+        this.roleCodes = List.copyOf(user.roleCodes());
+        this.displayRoleName = user.roleNames().isEmpty() ? null : user.roleNames().get(0);
+        this.permissions = permissionTable.effectivePermissions(roleCodes);
+        this.permissionCodes = permissionTable.codesOf(permissions);
+        this.authorizationVersion = authorizationVersion;
+
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        roleCodes.forEach(roleCode -> grantedAuthorities.add(new SimpleGrantedAuthority("ROLE_" + roleCode)));
+        permissionCodes.forEach(code -> grantedAuthorities.add(new SimpleGrantedAuthority(code)));
+        this.authorities = List.copyOf(grantedAuthorities);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasPermission(String permissionCode) {
+        return permissionCodes.contains(permissionCode);
+    }
+
+    /**
+     * Bit test against an ordinal from {@link PermissionTable}; does not allocate.
+     */
+    public boolean hasPermission(int permissionOrdinal) {
+        return permissions.contains(permissionOrdinal);
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof UserPrincipal principal && username.equals(principal.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal[" + username + ", roles=" + roleCodes + ", version=" + authorizationVersion + "]";
+    }
+}
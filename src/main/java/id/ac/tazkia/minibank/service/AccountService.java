@@ -17,7 +17,6 @@ import id.ac.tazkia.minibank.entity.Product;
 import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.CustomerRepository;
-import id.ac.tazkia.minibank.repository.ProductRepository;
 import id.ac.tazkia.minibank.repository.TransactionRepository;
 import id.ac.tazkia.minibank.service.ApprovalService;
 import lombok.RequiredArgsConstructor;
@@ -35,7 +34,7 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
-    private final ProductRepository productRepository;
+    private final ProductService productService;
     private final TransactionRepository transactionRepository;
     private final SequenceNumberService sequenceNumberService;
     private final ApprovalService approvalService;
@@ -171,7 +170,7 @@ public class AccountService {
      * Get available products for a customer based on their type.
      */
     public List<Product> getAvailableProductsForCustomer(Customer customer) {
-        List<Product> activeProducts = productRepository.findByIsActiveTrue();
+        List<Product> activeProducts = productService.findActiveProducts();
         
         return activeProducts.stream()
                 .filter(product -> {
@@ -206,7 +205,7 @@ public class AccountService {
     }
     
     private Product validateAndGetProduct(UUID productId) {
-        Optional<Product> productOpt = productRepository.findById(productId);
+        Optional<Product> productOpt = productService.findById(productId);
         if (productOpt.isEmpty()) {
             throw new IllegalArgumentException("Product not found");
         }
@@ -4,56 +4,176 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import id.ac.tazkia.minibank.dto.StatementAccount;
+import id.ac.tazkia.minibank.dto.StatementLine;
+import id.ac.tazkia.minibank.dto.StatementSummary;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.jfr.PdfRenderEvent;
+import id.ac.tazkia.minibank.util.CurrencyFormats;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class AccountStatementPdfService {
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-    private static final DecimalFormat CURRENCY_FORMAT = new DecimalFormat("#,##0.00");
 
+    // Completed table rows are handed to the writer and released after this many rows
+    private static final int FLUSH_EVERY_ROWS = 200;
+    // Shared by every table row instead of allocating one per cell
+    private static final Font ROW_FONT = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
+
+    private final AccountStatementService accountStatementService;
+
+    @Timed(value = "minibank.pdf.render", extraTags = {"document", "statement", "mode", "buffered"})
     public byte[] generateAccountStatementPdf(Account account, List<Transaction> transactions, 
                                             LocalDate startDate, LocalDate endDate) {
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             Document document = new Document();
             PdfWriter.getInstance(document, baos);
             document.open();
 
             // Header
-            addHeader(document, account, startDate, endDate);
+            addHeader(document, startDate, endDate);
             
             // Account Information
-            addAccountInfo(document, account);
+            addAccountInfo(document, StatementAccount.of(account));
             
             // Transaction Table
             addTransactionTable(document, transactions);
             
             // Summary
-            addSummary(document, transactions, account);
+            addSummary(document, summarize(transactions), false);
 
             document.close();
-            return baos.toByteArray();
+            byte[] pdf = baos.toByteArray();
+            event.size = pdf.length;
+            return pdf;
             
         } catch (Exception e) {
             log.error("Error generating PDF statement for account: {}", account.getAccountNumber(), e);
             throw new RuntimeException("Failed to generate PDF statement", e);
+        } finally {
+            commitRenderEvent(event, "buffered", account.getAccountNumber(), transactions.size());
+        }
+    }
+
+    /**
+     * Writes the statement straight to {@code outputStream} while rows are read from a database
+     * cursor. Totals come from SQL aggregates and table rows are flushed in small batches, so heap
+     * use does not grow with the number of transactions. Totals and rows are read from one
+     * REPEATABLE READ snapshot, so a posting committed in between cannot appear in one but not the other.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Timed(value = "minibank.pdf.render", extraTags = {"document", "statement", "mode", "streamed"})
+    public void writeAccountStatementPdf(UUID accountId, LocalDate startDate, LocalDate endDate,
+                                         OutputStream outputStream) {
+        Account account = accountStatementService.findAccountById(accountId)
+            .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        StatementSummary summary = accountStatementService.getStatementSummary(accountId, startDate, endDate);
+
+        writeStatement(StatementAccount.of(account), summary, startDate, endDate, outputStream, "streamed",
+            () -> accountStatementService.streamStatementLines(accountId, startDate, endDate));
+        log.info("Streamed statement for account {} with {} transactions", account.getAccountNumber(),
+            summary.transactionCount());
+    }
+
+    /**
+     * Writes a statement whose lines and totals were already fetched, as done by the bulk
+     * statement run for a whole partition of accounts at once. Does not touch the database.
+     */
+    @Timed(value = "minibank.pdf.render", extraTags = {"document", "statement", "mode", "bulk"})
+    public void writeAccountStatementPdf(StatementAccount account, StatementSummary summary, List<StatementLine> lines,
+                                         LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        writeStatement(account, summary, startDate, endDate, outputStream, "bulk", lines::stream);
+    }
+
+    private void writeStatement(StatementAccount account, StatementSummary summary, LocalDate startDate,
+                                LocalDate endDate, OutputStream outputStream, String mode,
+                                Supplier<Stream<StatementLine>> lineSource) {
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
+        Document document = new Document();
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
+            document.open();
+
+            addHeader(document, startDate, endDate);
+            addAccountInfo(document, account);
+
+            Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+            Font smallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
+            document.add(new Paragraph("MUTASI REKENING / TRANSACTION HISTORY", headerFont));
+            Paragraph opening = new Paragraph("Saldo Awal: IDR " + CurrencyFormats.format(summary.openingBalance()), smallFont);
+            document.add(opening);
+
+            if (summary.transactionCount() == 0) {
+                Paragraph noTransactions = new Paragraph("Tidak ada transaksi dalam periode ini.", smallFont);
+                noTransactions.setAlignment(Element.ALIGN_CENTER);
+                document.add(noTransactions);
+            } else {
+                PdfPTable table = createTransactionTable();
+                table.setComplete(false);
+                long rows = 0;
+                try (Stream<StatementLine> lines = lineSource.get()) {
+                    Iterator<StatementLine> iterator = lines.iterator();
+                    while (iterator.hasNext()) {
+                        addTransactionRow(table, iterator.next());
+                        if (++rows % FLUSH_EVERY_ROWS == 0) {
+                            document.add(table);
+                        }
+                    }
+                }
+                table.setComplete(true);
+                document.add(table);
+                document.add(new Paragraph(" "));
+            }
+
+            addSummary(document, summary, true);
+            document.close();
+        } catch (DocumentException e) {
+            log.error("Error streaming PDF statement for account: {}", account.accountNumber(), e);
+            throw new IllegalStateException("Failed to generate PDF statement", e);
+        } finally {
+            commitRenderEvent(event, mode, account.accountNumber(), summary.transactionCount());
         }
     }
 
-    private void addHeader(Document document, Account account, LocalDate startDate, LocalDate endDate) throws DocumentException {
+    private void commitRenderEvent(PdfRenderEvent event, String mode, String accountNumber, long transactionCount) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.document = "statement";
+            event.mode = mode;
+            event.accountNumber = accountNumber;
+            event.transactionCount = transactionCount;
+            event.commit();
+        }
+    }
+
+    private void addHeader(Document document, LocalDate startDate, LocalDate endDate) throws DocumentException {
         Font titleFont = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD);
         Font subtitleFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
         Font normalFont = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
@@ -73,7 +193,7 @@ public class AccountStatementPdfService {
         document.add(new Paragraph(" "));
     }
 
-    private void addAccountInfo(Document document, Account account) throws DocumentException {
+    private void addAccountInfo(Document document, StatementAccount account) throws DocumentException {
         Font normalFont = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL);
         Font boldFont = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD);
         
@@ -85,7 +205,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell1);
         
-        PdfPCell cell2 = new PdfPCell(new Phrase(account.getAccountNumber(), normalFont));
+        PdfPCell cell2 = new PdfPCell(new Phrase(account.accountNumber(), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell2);
 
@@ -93,7 +213,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase(account.getAccountName(), normalFont));
+        cell2 = new PdfPCell(new Phrase(account.accountName(), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell2);
 
@@ -101,7 +221,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase(account.getCustomer().getDisplayName(), normalFont));
+        cell2 = new PdfPCell(new Phrase(account.customerName(), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell2);
 
@@ -109,7 +229,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase(account.getProduct().getProductName(), normalFont));
+        cell2 = new PdfPCell(new Phrase(account.productName(), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell2);
 
@@ -117,7 +237,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(account.getBalance()), boldFont));
+        cell2 = new PdfPCell(new Phrase("IDR " + CurrencyFormats.format(account.balance()), boldFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         infoTable.addCell(cell2);
 
@@ -128,7 +248,6 @@ public class AccountStatementPdfService {
     private void addTransactionTable(Document document, List<Transaction> transactions) throws DocumentException {
         Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
         Font smallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
-        Font boldSmallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.BOLD);
         
         Paragraph header = new Paragraph("MUTASI REKENING / TRANSACTION HISTORY", headerFont);
         document.add(header);
@@ -140,81 +259,74 @@ public class AccountStatementPdfService {
             return;
         }
 
+        PdfPTable table = createTransactionTable();
+        for (Transaction transaction : transactions) {
+            addTransactionRow(table, StatementLine.of(transaction));
+        }
+
+        document.add(table);
+        document.add(new Paragraph(" "));
+    }
+
+    private PdfPTable createTransactionTable() throws DocumentException {
+        Font boldSmallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.BOLD);
+
         PdfPTable table = new PdfPTable(6);
         table.setWidthPercentage(100);
         table.setWidths(new float[]{15, 15, 30, 15, 15, 15});
+        // Repeated on every page
+        table.setHeaderRows(1);
 
-        // Headers
-        PdfPCell cell = new PdfPCell(new Phrase("Tanggal", boldSmallFont));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
-        
-        cell = new PdfPCell(new Phrase("No. Transaksi", boldSmallFont));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
-        
-        cell = new PdfPCell(new Phrase("Keterangan", boldSmallFont));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
-        
-        cell = new PdfPCell(new Phrase("Debet", boldSmallFont));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
-        
-        cell = new PdfPCell(new Phrase("Kredit", boldSmallFont));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
-        
-        cell = new PdfPCell(new Phrase("Saldo", boldSmallFont));
-        cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-        table.addCell(cell);
+        for (String header : new String[]{"Tanggal", "No. Transaksi", "Keterangan", "Debet", "Kredit", "Saldo"}) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, boldSmallFont));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(cell);
+        }
+        return table;
+    }
 
-        // Transaction rows
-        for (Transaction transaction : transactions) {
-            table.addCell(new PdfPCell(new Phrase(transaction.getTransactionDate().format(DATE_TIME_FORMAT), smallFont)));
-            table.addCell(new PdfPCell(new Phrase(transaction.getTransactionNumber(), smallFont)));
-            
-            String description = buildTransactionDescription(transaction);
-            table.addCell(new PdfPCell(new Phrase(description, smallFont)));
+    private void addTransactionRow(PdfPTable table, StatementLine line) {
+        Font smallFont = ROW_FONT;
 
-            // Debit column
-            if (transaction.isDebitTransaction()) {
-                cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getAmount()), smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                table.addCell(cell);
-                
-                cell = new PdfPCell(new Phrase("-", smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                table.addCell(cell);
-            } else {
-                cell = new PdfPCell(new Phrase("-", smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                table.addCell(cell);
-                
-                cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getAmount()), smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                table.addCell(cell);
-            }
+        table.addCell(new PdfPCell(new Phrase(line.transactionDate().format(DATE_TIME_FORMAT), smallFont)));
+        table.addCell(new PdfPCell(new Phrase(line.transactionNumber(), smallFont)));
+        table.addCell(new PdfPCell(new Phrase(buildTransactionDescription(line), smallFont)));
+
+        PdfPCell cell;
+        // Debit column
+        if (line.isDebit()) {
+            cell = new PdfPCell(new Phrase(CurrencyFormats.format(line.amount()), smallFont));
+            cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            table.addCell(cell);
 
-            cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getBalanceAfter()), smallFont));
+            cell = new PdfPCell(new Phrase("-", smallFont));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(cell);
+        } else {
+            cell = new PdfPCell(new Phrase("-", smallFont));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(cell);
+
+            cell = new PdfPCell(new Phrase(CurrencyFormats.format(line.amount()), smallFont));
             cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
             table.addCell(cell);
         }
 
-        document.add(table);
-        document.add(new Paragraph(" "));
+        cell = new PdfPCell(new Phrase(CurrencyFormats.format(line.balanceAfter()), smallFont));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(cell);
     }
 
-    private String buildTransactionDescription(Transaction transaction) {
+    private String buildTransactionDescription(StatementLine line) {
         StringBuilder desc = new StringBuilder();
-        desc.append(getTransactionTypeDescription(transaction.getTransactionType()));
+        desc.append(getTransactionTypeDescription(line.transactionType()));
         
-        if (transaction.getDescription() != null && !transaction.getDescription().isEmpty()) {
-            desc.append(" - ").append(transaction.getDescription());
+        if (line.description() != null && !line.description().isEmpty()) {
+            desc.append(" - ").append(line.description());
         }
         
-        if (transaction.getChannel() != null) {
-            desc.append(" (").append(getChannelDescription(transaction.getChannel())).append(")");
+        if (line.channel() != null) {
+            desc.append(" (").append(getChannelDescription(line.channel())).append(")");
         }
         
         return desc.toString();
@@ -240,11 +352,7 @@ public class AccountStatementPdfService {
         };
     }
 
-    private void addSummary(Document document, List<Transaction> transactions, Account account) throws DocumentException {
-        Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        Font normalFont = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL);
-        Font smallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
-        
+    private StatementSummary summarize(List<Transaction> transactions) {
         BigDecimal totalDebit = BigDecimal.ZERO;
         BigDecimal totalCredit = BigDecimal.ZERO;
         
@@ -255,6 +363,14 @@ public class AccountStatementPdfService {
                 totalCredit = totalCredit.add(transaction.getAmount());
             }
         }
+        BigDecimal openingBalance = transactions.isEmpty() ? null : transactions.get(0).getBalanceBefore();
+        return new StatementSummary(openingBalance, totalDebit, totalCredit, transactions.size());
+    }
+
+    private void addSummary(Document document, StatementSummary summary, boolean withBalances) throws DocumentException {
+        Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+        Font normalFont = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL);
+        Font smallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
 
         Paragraph summaryHeader = new Paragraph("RINGKASAN / SUMMARY", headerFont);
         document.add(summaryHeader);
@@ -267,7 +383,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         summaryTable.addCell(cell1);
         
-        PdfPCell cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(totalDebit), normalFont));
+        PdfPCell cell2 = new PdfPCell(new Phrase("IDR " + CurrencyFormats.format(summary.totalDebit()), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
         summaryTable.addCell(cell2);
@@ -276,7 +392,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         summaryTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(totalCredit), normalFont));
+        cell2 = new PdfPCell(new Phrase("IDR " + CurrencyFormats.format(summary.totalCredit()), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
         summaryTable.addCell(cell2);
@@ -285,11 +401,22 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         summaryTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase(String.valueOf(transactions.size()), normalFont));
+        cell2 = new PdfPCell(new Phrase(String.valueOf(summary.transactionCount()), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
         summaryTable.addCell(cell2);
 
+        if (withBalances) {
+            cell1 = new PdfPCell(new Phrase("Saldo Akhir:", normalFont));
+            cell1.setBorder(Rectangle.NO_BORDER);
+            summaryTable.addCell(cell1);
+
+            cell2 = new PdfPCell(new Phrase("IDR " + CurrencyFormats.format(summary.closingBalance()), normalFont));
+            cell2.setBorder(Rectangle.NO_BORDER);
+            cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            summaryTable.addCell(cell2);
+        }
+
         document.add(summaryTable);
         
         document.add(new Paragraph(" "));
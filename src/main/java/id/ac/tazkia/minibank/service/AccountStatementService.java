@@ -1,23 +1,38 @@
 package id.ac.tazkia.minibank.service;
 
+import id.ac.tazkia.minibank.dto.StatementLine;
+import id.ac.tazkia.minibank.dto.StatementSummary;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.TransactionRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class AccountStatementService {
 
+    private static final Set<Transaction.TransactionType> DEBIT_TYPES = EnumSet.of(
+        Transaction.TransactionType.WITHDRAWAL,
+        Transaction.TransactionType.TRANSFER_OUT,
+        Transaction.TransactionType.FEE);
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
 
@@ -39,7 +54,7 @@ public class AccountStatementService {
                                                                 LocalDate startDate, 
                                                                 LocalDate endDate) {
         LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
+        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
         
         return transactionRepository.findByAccountIdAndTransactionDateBetween(
             accountId, startDateTime, endDateTime, 
@@ -47,6 +62,33 @@ public class AccountStatementService {
         );
     }
 
+    /**
+     * Opening balance and period totals from SQL aggregates, without reading the rows. Callers
+     * that also stream the rows should read both in one REPEATABLE READ transaction.
+     */
+    @Transactional(readOnly = true)
+    public StatementSummary getStatementSummary(UUID accountId, LocalDate startDate, LocalDate endDate) {
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        BigDecimal openingBalance = transactionRepository
+            .findBalancesBefore(accountId, startDateTime, Limit.of(1))
+            .stream()
+            .findFirst()
+            .orElse(BigDecimal.ZERO);
+        TransactionRepository.StatementTotals totals = transactionRepository.sumStatementTotals(
+            accountId, startDateTime, endDate.atTime(LocalTime.MAX), DEBIT_TYPES);
+        return new StatementSummary(openingBalance, totals.getTotalDebit(), totals.getTotalCredit(),
+            totals.getTransactionCount() != null ? totals.getTransactionCount() : 0L);
+    }
+
+    /**
+     * Statement rows in posting order, read through a database cursor. Must be consumed and
+     * closed inside the caller's transaction.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<StatementLine> streamStatementLines(UUID accountId, LocalDate startDate, LocalDate endDate) {
+        return transactionRepository.streamStatementLines(accountId, startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX));
+    }
+
     public List<Transaction> getTransactionsByAccountNumber(String accountNumber, 
                                                           LocalDate startDate, 
                                                           LocalDate endDate) {
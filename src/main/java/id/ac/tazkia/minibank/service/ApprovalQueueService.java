@@ -0,0 +1,120 @@
+package id.ac.tazkia.minibank.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import id.ac.tazkia.minibank.config.CacheConfig;
+import id.ac.tazkia.minibank.entity.ApprovalRequest;
+import id.ac.tazkia.minibank.entity.ApprovalRequest.ApprovalStatus;
+import id.ac.tazkia.minibank.entity.ApprovalRequest.RequestType;
+import id.ac.tazkia.minibank.repository.ApprovalRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Work-queue access to pending approval requests.
+ *
+ * Reviewers claim the next requests of their branch instead of all opening the same rows. A claim
+ * locks the oldest unclaimed requests with FOR UPDATE SKIP LOCKED, so concurrent claims never wait
+ * on each other or hand out the same request, and stamps them with a lease. Only the holder can
+ * decide a request while its lease runs; once it lapses the request goes back to the queue.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ApprovalQueueService {
+
+    private final ApprovalRequestRepository approvalRequestRepository;
+    private final long leaseMinutes;
+    private final int maxBatch;
+
+    public ApprovalQueueService(ApprovalRequestRepository approvalRequestRepository,
+                                @Value("${minibank.approval.claim.lease-minutes:15}") long leaseMinutes,
+                                @Value("${minibank.approval.claim.max-batch:20}") int maxBatch) {
+        this.approvalRequestRepository = approvalRequestRepository;
+        this.leaseMinutes = leaseMinutes;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Claim up to {@code count} of the oldest pending requests nobody holds.
+     *
+     * @param branchId    branch of the reviewer; null claims across all branches
+     * @param requestType only this type, or null for any
+     * @return the claimed requests, oldest first; fewer than asked when the queue runs dry
+     */
+    @Transactional
+    public List<ApprovalRequest> claimNext(String reviewer, UUID branchId, RequestType requestType, int count) {
+        if (reviewer == null || reviewer.isBlank()) {
+            throw new IllegalArgumentException("Reviewer is required to claim approval requests");
+        }
+        if (count < 1 || count > maxBatch) {
+            throw new IllegalArgumentException("Claim between 1 and " + maxBatch + " requests at a time");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> requestTypes = requestType != null
+            ? List.of(requestType.name())
+            : Arrays.stream(RequestType.values()).map(Enum::name).toList();
+        List<UUID> ids = approvalRequestRepository.lockClaimable(
+            branchId != null ? branchId.toString() : null, requestTypes, now, count);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime claimedUntil = now.plusMinutes(leaseMinutes);
+        approvalRequestRepository.claim(ids, reviewer, claimedUntil);
+        log.info("{} claimed {} approval requests until {}", reviewer, ids.size(), claimedUntil);
+        return approvalRequestRepository.findByIdInWithBranch(ids);
+    }
+
+    /**
+     * Give a claimed request back to the queue before its lease runs out.
+     *
+     * @return false when the reviewer did not hold it or it was already decided
+     */
+    @Transactional
+    public boolean release(UUID approvalRequestId, String reviewer) {
+        return approvalRequestRepository.release(approvalRequestId, reviewer) > 0;
+    }
+
+    public List<ApprovalRequest> getActiveClaims(String reviewer) {
+        return approvalRequestRepository.findActiveClaims(reviewer, LocalDateTime.now());
+    }
+
+    /**
+     * One page of pending requests, optionally of one type, in the order of the pageable.
+     */
+    public Page<ApprovalRequest> getPendingPage(RequestType requestType, Pageable pageable) {
+        return requestType != null
+            ? approvalRequestRepository.findByRequestTypeAndApprovalStatus(requestType, ApprovalStatus.PENDING, pageable)
+            : approvalRequestRepository.findByApprovalStatus(ApprovalStatus.PENDING, pageable);
+    }
+
+    /**
+     * Pending requests per type, with every type present. Served from a short-lived cache that
+     * ApprovalService clears whenever a request is created or decided.
+     */
+    @Cacheable(CacheConfig.APPROVAL_PENDING_COUNTS)
+    public Map<RequestType, Long> countPendingByType() {
+        Map<RequestType, Long> counts = new EnumMap<>(RequestType.class);
+        for (RequestType type : RequestType.values()) {
+            counts.put(type, 0L);
+        }
+        for (Object[] row : approvalRequestRepository.countByRequestType(ApprovalStatus.PENDING)) {
+            counts.put((RequestType) row[0], (Long) row[1]);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+}
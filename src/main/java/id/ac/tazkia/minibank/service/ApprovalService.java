@@ -1,18 +1,40 @@
 package id.ac.tazkia.minibank.service;
 
+import id.ac.tazkia.minibank.config.CacheConfig;
+import id.ac.tazkia.minibank.dto.ApprovalTarget;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult.Decision;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult.ItemResult;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult.ItemStatus;
 import id.ac.tazkia.minibank.entity.*;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.ApprovalStatus;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.RequestType;
+import id.ac.tazkia.minibank.jfr.ApprovalBulkDecisionEvent;
+import id.ac.tazkia.minibank.jfr.ApprovalDecisionEvent;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.ApprovalRequestRepository;
 import id.ac.tazkia.minibank.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing approval workflow business logic
@@ -25,18 +47,25 @@ public class ApprovalService {
     private final ApprovalRequestRepository approvalRequestRepository;
     private final CustomerRepository customerRepository;
     private final AccountRepository accountRepository;
+    private final ApprovalTargetResolver approvalTargetResolver;
+    private final int maxBulkItems;
 
     public ApprovalService(ApprovalRequestRepository approvalRequestRepository,
                           CustomerRepository customerRepository,
-                          AccountRepository accountRepository) {
+                          AccountRepository accountRepository,
+                          ApprovalTargetResolver approvalTargetResolver,
+                          @Value("${minibank.approval.bulk.max-items:200}") int maxBulkItems) {
         this.approvalRequestRepository = approvalRequestRepository;
         this.customerRepository = customerRepository;
         this.accountRepository = accountRepository;
+        this.approvalTargetResolver = approvalTargetResolver;
+        this.maxBulkItems = maxBulkItems;
     }
 
     /**
      * Create approval request for customer creation
      */
+    @CacheEvict(cacheNames = CacheConfig.APPROVAL_PENDING_COUNTS, allEntries = true)
     public ApprovalRequest createCustomerApprovalRequest(Customer customer, String requestedBy, String notes) {
         log.info("Creating approval request for customer: {} by {}", customer.getCustomerNumber(), requestedBy);
 
@@ -55,6 +84,7 @@ public class ApprovalService {
     /**
      * Create approval request for account opening
      */
+    @CacheEvict(cacheNames = CacheConfig.APPROVAL_PENDING_COUNTS, allEntries = true)
     public ApprovalRequest createAccountApprovalRequest(Account account, String requestedBy, String notes) {
         log.info("Creating approval request for account: {} by {}", account.getAccountNumber(), requestedBy);
 
@@ -73,10 +103,14 @@ public class ApprovalService {
     /**
      * Approve customer creation
      */
+    @Timed(value = "minibank.approval.decision", extraTags = {"entity", "customer", "decision", "approve"})
+    @CacheEvict(cacheNames = CacheConfig.APPROVAL_PENDING_COUNTS, allEntries = true)
     public Customer approveCustomer(UUID approvalRequestId, String reviewedBy, String reviewNotes) {
         log.info("Approving customer with approval request ID: {} by {}", approvalRequestId, reviewedBy);
+        ApprovalDecisionEvent event = new ApprovalDecisionEvent();
+        event.begin();
 
-        ApprovalRequest approvalRequest = getApprovalRequest(approvalRequestId);
+        ApprovalRequest approvalRequest = lockForDecision(approvalRequestId, reviewedBy);
         validateEntityType(approvalRequest, EntityType.CUSTOMER);
 
         // Get customer
@@ -91,17 +125,23 @@ public class ApprovalService {
         customer.setApprovalStatus(Customer.ApprovalStatus.APPROVED);
         customer.setStatus(Customer.CustomerStatus.ACTIVE);
 
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        commitDecisionEvent(event, approvalRequest, "approve", reviewedBy);
+        return saved;
     }
 
     /**
      * Reject customer creation
      */
+    @Timed(value = "minibank.approval.decision", extraTags = {"entity", "customer", "decision", "reject"})
+    @CacheEvict(cacheNames = CacheConfig.APPROVAL_PENDING_COUNTS, allEntries = true)
     public Customer rejectCustomer(UUID approvalRequestId, String reviewedBy,
                                    String rejectionReason, String reviewNotes) {
         log.info("Rejecting customer with approval request ID: {} by {}", approvalRequestId, reviewedBy);
+        ApprovalDecisionEvent event = new ApprovalDecisionEvent();
+        event.begin();
 
-        ApprovalRequest approvalRequest = getApprovalRequest(approvalRequestId);
+        ApprovalRequest approvalRequest = lockForDecision(approvalRequestId, reviewedBy);
         validateEntityType(approvalRequest, EntityType.CUSTOMER);
 
         // Get customer
@@ -116,16 +156,22 @@ public class ApprovalService {
         customer.setApprovalStatus(Customer.ApprovalStatus.REJECTED);
         customer.setStatus(Customer.CustomerStatus.INACTIVE);
 
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        commitDecisionEvent(event, approvalRequest, "reject", reviewedBy);
+        return saved;
     }
 
     /**
      * Approve account opening
      */
+    @Timed(value = "minibank.approval.decision", extraTags = {"entity", "account", "decision", "approve"})
+    @CacheEvict(cacheNames = CacheConfig.APPROVAL_PENDING_COUNTS, allEntries = true)
     public Account approveAccount(UUID approvalRequestId, String reviewedBy, String reviewNotes) {
         log.info("Approving account with approval request ID: {} by {}", approvalRequestId, reviewedBy);
+        ApprovalDecisionEvent event = new ApprovalDecisionEvent();
+        event.begin();
 
-        ApprovalRequest approvalRequest = getApprovalRequest(approvalRequestId);
+        ApprovalRequest approvalRequest = lockForDecision(approvalRequestId, reviewedBy);
         validateEntityType(approvalRequest, EntityType.ACCOUNT);
 
         // Get account
@@ -140,17 +186,23 @@ public class ApprovalService {
         account.setApprovalStatus(Account.ApprovalStatus.APPROVED);
         account.setStatus(Account.AccountStatus.ACTIVE);
 
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        commitDecisionEvent(event, approvalRequest, "approve", reviewedBy);
+        return saved;
     }
 
     /**
      * Reject account opening
      */
+    @Timed(value = "minibank.approval.decision", extraTags = {"entity", "account", "decision", "reject"})
+    @CacheEvict(cacheNames = CacheConfig.APPROVAL_PENDING_COUNTS, allEntries = true)
     public Account rejectAccount(UUID approvalRequestId, String reviewedBy,
                                 String rejectionReason, String reviewNotes) {
         log.info("Rejecting account with approval request ID: {} by {}", approvalRequestId, reviewedBy);
+        ApprovalDecisionEvent event = new ApprovalDecisionEvent();
+        event.begin();
 
-        ApprovalRequest approvalRequest = getApprovalRequest(approvalRequestId);
+        ApprovalRequest approvalRequest = lockForDecision(approvalRequestId, reviewedBy);
         validateEntityType(approvalRequest, EntityType.ACCOUNT);
 
         // Get account
@@ -165,7 +217,189 @@ public class ApprovalService {
         account.setApprovalStatus(Account.ApprovalStatus.REJECTED);
         account.setStatus(Account.AccountStatus.CLOSED);
 
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        commitDecisionEvent(event, approvalRequest, "reject", reviewedBy);
+        return saved;
+    }
+
+    /**
+     * Approve or reject many customer and account requests in one transaction.
+     *
+     * The requests are locked with one IN-query and their customers and accounts are looked up
+     * with one IN-query per entity type; the decision is then written with one set-based UPDATE
+     * for the requests and one per entity type. Requests that cannot be decided are skipped and
+     * reported in the result instead of failing the whole batch. The batch is timed and recorded
+     * to JFR as a whole, next to the per-decision events of the single approve and reject paths.
+     */
+    @Timed(value = "minibank.approval.bulk-decision")
+    @CacheEvict(cacheNames = CacheConfig.APPROVAL_PENDING_COUNTS, allEntries = true)
+    public BulkDecisionResult bulkDecide(Collection<UUID> approvalRequestIds, Decision decision, String reviewedBy,
+                                         String rejectionReason, String reviewNotes,
+                                         Set<EntityType> permittedEntityTypes) {
+        if (approvalRequestIds == null || approvalRequestIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one approval request is required");
+        }
+        if (decision == null) {
+            throw new IllegalArgumentException("Decision is required");
+        }
+        if (decision == Decision.REJECT && (rejectionReason == null || rejectionReason.trim().isEmpty())) {
+            throw new IllegalArgumentException("Rejection reason is required");
+        }
+        Set<UUID> ids = new LinkedHashSet<>(approvalRequestIds);
+        if (ids.size() > maxBulkItems) {
+            throw new IllegalArgumentException("At most " + maxBulkItems + " approval requests can be decided at once");
+        }
+        log.info("Bulk {} of {} approval requests by {}", decision, ids.size(), reviewedBy);
+        ApprovalBulkDecisionEvent event = new ApprovalBulkDecisionEvent();
+        event.begin();
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, ApprovalRequest> requests = approvalRequestRepository.findAllByIdForUpdate(ids).stream()
+            .collect(Collectors.toMap(ApprovalRequest::getId, Function.identity()));
+
+        List<ItemResult> items = new ArrayList<>(ids.size());
+        Map<EntityType, List<ItemResult>> candidates = new HashMap<>();
+        for (UUID id : ids) {
+            ApprovalRequest request = requests.get(id);
+            ItemResult item = new ItemResult();
+            item.setApprovalRequestId(id);
+            items.add(item);
+            if (request == null) {
+                skip(item, ItemStatus.NOT_FOUND, "Approval request not found");
+                continue;
+            }
+            item.setEntityType(request.getEntityType());
+            item.setEntityId(request.getEntityId());
+            if (!request.isPending()) {
+                skip(item, ItemStatus.NOT_PENDING, "Approval request is already " + request.getApprovalStatus());
+            } else if (permittedEntityTypes == null || !permittedEntityTypes.contains(request.getEntityType())) {
+                skip(item, ItemStatus.NOT_PERMITTED, "Not permitted to decide " + request.getEntityType() + " requests");
+            } else if (request.isClaimedByOther(reviewedBy, now)) {
+                skip(item, ItemStatus.CLAIMED_BY_OTHER, "Approval request is claimed by " + request.getClaimedBy()
+                    + " until " + request.getClaimedUntil());
+            } else {
+                candidates.computeIfAbsent(request.getEntityType(), type -> new ArrayList<>()).add(item);
+            }
+        }
+
+        List<UUID> customerIds = resolveTargets(EntityType.CUSTOMER, candidates.get(EntityType.CUSTOMER));
+        List<UUID> accountIds = resolveTargets(EntityType.ACCOUNT, candidates.get(EntityType.ACCOUNT));
+
+        ItemStatus decided = decision == Decision.APPROVE ? ItemStatus.APPROVED : ItemStatus.REJECTED;
+        List<UUID> decidedRequestIds = new ArrayList<>();
+        for (ItemResult item : items) {
+            if (item.getStatus() == null) {
+                item.setStatus(decided);
+                decidedRequestIds.add(item.getApprovalRequestId());
+            }
+        }
+
+        if (!decidedRequestIds.isEmpty()) {
+            boolean approve = decision == Decision.APPROVE;
+            approvalRequestRepository.decideAll(decidedRequestIds,
+                approve ? ApprovalStatus.APPROVED : ApprovalStatus.REJECTED,
+                reviewedBy, reviewNotes, approve ? null : rejectionReason, now);
+            if (!customerIds.isEmpty()) {
+                customerRepository.updateApprovalStatus(customerIds,
+                    (approve ? Customer.ApprovalStatus.APPROVED : Customer.ApprovalStatus.REJECTED).name(),
+                    (approve ? Customer.CustomerStatus.ACTIVE : Customer.CustomerStatus.INACTIVE).name(), now,
+                    reviewedBy);
+            }
+            if (!accountIds.isEmpty()) {
+                accountRepository.updateApprovalStatus(accountIds,
+                    approve ? Account.ApprovalStatus.APPROVED : Account.ApprovalStatus.REJECTED,
+                    approve ? Account.AccountStatus.ACTIVE : Account.AccountStatus.CLOSED, now, reviewedBy);
+            }
+        }
+
+        BulkDecisionResult result = new BulkDecisionResult();
+        result.setDecision(decision);
+        result.setReviewedBy(reviewedBy);
+        result.setReviewedDate(now);
+        result.setTotalItems(items.size());
+        result.setDecidedItems(decidedRequestIds.size());
+        result.setSkippedItems(items.size() - decidedRequestIds.size());
+        result.setItems(items);
+        log.info("Bulk {} by {}: {} decided, {} skipped", decision, reviewedBy,
+            result.getDecidedItems(), result.getSkippedItems());
+
+        afterCommit(() -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.decision = decision == Decision.APPROVE ? "approve" : "reject";
+                event.reviewedBy = reviewedBy;
+                event.totalItems = result.getTotalItems();
+                event.decidedCustomers = customerIds.size();
+                event.decidedAccounts = accountIds.size();
+                event.skippedItems = result.getSkippedItems();
+                event.commit();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Look up the targets of one entity type with a single IN-query, mark the items whose target
+     * no longer exists and return the ids of those that do
+     */
+    private List<UUID> resolveTargets(EntityType entityType, List<ItemResult> items) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> entityIds = items.stream().map(ItemResult::getEntityId).collect(Collectors.toSet());
+        Map<UUID, ApprovalTarget> targets = approvalTargetResolver.findTargets(entityType, entityIds);
+        for (ItemResult item : items) {
+            ApprovalTarget target = targets.get(item.getEntityId());
+            if (target == null) {
+                skip(item, ItemStatus.TARGET_NOT_FOUND, entityType + " not found: " + item.getEntityId());
+            } else {
+                item.setReference(target.reference());
+            }
+        }
+        return new ArrayList<>(targets.keySet());
+    }
+
+    private void skip(ItemResult item, ItemStatus status, String message) {
+        item.setStatus(status);
+        item.setMessage(message);
+    }
+
+    /**
+     * Only decisions that went through are recorded: the event is committed once the transaction
+     * has, so a decision that fails or rolls back at commit leaves no event behind.
+     */
+    private void commitDecisionEvent(ApprovalDecisionEvent event, ApprovalRequest approvalRequest,
+                                     String decision, String reviewedBy) {
+        String approvalRequestId = approvalRequest.getId().toString();
+        String entityType = approvalRequest.getEntityType().name();
+        String entityId = approvalRequest.getEntityId().toString();
+        afterCommit(() -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.approvalRequestId = approvalRequestId;
+                event.entityType = entityType;
+                event.entityId = entityId;
+                event.decision = decision;
+                event.reviewedBy = reviewedBy;
+                event.commit();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code action} after the current transaction commits, or right away without one.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
@@ -226,6 +460,21 @@ public class ApprovalService {
         return approvalRequestRepository.hasPendingApproval(entityType, entityId);
     }
 
+    /**
+     * Lock the request for the rest of the transaction, so a concurrent decision on the same
+     * request waits and then sees it is no longer pending, and refuse requests another reviewer
+     * holds an unexpired claim on.
+     */
+    private ApprovalRequest lockForDecision(UUID approvalRequestId, String reviewedBy) {
+        ApprovalRequest approvalRequest = approvalRequestRepository.findByIdForUpdate(approvalRequestId)
+            .orElseThrow(() -> new IllegalArgumentException("Approval request not found: " + approvalRequestId));
+        if (approvalRequest.isClaimedByOther(reviewedBy, LocalDateTime.now())) {
+            throw new IllegalStateException("Approval request is claimed by " + approvalRequest.getClaimedBy()
+                + " until " + approvalRequest.getClaimedUntil());
+        }
+        return approvalRequest;
+    }
+
     /**
      * Validate entity type matches request
      */
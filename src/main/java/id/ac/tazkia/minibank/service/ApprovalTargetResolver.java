@@ -0,0 +1,76 @@
+package id.ac.tazkia.minibank.service;
+
+import id.ac.tazkia.minibank.dto.ApprovalTarget;
+import id.ac.tazkia.minibank.entity.ApprovalRequest;
+import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
+import id.ac.tazkia.minibank.repository.AccountRepository;
+import id.ac.tazkia.minibank.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Looks up the customers and accounts that approval requests point at.
+ *
+ * An approval request refers to its target by entity type and id rather than through a mapped
+ * relationship, so resolving targets one request at a time costs a query per row. Requests are
+ * grouped by entity type instead and each group is fetched with one IN-query into an
+ * {@link ApprovalTarget} projection: at most two queries for any number of requests.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ApprovalTargetResolver {
+
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+
+    /**
+     * Targets of the given requests keyed by approval request id. Requests whose target no
+     * longer exists are left out.
+     */
+    public Map<UUID, ApprovalTarget> resolve(Collection<ApprovalRequest> requests) {
+        Map<EntityType, Set<UUID>> entityIds = new EnumMap<>(EntityType.class);
+        for (ApprovalRequest request : requests) {
+            entityIds.computeIfAbsent(request.getEntityType(), type -> new HashSet<>()).add(request.getEntityId());
+        }
+        Map<EntityType, Map<UUID, ApprovalTarget>> targets = new EnumMap<>(EntityType.class);
+        entityIds.forEach((type, ids) -> targets.put(type, findTargets(type, ids)));
+
+        Map<UUID, ApprovalTarget> byRequest = new HashMap<>();
+        for (ApprovalRequest request : requests) {
+            ApprovalTarget target = targets.get(request.getEntityType()).get(request.getEntityId());
+            if (target != null) {
+                byRequest.put(request.getId(), target);
+            }
+        }
+        return byRequest;
+    }
+
+    /**
+     * Targets of one entity type keyed by entity id, fetched with a single IN-query
+     */
+    public Map<UUID, ApprovalTarget> findTargets(EntityType entityType, Collection<UUID> entityIds) {
+        if (entityIds.isEmpty()) {
+            return Map.of();
+        }
+        List<ApprovalTarget> found = switch (entityType) {
+            case CUSTOMER -> customerRepository.findApprovalTargetsByIdIn(entityIds);
+            case ACCOUNT -> accountRepository.findApprovalTargetsByIdIn(entityIds);
+        };
+        Map<UUID, ApprovalTarget> targets = new HashMap<>();
+        for (ApprovalTarget target : found) {
+            targets.put(target.entityId(), target);
+        }
+        return targets;
+    }
+}
@@ -1,7 +1,9 @@
 package id.ac.tazkia.minibank.service;
 
+import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
 import id.ac.tazkia.minibank.entity.User;
 import id.ac.tazkia.minibank.repository.UserRepository;
+import id.ac.tazkia.minibank.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -10,7 +12,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +22,7 @@ import java.util.Optional;
 public class AuthenticationService {
     
     private final UserRepository userRepository;
+    private final PermissionTableService permissionTableService;
     
     @Transactional
     public void recordSuccessfulLogin(String username) {
@@ -72,15 +77,54 @@ public class AuthenticationService {
             .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + roleCode));
     }
     
+    /**
+     * Checks the compiled permission bitset of the current principal: two map lookups and a bit
+     * test, without building the permission code. Other principal types fall back to their
+     * authorities.
+     */
     public boolean hasPermission(String resource, String action) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.hasPermission(permissionTableService.current().ordinal(resource, action));
+        }
+        
         String permissionCode = (resource + "_" + action).toUpperCase();
+        return authentication.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals(permissionCode));
+    }
+    
+    public boolean hasPermission(String permissionCode) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication == null || !authentication.isAuthenticated()) {
             return false;
         }
         
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.hasPermission(permissionTableService.current().ordinal(permissionCode));
+        }
+        
         return authentication.getAuthorities().stream()
             .anyMatch(authority -> authority.getAuthority().equals(permissionCode));
     }
+    
+    /**
+     * Entity types the current user may approve or reject: CUSTOMER_APPROVE covers customer
+     * requests and ACCOUNT_APPROVE covers account requests.
+     */
+    public Set<EntityType> getApprovableEntityTypes() {
+        Set<EntityType> entityTypes = EnumSet.noneOf(EntityType.class);
+        if (hasPermission("CUSTOMER_APPROVE")) {
+            entityTypes.add(EntityType.CUSTOMER);
+        }
+        if (hasPermission("ACCOUNT_APPROVE")) {
+            entityTypes.add(EntityType.ACCOUNT);
+        }
+        return entityTypes;
+    }
 }
@@ -0,0 +1,54 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Version of the role and permission assignments that logged-in principals were built from.
+ *
+ * Any change to who holds which role, or which permissions a role grants, moves the version on.
+ * Principals remember the version they were loaded at and are rebuilt on their next request once
+ * it is stale. RBAC changes are rare, so one version for everything is enough: after a change each
+ * active session pays one reload instead of every page view paying a user and role lookup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthorizationVersionService {
+
+    private final PermissionTableService permissionTableService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final AtomicLong version = new AtomicLong();
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    public boolean isCurrent(long principalVersion) {
+        return principalVersion == version.get();
+    }
+
+    /**
+     * Recompiles the permission table and marks every principal loaded so far as stale. Call after
+     * the change is committed. The table is swapped before the version moves, so a principal
+     * rebuilt for the new version always sees the new table. Other nodes are told through the
+     * {@link CacheInvalidationBus}.
+     */
+    public void invalidate(String reason) {
+        invalidateLocally(reason);
+        cacheInvalidationBus.publish(CacheInvalidationBus.TOPIC_RBAC, null);
+    }
+
+    /**
+     * Same as {@link #invalidate} for this node only; used when another node reports the change.
+     */
+    public void invalidateLocally(String reason) {
+        permissionTableService.rebuild();
+        long newVersion = version.incrementAndGet();
+        log.info("Authorization data changed ({}), principals refresh to version {}", reason, newVersion);
+    }
+}
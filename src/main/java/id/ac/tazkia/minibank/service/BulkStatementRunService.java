@@ -0,0 +1,406 @@
+package id.ac.tazkia.minibank.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.opencsv.CSVWriter;
+
+import id.ac.tazkia.minibank.dto.StatementLine;
+import id.ac.tazkia.minibank.dto.StatementRunStatus;
+import id.ac.tazkia.minibank.dto.StatementRunStatus.RunStatus;
+import id.ac.tazkia.minibank.dto.StatementSummary;
+import id.ac.tazkia.minibank.repository.StatementRunRepository;
+import id.ac.tazkia.minibank.repository.StatementRunRepository.RunAccount;
+import id.ac.tazkia.minibank.repository.StatementRunRepository.RunPartition;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Produces month-end statements for every ACTIVE account.
+ *
+ * When a run is created the accounts are split into id ranges. Each partition is one unit of work
+ * on the worker pool: its accounts and all of their transactions for the period are read with two
+ * set-based queries, and the PDFs are rendered from memory into the run's output directory. When a
+ * partition's files and its slice of the manifest are on disk the partition is checkpointed, so a
+ * run that crashed or failed is resumed by executing it again and only redoes unfinished
+ * partitions. The final manifest.csv lists every account with its file and totals.
+ *
+ * Runs may be started on any node. An execution first claims the run in the database with a
+ * lease it keeps renewing while it waits for its partitions, and each worker claims its partition
+ * the same way before rendering it, so no run or partition is processed by two nodes at once. A
+ * worker renews its partition lease while rendering and stops when the renewal fails. A lease left
+ * by a node that died lapses after minibank.statement.run.lease-seconds and the run is resumed by
+ * the next execution.
+ */
+@Slf4j
+@Service
+public class BulkStatementRunService {
+
+    public static final String MANIFEST_FILE = "manifest.csv";
+
+    private static final String PARTITION_MANIFEST_DIR = "partitions";
+    private static final String[] MANIFEST_HEADER = {"account_id", "account_number", "account_name", "status",
+        "transaction_count", "opening_balance", "total_debit", "total_credit", "closing_balance", "file", "error"};
+
+    private final StatementRunRepository statementRunRepository;
+    private final AccountStatementPdfService accountStatementPdfService;
+    private final AuditorAware<String> auditorAware;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransactionTemplate;
+    private final Path outputDirectory;
+    private final int partitionSize;
+    private final long leaseSeconds;
+    private final ExecutorService workers;
+    private final ExecutorService coordinator;
+
+    public BulkStatementRunService(StatementRunRepository statementRunRepository,
+                                   AccountStatementPdfService accountStatementPdfService,
+                                   AuditorAware<String> auditorAware,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${minibank.statement.run.output-dir:${java.io.tmpdir}/minibank-statement-runs}") Path outputDirectory,
+                                   @Value("${minibank.statement.run.partition-size:500}") int partitionSize,
+                                   @Value("${minibank.statement.run.workers:4}") int workerCount,
+                                   @Value("${minibank.statement.run.lease-seconds:600}") long leaseSeconds) {
+        this.statementRunRepository = statementRunRepository;
+        this.accountStatementPdfService = accountStatementPdfService;
+        this.auditorAware = auditorAware;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransactionTemplate.setReadOnly(true);
+        this.outputDirectory = outputDirectory;
+        this.partitionSize = partitionSize;
+        this.leaseSeconds = leaseSeconds;
+        this.workers = Executors.newFixedThreadPool(workerCount, threadFactory("statement-run-worker-"));
+        this.coordinator = Executors.newSingleThreadExecutor(threadFactory("statement-run-"));
+    }
+
+    /**
+     * Starts the run for a period in the background and returns its current state. A period has a
+     * single run: asking again resumes it when it is unfinished and not executing on any node, and
+     * otherwise just reports its progress.
+     */
+    public StatementRunStatus startRun(LocalDate periodStart, LocalDate periodEnd) {
+        StatementRunStatus run = prepareRun(periodStart, periodEnd);
+        if (run.getStatus() != RunStatus.COMPLETED) {
+            UUID runId = run.getRunId();
+            coordinator.execute(() -> {
+                try {
+                    execute(runId);
+                } catch (IllegalStateException e) {
+                    log.info("Statement run {} not started: {}", runId, e.getMessage());
+                }
+            });
+        }
+        return run;
+    }
+
+    /**
+     * Returns the run of a period, creating it and its partitions when there is none yet.
+     */
+    public StatementRunStatus prepareRun(LocalDate periodStart, LocalDate periodEnd) {
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Statement period is required");
+        }
+        if (periodStart.isAfter(periodEnd)) {
+            throw new IllegalArgumentException("Period start must not be after period end");
+        }
+        Optional<StatementRunStatus> existing = statementRunRepository.findRunByPeriod(periodStart, periodEnd);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        String runDirectory = outputDirectory.resolve(periodStart + "_" + periodEnd).toString();
+        String createdBy = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        transactionTemplate.executeWithoutResult(status ->
+            statementRunRepository.insertRun(periodStart, periodEnd, runDirectory, createdBy)
+                .ifPresent(runId -> {
+                    int partitions = statementRunRepository.createPartitions(runId, partitionSize);
+                    log.info("Created statement run {} for {} to {} with {} partitions", runId, periodStart,
+                        periodEnd, partitions);
+                }));
+        // Either created above or by a concurrent request for the same period
+        return statementRunRepository.findRunByPeriod(periodStart, periodEnd).orElseThrow();
+    }
+
+    public Optional<StatementRunStatus> findRun(UUID runId) {
+        return statementRunRepository.findRun(runId);
+    }
+
+    /**
+     * Processes every pending partition of the run on the worker pool and waits for them.
+     *
+     * @throws IllegalStateException if the run is already executing on this or another node
+     */
+    public StatementRunStatus execute(UUID runId) {
+        StatementRunStatus run = statementRunRepository.findRun(runId)
+            .orElseThrow(() -> new IllegalArgumentException("Statement run not found"));
+        if (run.getStatus() == RunStatus.COMPLETED) {
+            return run;
+        }
+        String owner = UUID.randomUUID().toString();
+        if (!statementRunRepository.claimRun(runId, owner, LocalDateTime.now(), leaseUntil())) {
+            throw new IllegalStateException("Statement run is already in progress");
+        }
+
+        long startTime = System.currentTimeMillis();
+        RunStatus outcome = RunStatus.FAILED;
+        try {
+            Path runDirectory = Path.of(run.getOutputDirectory());
+            Files.createDirectories(runDirectory.resolve(PARTITION_MANIFEST_DIR));
+
+            List<RunPartition> pending = statementRunRepository.findPendingPartitions(runId);
+            CompletionService<Boolean> completionService = new ExecutorCompletionService<>(workers);
+            for (RunPartition partition : pending) {
+                completionService.submit(() -> processClaimedPartition(run, runDirectory, partition, owner));
+            }
+            int failedPartitions = 0;
+            int skippedPartitions = 0;
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    if (!takeRenewingLease(completionService, runId, owner).get()) {
+                        skippedPartitions++;
+                    }
+                } catch (ExecutionException e) {
+                    failedPartitions++;
+                    log.error("Statement run {} partition failed", runId, e.getCause());
+                }
+            }
+
+            if (skippedPartitions > 0) {
+                log.warn("Statement run {} skipped {} partitions held by another execution, execute it again to resume",
+                    runId, skippedPartitions);
+            } else if (failedPartitions == 0) {
+                writeManifest(runDirectory, run.getTotalPartitions());
+                outcome = RunStatus.COMPLETED;
+            } else {
+                log.warn("Statement run {} left {} partitions pending, execute it again to resume", runId,
+                    failedPartitions);
+            }
+        } catch (IOException e) {
+            log.error("Statement run {} failed", runId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Statement run {} interrupted", runId);
+        } finally {
+            statementRunRepository.finishRun(runId, owner, outcome, System.currentTimeMillis() - startTime,
+                LocalDateTime.now());
+        }
+
+        StatementRunStatus result = statementRunRepository.findRun(runId).orElseThrow();
+        log.info("Statement run {} {}: {} of {} accounts ({} failed) in {} ms, {} accounts/s", runId,
+            result.getStatus(), result.getProcessedAccounts(), result.getTotalAccounts(), result.getFailedAccounts(),
+            result.getElapsedMs(), String.format("%.1f", result.getAccountsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Location of the run's manifest, once the run has completed.
+     */
+    public Optional<Path> findManifest(UUID runId) {
+        return statementRunRepository.findRun(runId)
+            .filter(run -> run.getStatus() == RunStatus.COMPLETED)
+            .map(run -> Path.of(run.getOutputDirectory()).resolve(MANIFEST_FILE))
+            .filter(Files::exists);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Waits for the next partition, renewing the run lease at a third of its length meanwhile.
+     */
+    private Future<Boolean> takeRenewingLease(CompletionService<Boolean> completionService, UUID runId, String owner)
+            throws InterruptedException {
+        while (true) {
+            Future<Boolean> done = completionService.poll(renewIntervalMs(), TimeUnit.MILLISECONDS);
+            if (done != null) {
+                return done;
+            }
+            if (!statementRunRepository.renewRun(runId, owner, leaseUntil())) {
+                log.warn("Statement run {} lease was lost, workers stop at partitions whose lease they cannot renew",
+                    runId);
+            }
+        }
+    }
+
+    /**
+     * Renders a partition once this execution holds its lease. Returns false when another
+     * execution has it, it is already completed, or its lease was lost while rendering.
+     */
+    private boolean processClaimedPartition(StatementRunStatus run, Path runDirectory, RunPartition partition,
+                                            String owner) throws IOException {
+        if (!statementRunRepository.claimPartition(partition.id(), owner, LocalDateTime.now(), leaseUntil())) {
+            return false;
+        }
+        try {
+            return processPartition(run, runDirectory, partition, owner);
+        } catch (IOException | RuntimeException e) {
+            statementRunRepository.releasePartition(partition.id(), owner);
+            throw e;
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plusSeconds(leaseSeconds);
+    }
+
+    private long renewIntervalMs() {
+        return Math.max(1, TimeUnit.SECONDS.toMillis(leaseSeconds) / 3);
+    }
+
+    /**
+     * Renews the partition lease at a third of its length while rendering. Returns false, leaving
+     * the partition pending, when the lease is lost before the partition is checkpointed.
+     */
+    private boolean processPartition(StatementRunStatus run, Path runDirectory, RunPartition partition, String owner)
+            throws IOException {
+        long renewedAt = System.currentTimeMillis();
+        // Opening balances and period lines come from one snapshot so every statement adds up
+        PartitionSnapshot snapshot = snapshotTransactionTemplate.execute(status -> new PartitionSnapshot(
+            statementRunRepository.findPartitionAccounts(partition, run.getPeriodStart()),
+            statementRunRepository.findPartitionLines(partition, run.getPeriodStart(), run.getPeriodEnd())));
+        List<RunAccount> accounts = snapshot.accounts();
+        Map<UUID, List<StatementLine>> linesByAccount = snapshot.linesByAccount();
+
+        int failed = 0;
+        Path partitionManifest = partitionManifest(runDirectory, partition.partitionNumber());
+        Path partialManifest = partitionManifest.resolveSibling(partitionManifest.getFileName() + ".part");
+        try (CSVWriter manifest = new CSVWriter(Files.newBufferedWriter(partialManifest))) {
+            for (RunAccount runAccount : accounts) {
+                if (System.currentTimeMillis() - renewedAt >= renewIntervalMs()) {
+                    if (!statementRunRepository.renewPartition(partition.id(), owner, leaseUntil())) {
+                        log.warn("Statement run {} partition {} lease was lost, stopped rendering", run.getRunId(),
+                            partition.partitionNumber());
+                        return false;
+                    }
+                    renewedAt = System.currentTimeMillis();
+                }
+                List<StatementLine> lines = linesByAccount.getOrDefault(runAccount.account().id(), List.of());
+                StatementSummary summary = StatementSummary.of(runAccount.openingBalance(), lines);
+                String fileName = fileName(runAccount.account().accountNumber());
+                String status = "COMPLETED";
+                String error = "";
+                try {
+                    writeAtomically(runDirectory.resolve(fileName), outputStream ->
+                        accountStatementPdfService.writeAccountStatementPdf(runAccount.account(), summary, lines,
+                            run.getPeriodStart(), run.getPeriodEnd(), outputStream));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Statement for account {} failed", runAccount.account().accountNumber(), e);
+                    failed++;
+                    status = "FAILED";
+                    fileName = "";
+                    error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                }
+                manifest.writeNext(new String[]{
+                    runAccount.account().id().toString(),
+                    runAccount.account().accountNumber(),
+                    runAccount.account().accountName(),
+                    status,
+                    String.valueOf(summary.transactionCount()),
+                    summary.openingBalance().toPlainString(),
+                    summary.totalDebit().toPlainString(),
+                    summary.totalCredit().toPlainString(),
+                    summary.closingBalance().toPlainString(),
+                    fileName,
+                    error});
+            }
+        }
+        // Renewed once more so the lease cannot lapse between the last check and the checkpoint
+        if (!statementRunRepository.renewPartition(partition.id(), owner, leaseUntil())) {
+            log.warn("Statement run {} partition {} lease was lost before its checkpoint", run.getRunId(),
+                partition.partitionNumber());
+            return false;
+        }
+        Files.move(partialManifest, partitionManifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        statementRunRepository.completePartition(partition.id(), owner, accounts.size(), failed, LocalDateTime.now());
+        log.debug("Statement run {} partition {} done: {} accounts, {} failed", run.getRunId(),
+            partition.partitionNumber(), accounts.size(), failed);
+        return true;
+    }
+
+    private void writeManifest(Path runDirectory, int totalPartitions) throws IOException {
+        StringWriter header = new StringWriter();
+        try (CSVWriter csvWriter = new CSVWriter(header)) {
+            csvWriter.writeNext(MANIFEST_HEADER);
+        }
+        Path manifest = runDirectory.resolve(MANIFEST_FILE);
+        Path partial = runDirectory.resolve(MANIFEST_FILE + ".part");
+        try (OutputStream outputStream = Files.newOutputStream(partial)) {
+            outputStream.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            // Partition slices are appended in partition order, which is account id order
+            for (int number = 1; number <= totalPartitions; number++) {
+                Path partitionManifest = partitionManifest(runDirectory, number);
+                if (Files.exists(partitionManifest)) {
+                    Files.copy(partitionManifest, outputStream);
+                }
+            }
+        }
+        Files.move(partial, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes to a temporary sibling first so an interrupted run never leaves a truncated PDF behind.
+     */
+    private void writeAtomically(Path target, Consumer<OutputStream> content) throws IOException {
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try (OutputStream outputStream = Files.newOutputStream(partial)) {
+            content.accept(outputStream);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path partitionManifest(Path runDirectory, int partitionNumber) {
+        return runDirectory.resolve(PARTITION_MANIFEST_DIR).resolve(String.format("partition-%05d.csv", partitionNumber));
+    }
+
+    private static String fileName(String accountNumber) {
+        return accountNumber.replaceAll("[^A-Za-z0-9_-]", "_") + ".pdf";
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record PartitionSnapshot(List<RunAccount> accounts, Map<UUID, List<StatementLine>> linesByAccount) {
+    }
+}
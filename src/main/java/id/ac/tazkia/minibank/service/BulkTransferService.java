@@ -0,0 +1,281 @@
+package id.ac.tazkia.minibank.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import id.ac.tazkia.minibank.dto.BulkTransferResult;
+import id.ac.tazkia.minibank.dto.BulkTransferResult.LineResult;
+import id.ac.tazkia.minibank.dto.BulkTransferResult.LineStatus;
+import id.ac.tazkia.minibank.dto.TransferRequest;
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.entity.Customer;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.PostingRepository;
+import id.ac.tazkia.minibank.repository.PostingRepository.LockedAccount;
+import id.ac.tazkia.minibank.repository.PostingRepository.TransactionRow;
+import id.ac.tazkia.minibank.service.PostingService.TransactionPostedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Posts payroll style batches from a corporate account to many destination accounts.
+ *
+ * All accounts of the batch are locked with one set-based query, every line is validated in
+ * memory, and the postings are written with JDBC batches: one aggregate TRANSFER_OUT on the
+ * source, one TRANSFER_IN per accepted line. Invalid lines are rejected individually and reported;
+ * a batch whose accepted total exceeds the source balance is rejected as a whole.
+ *
+ * Rows are stamped from the database clock read after the locks are taken, one microsecond apart
+ * in posting order, so an account credited several times in one batch keeps its balance chain in
+ * (transaction_date, id) order. Every inserted row publishes a {@link TransactionPostedEvent}, as
+ * single postings do.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkTransferService {
+
+    private final PostingRepository postingRepository;
+    private final SequenceNumberService sequenceNumberService;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${minibank.transfer.batch.max-lines:10000}")
+    private int maxLines;
+
+    @Transactional
+    public BulkTransferResult processBatch(UUID sourceAccountId, List<TransferRequest> lines,
+                                           String batchReference, String description) {
+        long startTime = System.currentTimeMillis();
+
+        if (sourceAccountId == null) {
+            throw new IllegalArgumentException("Source account ID is required");
+        }
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Batch contains no lines");
+        }
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("Batch cannot exceed " + maxLines + " lines");
+        }
+        String reference = batchReference != null && !batchReference.isBlank()
+            ? batchReference.trim()
+            : "BLK" + System.currentTimeMillis();
+
+        Set<String> destinationNumbers = new LinkedHashSet<>();
+        for (TransferRequest line : lines) {
+            if (line.getToAccountNumber() != null && !line.getToAccountNumber().isBlank()) {
+                destinationNumbers.add(line.getToAccountNumber().trim());
+            }
+        }
+
+        // One statement locks the source and every destination in id order
+        List<LockedAccount> lockedAccounts = postingRepository.lockAccountsForBatch(sourceAccountId, destinationNumbers);
+        LockedAccount source = lockedAccounts.stream()
+            .filter(account -> account.id().equals(sourceAccountId))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Source account not found"));
+        validateSource(source);
+
+        Map<String, LockedAccount> accountsByNumber = new HashMap<>();
+        lockedAccounts.forEach(account -> accountsByNumber.put(account.accountNumber(), account));
+
+        BulkTransferResult result = new BulkTransferResult();
+        result.setBatchReference(reference);
+        result.setSourceAccountId(source.id());
+        result.setSourceAccountNumber(source.accountNumber());
+        result.setSourceBalanceBefore(source.balance());
+        result.setSourceBalanceAfter(source.balance());
+        result.setTotalLines(lines.size());
+
+        List<LineResult> acceptedLines = new ArrayList<>();
+        List<LockedAccount> acceptedDestinations = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines.size(); i++) {
+            TransferRequest line = lines.get(i);
+            LineResult lineResult = new LineResult();
+            lineResult.setLineNumber(i + 1);
+            lineResult.setToAccountNumber(line.getToAccountNumber());
+            lineResult.setAmount(line.getAmount());
+            result.getLines().add(lineResult);
+
+            LockedAccount destination = line.getToAccountNumber() != null
+                ? accountsByNumber.get(line.getToAccountNumber().trim())
+                : null;
+            String rejection = validateLine(line, destination, source);
+            if (rejection != null) {
+                lineResult.setStatus(LineStatus.REJECTED);
+                lineResult.setMessage(rejection);
+                continue;
+            }
+            acceptedLines.add(lineResult);
+            acceptedDestinations.add(destination);
+            total = total.add(line.getAmount());
+        }
+
+        result.setRejectedLines(lines.size() - acceptedLines.size());
+        if (acceptedLines.isEmpty()) {
+            log.warn("Bulk transfer {} from {} rejected all {} lines", reference, source.accountNumber(), lines.size());
+            return result;
+        }
+        if (source.balance().compareTo(total) < 0) {
+            throw new IllegalArgumentException(String.format(
+                "Insufficient balance for batch total %s. Available: %s", total, source.balance()));
+        }
+
+        LocalDateTime postedAt = postingRepository.currentTimestamp();
+        String createdBy = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        String channel = Transaction.TransactionChannel.TRANSFER.name();
+        BigDecimal sourceBalanceAfter = source.balance().subtract(total);
+        String debitNumber = nextTransactionNumber();
+
+        List<TransactionRow> rows = new ArrayList<>(acceptedLines.size() + 1);
+        rows.add(new TransactionRow(UUID.randomUUID(), source.id(), debitNumber,
+            Transaction.TransactionType.TRANSFER_OUT.name(), total, source.balance(), sourceBalanceAfter,
+            description != null && !description.isBlank()
+                ? description
+                : String.format("Bulk transfer %s - %d lines", reference, acceptedLines.size()),
+            reference, channel, null, createdBy, postedAt));
+
+        // Running balances so repeated destinations chain correctly within the batch
+        Map<UUID, BigDecimal> balances = new LinkedHashMap<>();
+        balances.put(source.id(), sourceBalanceAfter);
+        for (int i = 0; i < acceptedLines.size(); i++) {
+            LineResult lineResult = acceptedLines.get(i);
+            LockedAccount destination = acceptedDestinations.get(i);
+            TransferRequest line = lines.get(lineResult.getLineNumber() - 1);
+
+            BigDecimal balanceBefore = balances.getOrDefault(destination.id(), destination.balance());
+            BigDecimal balanceAfter = balanceBefore.add(line.getAmount());
+            balances.put(destination.id(), balanceAfter);
+
+            String transactionNumber = nextTransactionNumber();
+            rows.add(new TransactionRow(UUID.randomUUID(), destination.id(), transactionNumber,
+                Transaction.TransactionType.TRANSFER_IN.name(), line.getAmount(), balanceBefore, balanceAfter,
+                String.format("Transfer from %s - %s", source.accountNumber(),
+                    line.getDescription() != null ? line.getDescription() : "Transfer Dana"),
+                line.getReferenceNumber() != null && !line.getReferenceNumber().isBlank()
+                    ? line.getReferenceNumber()
+                    : reference,
+                channel, source.id(), createdBy, postedAt.plus(rows.size(), ChronoUnit.MICROS)));
+
+            lineResult.setStatus(LineStatus.POSTED);
+            lineResult.setTransactionNumber(transactionNumber);
+            lineResult.setBalanceAfter(balanceAfter);
+        }
+
+        postingRepository.batchUpdateBalances(balances, createdBy, rows.getLast().postedAt());
+        postingRepository.batchInsertTransactions(rows);
+        rows.forEach(row -> eventPublisher.publishEvent(new TransactionPostedEvent(row.id())));
+
+        result.setDebitTransactionNumber(debitNumber);
+        result.setSourceBalanceAfter(sourceBalanceAfter);
+        result.setTotalAmount(total);
+        result.setPostedLines(acceptedLines.size());
+        result.setProcessedDate(postedAt);
+
+        log.info("Bulk transfer {} from {} posted {} of {} lines, total {} in {} ms",
+            reference, source.accountNumber(), acceptedLines.size(), lines.size(), total,
+            System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Reads batch lines from CSV with columns toAccountNumber, amount, description, referenceNumber.
+     * A header row is skipped; unparsable amounts are left empty so the line is reported as rejected.
+     */
+    public List<TransferRequest> readCsvLines(Reader reader) {
+        List<TransferRequest> lines = new ArrayList<>();
+        try (CSVReader csvReader = new CSVReader(reader)) {
+            String[] row;
+            boolean first = true;
+            while ((row = csvReader.readNext()) != null) {
+                boolean header = first && row.length > 0 && "toAccountNumber".equalsIgnoreCase(row[0].trim());
+                first = false;
+                if (header || row.length == 0 || (row.length == 1 && row[0].isBlank())) {
+                    continue;
+                }
+                TransferRequest line = new TransferRequest();
+                line.setToAccountNumber(row[0].trim());
+                if (row.length > 1) {
+                    line.setAmount(parseAmount(row[1]));
+                }
+                if (row.length > 2 && !row[2].isBlank()) {
+                    line.setDescription(row[2].trim());
+                }
+                if (row.length > 3 && !row[3].isBlank()) {
+                    line.setReferenceNumber(row[3].trim());
+                }
+                lines.add(line);
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new IllegalArgumentException("Invalid batch file: " + e.getMessage(), e);
+        }
+        return lines;
+    }
+
+    private BigDecimal parseAmount(String value) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void validateSource(LockedAccount source) {
+        if (!Account.AccountStatus.ACTIVE.name().equals(source.status())) {
+            throw new IllegalArgumentException("Source account is not active");
+        }
+        if (!Customer.CustomerType.CORPORATE.name().equals(source.customerType())) {
+            throw new IllegalArgumentException("Bulk transfer is only available for corporate accounts");
+        }
+    }
+
+    /**
+     * Returns the rejection message for a line, or null when the line can be posted.
+     */
+    private String validateLine(TransferRequest line, LockedAccount destination, LockedAccount source) {
+        if (line.getToAccountNumber() == null || line.getToAccountNumber().isBlank()) {
+            return "Destination account is required";
+        }
+        if (line.getAmount() == null || line.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Transfer amount must be greater than zero";
+        }
+        if (line.getAmount().scale() > 2) {
+            return "Transfer amount cannot have more than 2 decimal places";
+        }
+        if (destination == null) {
+            return "Destination account not found: " + line.getToAccountNumber();
+        }
+        if (!Account.AccountStatus.ACTIVE.name().equals(destination.status())) {
+            return "Destination account is not active";
+        }
+        if (destination.id().equals(source.id())) {
+            return "Cannot transfer to the same account";
+        }
+        return null;
+    }
+
+    private String nextTransactionNumber() {
+        return sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
+    }
+}
@@ -0,0 +1,100 @@
+package id.ac.tazkia.minibank.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells the other application nodes that cached data changed, through PostgreSQL LISTEN/NOTIFY.
+ *
+ * {@link #publish} logs the change in cache_invalidations and sends it with pg_notify in the same
+ * statement. Inside a transaction PostgreSQL delivers the notification only when it commits, so
+ * other nodes never evict before the change is visible and never hear about a rollback. The
+ * publishing node has already evicted its own caches; {@link CacheInvalidationListener} applies the
+ * change everywhere else.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus {
+
+    public static final String CHANNEL = "minibank_cache_invalidation";
+
+    public static final String TOPIC_PRODUCTS = "products";
+    public static final String TOPIC_RBAC = "rbac";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long retentionHours;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationBus(NamedParameterJdbcTemplate jdbcTemplate,
+                                @Value("${minibank.cache.invalidation.retention-hours:24}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionHours = retentionHours;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Publishes a change; joins the caller's transaction when there is one.
+     *
+     * @param entityKey key of the changed entity, or null when the whole topic is affected
+     * @return id of the logged invalidation
+     */
+    public long publish(String topic, String entityKey) {
+        Long id = jdbcTemplate.query("""
+            WITH logged AS (
+                INSERT INTO cache_invalidations (topic, entity_key, origin_node)
+                VALUES (:topic, :entityKey, :origin)
+                RETURNING id
+            )
+            SELECT id, pg_notify(:channel, id || ':' || CAST(:origin AS text) || ':' || CAST(:topic AS text)
+                                           || ':' || COALESCE(CAST(:entityKey AS text), ''))
+              FROM logged
+            """, new MapSqlParameterSource()
+                .addValue("topic", topic)
+                .addValue("entityKey", entityKey)
+                .addValue("origin", nodeId)
+                .addValue("channel", CHANNEL),
+            (ResultSetExtractor<Long>) rs -> rs.next() ? rs.getLong("id") : null);
+        if (id == null) {
+            throw new IllegalStateException("Cache invalidation for " + topic + " was not logged");
+        }
+        log.debug("Published cache invalidation {} for {} {}", id, topic, entityKey);
+        return id;
+    }
+
+    @Scheduled(fixedDelayString = "${minibank.cache.invalidation.purge-interval-ms:3600000}")
+    public void purgeOldInvalidations() {
+        int purged = jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_date < :cutoff",
+            Map.of("cutoff", LocalDateTime.now().minus(retentionHours, ChronoUnit.HOURS)));
+        if (purged > 0) {
+            log.info("Purged {} old cache invalidations", purged);
+        }
+    }
+
+    /**
+     * A change as sent on the channel: {@code id:origin:topic:entityKey}.
+     */
+    public record Invalidation(long id, String originNode, String topic, String entityKey) {
+
+        static Invalidation parse(String payload) {
+            String[] parts = payload.split(":", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cache invalidation: " + payload);
+            }
+            return new Invalidation(Long.parseLong(parts[0]), parts[1], parts[2], parts[3].isEmpty() ? null : parts[3]);
+        }
+    }
+}
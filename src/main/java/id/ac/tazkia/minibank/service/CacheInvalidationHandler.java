@@ -0,0 +1,15 @@
+package id.ac.tazkia.minibank.service;
+
+/**
+ * Evicts this node's cached copies for one {@link CacheInvalidationBus} topic when another node
+ * reports a change.
+ */
+public interface CacheInvalidationHandler {
+
+    String topic();
+
+    /**
+     * @param entityKey key of the changed entity, or null when everything under the topic changed
+     */
+    void invalidate(String entityKey);
+}
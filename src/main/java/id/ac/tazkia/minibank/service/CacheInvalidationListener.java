@@ -0,0 +1,257 @@
+package id.ac.tazkia.minibank.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.service.CacheInvalidationBus.Invalidation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies cache invalidations published by other nodes to this node's caches.
+ *
+ * One thread holds a dedicated connection, opened outside the pool, that LISTENs on
+ * {@link CacheInvalidationBus#CHANNEL} and waits for notifications, so changes arrive within
+ * milliseconds of the publisher's commit. When the connection drops the thread reconnects with
+ * backoff and replays the logged invalidations it may have missed: everything after the last id it
+ * saw, plus anything logged shortly before the disconnect, since ids are not committed in order.
+ * Applying an invalidation twice is harmless, so replay errs on the side of repeating. Waiting for
+ * notifications never fails on a half-open TCP connection, so the connection is also validated
+ * with a round trip every few seconds; a dead one goes through the same reconnect and replay.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationListener {
+
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+    private static final long REPLAY_MARGIN_SECONDS = 60;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final JdbcConnectionDetails connectionDetails;
+    private final Map<String, List<CacheInvalidationHandler>> handlersByTopic;
+    private final boolean enabled;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final long validationIntervalMillis;
+
+    private final AtomicLong appliedCount = new AtomicLong();
+    private volatile boolean running;
+    private volatile Thread thread;
+    private volatile boolean connected;
+    private volatile int backendPid;
+    private volatile long lastSeenId = -1;
+    private volatile LocalDateTime lastPollAt;
+
+    public CacheInvalidationListener(CacheInvalidationBus cacheInvalidationBus,
+                                     JdbcConnectionDetails connectionDetails,
+                                     List<CacheInvalidationHandler> handlers,
+                                     @Value("${minibank.cache.invalidation.enabled:true}") boolean enabled,
+                                     @Value("${minibank.cache.invalidation.poll-timeout-ms:500}") int pollTimeoutMillis,
+                                     @Value("${minibank.cache.invalidation.reconnect-delay-ms:1000}") long reconnectDelayMillis,
+                                     @Value("${minibank.cache.invalidation.validation-interval-ms:10000}") long validationIntervalMillis) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.connectionDetails = connectionDetails;
+        this.handlersByTopic = handlers.stream().collect(Collectors.groupingBy(CacheInvalidationHandler::topic));
+        this.enabled = enabled;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Listening for cache invalidations as node {} on topics {}", cacheInvalidationBus.getNodeId(),
+            handlersByTopic.keySet());
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        Thread listener = thread;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(pollTimeoutMillis + 5_000L);
+            thread = null;
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * PostgreSQL backend process of the listening connection, 0 while disconnected.
+     */
+    public int getBackendPid() {
+        return backendPid;
+    }
+
+    public long getLastSeenId() {
+        return lastSeenId;
+    }
+
+    public long getAppliedCount() {
+        return appliedCount.get();
+    }
+
+    private void run() {
+        long delay = reconnectDelayMillis;
+        while (running) {
+            try (Connection connection = connect()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listen(connection);
+                backendPid = pgConnection.getBackendPID();
+                connected = true;
+                delay = reconnectDelayMillis;
+                lastPollAt = LocalDateTime.now();
+                long validatedAt = System.currentTimeMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (System.currentTimeMillis() - validatedAt >= validationIntervalMillis) {
+                        if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                            throw new SQLException("Listener connection did not answer within "
+                                + VALIDATION_TIMEOUT_SECONDS + " s");
+                        }
+                        validatedAt = System.currentTimeMillis();
+                        lastPollAt = LocalDateTime.now();
+                    }
+                    if (notifications != null) {
+                        // Only a live connection delivers notifications; replay starts from here
+                        lastPollAt = LocalDateTime.now();
+                        for (PGNotification notification : notifications) {
+                            if (CacheInvalidationBus.CHANNEL.equals(notification.getName())) {
+                                apply(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener disconnected, reconnecting in {} ms: {}", delay, e.getMessage());
+                }
+            } finally {
+                connected = false;
+                backendPid = 0;
+            }
+
+            if (running && !sleep(delay)) {
+                break;
+            }
+            delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", connectionDetails.getUsername());
+        if (connectionDetails.getPassword() != null) {
+            properties.setProperty("password", connectionDetails.getPassword());
+        }
+        properties.setProperty("ApplicationName", "minibank-cache-invalidation");
+        properties.setProperty("tcpKeepAlive", "true");
+        Connection connection = DriverManager.getConnection(connectionDetails.getJdbcUrl(), properties);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    /**
+     * LISTENs before reading the log, so nothing committed in between is lost. On the first
+     * connection there is nothing cached yet and the log is only used to find where to start.
+     */
+    private void listen(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CacheInvalidationBus.CHANNEL);
+        }
+
+        if (lastSeenId < 0) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM cache_invalidations")) {
+                rs.next();
+                lastSeenId = rs.getLong(1);
+            }
+            return;
+        }
+
+        // lastPollAt is the last moment the connection was known to be alive, not merely polled
+        LocalDateTime since = (lastPollAt != null ? lastPollAt : LocalDateTime.now()).minusSeconds(REPLAY_MARGIN_SECONDS);
+        int replayed = 0;
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT id, origin_node, topic, entity_key FROM cache_invalidations
+                 WHERE id > ? OR created_date >= ?
+                 ORDER BY id
+                """)) {
+            statement.setLong(1, lastSeenId);
+            statement.setTimestamp(2, Timestamp.valueOf(since));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    apply(new Invalidation(rs.getLong("id"), rs.getString("origin_node"),
+                        rs.getString("topic"), rs.getString("entity_key")));
+                    replayed++;
+                }
+            }
+        }
+        log.info("Cache invalidation listener reconnected, replayed {} logged invalidations", replayed);
+    }
+
+    private void apply(String payload) {
+        try {
+            apply(Invalidation.parse(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Invalidation invalidation) {
+        lastSeenId = Math.max(lastSeenId, invalidation.id());
+        if (cacheInvalidationBus.getNodeId().equals(invalidation.originNode())) {
+            return;
+        }
+        for (CacheInvalidationHandler handler : handlersByTopic.getOrDefault(invalidation.topic(), List.of())) {
+            try {
+                handler.invalidate(invalidation.entityKey());
+            } catch (RuntimeException e) {
+                log.error("Failed to apply cache invalidation {} for {}", invalidation.id(), invalidation.topic(), e);
+            }
+        }
+        appliedCount.incrementAndGet();
+        log.debug("Applied cache invalidation {} for {} {} from node {}", invalidation.id(), invalidation.topic(),
+            invalidation.entityKey(), invalidation.originNode());
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,34 +1,33 @@
 package id.ac.tazkia.minibank.service;
 
-import id.ac.tazkia.minibank.entity.UserAccount;
-import id.ac.tazkia.minibank.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.*;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import id.ac.tazkia.minibank.repository.UserAuthorizationRepository;
+import id.ac.tazkia.minibank.security.PermissionTable;
+import id.ac.tazkia.minibank.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
 
 @Service
+@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
-    @Autowired
-    private UserRepository userRepository;
 
+    private final UserAuthorizationRepository userAuthorizationRepository;
+    private final AuthorizationVersionService authorizationVersionService;
+    private final PermissionTableService permissionTableService;
+
+    /**
+     * Builds the principal from a single query for the user and its roles; permissions come from
+     * the compiled table. The version is read first so that a change committed while loading leaves
+     * the principal stale, not wrong.
+     */
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserAccount user = userRepository.findByUsername(username)
+    public UserPrincipal loadUserByUsername(String username) throws UsernameNotFoundException {
+        long version = authorizationVersionService.currentVersion();
+        PermissionTable permissionTable = permissionTableService.current();
+        return userAuthorizationRepository.findByUsername(username)
+            .map(user -> new UserPrincipal(user, permissionTable, version))
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        Set<GrantedAuthority> authorities = user.getRoles().stream()
-            .map(r -> new SimpleGrantedAuthority(r.getName()))
-            .collect(Collectors.toSet());
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                authorities
-        );
     }
 }
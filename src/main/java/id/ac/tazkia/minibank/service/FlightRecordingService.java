@@ -0,0 +1,182 @@
+package id.ac.tazkia.minibank.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.dto.FlightRecordingStatus;
+import id.ac.tazkia.minibank.jfr.ApprovalBulkDecisionEvent;
+import id.ac.tazkia.minibank.jfr.ApprovalDecisionEvent;
+import id.ac.tazkia.minibank.jfr.PdfRenderEvent;
+import id.ac.tazkia.minibank.jfr.PostingEvent;
+import id.ac.tazkia.minibank.jfr.SequenceAllocationEvent;
+import id.ac.tazkia.minibank.jfr.TransferEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controls the JDK Flight Recorder recording that captures the banking events in
+ * {@code id.ac.tazkia.minibank.jfr} next to the JVM's own GC, lock and I/O events.
+ *
+ * One recording at a time is managed. It runs on top of a built-in JFR configuration
+ * ({@code default} costs about 1% and can stay on, {@code profile} adds allocation and more
+ * frequent sampling) with the banking events enabled regardless of its thresholds. The recording
+ * keeps a bounded ring of data in the JFR repository; a dump copies it to
+ * {@code minibank.jfr.dump-dir} as a {@code .jfr} file for JDK Mission Control or {@code jfr print}.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private static final String RECORDING_NAME = "minibank";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final List<Class<? extends Event>> BANKING_EVENTS = List.of(
+        TransferEvent.class, PostingEvent.class, SequenceAllocationEvent.class,
+        PdfRenderEvent.class, ApprovalDecisionEvent.class, ApprovalBulkDecisionEvent.class);
+
+    private final Path dumpDirectory;
+    private final String defaultSettings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final boolean startOnStartup;
+
+    private Recording recording;
+    private String recordingSettings;
+    private Path lastDump;
+
+    public FlightRecordingService(@Value("${minibank.jfr.dump-dir:${java.io.tmpdir}/minibank-jfr}") Path dumpDirectory,
+                                  @Value("${minibank.jfr.settings:default}") String defaultSettings,
+                                  @Value("${minibank.jfr.max-age-minutes:60}") long maxAgeMinutes,
+                                  @Value("${minibank.jfr.max-size-mb:250}") long maxSizeMb,
+                                  @Value("${minibank.jfr.start-on-startup:false}") boolean startOnStartup) {
+        this.dumpDirectory = dumpDirectory;
+        this.defaultSettings = defaultSettings;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.startOnStartup = startOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (startOnStartup) {
+            start(null);
+        }
+    }
+
+    /**
+     * Starts the recording with the named JFR configuration, or {@code minibank.jfr.settings}
+     * when none is given.
+     *
+     * @throws IllegalStateException if a recording is already running
+     * @throws IllegalArgumentException if the configuration does not exist
+     */
+    public synchronized FlightRecordingStatus start(String settings) {
+        if (isRunning()) {
+            throw new IllegalStateException("A flight recording is already running");
+        }
+        String settingsName = settings == null || settings.isBlank() ? defaultSettings : settings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR configuration: " + settingsName, e);
+        }
+
+        closeRecording();
+        Recording newRecording = new Recording(configuration);
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setMaxSize(maxSizeBytes);
+        BANKING_EVENTS.forEach(event -> newRecording.enable(event).withoutThreshold());
+        newRecording.start();
+        recording = newRecording;
+        recordingSettings = settingsName;
+        log.info("Started flight recording with '{}' settings, keeping up to {} / {} MB",
+            settingsName, maxAge, maxSizeBytes / (1024 * 1024));
+        return status();
+    }
+
+    /**
+     * Writes what the running recording holds so far to a new file; recording continues.
+     *
+     * @throws IllegalStateException if no recording is running
+     */
+    public synchronized Path dump() {
+        if (!isRunning()) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        return writeDump(recording, "dump");
+    }
+
+    /**
+     * Stops the recording and writes all of its data to a new file.
+     *
+     * @throws IllegalStateException if no recording is running
+     */
+    public synchronized Path stop() {
+        if (!isRunning()) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        recording.stop();
+        Path file = writeDump(recording, "stop");
+        closeRecording();
+        log.info("Stopped flight recording, written to {}", file);
+        return file;
+    }
+
+    public synchronized FlightRecordingStatus status() {
+        boolean running = isRunning();
+        return new FlightRecordingStatus(
+            running,
+            running ? recordingSettings : null,
+            running ? recording.getStartTime() : null,
+            running ? recording.getSize() : 0,
+            lastDump != null ? lastDump.toString() : null);
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private Path writeDump(Recording source, String reason) {
+        try {
+            Files.createDirectories(dumpDirectory);
+            Path file = dumpDirectory.resolve(
+                "minibank-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "-" + reason + ".jfr");
+            source.dump(file);
+            lastDump = file;
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write flight recording to " + dumpDirectory, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        closeRecording();
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            recordingSettings = null;
+        }
+    }
+}
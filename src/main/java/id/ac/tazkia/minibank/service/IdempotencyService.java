@@ -0,0 +1,343 @@
+package id.ac.tazkia.minibank.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import id.ac.tazkia.minibank.entity.IdempotencyKey;
+import id.ac.tazkia.minibank.repository.IdempotencyKeyRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes posting requests safe to retry.
+ *
+ * A request carrying an idempotency key first claims the key in the idempotency_keys table. The
+ * claimant runs the request and stores its response; later requests with the same key get the
+ * stored response back without running again. Duplicates arriving while the first is still
+ * running wait for it: on the same node through an in-memory future, across nodes by polling the
+ * table. Completed responses are also kept in a small LRU so hot retries skip the database.
+ *
+ * Server errors (5xx) and exceptions from the request release the claim so the client can retry.
+ * Once the request has succeeded the claim is never released: if the response cannot be stored,
+ * the key is marked OUTCOME_UNKNOWN (or, failing that, left IN_PROGRESS) and duplicates are
+ * answered with a conflict until the key expires rather than posted twice. A claim is a lease of a
+ * few minutes, well beyond any request. A lapsed lease is never taken over, because the node that
+ * held it may have died after its posting committed; duplicates simply stop waiting for it and get
+ * the same conflict.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final int STORE_ATTEMPTS = 3;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate claimTransactionTemplate;
+    private final long ttlHours;
+    private final long leaseSeconds;
+    private final long waitTimeoutMs;
+    private final Map<String, StoredResponseEntry> completedCache;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${minibank.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${minibank.idempotency.lease-seconds:300}") long leaseSeconds,
+                              @Value("${minibank.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                              @Value("${minibank.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.leaseSeconds = leaseSeconds;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.completedCache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponseEntry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        // Claims and results are committed independently of the request's own transaction
+        this.claimTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs {@code action} at most once per scope and key.
+     *
+     * @param fingerprint hash of the request payload; a key reused with a different payload is rejected
+     * @throws IdempotencyConflictException if the key is still in progress after the wait timeout,
+     *                                      its request may have run without a stored response,
+     *                                      or it was used for a different request
+     */
+    public StoredResponse execute(String scope, String key, String fingerprint, Supplier<StoredResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = scope + ":" + key;
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+
+        while (true) {
+            Optional<StoredResponse> cached = fromCache(cacheKey, fingerprint);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            if (claim(scope, key, fingerprint, claimedAt)) {
+                return runClaimed(scope, key, claimedAt, cacheKey, fingerprint, action);
+            }
+
+            Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByScopeAndIdempotencyKey(scope, key);
+            if (existing.isPresent()) {
+                IdempotencyKey record = existing.get();
+                if (!record.getRequestHash().equals(fingerprint)) {
+                    throw new IdempotencyConflictException(IdempotencyConflictException.Reason.KEY_REUSED,
+                        "Idempotency key was already used for a different request");
+                }
+                if (record.isCompleted()) {
+                    StoredResponse stored = new StoredResponse(record.getResponseStatus(), record.getResponseBody(), true);
+                    remember(cacheKey, fingerprint, stored, record.getExpiresAt());
+                    return stored;
+                }
+                if (record.isOutcomeUnknown() || leaseLapsed(record)) {
+                    throw new IdempotencyConflictException(IdempotencyConflictException.Reason.OUTCOME_UNKNOWN,
+                        "A request with this idempotency key may already have been processed; check its outcome before retrying with a new key");
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new IdempotencyConflictException(IdempotencyConflictException.Reason.IN_PROGRESS,
+                        "A request with this idempotency key is still being processed");
+                }
+                waitForInFlight(cacheKey, deadline);
+            }
+            // Otherwise the key was released by a failed first attempt; try to claim it again
+        }
+    }
+
+    /**
+     * SHA-256 of the JSON form of the request payload.
+     */
+    public String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    /**
+     * Serializes a response body the same way it would be written to the client.
+     */
+    public StoredResponse toStoredResponse(int status, Object body) {
+        try {
+            String json = body instanceof String text ? text : objectMapper.writeValueAsString(body);
+            return new StoredResponse(status, json, false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minibank.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer purged = claimTransactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(now));
+        synchronized (completedCache) {
+            completedCache.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+        }
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private StoredResponse runClaimed(String scope, String key, LocalDateTime claimedAt, String cacheKey,
+                                      String fingerprint, Supplier<StoredResponse> action) {
+        CompletableFuture<StoredResponse> future = new CompletableFuture<>();
+        inFlight.put(cacheKey, future);
+        try {
+            StoredResponse response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                release(scope, key, claimedAt);
+                future.completeExceptionally(e);
+                throw e;
+            }
+            if (response.status() >= 500) {
+                release(scope, key, claimedAt);
+            } else {
+                store(scope, key, claimedAt, cacheKey, fingerprint, response);
+            }
+            future.complete(response.asReplay());
+            return response;
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    /**
+     * Stores the response of a request that has already run. The posting is committed by now, so
+     * a failure here must not release the claim: the key is marked OUTCOME_UNKNOWN instead and the
+     * response is still kept in this node's cache.
+     */
+    private void store(String scope, String key, LocalDateTime claimedAt, String cacheKey, String fingerprint,
+                       StoredResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int attempt = 1; attempt <= STORE_ATTEMPTS; attempt++) {
+            try {
+                Integer stored = claimTransactionTemplate.execute(status -> idempotencyKeyRepository.complete(
+                    scope, key, claimedAt, response.status(), response.body(), now));
+                if (stored == null || stored == 0) {
+                    log.warn("Idempotency key {}:{} expired and was claimed again; response not stored",
+                        scope, key);
+                }
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == STORE_ATTEMPTS) {
+                    log.error("Failed to store response for idempotency key {}:{}", scope, key, e);
+                    markOutcomeUnknown(scope, key, claimedAt, now);
+                } else {
+                    log.warn("Failed to store response for idempotency key {}:{}, retrying", scope, key, e);
+                    sleepBeforeRetry(attempt);
+                }
+            }
+        }
+        remember(cacheKey, fingerprint, response.asReplay(), now.plusHours(ttlHours));
+    }
+
+    /**
+     * Closes a claim whose request ran but whose response was lost. Should this fail as well, the
+     * key stays IN_PROGRESS, which duplicates treat the same way once its lease lapses.
+     */
+    private void markOutcomeUnknown(String scope, String key, LocalDateTime claimedAt, LocalDateTime now) {
+        try {
+            claimTransactionTemplate.executeWithoutResult(status ->
+                idempotencyKeyRepository.markOutcomeUnknown(scope, key, claimedAt, now));
+        } catch (RuntimeException e) {
+            log.error("Failed to mark idempotency key {}:{} as outcome unknown; it stays in progress until it expires",
+                scope, key, e);
+        }
+    }
+
+    private static boolean leaseLapsed(IdempotencyKey record) {
+        return record.getLockedUntil() != null && record.getLockedUntil().isBefore(LocalDateTime.now());
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean claim(String scope, String key, String fingerprint, LocalDateTime now) {
+        Integer claimed = claimTransactionTemplate.execute(status -> idempotencyKeyRepository.claim(
+            scope, key, fingerprint, now, now.plusHours(ttlHours), now.plusSeconds(leaseSeconds)));
+        return claimed != null && claimed == 1;
+    }
+
+    private void release(String scope, String key, LocalDateTime claimedAt) {
+        try {
+            claimTransactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.release(scope, key, claimedAt));
+        } catch (RuntimeException e) {
+            log.error("Failed to release idempotency key {}:{}", scope, key, e);
+        }
+    }
+
+    /**
+     * Waits on the local future when the first request runs on this node, otherwise sleeps one
+     * poll interval before the caller looks at the table again.
+     */
+    private void waitForInFlight(String cacheKey, long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return;
+        }
+        CompletableFuture<StoredResponse> future = inFlight.get(cacheKey);
+        try {
+            if (future != null) {
+                future.get(remaining, TimeUnit.MILLISECONDS);
+            } else {
+                Thread.sleep(Math.min(POLL_INTERVAL_MS, remaining));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // The first request failed or is slow; the loop re-reads the table to decide
+        }
+    }
+
+    private Optional<StoredResponse> fromCache(String cacheKey, String fingerprint) {
+        StoredResponseEntry entry;
+        synchronized (completedCache) {
+            entry = completedCache.get(cacheKey);
+        }
+        if (entry == null || entry.expiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyConflictException(IdempotencyConflictException.Reason.KEY_REUSED,
+                "Idempotency key was already used for a different request");
+        }
+        return Optional.of(entry.response());
+    }
+
+    private void remember(String cacheKey, String fingerprint, StoredResponse response, LocalDateTime expiresAt) {
+        synchronized (completedCache) {
+            completedCache.put(cacheKey, new StoredResponseEntry(fingerprint, response, expiresAt));
+        }
+    }
+
+    public record StoredResponse(int status, String body, boolean replayed) {
+
+        StoredResponse asReplay() {
+            return new StoredResponse(status, body, true);
+        }
+    }
+
+    private record StoredResponseEntry(String fingerprint, StoredResponse response, LocalDateTime expiresAt) {
+    }
+
+    @Getter
+    public static class IdempotencyConflictException extends RuntimeException {
+
+        public enum Reason {
+            IN_PROGRESS, OUTCOME_UNKNOWN, KEY_REUSED
+        }
+
+        private final Reason reason;
+
+        public IdempotencyConflictException(Reason reason, String message) {
+            super(message);
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package id.ac.tazkia.minibank.service;
+
+import id.ac.tazkia.minibank.dto.PassbookPage;
+import id.ac.tazkia.minibank.entity.PassbookCursor;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.PassbookCursorRepository;
+import id.ac.tazkia.minibank.repository.TransactionRepository;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Incremental passbook printing.
+ *
+ * Each account keeps the (transaction_date, id) of its last printed line. A print reads only the
+ * next page of transactions after that position, and each line shows its stored balance_after,
+ * so the cost is one page no matter how long the account's history is. The teller confirms a
+ * page once it is physically printed, which moves the cursor forward with one conditional insert
+ * or update that never moves it backwards.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PassbookService {
+
+    private static final int MAX_LINES_PER_PAGE = 100;
+
+    private final PassbookCursorRepository passbookCursorRepository;
+    private final TransactionRepository transactionRepository;
+    private final AuditorAware<String> auditorAware;
+
+    @Transactional(readOnly = true)
+    public PassbookPage findUnprintedLines(UUID accountId, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_LINES_PER_PAGE);
+        Optional<PassbookCursor> cursor = passbookCursorRepository.findByAccountId(accountId);
+
+        // One extra row tells whether more unprinted lines follow
+        List<Transaction> rows = cursor
+            .map(c -> transactionRepository.findPassbookLinesAfter(accountId,
+                c.getLastTransactionDate(), c.getLastTransactionId(), Limit.of(pageSize + 1)))
+            .orElseGet(() -> transactionRepository.findPassbookLines(accountId, Limit.of(pageSize + 1)));
+
+        PassbookPage page = new PassbookPage();
+        page.setHasMore(rows.size() > pageSize);
+        page.setLines(new ArrayList<>(rows.size() > pageSize ? rows.subList(0, pageSize) : rows));
+        page.setFirstLineNumber(cursor.map(PassbookCursor::getPrintedLines).orElse(0L) + 1);
+        if (!page.getLines().isEmpty()) {
+            page.setLastTransactionId(page.getLines().get(page.getLines().size() - 1).getId());
+        }
+        return page;
+    }
+
+    /**
+     * Marks every unprinted line up to and including {@code lastTransactionId} as printed.
+     *
+     * @return the number of lines newly marked as printed
+     */
+    @Transactional
+    public long confirmPrinted(UUID accountId, UUID lastTransactionId) {
+        Transaction last = transactionRepository.findById(lastTransactionId)
+            .filter(transaction -> transaction.getAccount().getId().equals(accountId))
+            .orElseThrow(() -> new IllegalArgumentException("Transaction does not belong to this account"));
+
+        long printed = passbookCursorRepository.advance(accountId, last.getTransactionDate(), last.getId(),
+                auditorAware.getCurrentAuditor().orElse("SYSTEM"))
+            .orElse(0L);
+        if (printed == 0) {
+            // Already confirmed, e.g. by a resubmitted form or another teller
+            return 0;
+        }
+
+        log.info("Passbook for account {} printed {} lines up to transaction {}", accountId, printed, last.getTransactionNumber());
+        return printed;
+    }
+}
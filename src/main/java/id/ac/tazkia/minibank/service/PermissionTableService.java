@@ -0,0 +1,51 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.repository.UserAuthorizationRepository;
+import id.ac.tazkia.minibank.security.PermissionTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the compiled {@link PermissionTable}.
+ *
+ * The table is loaded at startup and rebuilt whenever role or permission assignments change;
+ * readers always see one complete table, either the old or the new one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PermissionTableService {
+
+    private final UserAuthorizationRepository userAuthorizationRepository;
+    private final AtomicReference<PermissionTable> table = new AtomicReference<>();
+
+    public PermissionTable current() {
+        PermissionTable current = table.get();
+        return current != null ? current : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (table.get() == null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Compiles a new table from the database, keeping the ordinals of the current one.
+     */
+    public synchronized PermissionTable rebuild() {
+        PermissionTable previous = table.get();
+        PermissionTable compiled = PermissionTable.compile(previous != null ? previous : PermissionTable.EMPTY,
+            userAuthorizationRepository.findPermissionCodes(), userAuthorizationRepository.findActiveRoleGrants());
+        table.set(compiled);
+        log.info("Compiled {}", compiled);
+        return compiled;
+    }
+}
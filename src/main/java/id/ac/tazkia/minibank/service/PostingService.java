@@ -0,0 +1,173 @@
+package id.ac.tazkia.minibank.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.jfr.PostingEvent;
+import id.ac.tazkia.minibank.repository.PostingRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single entry point for every balance-changing transaction.
+ *
+ * A posting is one conditional UPDATE ... RETURNING on the account combined with the INSERT of
+ * the transaction row, so the happy path costs one round trip. The account row is only locked
+ * for the duration of that statement; no entity is loaded or saved.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostingService {
+
+    private static final String TRANSACTION_NUMBER_SEQUENCE = "TRANSACTION_NUMBER";
+    private static final String TRANSACTION_NUMBER_PREFIX = "TXN";
+    private static final String SYSTEM_USER = "SYSTEM";
+
+    private final PostingRepository postingRepository;
+    private final SequenceNumberService sequenceNumberService;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    @Timed(value = "minibank.posting", extraTags = {"type", "deposit"}, description = "Cash posting")
+    public PostingResult deposit(UUID accountId, BigDecimal amount, String description, String referenceNumber) {
+        PostingRequest request = new PostingRequest(accountId, Transaction.TransactionType.DEPOSIT, amount);
+        request.setDescription(description);
+        request.setReferenceNumber(referenceNumber);
+        return post(request);
+    }
+
+    @Transactional
+    @Timed(value = "minibank.posting", extraTags = {"type", "withdrawal"}, description = "Cash posting")
+    public PostingResult withdraw(UUID accountId, BigDecimal amount, String description, String referenceNumber) {
+        PostingRequest request = new PostingRequest(accountId, Transaction.TransactionType.WITHDRAWAL, amount);
+        request.setDescription(description);
+        request.setReferenceNumber(referenceNumber);
+        return post(request);
+    }
+
+    /**
+     * Posts a single transaction leg.
+     *
+     * @throws PostingRejectedException if the account does not exist, is not active, or would go negative
+     */
+    @Transactional
+    public PostingResult post(PostingRequest request) {
+        if (request.getAccountId() == null) {
+            throw new IllegalArgumentException("Account ID is required");
+        }
+        if (request.getTransactionType() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+
+        PostingEvent event = new PostingEvent();
+        event.begin();
+        PostingResult result = null;
+        String rejectionReason = "";
+        try {
+            result = postValidated(request);
+            return result;
+        } catch (PostingRejectedException e) {
+            rejectionReason = e.getReason().name();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.accountId = request.getAccountId().toString();
+                event.transactionType = request.getTransactionType().name();
+                event.amount = request.getAmount().doubleValue();
+                event.transactionNumber = result != null ? result.getTransactionNumber() : null;
+                event.rejectionReason = rejectionReason;
+                event.commit();
+            }
+        }
+    }
+
+    private PostingResult postValidated(PostingRequest request) {
+        BigDecimal delta = isCredit(request.getTransactionType())
+            ? request.getAmount()
+            : request.getAmount().negate();
+        String transactionNumber = sequenceNumberService.generateNextSequence(
+            TRANSACTION_NUMBER_SEQUENCE, TRANSACTION_NUMBER_PREFIX);
+        Transaction.TransactionChannel channel = request.getChannel() != null
+            ? request.getChannel()
+            : Transaction.TransactionChannel.TELLER;
+
+        PostingResult result = postingRepository.post(
+                request.getAccountId(),
+                delta,
+                request.getAmount(),
+                request.getTransactionType().name(),
+                transactionNumber,
+                request.getDescription(),
+                request.getReferenceNumber(),
+                channel.name(),
+                request.getDestinationAccountId(),
+                resolveCreatedBy(request))
+            .orElseThrow(() -> rejection(request.getAccountId()));
+
+        log.debug("Posted {} {} on account {} amount {} balance {} -> {}",
+            result.getTransactionType(), result.getTransactionNumber(), result.getAccountNumber(),
+            result.getAmount(), result.getBalanceBefore(), result.getBalanceAfter());
+        eventPublisher.publishEvent(new TransactionPostedEvent(result.getTransactionId()));
+        return result;
+    }
+
+    private boolean isCredit(Transaction.TransactionType type) {
+        return type == Transaction.TransactionType.DEPOSIT || type == Transaction.TransactionType.TRANSFER_IN;
+    }
+
+    private String resolveCreatedBy(PostingRequest request) {
+        if (request.getCreatedBy() != null) {
+            return request.getCreatedBy();
+        }
+        return auditorAware.getCurrentAuditor().orElse(SYSTEM_USER);
+    }
+
+    /**
+     * The conditional update matched no row; a second read explains why.
+     */
+    private PostingRejectedException rejection(UUID accountId) {
+        return postingRepository.findAccountStatus(accountId)
+            .map(status -> Account.AccountStatus.ACTIVE.name().equals(status)
+                ? new PostingRejectedException(PostingRejectedException.Reason.INSUFFICIENT_BALANCE, "Insufficient balance")
+                : new PostingRejectedException(PostingRejectedException.Reason.ACCOUNT_NOT_ACTIVE, "Account is not active"))
+            .orElseGet(() -> new PostingRejectedException(PostingRejectedException.Reason.ACCOUNT_NOT_FOUND, "Account not found"));
+    }
+
+    /**
+     * Published for every posted transaction; transactional listeners see it only after commit.
+     */
+    public record TransactionPostedEvent(UUID transactionId) {
+    }
+
+    @Getter
+    public static class PostingRejectedException extends IllegalArgumentException {
+
+        public enum Reason {
+            ACCOUNT_NOT_FOUND, ACCOUNT_NOT_ACTIVE, INSUFFICIENT_BALANCE
+        }
+
+        private final Reason reason;
+
+        public PostingRejectedException(Reason reason, String message) {
+            super(message);
+            this.reason = reason;
+        }
+    }
+}
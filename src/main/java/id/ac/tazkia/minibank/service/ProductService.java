@@ -1,8 +1,11 @@
 package id.ac.tazkia.minibank.service;
 
+import id.ac.tazkia.minibank.config.CacheConfig;
 import id.ac.tazkia.minibank.entity.Product;
 import id.ac.tazkia.minibank.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -12,12 +15,24 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Product catalog lookups.
+ *
+ * The lookups used when opening accounts are cached (see {@link CacheConfig}); every write through
+ * this service clears the product caches once its transaction commits. Cached products are shared
+ * instances and must never be modified: pass {@link #update} a product bound from a form or loaded
+ * from ProductRepository, or use {@link #activate} and {@link #softDelete}, which load their own copy.
+ * Write products through this service rather than ProductRepository so the caches stay current.
+ * Writes are also published on the {@link CacheInvalidationBus} so other nodes clear their product
+ * caches on commit.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     public Page<Product> findAll(Pageable pageable) {
         return productRepository.findAll(pageable);
@@ -27,14 +42,17 @@ public class ProductService {
         return productRepository.findAll();
     }
     
+    @Cacheable(CacheConfig.ACTIVE_PRODUCTS)
     public List<Product> findActiveProducts() {
         return productRepository.findByIsActiveTrue();
     }
     
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_ID, unless = "#result == null")
     public Optional<Product> findById(UUID id) {
         return productRepository.findById(id);
     }
     
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_CODE, unless = "#result == null")
     public Optional<Product> findByProductCode(String productCode) {
         return productRepository.findByProductCode(productCode);
     }
@@ -51,17 +69,24 @@ public class ProductService {
         return productRepository.findActiveProductsWithFilters(productType, category, searchTerm, pageable);
     }
     
+    @Cacheable(CacheConfig.PRODUCT_CATEGORIES)
     public List<String> findDistinctCategories() {
         return productRepository.findDistinctActiveCategories();
     }
     
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_CODE,
+        CacheConfig.ACTIVE_PRODUCTS, CacheConfig.PRODUCT_CATEGORIES}, allEntries = true)
     public Product save(Product product) {
         validateProduct(product);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publishChange(saved.getId());
+        return saved;
     }
     
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_CODE,
+        CacheConfig.ACTIVE_PRODUCTS, CacheConfig.PRODUCT_CATEGORIES}, allEntries = true)
     public Product update(Product product) {
         validateProduct(product);
         if (product.getId() == null) {
@@ -70,24 +95,51 @@ public class ProductService {
         if (!productRepository.existsById(product.getId())) {
             throw new IllegalArgumentException("Product with ID " + product.getId() + " not found for update");
         }
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publishChange(saved.getId());
+        return saved;
     }
     
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_CODE,
+        CacheConfig.ACTIVE_PRODUCTS, CacheConfig.PRODUCT_CATEGORIES}, allEntries = true)
     public void deleteById(UUID id) {
         productRepository.deleteById(id);
+        publishChange(id);
     }
     
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_CODE,
+        CacheConfig.ACTIVE_PRODUCTS, CacheConfig.PRODUCT_CATEGORIES}, allEntries = true)
     public void softDelete(UUID id) {
         Optional<Product> product = productRepository.findById(id);
         if (product.isPresent()) {
             Product p = product.get();
             p.setIsActive(false);
             productRepository.save(p);
+            publishChange(id);
         }
     }
     
+    /**
+     * Activates the product loaded from the repository rather than the cached instance, so a
+     * failed write never leaves a changed product in the caches. Returns false when it does not exist.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_CODE,
+        CacheConfig.ACTIVE_PRODUCTS, CacheConfig.PRODUCT_CATEGORIES}, allEntries = true)
+    public boolean activate(UUID id) {
+        Optional<Product> product = productRepository.findById(id);
+        if (product.isEmpty()) {
+            return false;
+        }
+        Product p = product.get();
+        p.setIsActive(true);
+        productRepository.save(p);
+        publishChange(id);
+        return true;
+    }
+    
     public boolean existsByProductCode(String productCode) {
         return productRepository.existsByProductCode(productCode);
     }
@@ -97,6 +149,10 @@ public class ProductService {
         return existing.isPresent() && !existing.get().getId().equals(id);
     }
     
+    private void publishChange(UUID productId) {
+        cacheInvalidationBus.publish(CacheInvalidationBus.TOPIC_PRODUCTS, productId != null ? productId.toString() : null);
+    }
+    
     private void validateProduct(Product product) {
         if (product.getProductCode() == null || product.getProductCode().trim().isEmpty()) {
             throw new IllegalArgumentException("Product code is required");
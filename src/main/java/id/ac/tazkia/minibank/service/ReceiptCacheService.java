@@ -0,0 +1,238 @@
+package id.ac.tazkia.minibank.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.TransactionRepository;
+import id.ac.tazkia.minibank.service.PostingService.TransactionPostedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves transaction receipt PDFs from a two-tier cache.
+ *
+ * A posted transaction never changes, so its receipt is rendered once and kept: recent receipts
+ * in a size-bounded in-memory LRU, all of them on local disk until the disk TTL passes. Each
+ * receipt carries a weak ETag built from the transaction id and the receipt template version, so
+ * it survives re-rendering and changes only when the layout does. It is weak because iText stamps
+ * fresh PDF metadata on every render: two renders are the same receipt but not the same bytes,
+ * so the tag must not be used for byte ranges. Optionally
+ * receipts are rendered in the background right after a posting commits, so the first download
+ * is already a cache hit.
+ */
+@Slf4j
+@Service
+public class ReceiptCacheService {
+
+    private static final String FILE_SUFFIX = ".receipt";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionReceiptPdfService receiptPdfService;
+    private final Path cacheDirectory;
+    private final boolean prerenderEnabled;
+    private final Duration diskTtl;
+    private final Map<UUID, Receipt> memoryCache;
+    private final ThreadPoolExecutor prerenderExecutor;
+
+    public ReceiptCacheService(TransactionRepository transactionRepository,
+                               TransactionReceiptPdfService receiptPdfService,
+                               @Value("${minibank.receipt.cache.dir:${java.io.tmpdir}/minibank-receipts}") Path cacheDirectory,
+                               @Value("${minibank.receipt.cache.size:1000}") int cacheSize,
+                               @Value("${minibank.receipt.cache.disk-ttl-days:30}") long diskTtlDays,
+                               @Value("${minibank.receipt.prerender.enabled:false}") boolean prerenderEnabled,
+                               @Value("${minibank.receipt.prerender.queue-capacity:1000}") int prerenderQueueCapacity) {
+        this.transactionRepository = transactionRepository;
+        this.receiptPdfService = receiptPdfService;
+        this.cacheDirectory = cacheDirectory;
+        this.prerenderEnabled = prerenderEnabled;
+        this.diskTtl = Duration.ofDays(diskTtlDays);
+        this.memoryCache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Receipt> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        // Pre-rendering is best effort: when tellers post faster than receipts render, the
+        // overflow is dropped and rendered on first download instead
+        this.prerenderExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(prerenderQueueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "receipt-prerender");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Returns the receipt of a transaction, rendering and caching it on first use.
+     */
+    public Optional<Receipt> findReceipt(UUID transactionId) {
+        Receipt cached;
+        synchronized (memoryCache) {
+            cached = memoryCache.get(transactionId);
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Receipt> stored = readFromDisk(transactionId);
+        if (stored.isPresent()) {
+            remember(transactionId, stored.get());
+            return stored;
+        }
+
+        Optional<Transaction> transaction = transactionRepository.findByIdWithAccount(transactionId);
+        if (transaction.isEmpty()) {
+            return Optional.empty();
+        }
+        Receipt receipt = render(transaction.get());
+        writeToDisk(transactionId, receipt);
+        remember(transactionId, receipt);
+        return Optional.of(receipt);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (prerenderEnabled) {
+            prerenderExecutor.execute(() -> {
+                try {
+                    findReceipt(event.transactionId());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to pre-render receipt for transaction {}", event.transactionId(), e);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minibank.receipt.cache.purge-interval-ms:86400000}")
+    public void purgeExpiredFiles() {
+        if (!Files.isDirectory(cacheDirectory)) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(diskTtl));
+        int purged = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                    purged++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to purge receipt cache in {}", cacheDirectory, e);
+        }
+        if (purged > 0) {
+            log.info("Purged {} cached receipts older than {} days", purged, diskTtl.toDays());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prerenderExecutor.shutdownNow();
+    }
+
+    private Receipt render(Transaction transaction) {
+        // balance_after is recorded with the posting, unlike the account balance which keeps moving
+        byte[] content = receiptPdfService.generateTransactionReceiptPdf(
+            transaction, transaction.getAccount(), transaction.getBalanceAfter());
+        log.debug("Rendered receipt for transaction {} with {} bytes", transaction.getTransactionNumber(), content.length);
+        return new Receipt(transaction.getTransactionNumber(), content, etag(transaction.getId()));
+    }
+
+    /**
+     * A cache file holds the transaction number on its first line followed by the PDF.
+     */
+    private Optional<Receipt> readFromDisk(UUID transactionId) {
+        try (InputStream inputStream = Files.newInputStream(cacheFile(transactionId))) {
+            byte[] data = inputStream.readAllBytes();
+            int newline = indexOfNewline(data);
+            if (newline < 0) {
+                return Optional.empty();
+            }
+            String transactionNumber = new String(data, 0, newline, StandardCharsets.UTF_8);
+            byte[] content = Arrays.copyOfRange(data, newline + 1, data.length);
+            return Optional.of(new Receipt(transactionNumber, content, etag(transactionId)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Failed to read cached receipt for transaction {}", transactionId, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeToDisk(UUID transactionId, Receipt receipt) {
+        Path target = cacheFile(transactionId);
+        Path partial = cacheDirectory.resolve(transactionId + FILE_SUFFIX + "." + UUID.randomUUID() + ".part");
+        try {
+            Files.createDirectories(cacheDirectory);
+            try (OutputStream outputStream = Files.newOutputStream(partial)) {
+                outputStream.write((receipt.transactionNumber() + "\n").getBytes(StandardCharsets.UTF_8));
+                outputStream.write(receipt.content());
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The receipt is still served from memory; disk is only a second tier
+            log.warn("Failed to cache receipt for transaction {} on disk", transactionId, e);
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Left for the next purge
+            }
+        }
+    }
+
+    private void remember(UUID transactionId, Receipt receipt) {
+        synchronized (memoryCache) {
+            memoryCache.put(transactionId, receipt);
+        }
+    }
+
+    private Path cacheFile(UUID transactionId) {
+        return cacheDirectory.resolve(transactionId + FILE_SUFFIX);
+    }
+
+    private static int indexOfNewline(byte[] data) {
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String etag(UUID transactionId) {
+        return "W/\"" + transactionId + "-v" + TransactionReceiptPdfService.RECEIPT_TEMPLATE_VERSION + "\"";
+    }
+
+    /**
+     * A rendered receipt. {@code etag} is a quoted weak validator, ready for the ETag header.
+     */
+    public record Receipt(String transactionNumber, byte[] content, String etag) {
+
+        public String filename() {
+            return "receipt_" + transactionNumber + ".pdf";
+        }
+    }
+}
@@ -1,62 +1,183 @@
 package id.ac.tazkia.minibank.service;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import id.ac.tazkia.minibank.entity.SequenceNumber;
+import id.ac.tazkia.minibank.jfr.SequenceAllocationEvent;
+import id.ac.tazkia.minibank.repository.SequenceBlockRepository;
+import id.ac.tazkia.minibank.repository.SequenceBlockRepository.SequenceBlockAllocation;
 import id.ac.tazkia.minibank.repository.SequenceNumberRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Generates business numbers from the sequence_numbers table.
+ *
+ * Sequences listed in {@code minibank.sequence.block-allocated} are served from blocks of
+ * {@code minibank.sequence.block-size} numbers reserved per JVM from a PostgreSQL sequence, created
+ * at startup and seeded from the sequence_numbers row. Numbers inside a block are handed out from
+ * memory without locking. A block is reserved with {@code nextval} on the caller's own connection,
+ * so threads waiting for a refill never need a second pooled connection. Numbers are unique across
+ * nodes but not gap-free: a block that is not used up before shutdown is simply abandoned. All
+ * other sequences keep the row-locked, gap-free path.
+ */
+@Slf4j
 @Service
 @Transactional
 public class SequenceNumberService {
-    
+
     private final SequenceNumberRepository sequenceNumberRepository;
-    
-    public SequenceNumberService(SequenceNumberRepository sequenceNumberRepository) {
+    private final SequenceBlockRepository sequenceBlockRepository;
+    private final long blockSize;
+    private final Set<String> blockAllocatedSequences;
+    private final ConcurrentMap<String, SequenceBlockHolder> blocks = new ConcurrentHashMap<>();
+
+    public SequenceNumberService(SequenceNumberRepository sequenceNumberRepository,
+                                 SequenceBlockRepository sequenceBlockRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${minibank.sequence.block-size:1000}") long blockSize,
+                                 @Value("${minibank.sequence.block-allocated:TRANSACTION_NUMBER}") List<String> blockAllocatedSequences) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Sequence block size must be at least 1");
+        }
         this.sequenceNumberRepository = sequenceNumberRepository;
+        this.sequenceBlockRepository = sequenceBlockRepository;
+        this.blockSize = blockSize;
+        this.blockAllocatedSequences = new HashSet<>(blockAllocatedSequences);
+        if (blockSize > 1) {
+            // Creating the sequences is DDL; do it once here rather than on a request thread
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                this.blockAllocatedSequences.forEach(name -> sequenceBlockRepository.provision(name, blockSize)));
+        }
     }
-    
+
+    @Timed(value = "minibank.sequence.allocation", description = "Sequence number allocation")
     public String generateNextSequence(String sequenceName, String prefix) {
-        SequenceNumber sequence = getOrCreateSequence(sequenceName, prefix);
-        String result = sequence.generateNextSequence();
-        sequenceNumberRepository.save(sequence);
-        return result;
+        SequenceAllocationEvent event = new SequenceAllocationEvent();
+        event.begin();
+        boolean blockAllocated = isBlockAllocated(sequenceName);
+        boolean blockReserved = false;
+        try {
+            if (blockAllocated) {
+                ReservedNumber reserved = nextFromBlock(sequenceName, prefix);
+                blockReserved = reserved.blockReserved();
+                return SequenceNumber.format(reserved.prefix(), reserved.number());
+            }
+            SequenceNumber sequence = getOrCreateSequence(sequenceName, prefix);
+            String result = sequence.generateNextSequence();
+            sequenceNumberRepository.save(sequence);
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sequenceName = sequenceName;
+                event.blockAllocated = blockAllocated;
+                event.blockReserved = blockReserved;
+                event.commit();
+            }
+        }
     }
-    
+
+    @Timed(value = "minibank.sequence.allocation", description = "Sequence number allocation")
     public String generateNextSequence(String sequenceName) {
         return generateNextSequence(sequenceName, null);
     }
-    
+
     public Long getNextNumber(String sequenceName, String prefix) {
+        if (isBlockAllocated(sequenceName)) {
+            return nextFromBlock(sequenceName, prefix).number();
+        }
         SequenceNumber sequence = getOrCreateSequence(sequenceName, prefix);
         Long result = sequence.getNextNumber();
         sequenceNumberRepository.save(sequence);
         return result;
     }
-    
+
     public Long getNextNumber(String sequenceName) {
         return getNextNumber(sequenceName, null);
     }
-    
+
+    /**
+     * Resets the stored sequence value. For block-allocated sequences the database sequence is
+     * reset as well and only the block cached by this JVM is discarded; other nodes keep serving
+     * their current block until it runs out.
+     */
     public void resetSequence(String sequenceName, Long startNumber) {
-        Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceName(sequenceName);
+        if (isBlockAllocated(sequenceName)) {
+            sequenceBlockRepository.reset(sequenceName, startNumber);
+        }
+        Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceNameWithLock(sequenceName);
         if (sequenceOpt.isPresent()) {
             SequenceNumber sequence = sequenceOpt.get();
             sequence.resetSequence(startNumber);
             sequenceNumberRepository.save(sequence);
         }
+        blocks.remove(sequenceName);
     }
-    
+
+    /**
+     * Returns the stored value. For block-allocated sequences this is the highest number reserved
+     * by any node, not the last number handed out.
+     */
     public Long getCurrentNumber(String sequenceName) {
+        if (isBlockAllocated(sequenceName)) {
+            return sequenceBlockRepository.currentValue(sequenceName);
+        }
         Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceName(sequenceName);
         return sequenceOpt.map(SequenceNumber::getLastNumber).orElse(0L);
     }
-    
+
+    private boolean isBlockAllocated(String sequenceName) {
+        return blockSize > 1 && blockAllocatedSequences.contains(sequenceName);
+    }
+
+    private ReservedNumber nextFromBlock(String sequenceName, String prefix) {
+        SequenceBlockHolder holder = blocks.computeIfAbsent(sequenceName, name -> new SequenceBlockHolder());
+        boolean reserved = false;
+        while (true) {
+            SequenceBlock block = holder.current;
+            if (block != null) {
+                long number = block.tryTake();
+                if (number > 0) {
+                    return new ReservedNumber(block.prefix, number, reserved);
+                }
+            }
+            synchronized (holder) {
+                // Another thread may have refilled while we waited for the monitor. The refill runs
+                // on this thread's own connection, so waiting threads never starve it of one.
+                if (holder.current == block) {
+                    holder.current = reserveBlock(sequenceName, prefix);
+                    reserved = true;
+                }
+            }
+        }
+    }
+
+    private SequenceBlock reserveBlock(String sequenceName, String prefix) {
+        SequenceBlockAllocation allocation = sequenceBlockRepository.reserveBlock(sequenceName, prefix);
+        if (allocation == null) {
+            throw new IllegalStateException("Failed to reserve sequence block for " + sequenceName);
+        }
+        long first = allocation.lastNumber() - allocation.blockSize() + 1;
+        log.debug("Reserved sequence block {} [{} - {}]", sequenceName, first, allocation.lastNumber());
+        return new SequenceBlock(allocation.prefix(), first, allocation.lastNumber());
+    }
+
     private SequenceNumber getOrCreateSequence(String sequenceName, String prefix) {
-        Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceName(sequenceName);
-        
+        Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceNameWithLock(sequenceName);
+
         if (sequenceOpt.isPresent()) {
             return sequenceOpt.get();
         } else {
@@ -67,4 +188,32 @@ public class SequenceNumberService {
             return sequenceNumberRepository.save(sequence);
         }
     }
+
+    private static final class SequenceBlockHolder {
+        private volatile SequenceBlock current;
+    }
+
+    private record ReservedNumber(String prefix, long number, boolean blockReserved) {
+    }
+
+    /**
+     * A reserved range [first, last] shared by all threads of this JVM.
+     */
+    private static final class SequenceBlock {
+        private final String prefix;
+        private final AtomicLong next;
+        private final long last;
+
+        private SequenceBlock(String prefix, long first, long last) {
+            this.prefix = prefix;
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        /** Claims the next number without locking, or returns -1 once the block is used up. */
+        private long tryTake() {
+            long value = next.getAndIncrement();
+            return value > last ? -1 : value;
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package id.ac.tazkia.minibank.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.dto.StatementJob;
+import id.ac.tazkia.minibank.dto.StatementJob.JobStatus;
+import id.ac.tazkia.minibank.entity.Account;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates account statements in the background so request threads are not held while large
+ * PDFs are rendered.
+ *
+ * Jobs run on a fixed pool with a bounded queue; when the queue is full new submissions are
+ * refused rather than piling up. A request for the same account and period as a job that is still
+ * queued or running returns that job instead of starting another; once a job has finished, a new
+ * request renders a fresh statement so postings made since are included. Finished files live in
+ * local storage and are deleted, together with their job, once the TTL has passed.
+ *
+ * Job state is kept in memory, so status and downloads are only available on the node that
+ * accepted the job.
+ */
+@Slf4j
+@Service
+public class StatementJobService {
+
+    private final AccountStatementPdfService accountStatementPdfService;
+    private final Path storageDirectory;
+    private final long ttlMinutes;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<UUID, StatementJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, UUID> jobsByRequest = new ConcurrentHashMap<>();
+
+    public StatementJobService(AccountStatementPdfService accountStatementPdfService,
+                               @Value("${minibank.statement.jobs.storage-dir:${java.io.tmpdir}/minibank-statements}") Path storageDirectory,
+                               @Value("${minibank.statement.jobs.workers:2}") int workers,
+                               @Value("${minibank.statement.jobs.queue-capacity:50}") int queueCapacity,
+                               @Value("${minibank.statement.jobs.ttl-minutes:60}") long ttlMinutes) {
+        this.accountStatementPdfService = accountStatementPdfService;
+        this.storageDirectory = storageDirectory;
+        this.ttlMinutes = ttlMinutes;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "statement-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues a statement, or returns the pending job for the same account and period.
+     *
+     * @throws IllegalStateException if the queue is full
+     */
+    public StatementJob submit(Account account, LocalDate startDate, LocalDate endDate) {
+        String requestKey = requestKey(account.getId(), startDate, endDate);
+        while (true) {
+            UUID existingId = jobsByRequest.get(requestKey);
+            if (existingId != null) {
+                StatementJob existing = jobs.get(existingId);
+                if (existing != null && (existing.getStatus() == JobStatus.QUEUED || existing.getStatus() == JobStatus.RUNNING)) {
+                    return existing;
+                }
+                // Finished or already purged; a finished job stays downloadable by its id until it expires
+                jobsByRequest.remove(requestKey, existingId);
+                continue;
+            }
+
+            StatementJob job = new StatementJob();
+            job.setJobId(UUID.randomUUID());
+            job.setAccountId(account.getId());
+            job.setAccountNumber(account.getAccountNumber());
+            job.setStartDate(startDate);
+            job.setEndDate(endDate);
+            job.setSubmittedAt(LocalDateTime.now());
+            if (jobsByRequest.putIfAbsent(requestKey, job.getJobId()) != null) {
+                // Another thread registered the same request first
+                continue;
+            }
+            jobs.put(job.getJobId(), job);
+
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getJobId());
+                jobsByRequest.remove(requestKey, job.getJobId());
+                throw new IllegalStateException("Statement queue is full, please try again later");
+            }
+            log.info("Queued statement job {} for account {} ({} to {})", job.getJobId(),
+                account.getAccountNumber(), startDate, endDate);
+            return job;
+        }
+    }
+
+    public Optional<StatementJob> findJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Scheduled(fixedDelayString = "${minibank.statement.jobs.cleanup-interval-ms:300000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (!isExpired(job, now)) {
+                return false;
+            }
+            deleteQuietly(job.getFile());
+            jobsByRequest.remove(requestKey(job.getAccountId(), job.getStartDate(), job.getEndDate()), job.getJobId());
+            log.debug("Purged statement job {}", job.getJobId());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(StatementJob job) {
+        job.setStartedAt(LocalDateTime.now());
+        job.setStatus(JobStatus.RUNNING);
+        Path target = storageDirectory.resolve(job.getJobId() + ".pdf");
+        Path partial = storageDirectory.resolve(job.getJobId() + ".pdf.part");
+        try {
+            Files.createDirectories(storageDirectory);
+            try (OutputStream outputStream = Files.newOutputStream(partial)) {
+                accountStatementPdfService.writeAccountStatementPdf(job.getAccountId(), job.getStartDate(),
+                    job.getEndDate(), outputStream);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.setFile(target);
+            job.setFileSize(Files.size(target));
+            job.setStatus(JobStatus.COMPLETED);
+            log.info("Statement job {} completed, {} bytes", job.getJobId(), job.getFileSize());
+        } catch (IOException | RuntimeException e) {
+            log.error("Statement job {} failed", job.getJobId(), e);
+            deleteQuietly(partial);
+            job.setErrorMessage("Failed to generate statement");
+            job.setStatus(JobStatus.FAILED);
+        } finally {
+            job.setCompletedAt(LocalDateTime.now());
+            job.setExpiresAt(job.getCompletedAt().plusMinutes(ttlMinutes));
+        }
+    }
+
+    private static boolean isExpired(StatementJob job, LocalDateTime now) {
+        return job.getExpiresAt() != null && !job.getExpiresAt().isAfter(now);
+    }
+
+    private static String requestKey(UUID accountId, LocalDate startDate, LocalDate endDate) {
+        return accountId + ":" + startDate + ":" + endDate;
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete statement file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package id.ac.tazkia.minibank.service;
+
+import id.ac.tazkia.minibank.dto.CursorPage;
+import id.ac.tazkia.minibank.dto.TransactionCursor;
+import id.ac.tazkia.minibank.dto.TransactionHistoryItem;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.TransactionHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cursor based browsing of transactions, newest first.
+ *
+ * Every page costs one index seek plus {@code size + 1} rows, no matter how deep the client has
+ * paged. Totals are not counted exactly; the unfiltered list shows the planner's estimate, cached
+ * for a short while. A page, including the fallback to the first page when a backward cursor has
+ * nothing newer, is read from one REPEATABLE READ snapshot.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TransactionHistoryRepository transactionHistoryRepository;
+
+    @Value("${minibank.transaction.count-cache-ms:60000}")
+    private long countCacheMs;
+
+    private volatile CachedCount cachedCount;
+
+    /**
+     * @param after  cursor of the last row of the previous page, to page towards older rows
+     * @param before cursor of the first row of the current page, to page back towards newer rows
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<Transaction> findTransactions(UUID accountId, Transaction.TransactionType transactionType,
+                                                    String searchTerm, String after, String before, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        String search = searchTerm != null && !searchTerm.isBlank() ? searchTerm.trim() : null;
+        TransactionCursor afterCursor = after != null && !after.isBlank() ? TransactionCursor.decode(after) : null;
+        TransactionCursor beforeCursor = afterCursor == null && before != null && !before.isBlank()
+            ? TransactionCursor.decode(before)
+            : null;
+        boolean backward = beforeCursor != null;
+
+        List<Transaction> rows = transactionHistoryRepository.findSlice(accountId, transactionType, search,
+            backward ? beforeCursor : afterCursor, backward, pageSize + 1);
+        if (backward && rows.isEmpty()) {
+            // Nothing newer than the cursor any more; fall back to the first page
+            return findTransactions(accountId, transactionType, searchTerm, null, null, size);
+        }
+
+        boolean more = rows.size() > pageSize;
+        List<Transaction> content = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(content);
+        }
+
+        CursorPage<Transaction> page = new CursorPage<>();
+        page.setContent(content);
+        page.setSize(pageSize);
+        page.setHasNext(backward || more);
+        page.setHasPrevious(backward ? more : afterCursor != null);
+        if (page.isHasNext() && !content.isEmpty()) {
+            page.setNextCursor(cursorOf(content.get(content.size() - 1)).encode());
+        }
+        if (page.isHasPrevious() && !content.isEmpty()) {
+            page.setPreviousCursor(cursorOf(content.get(0)).encode());
+        }
+        if (accountId == null && transactionType == null && search == null) {
+            page.setEstimatedTotal(estimatedTotal());
+        }
+        return page;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<TransactionHistoryItem> findHistory(UUID accountId, Transaction.TransactionType transactionType,
+                                                          String after, String before, int size) {
+        return findTransactions(accountId, transactionType, null, after, before, size).map(this::toHistoryItem);
+    }
+
+    /**
+     * Best matches for {@code term} across transaction number, description and reference number,
+     * ranked by trigram similarity rather than date.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionHistoryItem> search(String term, int limit) {
+        if (term == null || term.isBlank()) {
+            throw new IllegalArgumentException("Search term is required");
+        }
+        List<UUID> rankedIds = transactionHistoryRepository.findRankedIds(term.trim(), Math.clamp(limit, 1, MAX_PAGE_SIZE));
+        Map<UUID, Transaction> byId = new HashMap<>();
+        transactionHistoryRepository.findAllWithAccountByIds(rankedIds)
+            .forEach(transaction -> byId.put(transaction.getId(), transaction));
+        return rankedIds.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(this::toHistoryItem)
+            .toList();
+    }
+
+    private long estimatedTotal() {
+        CachedCount cached = cachedCount;
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+        long estimate = transactionHistoryRepository.estimateRowCount();
+        if (estimate < 0) {
+            // Never analyzed, so the table is new and still small enough to count
+            estimate = transactionHistoryRepository.countRows();
+        }
+        cachedCount = new CachedCount(estimate, now + countCacheMs);
+        return estimate;
+    }
+
+    private TransactionCursor cursorOf(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getId());
+    }
+
+    private TransactionHistoryItem toHistoryItem(Transaction transaction) {
+        TransactionHistoryItem item = new TransactionHistoryItem();
+        item.setTransactionId(transaction.getId());
+        item.setTransactionNumber(transaction.getTransactionNumber());
+        item.setTransactionType(transaction.getTransactionType().name());
+        item.setAccountId(transaction.getAccount().getId());
+        item.setAccountNumber(transaction.getAccount().getAccountNumber());
+        item.setAccountName(transaction.getAccount().getAccountName());
+        item.setAmount(transaction.getAmount());
+        item.setBalanceBefore(transaction.getBalanceBefore());
+        item.setBalanceAfter(transaction.getBalanceAfter());
+        item.setCurrency(transaction.getCurrency());
+        item.setDescription(transaction.getDescription());
+        item.setReferenceNumber(transaction.getReferenceNumber());
+        item.setChannel(transaction.getChannel() != null ? transaction.getChannel().name() : null);
+        item.setTransactionDate(transaction.getTransactionDate());
+        item.setCreatedBy(transaction.getCreatedBy());
+        return item;
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+}
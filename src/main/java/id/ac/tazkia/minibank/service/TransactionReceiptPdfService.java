@@ -6,26 +6,34 @@ import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.jfr.PdfRenderEvent;
+import id.ac.tazkia.minibank.util.CurrencyFormats;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Slf4j
 @Service
 public class TransactionReceiptPdfService {
 
+    /** Bump whenever the receipt layout or wording changes; cached receipts are validated against it. */
+    public static final int RECEIPT_TEMPLATE_VERSION = 1;
+
     private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-    private static final DecimalFormat CURRENCY_FORMAT = new DecimalFormat("#,##0.00");
     private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
     private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
     private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
     private static final Font SMALL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 8);
 
+    @Timed(value = "minibank.pdf.render", extraTags = {"document", "receipt", "mode", "buffered"})
     public byte[] generateTransactionReceiptPdf(Transaction transaction, Account account, BigDecimal balanceAfter) {
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             // Create document with smaller page size for receipt
             Rectangle pageSize = new Rectangle(226, 567); // 8cm x 20cm in points
@@ -43,14 +51,25 @@ public class TransactionReceiptPdfService {
             addTransactionDetails(document, transaction, account, balanceAfter);
             
             // Footer
-            addReceiptFooter(document);
+            addReceiptFooter(document, transaction);
 
             document.close();
-            return baos.toByteArray();
+            byte[] pdf = baos.toByteArray();
+            event.size = pdf.length;
+            return pdf;
             
         } catch (Exception e) {
             log.error("Error generating transaction receipt PDF for transaction: {}", transaction.getTransactionNumber(), e);
             throw new RuntimeException("Failed to generate transaction receipt PDF", e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.document = "receipt";
+                event.mode = "buffered";
+                event.accountNumber = account.getAccountNumber();
+                event.transactionCount = 1;
+                event.commit();
+            }
         }
     }
 
@@ -104,12 +123,12 @@ public class TransactionReceiptPdfService {
         addReceiptRow(table, "Channel:", transaction.getChannel().name());
         
         // Amount
-        String amountText = "IDR " + CURRENCY_FORMAT.format(transaction.getAmount());
+        String amountText = "IDR " + CurrencyFormats.format(transaction.getAmount());
         addReceiptRow(table, "Amount:", amountText);
         
         // Balance after transaction
         if (balanceAfter != null) {
-            String balanceText = "IDR " + CURRENCY_FORMAT.format(balanceAfter);
+            String balanceText = "IDR " + CurrencyFormats.format(balanceAfter);
             addReceiptRow(table, "Balance:", balanceText);
         }
         
@@ -122,7 +141,7 @@ public class TransactionReceiptPdfService {
         document.add(Chunk.NEWLINE);
     }
 
-    private void addReceiptFooter(Document document) throws DocumentException {
+    private void addReceiptFooter(Document document, Transaction transaction) throws DocumentException {
         document.add(new Paragraph("=" + "=".repeat(25), SMALL_FONT));
         
         Paragraph footer = new Paragraph("Thank you for banking with us\nTerima kasih telah menggunakan layanan kami", SMALL_FONT);
@@ -131,7 +150,11 @@ public class TransactionReceiptPdfService {
         
         document.add(Chunk.NEWLINE);
         
-        Paragraph timestamp = new Paragraph("Printed: " + java.time.LocalDateTime.now().format(DATE_TIME_FORMAT), SMALL_FONT);
+        // Receipts are cached, so the footer shows when the transaction was processed rather than the print time
+        LocalDateTime processedAt = transaction.getProcessedDate() != null
+            ? transaction.getProcessedDate()
+            : transaction.getTransactionDate();
+        Paragraph timestamp = new Paragraph("Processed: " + processedAt.format(DATE_TIME_FORMAT), SMALL_FONT);
         timestamp.setAlignment(Element.ALIGN_CENTER);
         document.add(timestamp);
         
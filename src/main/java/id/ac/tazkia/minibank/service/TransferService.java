@@ -1,154 +1,279 @@
 package id.ac.tazkia.minibank.service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
 import id.ac.tazkia.minibank.dto.TransferRequest;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.jfr.TransferEvent;
 import id.ac.tazkia.minibank.repository.AccountRepository;
-import id.ac.tazkia.minibank.repository.TransactionRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class TransferService {
-    
+public class TransferService implements MeterBinder {
+
+    // serialization_failure and deadlock_detected
+    private static final Set<String> RETRYABLE_SQL_STATES = Set.of("40001", "40P01");
+    private static final long MAX_BACKOFF_MS = 1000;
+
     private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
-    private final SequenceNumberService sequenceNumberService;
-    
+    private final PostingService postingService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder retryExhaustedCount = new LongAdder();
+
+    public TransferService(AccountRepository accountRepository,
+                           PostingService postingService,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${minibank.transfer.max-attempts:5}") int maxAttempts,
+                           @Value("${minibank.transfer.retry-backoff-ms:20}") long retryBackoffMs) {
+        this.accountRepository = accountRepository;
+        this.postingService = postingService;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        // Every attempt needs a transaction of its own: joining a caller's transaction would leave
+        // a retry inside a transaction the failed attempt already marked rollback-only.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     /**
      * Validates transfer request and populates destination account information
      */
     public TransferRequest validateTransfer(TransferRequest transferRequest) {
-        // Validate source account
         Optional<Account> fromAccountOpt = accountRepository.findById(transferRequest.getFromAccountId());
+        Optional<Account> toAccountOpt = accountRepository.findByAccountNumber(transferRequest.getToAccountNumber());
+
+        Account toAccount = validateAccounts(transferRequest, fromAccountOpt, toAccountOpt);
+
+        // Populate destination account information for confirmation
+        transferRequest.setToAccountId(toAccount.getId());
+        transferRequest.setDestinationAccountName(toAccount.getAccountName());
+        transferRequest.setDestinationCustomerName(toAccount.getCustomer().getDisplayName());
+
+        return transferRequest;
+    }
+
+    /**
+     * Processes the transfer between accounts.
+     *
+     * Both accounts are locked in id order by a single SELECT ... FOR UPDATE, validated against
+     * the locked state and then posted. Serialization failures and deadlocks roll back the whole
+     * attempt and are retried with exponential backoff up to minibank.transfer.max-attempts.
+     * Each attempt runs in a new transaction, so the transfer commits on its own even when the
+     * caller has a transaction open.
+     */
+    @Timed(value = "minibank.transfer", description = "Transfer posting including lock retries")
+    public void processTransfer(TransferRequest transferRequest) {
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        int attempt = 1;
+        String outcome = "FAILED";
+        try {
+            while (true) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> postTransfer(transferRequest));
+                    outcome = "POSTED";
+                    return;
+                } catch (RuntimeException e) {
+                    if (!isRetryable(e)) {
+                        if (e instanceof IllegalArgumentException) {
+                            outcome = "REJECTED";
+                        }
+                        throw e;
+                    }
+                    if (attempt >= maxAttempts) {
+                        retryExhaustedCount.increment();
+                        log.error("Transfer {} failed after {} attempts", transferRequest.getReferenceNumber(), attempt, e);
+                        throw e;
+                    }
+                    retryCount.increment();
+                    long backoff = backoffMillis(attempt);
+                    log.warn("Transfer {} hit a lock conflict on attempt {}, retrying in {} ms: {}",
+                        transferRequest.getReferenceNumber(), attempt, backoff, e.getMessage());
+                    sleep(backoff);
+                    attempt++;
+                }
+            }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.referenceNumber = transferRequest.getReferenceNumber();
+                event.fromAccountId = String.valueOf(transferRequest.getFromAccountId());
+                event.toAccountNumber = transferRequest.getToAccountNumber();
+                event.amount = transferRequest.getAmount() != null ? transferRequest.getAmount().doubleValue() : 0;
+                event.attempts = attempt;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private void postTransfer(TransferRequest transferRequest) {
+        List<Account> lockedAccounts = accountRepository.findTransferAccountsForUpdate(
+            transferRequest.getFromAccountId(), transferRequest.getToAccountNumber());
+
+        Optional<Account> fromAccountOpt = lockedAccounts.stream()
+            .filter(account -> account.getId().equals(transferRequest.getFromAccountId()))
+            .findFirst();
+        Optional<Account> toAccountOpt = lockedAccounts.stream()
+            .filter(account -> account.getAccountNumber().equals(transferRequest.getToAccountNumber()))
+            .findFirst();
+
+        Account toAccount = validateAccounts(transferRequest, fromAccountOpt, toAccountOpt);
+        Account fromAccount = fromAccountOpt.get();
+        transferRequest.setToAccountId(toAccount.getId());
+
+        log.info("Processing transfer: {} from {} to {} amount: {}",
+            transferRequest.getReferenceNumber(), fromAccount.getAccountNumber(),
+            toAccount.getAccountNumber(), transferRequest.getAmount());
+
+        String createdBy = transferRequest.getCreatedBy() != null ? transferRequest.getCreatedBy() : "SYSTEM";
+
+        // Debit first so an insufficient balance rejects the transfer before anything is credited
+        PostingRequest transferOut = new PostingRequest(fromAccount.getId(),
+            Transaction.TransactionType.TRANSFER_OUT, transferRequest.getAmount());
+        transferOut.setDestinationAccountId(toAccount.getId());
+        transferOut.setDescription(String.format("Transfer to %s - %s",
+            toAccount.getAccountNumber(), transferRequest.getDescription()));
+        transferOut.setReferenceNumber(transferRequest.getReferenceNumber());
+        transferOut.setChannel(Transaction.TransactionChannel.TRANSFER);
+        transferOut.setCreatedBy(createdBy);
+        PostingResult outResult = postingService.post(transferOut);
+
+        PostingRequest transferIn = new PostingRequest(toAccount.getId(),
+            Transaction.TransactionType.TRANSFER_IN, transferRequest.getAmount());
+        transferIn.setDestinationAccountId(fromAccount.getId());
+        transferIn.setDescription(String.format("Transfer from %s - %s",
+            fromAccount.getAccountNumber(), transferRequest.getDescription()));
+        transferIn.setReferenceNumber(transferRequest.getReferenceNumber());
+        transferIn.setChannel(Transaction.TransactionChannel.TRANSFER);
+        transferIn.setCreatedBy(createdBy);
+        PostingResult inResult = postingService.post(transferIn);
+
+        log.info("Transfer completed successfully. TXN OUT: {}, TXN IN: {}",
+            outResult.getTransactionNumber(), inResult.getTransactionNumber());
+    }
+
+    /**
+     * Applies the transfer business rules and returns the destination account.
+     */
+    private Account validateAccounts(TransferRequest transferRequest, Optional<Account> fromAccountOpt,
+                                     Optional<Account> toAccountOpt) {
         if (fromAccountOpt.isEmpty()) {
             throw new IllegalArgumentException("Source account not found");
         }
-        
+
         Account fromAccount = fromAccountOpt.get();
         if (!fromAccount.isActive()) {
             throw new IllegalArgumentException("Source account is not active");
         }
-        
-        // Validate destination account
-        Optional<Account> toAccountOpt = accountRepository.findByAccountNumber(transferRequest.getToAccountNumber());
+
         if (toAccountOpt.isEmpty()) {
             throw new IllegalArgumentException("Destination account not found: " + transferRequest.getToAccountNumber());
         }
-        
+
         Account toAccount = toAccountOpt.get();
         if (!toAccount.isActive()) {
             throw new IllegalArgumentException("Destination account is not active");
         }
-        
+
         // Check for self-transfer
         if (fromAccount.getId().equals(toAccount.getId())) {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
-        
+
         // Validate amount
         if (transferRequest.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Transfer amount must be greater than zero");
         }
-        
+
         if (fromAccount.getBalance().compareTo(transferRequest.getAmount()) < 0) {
             throw new IllegalArgumentException("Insufficient balance. Available: " + fromAccount.getBalance());
         }
-        
-        // Populate destination account information for confirmation
-        transferRequest.setToAccountId(toAccount.getId());
-        transferRequest.setDestinationAccountName(toAccount.getAccountName());
-        transferRequest.setDestinationCustomerName(toAccount.getCustomer().getDisplayName());
-        
-        return transferRequest;
+
+        return toAccount;
+    }
+
+    private boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && RETRYABLE_SQL_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private long backoffMillis(int attempt) {
+        long exponential = Math.min(MAX_BACKOFF_MS, retryBackoffMs << Math.min(attempt - 1, 16));
+        // Jitter keeps competing transfers from retrying in lockstep
+        return ThreadLocalRandom.current().nextLong(exponential / 2, exponential + 1);
     }
-    
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry transfer", e);
+        }
+    }
+
     /**
-     * Processes the transfer between accounts
+     * Number of transfer attempts retried after a serialization failure or deadlock
      */
-    @Transactional
-    public void processTransfer(TransferRequest transferRequest) {
-        // Re-validate accounts (in case status changed between validation and processing)
-        validateTransfer(transferRequest);
-        
-        // Get accounts
-        Account fromAccount = accountRepository.findById(transferRequest.getFromAccountId())
-            .orElseThrow(() -> new IllegalArgumentException("Source account not found"));
-        Account toAccount = accountRepository.findById(transferRequest.getToAccountId())
-            .orElseThrow(() -> new IllegalArgumentException("Destination account not found"));
-        
-        log.info("Processing transfer: {} from {} to {} amount: {}", 
-            transferRequest.getReferenceNumber(), fromAccount.getAccountNumber(), 
-            toAccount.getAccountNumber(), transferRequest.getAmount());
-        
-        // Record balances before transfer
-        BigDecimal fromBalanceBefore = fromAccount.getBalance();
-        BigDecimal toBalanceBefore = toAccount.getBalance();
-        
-        // Generate transaction numbers
-        String transferOutTxnNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-        String transferInTxnNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-        
-        // Process transfer using entity business methods
-        fromAccount.transferOut(transferRequest.getAmount());
-        toAccount.transferIn(transferRequest.getAmount());
-        
-        // Create transfer out transaction
-        Transaction transferOutTransaction = new Transaction();
-        transferOutTransaction.setAccount(fromAccount);
-        transferOutTransaction.setDestinationAccount(toAccount);
-        transferOutTransaction.setTransactionNumber(transferOutTxnNumber);
-        transferOutTransaction.setTransactionType(Transaction.TransactionType.TRANSFER_OUT);
-        transferOutTransaction.setAmount(transferRequest.getAmount());
-        transferOutTransaction.setBalanceBefore(fromBalanceBefore);
-        transferOutTransaction.setBalanceAfter(fromAccount.getBalance());
-        transferOutTransaction.setDescription(String.format("Transfer to %s - %s", 
-            toAccount.getAccountNumber(), transferRequest.getDescription()));
-        transferOutTransaction.setReferenceNumber(transferRequest.getReferenceNumber());
-        transferOutTransaction.setChannel(Transaction.TransactionChannel.TRANSFER);
-        transferOutTransaction.setTransactionDate(LocalDateTime.now());
-        transferOutTransaction.setProcessedDate(LocalDateTime.now());
-        transferOutTransaction.setCreatedBy(transferRequest.getCreatedBy() != null ? 
-            transferRequest.getCreatedBy() : "SYSTEM");
-        
-        // Create transfer in transaction
-        Transaction transferInTransaction = new Transaction();
-        transferInTransaction.setAccount(toAccount);
-        transferInTransaction.setDestinationAccount(fromAccount);
-        transferInTransaction.setTransactionNumber(transferInTxnNumber);
-        transferInTransaction.setTransactionType(Transaction.TransactionType.TRANSFER_IN);
-        transferInTransaction.setAmount(transferRequest.getAmount());
-        transferInTransaction.setBalanceBefore(toBalanceBefore);
-        transferInTransaction.setBalanceAfter(toAccount.getBalance());
-        transferInTransaction.setDescription(String.format("Transfer from %s - %s", 
-            fromAccount.getAccountNumber(), transferRequest.getDescription()));
-        transferInTransaction.setReferenceNumber(transferRequest.getReferenceNumber());
-        transferInTransaction.setChannel(Transaction.TransactionChannel.TRANSFER);
-        transferInTransaction.setTransactionDate(LocalDateTime.now());
-        transferInTransaction.setProcessedDate(LocalDateTime.now());
-        transferInTransaction.setCreatedBy(transferRequest.getCreatedBy() != null ? 
-            transferRequest.getCreatedBy() : "SYSTEM");
-        
-        // Save all entities
-        transactionRepository.save(transferOutTransaction);
-        transactionRepository.save(transferInTransaction);
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
-        
-        log.info("Transfer completed successfully. TXN OUT: {}, TXN IN: {}", 
-            transferOutTxnNumber, transferInTxnNumber);
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    /**
+     * Number of transfers that still failed after exhausting all retry attempts
+     */
+    public long getRetryExhaustedCount() {
+        return retryExhaustedCount.sum();
     }
-    
+
+    /**
+     * Publishes the retry counters as minibank.transfer.retries and
+     * minibank.transfer.retries.exhausted to every meter registry in the context.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("minibank.transfer.retries", this, TransferService::getRetryCount)
+            .description("Transfer attempts retried after a serialization failure or deadlock")
+            .register(registry);
+        FunctionCounter.builder("minibank.transfer.retries.exhausted", this, TransferService::getRetryExhaustedCount)
+            .description("Transfers that failed after exhausting all retry attempts")
+            .register(registry);
+    }
+
     /**
      * Gets account information for display
      */
@@ -156,7 +281,7 @@ public class TransferService {
         return accountRepository.findById(accountId)
             .orElseThrow(() -> new IllegalArgumentException("Account not found"));
     }
-    
+
     /**
      * Gets account by account number for lookup
      */
@@ -0,0 +1,21 @@
+package id.ac.tazkia.minibank.util;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+
+/**
+ * Formats amounts the way printed documents show them, e.g. {@code 1,250,000.00}.
+ */
+public final class CurrencyFormats {
+
+    // DecimalFormat is not thread-safe and documents are rendered on several threads at once
+    private static final ThreadLocal<DecimalFormat> AMOUNT_FORMAT =
+        ThreadLocal.withInitial(() -> new DecimalFormat("#,##0.00"));
+
+    private CurrencyFormats() {
+    }
+
+    public static String format(BigDecimal amount) {
+        return AMOUNT_FORMAT.get().format(amount);
+    }
+}
@@ -0,0 +1,74 @@
+package id.ac.tazkia.minibank.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Counts the SQL statements executed on the current thread while a {@link Counter} is open.
+ *
+ * The proxied DataSource reports every statement here; the request filter opens a counter per
+ * HTTP request and tests open their own around the code under test. Counters nest, so a test
+ * counter also sees statements counted by the request filter inside it.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<Deque<Counter>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private QueryStats() {
+    }
+
+    /**
+     * Opens a counter on the current thread; close it on the same thread.
+     */
+    public static Counter start() {
+        Counter counter = new Counter();
+        ACTIVE.get().push(counter);
+        return counter;
+    }
+
+    /**
+     * Records one executed statement (a JDBC batch counts once) with its database time.
+     */
+    public static void record(boolean select, long elapsedMillis) {
+        Deque<Counter> counters = ACTIVE.get();
+        if (counters.isEmpty()) {
+            ACTIVE.remove();
+            return;
+        }
+        for (Counter counter : counters) {
+            counter.statements++;
+            if (select) {
+                counter.selects++;
+            }
+            counter.elapsedMillis += elapsedMillis;
+        }
+    }
+
+    public static final class Counter implements AutoCloseable {
+
+        private int statements;
+        private int selects;
+        private long elapsedMillis;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getSelects() {
+            return selects;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public void close() {
+            Deque<Counter> counters = ACTIVE.get();
+            counters.remove(this);
+            if (counters.isEmpty()) {
+                ACTIVE.remove();
+            }
+        }
+    }
+}
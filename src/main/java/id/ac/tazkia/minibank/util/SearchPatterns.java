@@ -0,0 +1,28 @@
+package id.ac.tazkia.minibank.util;
+
+/**
+ * Builds ILIKE patterns for substring search. Queries using these patterns must declare
+ * {@code ESCAPE '!'}; a non-backslash escape character keeps HQL and SQL literals identical.
+ */
+public final class SearchPatterns {
+
+    public static final char ESCAPE_CHAR = '!';
+
+    private SearchPatterns() {
+    }
+
+    /**
+     * Pattern matching values that contain {@code term}, with wildcard characters in the term
+     * taken literally.
+     */
+    public static String containing(String term) {
+        StringBuilder pattern = new StringBuilder(term.length() + 8).append('%');
+        for (char c : term.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE_CHAR) {
+                pattern.append(ESCAPE_CHAR);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,27 @@
+-- Idempotency keys for posting endpoints
+-- A row is claimed IN_PROGRESS before the request runs and holds the stored response once COMPLETED.
+-- A claim is never taken over once its lease lapses: the request it guarded may already have posted,
+-- so a key whose response could not be stored is marked OUTCOME_UNKNOWN and answers with a conflict
+-- until it expires instead of letting a retry post a second time.
+-- Expired rows are purged periodically and may be re-claimed before the purge runs.
+
+CREATE TABLE idempotency_keys (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    scope VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'OUTCOME_UNKNOWN')),
+    response_status INTEGER,
+    response_body TEXT,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_date TIMESTAMP,
+    locked_until TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT uk_idempotency_keys_scope_key UNIQUE (scope, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
+
+COMMENT ON COLUMN idempotency_keys.locked_until IS 'End of the lease of an IN_PROGRESS claim; duplicates stop waiting once it lapses';
+COMMENT ON COLUMN idempotency_keys.expires_at IS 'How long the key and its stored response are kept';
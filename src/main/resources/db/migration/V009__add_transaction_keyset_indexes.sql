@@ -0,0 +1,11 @@
+-- Composite indexes backing keyset pagination on (transaction_date, id)
+-- Each list query seeks into one of these indexes and reads exactly one page, whatever the depth.
+-- The single-column indexes they replace are prefixes of the new ones.
+
+DROP INDEX IF EXISTS idx_transactions_transaction_date;
+DROP INDEX IF EXISTS idx_transactions_account;
+DROP INDEX IF EXISTS idx_transactions_transaction_type;
+
+CREATE INDEX idx_transactions_date_id ON transactions(transaction_date DESC, id DESC);
+CREATE INDEX idx_transactions_account_date_id ON transactions(id_accounts, transaction_date DESC, id DESC);
+CREATE INDEX idx_transactions_type_date_id ON transactions(transaction_type, transaction_date DESC, id DESC);
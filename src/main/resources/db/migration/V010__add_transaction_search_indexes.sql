@@ -0,0 +1,9 @@
+-- Trigram indexes for substring search on transactions
+-- gin_trgm_ops answers ILIKE '%term%' from the index, so searches no longer scan the whole table.
+-- Terms shorter than three characters produce no trigrams and still fall back to a scan.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_transactions_number_trgm ON transactions USING gin (transaction_number gin_trgm_ops);
+CREATE INDEX idx_transactions_description_trgm ON transactions USING gin (description gin_trgm_ops);
+CREATE INDEX idx_transactions_reference_trgm ON transactions USING gin (reference_number gin_trgm_ops);
@@ -0,0 +1,16 @@
+-- Per-account position of the last transaction printed in the passbook
+-- Printing reads only the transactions after this position, using idx_transactions_account_date_id.
+
+CREATE TABLE passbook_cursors (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id_accounts UUID NOT NULL,
+    last_transaction_date TIMESTAMP NOT NULL,
+    last_transaction_id UUID NOT NULL,
+    printed_lines BIGINT NOT NULL DEFAULT 0,
+    created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_by VARCHAR(100),
+
+    CONSTRAINT uk_passbook_cursors_account UNIQUE (id_accounts),
+    CONSTRAINT fk_passbook_cursors_accounts FOREIGN KEY (id_accounts) REFERENCES accounts(id)
+);
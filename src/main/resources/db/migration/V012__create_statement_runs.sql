@@ -0,0 +1,51 @@
+-- Month-end statement runs over all ACTIVE accounts, one run per period
+-- Accounts are split into id ranges when the run is created; each partition is marked COMPLETED once
+-- its PDFs and its part of the manifest are on disk, so a crashed run resumes with the remaining ones.
+-- A node executes a run only after claiming it with a conditional update, and each worker claims its
+-- partition the same way, so two nodes never process the same run or partition at once. Leases are
+-- renewed while the work is alive and lapse at locked_until, after which a crashed node's run and
+-- partitions can be claimed by another node.
+
+CREATE TABLE statement_runs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    period_start DATE NOT NULL,
+    period_end DATE NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    output_directory VARCHAR(500) NOT NULL,
+    total_partitions INTEGER NOT NULL DEFAULT 0,
+    total_accounts INTEGER NOT NULL DEFAULT 0,
+    processed_accounts INTEGER NOT NULL DEFAULT 0,
+    failed_accounts INTEGER NOT NULL DEFAULT 0,
+    elapsed_ms BIGINT NOT NULL DEFAULT 0,
+    started_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_date TIMESTAMP,
+    created_by VARCHAR(100),
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+
+    CONSTRAINT uk_statement_runs_period UNIQUE (period_start, period_end),
+    CONSTRAINT chk_statement_runs_period CHECK (period_start <= period_end)
+);
+
+CREATE TABLE statement_run_partitions (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id_statement_runs UUID NOT NULL,
+    partition_number INTEGER NOT NULL,
+    first_account_id UUID NOT NULL,
+    last_account_id UUID NOT NULL,
+    account_count INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'COMPLETED')),
+    processed_accounts INTEGER NOT NULL DEFAULT 0,
+    failed_accounts INTEGER NOT NULL DEFAULT 0,
+    completed_date TIMESTAMP,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+
+    CONSTRAINT uk_statement_run_partitions_number UNIQUE (id_statement_runs, partition_number),
+    CONSTRAINT fk_statement_run_partitions_runs FOREIGN KEY (id_statement_runs) REFERENCES statement_runs(id)
+);
+
+COMMENT ON COLUMN statement_runs.locked_by IS 'Execution currently holding the run';
+COMMENT ON COLUMN statement_runs.locked_until IS 'End of the run lease, renewed while the execution is alive';
+COMMENT ON COLUMN statement_run_partitions.locked_by IS 'Execution currently rendering the partition';
+COMMENT ON COLUMN statement_run_partitions.locked_until IS 'End of the partition lease, renewed while it renders; lapsed partitions can be claimed again';
@@ -0,0 +1,15 @@
+-- Permission for the flight recording endpoints under /api/admin/flight-recordings
+INSERT INTO permissions (permission_code, permission_name, permission_category, description, created_by) VALUES
+('SYSTEM_PROFILE', 'Profile System', 'SYSTEM', 'Start, stop and dump JDK Flight Recorder recordings', 'SYSTEM')
+ON CONFLICT (permission_code) DO NOTHING;
+
+-- Branch Manager already holds every other administrative permission
+INSERT INTO role_permissions (id_roles, id_permissions, granted_by)
+SELECT r.id, p.id, 'SYSTEM'
+FROM roles r, permissions p
+WHERE r.role_code = 'BRANCH_MANAGER'
+AND p.permission_code = 'SYSTEM_PROFILE'
+AND NOT EXISTS (
+    SELECT 1 FROM role_permissions rp
+    WHERE rp.id_roles = r.id AND rp.id_permissions = p.id
+);
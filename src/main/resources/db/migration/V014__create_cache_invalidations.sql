@@ -0,0 +1,13 @@
+-- Log of cache invalidations published to the other application nodes
+-- Each row is also sent with pg_notify on the minibank_cache_invalidation channel when its transaction
+-- commits. Nodes that were disconnected replay the rows they missed; rows are purged after a day.
+
+CREATE TABLE cache_invalidations (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(50) NOT NULL,
+    entity_key VARCHAR(100),
+    origin_node VARCHAR(50) NOT NULL,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_cache_invalidations_created_date ON cache_invalidations(created_date);
@@ -0,0 +1,16 @@
+-- Work-queue claims on approval requests
+-- A reviewer claims a batch of pending requests with FOR UPDATE SKIP LOCKED; the claim is a lease that
+-- lapses at claimed_until, after which the request can be claimed by someone else.
+
+ALTER TABLE approval_requests ADD COLUMN claimed_by VARCHAR(100);
+ALTER TABLE approval_requests ADD COLUMN claimed_until TIMESTAMP;
+
+-- Oldest-first scan of the pending requests of a branch when claiming
+CREATE INDEX idx_approval_requests_pending_queue ON approval_requests(branch_id, requested_date)
+    WHERE approval_status = 'PENDING';
+
+CREATE INDEX idx_approval_requests_claimed_by ON approval_requests(claimed_by)
+    WHERE approval_status = 'PENDING' AND claimed_by IS NOT NULL;
+
+COMMENT ON COLUMN approval_requests.claimed_by IS 'Reviewer holding the work-queue lease on a pending request';
+COMMENT ON COLUMN approval_requests.claimed_until IS 'End of the lease; expired claims can be taken by another reviewer';
@@ -1,5 +1,8 @@
 package id.ac.tazkia.minibank.config;
 
+import java.math.BigDecimal;
+import java.util.UUID;
+
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,4 +38,25 @@ public abstract class BaseIntegrationTest {
     
     @Autowired
     protected DataSource dataSource;
+    
+    /**
+     * Inserts an ACTIVE TAB001 account for seeded customer C1000001 and returns its id.
+     */
+    protected UUID insertAccount(String accountNumber, String accountName, BigDecimal balance) {
+        return insertAccount("C1000001", accountNumber, accountName, balance, "ACTIVE");
+    }
+    
+    /**
+     * Inserts a TAB001 account for a seeded customer in the first seeded branch and returns its id.
+     */
+    protected UUID insertAccount(String customerNumber, String accountNumber, String accountName,
+                                 BigDecimal balance, String status) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO accounts (id, id_customers, id_products, id_branches, account_number, account_name, balance, status, created_by) " +
+            "VALUES (?, (SELECT id FROM customers WHERE customer_number = ?), " +
+            "(SELECT id FROM products WHERE product_code = 'TAB001'), (SELECT id FROM branches LIMIT 1), ?, ?, ?, ?, 'TEST_SYSTEM')",
+            id, customerNumber, accountNumber, accountName, balance, status);
+        return id;
+    }
 }
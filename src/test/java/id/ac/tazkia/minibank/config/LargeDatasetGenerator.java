@@ -0,0 +1,599 @@
+package id.ac.tazkia.minibank.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates production sized data: personal and corporate customers, their accounts and years of
+ * transactions, bulk loaded with PostgreSQL COPY.
+ *
+ * Activity is skewed the way real books are: per-account activity follows a log-normal
+ * distribution, a small share of hot accounts (merchants, payroll accounts) are many times busier
+ * than the rest and attract most incoming transfers. Every account starts with an opening deposit
+ * and its transactions form an exact balance_before/balance_after chain ending at the account
+ * balance, so passbooks and statements of generated accounts are valid.
+ *
+ * Customers are generated in chunks. A chunk is self-contained: transfers only pair accounts of
+ * the same chunk, so chunks load in parallel, each in its own transaction.
+ *
+ * As a CLI, against an existing database that Flyway has migrated:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=id.ac.tazkia.minibank.config.LargeDatasetGenerator
+ * -Dexec.args="--url=jdbc:postgresql://localhost:2345/pgminibank --customers=1000000"}
+ */
+@Slf4j
+public class LargeDatasetGenerator {
+
+    private static final String CREATED_BY = "DATASET_GENERATOR";
+    private static final int MAX_EVENTS_PER_ACCOUNT = 50_000;
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+    private static final int MAX_CUSTOMERS = 100_000_000;
+    private static final String[] DEPOSIT_CHANNELS = {"TELLER", "TELLER", "ATM", "ONLINE", "MOBILE", "MOBILE"};
+    private static final String[] WITHDRAWAL_CHANNELS = {"TELLER", "ATM", "ATM", "ATM", "MOBILE"};
+
+    private final DataSource dataSource;
+
+    public LargeDatasetGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Tunables of a generated dataset. Every unique value is derived from {@code prefix} and the
+     * customer or chunk index: customer, account and transaction numbers, emails and company
+     * registrations carry the prefix, phone and identity numbers a three digit range hashed from
+     * it. Two runs with different prefixes can therefore be loaded into the same database; a
+     * prefix whose range is already used by another run is rejected before anything is loaded.
+     *
+     * @param monthlyTransactions median transactions per account and month, before skew
+     * @param hotAccountShare     share of accounts that are {@code hotAccountMultiplier} times busier
+     */
+    public record Options(int customers, double corporateShare, int years, double monthlyTransactions,
+                          double hotAccountShare, int hotAccountMultiplier, int chunkSize, int threads,
+                          String prefix, long seed) {
+
+        public static Options defaults() {
+            return new Options(10_000, 0.05, 5, 8, 0.01, 40, 250, 4, "GEN", 42);
+        }
+
+        public Options withCustomers(int customers) {
+            return new Options(customers, corporateShare, years, monthlyTransactions, hotAccountShare,
+                hotAccountMultiplier, chunkSize, threads, prefix, seed);
+        }
+
+        public Options withYears(int years) {
+            return new Options(customers, corporateShare, years, monthlyTransactions, hotAccountShare,
+                hotAccountMultiplier, chunkSize, threads, prefix, seed);
+        }
+
+        public Options withMonthlyTransactions(double monthlyTransactions) {
+            return new Options(customers, corporateShare, years, monthlyTransactions, hotAccountShare,
+                hotAccountMultiplier, chunkSize, threads, prefix, seed);
+        }
+
+        public Options withThreads(int threads) {
+            return new Options(customers, corporateShare, years, monthlyTransactions, hotAccountShare,
+                hotAccountMultiplier, chunkSize, threads, prefix, seed);
+        }
+
+        public Options withPrefix(String prefix) {
+            return new Options(customers, corporateShare, years, monthlyTransactions, hotAccountShare,
+                hotAccountMultiplier, chunkSize, threads, prefix, seed);
+        }
+    }
+
+    public record Summary(long customers, long accounts, long transactions, long elapsedMillis) {
+
+        public double rowsPerSecond() {
+            return (customers + accounts + transactions) / Math.max(elapsedMillis / 1000.0, 0.001);
+        }
+    }
+
+    public Summary generate(Options options) {
+        if (options.customers() <= 0 || options.chunkSize() <= 0 || options.threads() <= 0 || options.years() <= 0) {
+            throw new IllegalArgumentException("Customers, chunk size, threads and years must be positive");
+        }
+        if (options.customers() > MAX_CUSTOMERS) {
+            throw new IllegalArgumentException("At most " + MAX_CUSTOMERS + " customers can be generated per prefix");
+        }
+        long start = System.currentTimeMillis();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        checkNumberRangeIsFree(jdbcTemplate, options.prefix());
+        ReferenceData reference = new ReferenceData(
+            jdbcTemplate.queryForList("SELECT id FROM branches ORDER BY branch_code", UUID.class),
+            productId(jdbcTemplate, "TAB001"), productId(jdbcTemplate, "TAB002"), productId(jdbcTemplate, "GIR001"));
+
+        int chunks = (options.customers() + options.chunkSize() - 1) / options.chunkSize();
+        AtomicLong customers = new AtomicLong();
+        AtomicLong accounts = new AtomicLong();
+        AtomicLong transactions = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int chunkIndex = chunk;
+                futures.add(executor.submit(() -> {
+                    ChunkCounts counts = loadChunk(options, reference, chunkIndex);
+                    customers.addAndGet(counts.customers());
+                    accounts.addAndGet(counts.accounts());
+                    long loaded = transactions.addAndGet(counts.transactions());
+                    if ((chunkIndex + 1) % 20 == 0) {
+                        log.info("Loaded {} of {} chunks, {} transactions so far", chunkIndex + 1, chunks, loaded);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dataset generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dataset generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (String table : List.of("customers", "personal_customers", "corporate_customers", "accounts", "transactions")) {
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+        Summary summary = new Summary(customers.get(), accounts.get(), transactions.get(),
+            System.currentTimeMillis() - start);
+        log.info("Generated {} customers, {} accounts and {} transactions with prefix {} in {} ms ({} rows/s)",
+            summary.customers(), summary.accounts(), summary.transactions(), options.prefix(),
+            summary.elapsedMillis(), String.format("%.0f", summary.rowsPerSecond()));
+        return summary;
+    }
+
+    private ChunkCounts loadChunk(Options options, ReferenceData reference, int chunkIndex) throws SQLException {
+        Random random = new Random(options.seed() * 31 + chunkIndex);
+        Faker faker = new Faker(Locale.forLanguageTag("id-ID"), random);
+        int firstCustomer = chunkIndex * options.chunkSize();
+        int customerCount = Math.min(options.chunkSize(), options.customers() - firstCustomer);
+        LocalDate today = LocalDate.now();
+
+        List<GeneratedCustomer> customers = new ArrayList<>(customerCount);
+        List<GeneratedAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < customerCount; i++) {
+            int customerIndex = firstCustomer + i;
+            boolean corporate = random.nextDouble() < options.corporateShare();
+            GeneratedCustomer customer = newCustomer(faker, random, reference, options, customerIndex, corporate, today);
+            customers.add(customer);
+
+            int accountCount = corporate ? 1 : (random.nextDouble() < 0.2 ? 2 : 1);
+            for (int k = 0; k < accountCount; k++) {
+                UUID productId = corporate ? reference.corporateProductId()
+                    : (k == 0 ? reference.basicProductId() : reference.premiumProductId());
+                LocalDate opened = k == 0 ? customer.since()
+                    : customer.since().plusDays(random.nextInt((int) Math.max(1, customer.since().until(today).toTotalMonths() * 30)));
+                double weight = Math.exp(random.nextGaussian() * 0.8);
+                if (random.nextDouble() < options.hotAccountShare()) {
+                    weight *= options.hotAccountMultiplier();
+                }
+                accounts.add(new GeneratedAccount(UUID.randomUUID(), customer,
+                    String.format("%sA%09d%d", options.prefix(), customerIndex, k),
+                    productId, opened, corporate, weight));
+            }
+        }
+
+        List<String> transactionLines = postHistory(options, random, accounts, chunkIndex, today);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                copy(copyManager, """
+                    COPY customers (id, customer_type, customer_number, id_branches, email, phone_number, address,
+                                    city, postal_code, status, created_date, created_by)
+                    FROM STDIN (FORMAT csv)""", customers.stream().map(GeneratedCustomer::customerLine).toList());
+                copy(copyManager, """
+                    COPY personal_customers (id, first_name, last_name, date_of_birth, identity_number, identity_type,
+                                             birth_place, gender, mother_name)
+                    FROM STDIN (FORMAT csv)""",
+                    customers.stream().filter(customer -> !customer.corporate()).map(GeneratedCustomer::detailLine).toList());
+                copy(copyManager, """
+                    COPY corporate_customers (id, company_name, company_registration_number, tax_identification_number,
+                                              contact_person_name, contact_person_title)
+                    FROM STDIN (FORMAT csv)""",
+                    customers.stream().filter(GeneratedCustomer::corporate).map(GeneratedCustomer::detailLine).toList());
+                copy(copyManager, """
+                    COPY accounts (id, id_customers, id_products, id_branches, account_number, account_name, balance,
+                                   status, opened_date, created_date, created_by)
+                    FROM STDIN (FORMAT csv)""", accounts.stream().map(GeneratedAccount::accountLine).toList());
+                copy(copyManager, """
+                    COPY transactions (id, id_accounts, transaction_number, transaction_type, amount, currency,
+                                       balance_before, balance_after, description, reference_number, channel,
+                                       id_accounts_destination, transaction_date, processed_date, created_by)
+                    FROM STDIN (FORMAT csv)""", transactionLines);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        return new ChunkCounts(customers.size(), accounts.size(), transactionLines.size());
+    }
+
+    private GeneratedCustomer newCustomer(Faker faker, Random random, ReferenceData reference, Options options,
+                                          int customerIndex, boolean corporate, LocalDate today) {
+        UUID branchId = reference.branchIds().get(random.nextInt(reference.branchIds().size()));
+        // Older customers are more common than new ones; everyone has at least a month of history
+        int historyDays = options.years() * 365;
+        LocalDate since = today.minusDays(30 + (long) (Math.sqrt(random.nextDouble()) * Math.max(1, historyDays - 30)));
+        String firstName = faker.name().firstName();
+        String lastName = faker.name().lastName();
+        String name = corporate
+            ? "PT " + faker.company().name()
+            : firstName + " " + lastName;
+        String emailUser = (corporate ? "info" : firstName + "." + lastName).toLowerCase(Locale.ROOT).replaceAll("[^a-z.]", "");
+        // Names repeat between runs with the same seed, so unique values come from the prefix and index
+        String email = emailUser + "." + options.prefix().toLowerCase(Locale.ROOT) + customerIndex
+            + "@" + (corporate ? "perusahaan.co.id" : "mail.id");
+        int range = numberRange(options.prefix());
+        String phone = String.format("08%03d%08d", range, customerIndex);
+        UUID id = UUID.randomUUID();
+
+        String detail = corporate
+            ? csv(id, name, String.format("AHU-%s%07d.AH.01.01", options.prefix(), customerIndex),
+                TestDataFactory.generateNPWP(), firstName + " " + lastName, "Direktur")
+            : csv(id, firstName, lastName, today.minusYears(18 + random.nextInt(50)).minusDays(random.nextInt(365)),
+                // 7919 is coprime to 10^11, so the scrambled index stays unique within the range
+                String.format("32%03d%011d", range, (long) customerIndex * 7919 % 100_000_000_000L),
+                "KTP", faker.address().city(), random.nextBoolean() ? "MALE" : "FEMALE", faker.name().fullName());
+        return new GeneratedCustomer(id, corporate,
+            String.format("%sC%09d", options.prefix(), customerIndex), branchId, name, email, phone,
+            faker.address().streetAddress(), faker.address().city(), String.format("%05d", 10_000 + random.nextInt(89_999)),
+            since, detail);
+    }
+
+    /**
+     * Generates the transaction history of a chunk in time order and returns the COPY lines.
+     * Event times are drawn per account and merged, then each event is resolved against the
+     * account's running balance so debits never overdraw the account.
+     */
+    private List<String> postHistory(Options options, Random random, List<GeneratedAccount> accounts,
+                                     int chunkIndex, LocalDate today) {
+        long end = today.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        List<long[]> events = new ArrayList<>();
+        double[] cumulativeWeight = new double[accounts.size()];
+        double totalWeight = 0;
+        for (int a = 0; a < accounts.size(); a++) {
+            GeneratedAccount account = accounts.get(a);
+            totalWeight += account.weight();
+            cumulativeWeight[a] = totalWeight;
+
+            long opened = account.opened().atTime(LocalTime.of(9, 0)).toEpochSecond(ZoneOffset.UTC);
+            double months = Math.max(1, (end - opened) / (30.0 * 86_400));
+            int count = (int) Math.min(MAX_EVENTS_PER_ACCOUNT,
+                Math.max(1, Math.round(months * options.monthlyTransactions() * account.weight())));
+            events.add(new long[] {opened, a});
+            for (int i = 1; i < count; i++) {
+                long day = (opened + (long) (random.nextDouble() * (end - opened))) / 86_400 * 86_400;
+                // Banking hours dominate, with a tail of evening mobile and ATM activity
+                long secondOfDay = 7 * 3_600 + (long) (Math.abs(random.nextGaussian()) * 5 * 3_600) % (16 * 3_600);
+                events.add(new long[] {day + secondOfDay, a});
+            }
+        }
+        events.sort((left, right) -> Long.compare(left[0], right[0]));
+
+        long[] balances = new long[accounts.size()];
+        long[] lastPosted = new long[accounts.size()];
+        Arrays.fill(lastPosted, Long.MIN_VALUE);
+        List<String> lines = new ArrayList<>(events.size() + events.size() / 4);
+        int sequence = 0;
+        for (long[] event : events) {
+            int a = (int) event[1];
+            GeneratedAccount account = accounts.get(a);
+            long scale = account.corporate() ? 25 : 1;
+            long time = Math.max(event[0], lastPosted[a] + 1);
+
+            if (lastPosted[a] == Long.MIN_VALUE) {
+                long opening = roundThousands(logNormal(random, 500_000 * scale));
+                lines.add(line(options, chunkIndex, sequence++, account, "DEPOSIT", opening, balances[a],
+                    "Setoran awal pembukaan rekening", "TELLER", null, time));
+                balances[a] += opening;
+                lastPosted[a] = time;
+                continue;
+            }
+
+            double kind = random.nextDouble();
+            if (kind < 0.25 && accounts.size() > 1 && balances[a] >= 20_000) {
+                int b = pickCounterparty(random, cumulativeWeight, totalWeight, a);
+                GeneratedAccount counterparty = accounts.get(b);
+                long amount = Math.max(10_000, roundThousands((long) (balances[a] * random.nextDouble() * 0.5)));
+                // Only accounts that are already open can be credited; otherwise this becomes a deposit
+                if (amount <= balances[a] && lastPosted[b] != Long.MIN_VALUE) {
+                    time = Math.max(time, lastPosted[b] + 1);
+                    String reference = String.format("%sR%06d%07d", options.prefix(), chunkIndex, sequence);
+                    lines.add(line(options, chunkIndex, sequence++, account, "TRANSFER_OUT", amount, balances[a],
+                        "Transfer ke " + counterparty.accountNumber(), "TRANSFER", counterparty.id(), time, reference));
+                    balances[a] -= amount;
+                    lines.add(line(options, chunkIndex, sequence++, counterparty, "TRANSFER_IN", amount, balances[b],
+                        "Transfer dari " + account.accountNumber(), "TRANSFER", account.id(), time, reference));
+                    balances[b] += amount;
+                    lastPosted[a] = time;
+                    lastPosted[b] = time;
+                    continue;
+                }
+            }
+            if (kind >= 0.25 && kind < 0.55) {
+                long amount = roundThousands(logNormal(random, 300_000 * scale));
+                if (amount > 0 && amount <= balances[a]) {
+                    lines.add(line(options, chunkIndex, sequence++, account, "WITHDRAWAL", amount, balances[a],
+                        "Penarikan tunai", pick(random, WITHDRAWAL_CHANNELS), null, time));
+                    balances[a] -= amount;
+                    lastPosted[a] = time;
+                    continue;
+                }
+            }
+            if (kind >= 0.55 && kind < 0.60 && balances[a] >= 5_000) {
+                long fee = random.nextBoolean() ? 2_500 : 5_000;
+                lines.add(line(options, chunkIndex, sequence++, account, "FEE", fee, balances[a],
+                    "Biaya administrasi", "TELLER", null, time));
+                balances[a] -= fee;
+                lastPosted[a] = time;
+                continue;
+            }
+            // Deposits, and any debit the balance or counterparty could not take
+            long amount = Math.max(1_000, roundThousands(logNormal(random, 400_000 * scale)));
+            lines.add(line(options, chunkIndex, sequence++, account, "DEPOSIT", amount, balances[a],
+                "Setoran tunai", pick(random, DEPOSIT_CHANNELS), null, time));
+            balances[a] += amount;
+            lastPosted[a] = time;
+        }
+
+        for (int a = 0; a < accounts.size(); a++) {
+            accounts.get(a).setBalance(balances[a]);
+        }
+        return lines;
+    }
+
+    private String line(Options options, int chunkIndex, int sequence, GeneratedAccount account, String type,
+                        long amount, long balanceBefore, String description, String channel, UUID destination,
+                        long epochSecond) {
+        return line(options, chunkIndex, sequence, account, type, amount, balanceBefore, description, channel,
+            destination, epochSecond, null);
+    }
+
+    private String line(Options options, int chunkIndex, int sequence, GeneratedAccount account, String type,
+                        long amount, long balanceBefore, String description, String channel, UUID destination,
+                        long epochSecond, String reference) {
+        boolean credit = "DEPOSIT".equals(type) || "TRANSFER_IN".equals(type);
+        long balanceAfter = credit ? balanceBefore + amount : balanceBefore - amount;
+        LocalDateTime postedAt = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        return csv(UUID.randomUUID(), account.id(), String.format("%sT%06d%07d", options.prefix(), chunkIndex, sequence),
+            type, rupiah(amount), "IDR", rupiah(balanceBefore), rupiah(balanceAfter), description, reference,
+            channel, destination, postedAt, postedAt, CREATED_BY);
+    }
+
+    private static int pickCounterparty(Random random, double[] cumulativeWeight, double totalWeight, int exclude) {
+        // Weighted by activity, so hot accounts receive most of the transfers
+        for (int attempt = 0; attempt < 8; attempt++) {
+            int index = Arrays.binarySearch(cumulativeWeight, random.nextDouble() * totalWeight);
+            int candidate = Math.min(index >= 0 ? index : -index - 1, cumulativeWeight.length - 1);
+            if (candidate != exclude) {
+                return candidate;
+            }
+        }
+        return (exclude + 1) % cumulativeWeight.length;
+    }
+
+    private static long logNormal(Random random, long median) {
+        return (long) (median * Math.exp(random.nextGaussian() * 0.9));
+    }
+
+    private static long roundThousands(long amount) {
+        return amount / 1_000 * 1_000;
+    }
+
+    private static String rupiah(long amount) {
+        return amount + ".00";
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void copy(CopyManager copyManager, String sql, List<String> lines) throws SQLException {
+        if (lines.isEmpty()) {
+            return;
+        }
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 4_096);
+            for (String line : lines) {
+                buffer.append(line).append('\n');
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                    buffer.setLength(0);
+                }
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * One CSV record; nulls become unquoted empty fields, which COPY reads as NULL.
+     */
+    private static String csv(Object... values) {
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (value instanceof String) {
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(text);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Three digit range of the digit-only unique values (phone and identity numbers) of a prefix.
+     */
+    private static int numberRange(String prefix) {
+        return Math.floorMod(prefix.hashCode(), 1_000);
+    }
+
+    /**
+     * Fails fast when another prefix hashes to the same number range and has already been loaded,
+     * instead of failing on a unique index after some chunks have committed.
+     */
+    private static void checkNumberRangeIsFree(JdbcTemplate jdbcTemplate, String prefix) {
+        List<String> taken = jdbcTemplate.queryForList("""
+            SELECT customer_number FROM customers
+             WHERE created_by = ? AND phone_number LIKE ? AND customer_number NOT LIKE ?
+             LIMIT 1
+            """, String.class, CREATED_BY, String.format("08%03d%%", numberRange(prefix)), prefix + "C%");
+        if (!taken.isEmpty()) {
+            throw new IllegalArgumentException("Prefix " + prefix + " shares its phone and identity number range with "
+                + "already generated customer " + taken.get(0) + "; choose another prefix");
+        }
+    }
+
+    private static UUID productId(JdbcTemplate jdbcTemplate, String productCode) {
+        return jdbcTemplate.queryForObject("SELECT id FROM products WHERE product_code = ?", UUID.class, productCode);
+    }
+
+    /**
+     * {@code --url=... --user=... --password=... --customers=... --years=... --monthly-transactions=...
+     * --threads=... --prefix=...}; connection settings default to application.properties.
+     */
+    public static void main(String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            arguments.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            arguments.getOrDefault("url", "jdbc:postgresql://localhost:2345/pgminibank"),
+            arguments.getOrDefault("user", "minibank"),
+            arguments.getOrDefault("password", System.getenv().getOrDefault("DB_PASSWORD", "minibank1234")));
+
+        Options defaults = Options.defaults();
+        Options options = defaults
+            .withCustomers(Integer.parseInt(arguments.getOrDefault("customers", String.valueOf(defaults.customers()))))
+            .withYears(Integer.parseInt(arguments.getOrDefault("years", String.valueOf(defaults.years()))))
+            .withMonthlyTransactions(Double.parseDouble(
+                arguments.getOrDefault("monthly-transactions", String.valueOf(defaults.monthlyTransactions()))))
+            .withThreads(Integer.parseInt(arguments.getOrDefault("threads", String.valueOf(defaults.threads()))))
+            .withPrefix(arguments.getOrDefault("prefix", defaults.prefix()));
+        new LargeDatasetGenerator(dataSource).generate(options);
+    }
+
+    private record ReferenceData(List<UUID> branchIds, UUID basicProductId, UUID premiumProductId,
+                                 UUID corporateProductId) {
+    }
+
+    private record ChunkCounts(int customers, int accounts, int transactions) {
+    }
+
+    private record GeneratedCustomer(UUID id, boolean corporate, String customerNumber, UUID branchId, String name,
+                                     String email, String phone, String address, String city, String postalCode,
+                                     LocalDate since, String detail) {
+
+        String customerLine() {
+            return csv(id, corporate ? "CORPORATE" : "PERSONAL", customerNumber, branchId, email, phone, address,
+                city, postalCode, "ACTIVE", since.atTime(LocalTime.of(9, 0)), CREATED_BY);
+        }
+
+        String detailLine() {
+            return detail;
+        }
+    }
+
+    private static final class GeneratedAccount {
+
+        private final UUID id;
+        private final GeneratedCustomer customer;
+        private final String accountNumber;
+        private final UUID productId;
+        private final LocalDate opened;
+        private final boolean corporate;
+        private final double weight;
+        private long balance;
+
+        GeneratedAccount(UUID id, GeneratedCustomer customer, String accountNumber, UUID productId,
+                         LocalDate opened, boolean corporate, double weight) {
+            this.id = id;
+            this.customer = customer;
+            this.accountNumber = accountNumber;
+            this.productId = productId;
+            this.opened = opened;
+            this.corporate = corporate;
+            this.weight = weight;
+        }
+
+        UUID id() {
+            return id;
+        }
+
+        String accountNumber() {
+            return accountNumber;
+        }
+
+        LocalDate opened() {
+            return opened;
+        }
+
+        boolean corporate() {
+            return corporate;
+        }
+
+        double weight() {
+            return weight;
+        }
+
+        void setBalance(long balance) {
+            this.balance = balance;
+        }
+
+        String accountLine() {
+            return csv(id, customer.id(), productId, customer.branchId(), accountNumber, customer.name(),
+                rupiah(balance), "ACTIVE", opened, opened.atTime(LocalTime.of(9, 0)), CREATED_BY);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package id.ac.tazkia.minibank.config;
+
+import id.ac.tazkia.minibank.util.QueryStats;
+import lombok.experimental.UtilityClass;
+import org.junit.jupiter.api.function.Executable;
+import org.opentest4j.AssertionFailedError;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the number of SQL statements a piece of code runs, counted through the proxied DataSource.
+ *
+ * Works around service calls as well as MockMvc requests, which run on the test thread:
+ * {@code assertStatementCount(3, () -> mockMvc.perform(get("/account/list")))}.
+ * Statements run on other threads (async tasks, event listeners after commit) are not counted.
+ */
+@UtilityClass
+public class QueryCountAssertions {
+
+    /**
+     * Runs {@code action} and returns what it executed.
+     */
+    public static QueryStats.Counter count(Executable action) {
+        try (QueryStats.Counter counter = QueryStats.start()) {
+            action.execute();
+            return counter;
+        } catch (AssertionError | RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AssertionFailedError("Counted action failed: " + e.getMessage(), e);
+        }
+    }
+
+    public static void assertStatementCount(int expected, Executable action) {
+        QueryStats.Counter counter = count(action);
+        assertEquals(expected, counter.getStatements(), "SQL statements executed");
+    }
+
+    public static void assertMaxStatements(int max, Executable action) {
+        QueryStats.Counter counter = count(action);
+        assertTrue(counter.getStatements() <= max,
+            "Expected at most " + max + " SQL statements but " + counter.getStatements() + " were executed");
+    }
+
+    /**
+     * Fails when running the same code over more rows needs more statements: the signature of
+     * an N+1 over a lazy association.
+     */
+    public static void assertNoNPlusOne(Executable fewRows, Executable manyRows) {
+        int few = count(fewRows).getStatements();
+        int many = count(manyRows).getStatements();
+        assertEquals(few, many, "Statement count grows with the number of rows (N+1): " + few + " vs " + many);
+    }
+}
@@ -0,0 +1,104 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.StatementSummary;
+import id.ac.tazkia.minibank.service.AccountStatementPdfService;
+import id.ac.tazkia.minibank.service.AccountStatementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Streaming Account Statement Tests")
+class AccountStatementStreamingTest extends BaseIntegrationTest {
+
+    private static final int ROWS_IN_PERIOD = 5_000;
+
+    @Autowired
+    private AccountStatementService accountStatementService;
+
+    @Autowired
+    private AccountStatementPdfService accountStatementPdfService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = insertAccount("C1000003", "STM" + TestDataFactory.generateAccountNumber(), "Statement Test Account",
+            BigDecimal.ZERO, "ACTIVE");
+
+        // Opening deposit before the period, then alternating deposits of 100 and withdrawals of 40
+        jdbcTemplate.update(
+            "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, balance_before, " +
+            "balance_after, transaction_date, created_by) VALUES (?, ?, 'DEPOSIT', 1000, 0, 1000, TIMESTAMP '2024-12-31 10:00', 'TEST_SYSTEM')",
+            accountId, "STM" + UUID.randomUUID().toString().substring(0, 12));
+        jdbcTemplate.update("""
+            INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, balance_before,
+                                      balance_after, description, transaction_date, created_by)
+            SELECT ?, 'STM' || substr(md5(random()::text), 1, 12) || i,
+                   CASE WHEN i % 2 = 1 THEN 'DEPOSIT' ELSE 'WITHDRAWAL' END,
+                   CASE WHEN i % 2 = 1 THEN 100 ELSE 40 END,
+                   1000 + (i / 2) * 100 - ((i - 1) / 2) * 40,
+                   1000 + ((i + 1) / 2) * 100 - (i / 2) * 40,
+                   'Mutasi ' || i,
+                   TIMESTAMP '2025-01-01' + i * INTERVAL '1 minute', 'TEST_SYSTEM'
+              FROM generate_series(1, ?) AS i
+            """, accountId, ROWS_IN_PERIOD);
+    }
+
+    @Test
+    @DisplayName("Should compute opening balance and totals with SQL aggregates")
+    void shouldSummarizeWithAggregates() {
+        StatementSummary summary = accountStatementService.getStatementSummary(
+            accountId, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+
+        assertEquals(ROWS_IN_PERIOD, summary.transactionCount());
+        assertEquals(0, new BigDecimal("1000").compareTo(summary.openingBalance()));
+        assertEquals(0, new BigDecimal(ROWS_IN_PERIOD / 2 * 100).compareTo(summary.totalCredit()));
+        assertEquals(0, new BigDecimal(ROWS_IN_PERIOD / 2 * 40).compareTo(summary.totalDebit()));
+        BigDecimal lastBalance = jdbcTemplate.queryForObject(
+            "SELECT balance_after FROM transactions WHERE id_accounts = ? ORDER BY transaction_date DESC LIMIT 1",
+            BigDecimal.class, accountId);
+        assertEquals(0, lastBalance.compareTo(summary.closingBalance()));
+    }
+
+    @Test
+    @DisplayName("Should stream a complete PDF for a large period")
+    void shouldStreamPdf() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long start = System.currentTimeMillis();
+
+        accountStatementPdfService.writeAccountStatementPdf(accountId, LocalDate.of(2025, 1, 1),
+            LocalDate.of(2025, 12, 31), output);
+
+        log.info("Streamed {} rows into {} bytes in {} ms", ROWS_IN_PERIOD, output.size(), System.currentTimeMillis() - start);
+        String pdf = new String(output.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertTrue(pdf.startsWith("%PDF"));
+        assertTrue(pdf.trim().endsWith("%%EOF"));
+    }
+
+    @Test
+    @DisplayName("Should stream an empty statement")
+    void shouldStreamEmptyPeriod() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        accountStatementPdfService.writeAccountStatementPdf(accountId, LocalDate.of(2020, 1, 1),
+            LocalDate.of(2020, 1, 31), output);
+        assertTrue(output.size() > 0);
+    }
+}
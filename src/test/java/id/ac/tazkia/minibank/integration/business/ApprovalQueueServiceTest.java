@@ -0,0 +1,166 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.CacheConfig;
+import id.ac.tazkia.minibank.entity.ApprovalRequest;
+import id.ac.tazkia.minibank.entity.ApprovalRequest.RequestType;
+import id.ac.tazkia.minibank.service.ApprovalQueueService;
+import id.ac.tazkia.minibank.service.ApprovalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static id.ac.tazkia.minibank.config.QueryCountAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Approval Queue Service Tests")
+class ApprovalQueueServiceTest extends BaseIntegrationTest {
+
+    private static final int QUEUED_REQUESTS = 20;
+
+    @Autowired
+    private ApprovalQueueService approvalQueueService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UUID branchId;
+
+    @BeforeEach
+    void createQueue() {
+        branchId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO branches (id, branch_code, branch_name, created_by) VALUES (?, ?, ?, 'TEST')",
+            branchId, "AQ" + branchId.toString().substring(0, 8), "Approval Queue Test Branch");
+        for (int i = 0; i < QUEUED_REQUESTS; i++) {
+            jdbcTemplate.update("""
+                INSERT INTO approval_requests (request_type, entity_type, entity_id, requested_by, requested_date, branch_id)
+                VALUES (?, ?, ?, 'TEST', CURRENT_TIMESTAMP - make_interval(mins => ?), ?)
+                """,
+                i % 2 == 0 ? "ACCOUNT_OPENING" : "CUSTOMER_CREATION", i % 2 == 0 ? "ACCOUNT" : "CUSTOMER",
+                UUID.randomUUID(), QUEUED_REQUESTS - i, branchId);
+        }
+        cacheManager.getCache(CacheConfig.APPROVAL_PENDING_COUNTS).clear();
+    }
+
+    @AfterEach
+    void deleteQueue() {
+        jdbcTemplate.update("DELETE FROM approval_requests WHERE branch_id = ?", branchId);
+        jdbcTemplate.update("DELETE FROM branches WHERE id = ?", branchId);
+    }
+
+    @Test
+    @DisplayName("Should hand out each request to exactly one of several concurrent reviewers")
+    void shouldClaimDisjointBatchesConcurrently() throws Exception {
+        int reviewers = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(reviewers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<ApprovalRequest>>> futures = new ArrayList<>();
+        for (int i = 0; i < reviewers; i++) {
+            String reviewer = "reviewer" + i;
+            Callable<List<ApprovalRequest>> claim = () -> {
+                start.await();
+                return approvalQueueService.claimNext(reviewer, branchId, null, 5);
+            };
+            futures.add(executor.submit(claim));
+        }
+        start.countDown();
+
+        Set<UUID> claimed = new HashSet<>();
+        int total = 0;
+        for (Future<List<ApprovalRequest>> future : futures) {
+            for (ApprovalRequest request : future.get()) {
+                assertTrue(claimed.add(request.getId()), "Request " + request.getId() + " was claimed twice");
+                assertEquals(branchId, request.getBranch().getId());
+                total++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(QUEUED_REQUESTS, total, "Every request is claimed once the reviewers ask for more than exist");
+        assertEquals(0, approvalQueueService.claimNext("late-reviewer", branchId, null, 5).size());
+    }
+
+    @Test
+    @DisplayName("Should claim the oldest requests of the requested type and branch")
+    void shouldClaimOldestFirst() {
+        List<ApprovalRequest> claimed = approvalQueueService.claimNext("reviewer", branchId, RequestType.CUSTOMER_CREATION, 3);
+
+        assertEquals(3, claimed.size());
+        assertTrue(claimed.stream().allMatch(request -> request.getRequestType() == RequestType.CUSTOMER_CREATION));
+        assertTrue(claimed.get(0).getRequestedDate().isBefore(claimed.get(2).getRequestedDate()));
+        assertTrue(claimed.stream().allMatch(request -> "reviewer".equals(request.getClaimedBy())));
+        assertEquals(3, approvalQueueService.getActiveClaims("reviewer").size());
+
+        assertThrows(IllegalArgumentException.class, () -> approvalQueueService.claimNext("reviewer", branchId, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> approvalQueueService.claimNext("reviewer", branchId, null, 1000));
+    }
+
+    @Test
+    @DisplayName("Should return requests to the queue when the lease expires or is released")
+    void shouldReturnExpiredAndReleasedClaims() {
+        List<ApprovalRequest> first = approvalQueueService.claimNext("reviewer-a", branchId, null, 2);
+        ApprovalRequest next = approvalQueueService.claimNext("reviewer-b", branchId, null, 1).get(0);
+        assertTrue(first.stream().noneMatch(request -> request.getId().equals(next.getId())),
+            "Unexpired claims are not handed out again");
+
+        jdbcTemplate.update("UPDATE approval_requests SET claimed_until = CURRENT_TIMESTAMP - INTERVAL '1 minute' WHERE id = ?",
+            first.get(0).getId());
+        List<ApprovalRequest> reclaimed = approvalQueueService.claimNext("reviewer-c", branchId, null, 1);
+        assertEquals(first.get(0).getId(), reclaimed.get(0).getId(), "Oldest expired claim comes back first");
+
+        assertFalse(approvalQueueService.release(first.get(1).getId(), "reviewer-b"));
+        assertTrue(approvalQueueService.release(first.get(1).getId(), "reviewer-a"));
+        assertTrue(approvalQueueService.getActiveClaims("reviewer-a").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refuse a decision on a request another reviewer holds")
+    void shouldRefuseDecisionOnOthersClaim() {
+        ApprovalRequest claimed = approvalQueueService.claimNext("reviewer-a", branchId, RequestType.ACCOUNT_OPENING, 1).get(0);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> approvalService.rejectAccount(claimed.getId(), "reviewer-b", "Incomplete documents", null));
+        assertTrue(exception.getMessage().contains("reviewer-a"));
+        assertEquals("PENDING", jdbcTemplate.queryForObject(
+            "SELECT approval_status FROM approval_requests WHERE id = ?", String.class, claimed.getId()));
+    }
+
+    @Test
+    @DisplayName("Should page pending requests and serve per-type counts from the cache")
+    void shouldPageAndCacheCounts() {
+        Page<ApprovalRequest> page = approvalQueueService.getPendingPage(RequestType.ACCOUNT_OPENING,
+            PageRequest.of(0, 4, Sort.by("requestedDate").descending()));
+        assertEquals(4, page.getContent().size());
+        assertTrue(page.getTotalElements() >= QUEUED_REQUESTS / 2);
+
+        Map<RequestType, Long> counts = approvalQueueService.countPendingByType();
+        assertTrue(counts.get(RequestType.ACCOUNT_OPENING) >= QUEUED_REQUESTS / 2);
+        assertTrue(counts.get(RequestType.CUSTOMER_CREATION) >= QUEUED_REQUESTS / 2);
+        assertStatementCount(0, approvalQueueService::countPendingByType);
+    }
+}
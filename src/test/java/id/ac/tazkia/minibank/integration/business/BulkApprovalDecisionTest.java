@@ -0,0 +1,191 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult.Decision;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult.ItemResult;
+import id.ac.tazkia.minibank.dto.BulkDecisionResult.ItemStatus;
+import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
+import id.ac.tazkia.minibank.service.ApprovalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static id.ac.tazkia.minibank.config.QueryCountAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Bulk Approval Decision Tests")
+class BulkApprovalDecisionTest extends BaseIntegrationTest {
+
+    private static final int REQUESTS_PER_TYPE = 30;
+    private static final Set<EntityType> ALL_TYPES = EnumSet.allOf(EntityType.class);
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    private UUID branchId;
+    private String suffix;
+    private final List<UUID> customerRequests = new ArrayList<>();
+    private final List<UUID> accountRequests = new ArrayList<>();
+
+    @BeforeEach
+    void createPendingRequests() {
+        branchId = UUID.randomUUID();
+        suffix = branchId.toString().substring(0, 8);
+        jdbcTemplate.update("INSERT INTO branches (id, branch_code, branch_name, created_by) VALUES (?, ?, ?, 'TEST')",
+            branchId, "BA" + suffix, "Bulk Approval Test Branch");
+        customerRequests.clear();
+        accountRequests.clear();
+        for (int i = 0; i < REQUESTS_PER_TYPE; i++) {
+            UUID customerId = UUID.randomUUID();
+            jdbcTemplate.update("""
+                INSERT INTO customers (id, customer_type, customer_number, id_branches, status, approval_status, created_by)
+                VALUES (?, 'PERSONAL', ?, ?, 'INACTIVE', 'PENDING_APPROVAL', 'TEST')
+                """, customerId, "BA" + suffix + "C" + i, branchId);
+            jdbcTemplate.update("""
+                INSERT INTO personal_customers (id, first_name, last_name, date_of_birth, identity_number, identity_type)
+                VALUES (?, 'Bulk', ?, '1990-01-01', ?, 'KTP')
+                """, customerId, "Customer " + i, "BA" + suffix + i);
+            customerRequests.add(insertRequest("CUSTOMER_CREATION", "CUSTOMER", customerId));
+
+            UUID accountId = UUID.randomUUID();
+            jdbcTemplate.update("""
+                INSERT INTO accounts (id, id_customers, id_products, id_branches, account_number, account_name,
+                    balance, status, approval_status, created_by)
+                VALUES (?, ?, (SELECT id FROM products WHERE product_code = 'TAB001'), ?, ?, 'Bulk Approval Account',
+                    0, 'ACTIVE', 'PENDING_APPROVAL', 'TEST')
+                """, accountId, customerId, branchId, "BA" + suffix + "A" + i);
+            accountRequests.add(insertRequest("ACCOUNT_OPENING", "ACCOUNT", accountId));
+        }
+    }
+
+    @AfterEach
+    void deletePendingRequests() {
+        jdbcTemplate.update("DELETE FROM approval_requests WHERE branch_id = ?", branchId);
+        jdbcTemplate.update("DELETE FROM accounts WHERE id_branches = ?", branchId);
+        jdbcTemplate.update("DELETE FROM personal_customers WHERE id IN (SELECT id FROM customers WHERE id_branches = ?)",
+            branchId);
+        jdbcTemplate.update("DELETE FROM customers WHERE id_branches = ?", branchId);
+        jdbcTemplate.update("DELETE FROM branches WHERE id = ?", branchId);
+    }
+
+    @Test
+    @DisplayName("Should approve customers and accounts with a fixed number of statements however many are selected")
+    void shouldApproveInConstantStatements() {
+        List<UUID> firstBatch = List.of(customerRequests.get(0), accountRequests.get(0));
+        List<UUID> secondBatch = new ArrayList<>();
+        secondBatch.addAll(customerRequests.subList(1, REQUESTS_PER_TYPE));
+        secondBatch.addAll(accountRequests.subList(1, REQUESTS_PER_TYPE));
+
+        assertNoNPlusOne(
+            () -> approvalService.bulkDecide(firstBatch, Decision.APPROVE, "manager1", null, "Batch", ALL_TYPES),
+            () -> approvalService.bulkDecide(secondBatch, Decision.APPROVE, "manager1", null, "Batch", ALL_TYPES));
+
+        assertEquals(2L * REQUESTS_PER_TYPE, count(
+            "SELECT COUNT(*) FROM approval_requests WHERE branch_id = ? AND approval_status = 'APPROVED' " +
+            "AND reviewed_by = 'manager1' AND reviewed_date IS NOT NULL", branchId));
+        assertEquals(REQUESTS_PER_TYPE, count(
+            "SELECT COUNT(*) FROM customers WHERE id_branches = ? AND approval_status = 'APPROVED' AND status = 'ACTIVE' " +
+            "AND updated_by = 'manager1'", branchId));
+        assertEquals(REQUESTS_PER_TYPE, count(
+            "SELECT COUNT(*) FROM accounts WHERE id_branches = ? AND approval_status = 'APPROVED' AND status = 'ACTIVE' " +
+            "AND updated_by = 'manager1'", branchId));
+    }
+
+    @Test
+    @DisplayName("Should lock, resolve and update a whole batch in six statements")
+    void shouldDecideBatchInSixStatements() {
+        List<UUID> all = new ArrayList<>(customerRequests);
+        all.addAll(accountRequests);
+
+        assertStatementCount(6,
+            () -> approvalService.bulkDecide(all, Decision.APPROVE, "manager1", null, null, ALL_TYPES));
+    }
+
+    @Test
+    @DisplayName("Should reject what it may and report every other request with its reason")
+    void shouldReportPerItemOutcomes() {
+        UUID alreadyDecided = customerRequests.get(0);
+        jdbcTemplate.update("UPDATE approval_requests SET approval_status = 'APPROVED', reviewed_by = 'manager2', " +
+            "reviewed_date = CURRENT_TIMESTAMP WHERE id = ?", alreadyDecided);
+        UUID claimedByOther = customerRequests.get(1);
+        jdbcTemplate.update("UPDATE approval_requests SET claimed_by = 'manager2', " +
+            "claimed_until = CURRENT_TIMESTAMP + INTERVAL '10 minutes' WHERE id = ?", claimedByOther);
+        UUID missingTarget = insertRequest("CUSTOMER_CREATION", "CUSTOMER", UUID.randomUUID());
+        UUID unknown = UUID.randomUUID();
+        UUID rejected = customerRequests.get(2);
+        UUID account = accountRequests.get(0);
+
+        BulkDecisionResult result = approvalService.bulkDecide(
+            List.of(alreadyDecided, claimedByOther, missingTarget, unknown, rejected, account, rejected),
+            Decision.REJECT, "manager1", "Incomplete documents", null, EnumSet.of(EntityType.CUSTOMER));
+
+        assertEquals(6, result.getTotalItems(), "Duplicate ids are decided once");
+        assertEquals(1, result.getDecidedItems());
+        assertEquals(5, result.getSkippedItems());
+        List<ItemStatus> statuses = result.getItems().stream().map(ItemResult::getStatus).toList();
+        assertEquals(List.of(ItemStatus.NOT_PENDING, ItemStatus.CLAIMED_BY_OTHER, ItemStatus.TARGET_NOT_FOUND,
+            ItemStatus.NOT_FOUND, ItemStatus.REJECTED, ItemStatus.NOT_PERMITTED), statuses);
+        assertEquals("BA" + suffix + "C2", result.getItems().get(4).getReference());
+
+        assertEquals("REJECTED", requestStatus(rejected));
+        assertEquals("Incomplete documents", jdbcTemplate.queryForObject(
+            "SELECT rejection_reason FROM approval_requests WHERE id = ?", String.class, rejected));
+        assertEquals("APPROVED", requestStatus(alreadyDecided));
+        assertEquals("PENDING", requestStatus(claimedByOther));
+        assertEquals("PENDING", requestStatus(missingTarget));
+        assertEquals("PENDING", requestStatus(account));
+        assertEquals(1, count("""
+            SELECT COUNT(*) FROM customers c JOIN approval_requests ar ON ar.entity_id = c.id
+             WHERE ar.id = ? AND c.approval_status = 'REJECTED' AND c.status = 'INACTIVE'
+            """, rejected));
+        assertEquals(REQUESTS_PER_TYPE - 1, count(
+            "SELECT COUNT(*) FROM customers WHERE id_branches = ? AND approval_status = 'PENDING_APPROVAL'", branchId));
+    }
+
+    @Test
+    @DisplayName("Should refuse an empty batch, an oversized batch and a rejection without reason")
+    void shouldValidateBatch() {
+        assertThrows(IllegalArgumentException.class,
+            () -> approvalService.bulkDecide(List.of(), Decision.APPROVE, "manager1", null, null, ALL_TYPES));
+        assertThrows(IllegalArgumentException.class,
+            () -> approvalService.bulkDecide(customerRequests, Decision.REJECT, "manager1", " ", null, ALL_TYPES));
+        List<UUID> tooMany = IntStream.range(0, 201).mapToObj(i -> UUID.randomUUID()).toList();
+        assertThrows(IllegalArgumentException.class,
+            () -> approvalService.bulkDecide(tooMany, Decision.APPROVE, "manager1", null, null, ALL_TYPES));
+
+        assertEquals(2L * REQUESTS_PER_TYPE, count(
+            "SELECT COUNT(*) FROM approval_requests WHERE branch_id = ? AND approval_status = 'PENDING'", branchId));
+    }
+
+    private UUID insertRequest(String requestType, String entityType, UUID entityId) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+            INSERT INTO approval_requests (id, request_type, entity_type, entity_id, requested_by, branch_id)
+            VALUES (?, ?, ?, ?, 'TEST', ?)
+            """, id, requestType, entityType, entityId, branchId);
+        return id;
+    }
+
+    private String requestStatus(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT approval_status FROM approval_requests WHERE id = ?", String.class, id);
+    }
+
+    private long count(String sql, Object... args) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return value != null ? value : 0;
+    }
+}
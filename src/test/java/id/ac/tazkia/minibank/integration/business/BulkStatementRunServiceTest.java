@@ -0,0 +1,157 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.StatementRunStatus;
+import id.ac.tazkia.minibank.service.BulkStatementRunService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Bulk Statement Run Tests")
+class BulkStatementRunServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BulkStatementRunService bulkStatementRunService;
+
+    @Test
+    @DisplayName("Should render statements for all active accounts with a manifest")
+    void shouldRenderStatementsForAllActiveAccounts() throws Exception {
+        LocalDate start = LocalDate.of(2031, 3, 1);
+        LocalDate end = LocalDate.of(2031, 3, 31);
+        String accountNumber = "RUN" + TestDataFactory.generateAccountNumber();
+        createAccountWithTransactions(accountNumber, "ACTIVE", start);
+        String closedNumber = "RUN" + TestDataFactory.generateAccountNumber();
+        createAccountWithTransactions(closedNumber, "CLOSED", start);
+
+        StatementRunStatus prepared = bulkStatementRunService.prepareRun(start, end);
+        StatementRunStatus run = bulkStatementRunService.execute(prepared.getRunId());
+
+        log.info("Statement run: {} accounts in {} ms, {} accounts/s", run.getProcessedAccounts(),
+            run.getElapsedMs(), run.getAccountsPerSecond());
+        assertEquals(StatementRunStatus.RunStatus.COMPLETED, run.getStatus());
+        assertEquals(run.getTotalPartitions(), run.getCompletedPartitions());
+        assertEquals(run.getTotalAccounts(), run.getProcessedAccounts());
+        assertEquals(0, run.getFailedAccounts());
+
+        Path directory = Path.of(run.getOutputDirectory());
+        assertTrue(Files.exists(directory.resolve(accountNumber + ".pdf")));
+        assertFalse(Files.exists(directory.resolve(closedNumber + ".pdf")));
+
+        List<String> manifest = Files.readAllLines(bulkStatementRunService.findManifest(run.getRunId()).orElseThrow());
+        assertEquals(run.getTotalAccounts() + 1, manifest.size());
+        String line = manifest.stream().filter(row -> row.contains(accountNumber)).findFirst().orElseThrow();
+        // Opening 1000, three deposits of 100 and one withdrawal of 50 in the period
+        assertTrue(line.contains("\"COMPLETED\",\"4\",\"1000.00\",\"50.00\",\"300.00\",\"1250.00\""), line);
+
+        // The period has a single run; asking again reports the completed one
+        assertEquals(run.getRunId(), bulkStatementRunService.prepareRun(start, end).getRunId());
+    }
+
+    @Test
+    @DisplayName("Should resume a failed run with only its unfinished partitions")
+    void shouldResumeUnfinishedPartitions() throws Exception {
+        LocalDate start = LocalDate.of(2031, 4, 1);
+        LocalDate end = LocalDate.of(2031, 4, 30);
+        String accountNumber = "RUN" + TestDataFactory.generateAccountNumber();
+        UUID accountId = createAccountWithTransactions(accountNumber, "ACTIVE", start);
+
+        StatementRunStatus run = bulkStatementRunService.execute(bulkStatementRunService.prepareRun(start, end).getRunId());
+        assertEquals(StatementRunStatus.RunStatus.COMPLETED, run.getStatus());
+        Path statement = Path.of(run.getOutputDirectory()).resolve(accountNumber + ".pdf");
+
+        // Simulate a crash before the partition holding the account was checkpointed
+        Integer reopened = jdbcTemplate.queryForObject("""
+            WITH previous AS (
+                SELECT id, processed_accounts FROM statement_run_partitions
+                 WHERE id_statement_runs = ? AND ? BETWEEN first_account_id AND last_account_id
+            ), reopened AS (
+                UPDATE statement_run_partitions p
+                   SET status = 'PENDING', processed_accounts = 0, failed_accounts = 0, completed_date = NULL
+                  FROM previous
+                 WHERE p.id = previous.id
+                RETURNING previous.processed_accounts
+            ), run AS (
+                UPDATE statement_runs
+                   SET status = 'FAILED', processed_accounts = processed_accounts - (SELECT SUM(processed_accounts) FROM reopened)
+                 WHERE id = ?
+            )
+            SELECT COUNT(*) FROM reopened
+            """, Integer.class, run.getRunId(), accountId, run.getRunId());
+        assertEquals(1, reopened);
+        Files.delete(statement);
+
+        StatementRunStatus resumed = bulkStatementRunService.execute(run.getRunId());
+
+        assertEquals(StatementRunStatus.RunStatus.COMPLETED, resumed.getStatus());
+        assertEquals(resumed.getTotalAccounts(), resumed.getProcessedAccounts());
+        assertTrue(Files.exists(statement));
+        assertTrue(resumed.getElapsedMs() >= run.getElapsedMs());
+    }
+
+    @Test
+    @DisplayName("Should not execute a run or partition leased by another node")
+    void shouldRespectLeasesOfOtherNodes() {
+        LocalDate start = LocalDate.of(2031, 5, 1);
+        LocalDate end = LocalDate.of(2031, 5, 31);
+        UUID accountId = createAccountWithTransactions("RUN" + TestDataFactory.generateAccountNumber(), "ACTIVE", start);
+        UUID runId = bulkStatementRunService.prepareRun(start, end).getRunId();
+
+        jdbcTemplate.update("UPDATE statement_runs SET locked_by = 'other-node', locked_until = ? WHERE id = ?",
+            LocalDateTime.now().plusMinutes(5), runId);
+        assertThrows(IllegalStateException.class, () -> bulkStatementRunService.execute(runId));
+
+        // The other node died holding the run, but is still within the lease of one partition
+        jdbcTemplate.update("UPDATE statement_runs SET locked_until = ? WHERE id = ?",
+            LocalDateTime.now().minusMinutes(1), runId);
+        jdbcTemplate.update("""
+            UPDATE statement_run_partitions SET locked_by = 'other-node', locked_until = ?
+             WHERE id_statement_runs = ? AND ? BETWEEN first_account_id AND last_account_id
+            """, LocalDateTime.now().plusMinutes(5), runId, accountId);
+        StatementRunStatus partial = bulkStatementRunService.execute(runId);
+        assertNotEquals(StatementRunStatus.RunStatus.COMPLETED, partial.getStatus());
+        assertEquals(partial.getTotalPartitions() - 1, partial.getCompletedPartitions());
+
+        jdbcTemplate.update("UPDATE statement_run_partitions SET locked_until = ? WHERE id_statement_runs = ?",
+            LocalDateTime.now().minusMinutes(1), runId);
+        StatementRunStatus resumed = bulkStatementRunService.execute(runId);
+        assertEquals(StatementRunStatus.RunStatus.COMPLETED, resumed.getStatus());
+        assertEquals(resumed.getTotalAccounts(), resumed.getProcessedAccounts());
+    }
+
+    private UUID createAccountWithTransactions(String accountNumber, String status, LocalDate periodStart) {
+        UUID accountId = insertAccount("C1000001", accountNumber, "Statement Run Test Account",
+            new BigDecimal("1250"), status);
+        insertTransaction(accountId, "DEPOSIT", "1000", "0", "1000", periodStart.minusDays(3));
+        insertTransaction(accountId, "DEPOSIT", "100", "1000", "1100", periodStart.plusDays(1));
+        insertTransaction(accountId, "DEPOSIT", "100", "1100", "1200", periodStart.plusDays(2));
+        insertTransaction(accountId, "WITHDRAWAL", "50", "1200", "1150", periodStart.plusDays(3));
+        insertTransaction(accountId, "DEPOSIT", "100", "1150", "1250", periodStart.plusDays(4));
+        return accountId;
+    }
+
+    private void insertTransaction(UUID accountId, String type, String amount, String before, String after, LocalDate date) {
+        jdbcTemplate.update(
+            "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, balance_before, " +
+            "balance_after, description, transaction_date, created_by) VALUES (?, ?, ?, ?, ?, ?, 'Statement run', ?, 'TEST_SYSTEM')",
+            accountId, "RUN" + UUID.randomUUID().toString().substring(0, 12), type, new BigDecimal(amount),
+            new BigDecimal(before), new BigDecimal(after), date.atTime(10, 0));
+    }
+}
@@ -0,0 +1,204 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.BulkTransferResult;
+import id.ac.tazkia.minibank.dto.TransferRequest;
+import id.ac.tazkia.minibank.service.BulkTransferService;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Bulk Transfer Service Tests")
+class BulkTransferServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BulkTransferService bulkTransferService;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Test
+    @DisplayName("Should post payroll batch with one aggregate debit and report rejected lines")
+    void shouldPostPayrollBatch() {
+        // Given
+        String sourceNumber = "CORP" + TestDataFactory.generateAccountNumber();
+        UUID sourceId = createAccount("C1000003", sourceNumber, new BigDecimal("1000000.00"), "ACTIVE");
+        String employeeA = "EMP" + TestDataFactory.generateAccountNumber();
+        String employeeB = "EMP" + TestDataFactory.generateAccountNumber();
+        String frozenEmployee = "EMP" + TestDataFactory.generateAccountNumber();
+        UUID employeeAId = createAccount("C1000001", employeeA, new BigDecimal("100.00"), "ACTIVE");
+        UUID employeeBId = createAccount("C1000002", employeeB, BigDecimal.ZERO, "ACTIVE");
+        createAccount("C1000004", frozenEmployee, BigDecimal.ZERO, "FROZEN");
+
+        List<TransferRequest> lines = List.of(
+            line(employeeA, "150000.00"),
+            line(employeeB, "250000.00"),
+            line(employeeA, "50000.00"),
+            line(frozenEmployee, "10000.00"),
+            line("UNKNOWN-ACCOUNT", "10000.00"),
+            line(employeeB, "-5.00"));
+
+        // When
+        BulkTransferResult result = bulkTransferService.processBatch(sourceId, lines, "PAYROLL-TEST", null);
+
+        // Then
+        assertEquals(6, result.getTotalLines());
+        assertEquals(3, result.getPostedLines());
+        assertEquals(3, result.getRejectedLines());
+        assertEquals(0, new BigDecimal("450000.00").compareTo(result.getTotalAmount()));
+        assertEquals(0, new BigDecimal("550000.00").compareTo(balance(sourceId)));
+        assertEquals(0, new BigDecimal("200100.00").compareTo(balance(employeeAId)));
+        assertEquals(0, new BigDecimal("250000.00").compareTo(balance(employeeBId)));
+        assertEquals(BulkTransferResult.LineStatus.REJECTED, result.getLines().get(3).getStatus());
+        assertEquals(0, new BigDecimal("200100.00").compareTo(result.getLines().get(2).getBalanceAfter()));
+
+        Integer debitCount = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE id_accounts = ? AND transaction_type = 'TRANSFER_OUT'",
+            Integer.class, sourceId);
+        Integer creditCount = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE reference_number = 'PAYROLL-TEST' AND transaction_type = 'TRANSFER_IN'",
+            Integer.class);
+        assertEquals(1, debitCount);
+        assertEquals(3, creditCount);
+    }
+
+    @Test
+    @DisplayName("Should keep the balance chain in date order when one account is credited several times")
+    void shouldOrderRepeatedDestinationByTransactionDate() {
+        UUID sourceId = createAccount("C1000003", "CORP" + TestDataFactory.generateAccountNumber(),
+            new BigDecimal("1000000.00"), "ACTIVE");
+        String employee = "EMP" + TestDataFactory.generateAccountNumber();
+        UUID employeeId = createAccount("C1000001", employee, new BigDecimal("100.00"), "ACTIVE");
+        postingService.deposit(employeeId, new BigDecimal("50.00"), null, null);
+
+        List<TransferRequest> lines = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            lines.add(line(employee, i + "000.00"));
+        }
+        bulkTransferService.processBatch(sourceId, lines, null, null);
+        postingService.withdraw(employeeId, new BigDecimal("25.00"), null, null);
+
+        List<BigDecimal> amounts = jdbcTemplate.queryForList("""
+            SELECT amount FROM transactions
+             WHERE id_accounts = ? AND transaction_type = 'TRANSFER_IN'
+             ORDER BY transaction_date, id
+            """, BigDecimal.class, employeeId);
+        Integer brokenLinks = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*) FROM (
+                SELECT balance_before,
+                       LAG(balance_after) OVER (ORDER BY transaction_date, id) AS previous
+                  FROM transactions WHERE id_accounts = ?
+            ) chain
+             WHERE previous IS NOT NULL AND previous <> balance_before
+            """, Integer.class, employeeId);
+
+        assertEquals(lines.stream().map(TransferRequest::getAmount).toList(),
+            amounts.stream().map(amount -> amount.setScale(2)).toList(), "Credits should be dated in line order");
+        assertEquals(0, brokenLinks);
+        assertEquals(0, new BigDecimal("210125.00").compareTo(balance(employeeId)));
+    }
+
+    @Test
+    @DisplayName("Should reject whole batch when total exceeds source balance")
+    void shouldRejectBatchExceedingBalance() {
+        UUID sourceId = createAccount("C1000003", "CORP" + TestDataFactory.generateAccountNumber(),
+            new BigDecimal("1000.00"), "ACTIVE");
+        String employee = "EMP" + TestDataFactory.generateAccountNumber();
+        UUID employeeId = createAccount("C1000001", employee, BigDecimal.ZERO, "ACTIVE");
+
+        List<TransferRequest> lines = List.of(line(employee, "600.00"), line(employee, "600.00"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> bulkTransferService.processBatch(sourceId, lines, null, null));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(balance(sourceId)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balance(employeeId)));
+    }
+
+    @Test
+    @DisplayName("Should reject bulk transfer from personal account")
+    void shouldRejectPersonalSourceAccount() {
+        UUID sourceId = createAccount("C1000001", "PER" + TestDataFactory.generateAccountNumber(),
+            new BigDecimal("1000.00"), "ACTIVE");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> bulkTransferService.processBatch(sourceId, List.of(line("A2000002", "10.00")), null, null));
+        assertTrue(exception.getMessage().contains("corporate"));
+    }
+
+    @Test
+    @DisplayName("Should post 10k-line payroll in a single batch")
+    void shouldPostLargePayrollBatch() {
+        int lineCount = 10_000;
+        int employeeCount = 500;
+        UUID sourceId = createAccount("C1000003", "CORP" + TestDataFactory.generateAccountNumber(),
+            new BigDecimal("100000000.00"), "ACTIVE");
+        List<String> employees = new ArrayList<>();
+        for (int i = 0; i < employeeCount; i++) {
+            String number = "EMP" + TestDataFactory.generateAccountNumber();
+            createAccount("C1000001", number, BigDecimal.ZERO, "ACTIVE");
+            employees.add(number);
+        }
+        List<TransferRequest> lines = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            lines.add(line(employees.get(i % employeeCount), "1000.00"));
+        }
+
+        long start = System.currentTimeMillis();
+        BulkTransferResult result = bulkTransferService.processBatch(sourceId, lines, null, null);
+        long elapsed = System.currentTimeMillis() - start;
+
+        log.info("Posted {} payroll lines in {} ms", result.getPostedLines(), elapsed);
+        assertEquals(lineCount, result.getPostedLines());
+        assertEquals(0, new BigDecimal("90000000.00").compareTo(balance(sourceId)));
+        assertTrue(elapsed < 30_000, "10k-line batch should finish in seconds, took " + elapsed + " ms");
+    }
+
+    @Test
+    @DisplayName("Should read CSV lines with header and unparsable amounts")
+    void shouldReadCsvLines() {
+        String csv = "toAccountNumber,amount,description,referenceNumber\n"
+            + "A2000001,150000.00,\"Gaji, Januari\",PAY-1\n"
+            + "A2000002,abc,,\n";
+
+        List<TransferRequest> lines = bulkTransferService.readCsvLines(new StringReader(csv));
+
+        assertEquals(2, lines.size());
+        assertEquals("Gaji, Januari", lines.get(0).getDescription());
+        assertEquals("PAY-1", lines.get(0).getReferenceNumber());
+        assertNull(lines.get(1).getAmount());
+        assertEquals("Transfer Dana", lines.get(1).getDescription());
+    }
+
+    private TransferRequest line(String toAccountNumber, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setToAccountNumber(toAccountNumber);
+        request.setAmount(new BigDecimal(amount));
+        request.setDescription("Gaji");
+        return request;
+    }
+
+    private UUID createAccount(String customerNumber, String accountNumber, BigDecimal balance, String status) {
+        return insertAccount(customerNumber, accountNumber, "Bulk Transfer Test Account", balance, status);
+    }
+
+    private BigDecimal balance(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
@@ -0,0 +1,164 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.CacheConfig;
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.CacheInvalidationListener;
+import id.ac.tazkia.minibank.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Cache Invalidation Bus Tests")
+class CacheInvalidationBusTest extends BaseIntegrationTest {
+
+    private static final String OTHER_NODE = "other-node";
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CacheInvalidationListener cacheInvalidationListener;
+
+    @Autowired
+    private AuthorizationVersionService authorizationVersionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void awaitListener() {
+        await("listener connected", cacheInvalidationListener::isConnected);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    void deleteLoggedInvalidations() {
+        jdbcTemplate.update("DELETE FROM cache_invalidations WHERE origin_node = ?", OTHER_NODE);
+    }
+
+    @Test
+    @DisplayName("Should evict local product caches when another node publishes a product change")
+    void shouldEvictOnRemoteProductChange() {
+        productService.findByProductCode("TAB001");
+        productService.findActiveProducts();
+        assertNotNull(productsByCode().get("TAB001"));
+
+        publishFromOtherNode(CacheInvalidationBus.TOPIC_PRODUCTS, "some-product-id");
+
+        await("product cache evicted", () -> productsByCode().get("TAB001") == null);
+        assertNull(cacheManager.getCache(CacheConfig.ACTIVE_PRODUCTS).get(SimpleKey.EMPTY));
+    }
+
+    @Test
+    @DisplayName("Should ignore its own notifications, which it already applied locally")
+    void shouldIgnoreOwnNotifications() {
+        productService.findByProductCode("TAB001");
+        long applied = cacheInvalidationListener.getAppliedCount();
+
+        long id = cacheInvalidationBus.publish(CacheInvalidationBus.TOPIC_PRODUCTS, null);
+
+        await("own notification received", () -> cacheInvalidationListener.getLastSeenId() >= id);
+        assertNotNull(productsByCode().get("TAB001"));
+        assertEquals(applied, cacheInvalidationListener.getAppliedCount());
+    }
+
+    @Test
+    @DisplayName("Should refresh authorization data when another node changes roles or permissions")
+    void shouldApplyRemoteRbacChange() {
+        long version = authorizationVersionService.currentVersion();
+
+        publishFromOtherNode(CacheInvalidationBus.TOPIC_RBAC, null);
+
+        await("authorization version moved", () -> authorizationVersionService.currentVersion() > version);
+    }
+
+    @Test
+    @DisplayName("Should not deliver invalidations from a rolled back transaction")
+    void shouldNotDeliverRolledBackInvalidations() {
+        productService.findByProductCode("TAB001");
+        long applied = cacheInvalidationListener.getAppliedCount();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            publishFromOtherNode(CacheInvalidationBus.TOPIC_PRODUCTS, "rolled-back");
+            status.setRollbackOnly();
+        });
+        long committed = publishFromOtherNode("unhandled-topic", null);
+
+        await("later notification received", () -> cacheInvalidationListener.getLastSeenId() >= committed);
+        assertEquals(applied + 1, cacheInvalidationListener.getAppliedCount(), "Only the committed invalidation");
+        assertNotNull(productsByCode().get("TAB001"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM cache_invalidations WHERE entity_key = 'rolled-back'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should reconnect and replay invalidations logged while disconnected")
+    void shouldReplayAfterReconnect() {
+        productService.findByProductCode("TAB001");
+        int pid = cacheInvalidationListener.getBackendPid();
+
+        jdbcTemplate.queryForObject("SELECT pg_terminate_backend(?)", Boolean.class, pid);
+        // Logged without a notification, as if it had been sent while the listener was down
+        jdbcTemplate.update("INSERT INTO cache_invalidations (topic, entity_key, origin_node) VALUES (?, NULL, ?)",
+            CacheInvalidationBus.TOPIC_PRODUCTS, OTHER_NODE);
+
+        await("listener reconnected", () -> cacheInvalidationListener.isConnected()
+            && cacheInvalidationListener.getBackendPid() != pid);
+        await("missed invalidation replayed", () -> productsByCode().get("TAB001") == null);
+    }
+
+    private long publishFromOtherNode(String topic, String entityKey) {
+        Long id = jdbcTemplate.queryForObject("""
+            INSERT INTO cache_invalidations (topic, entity_key, origin_node) VALUES (?, ?, ?) RETURNING id
+            """, Long.class, topic, entityKey, OTHER_NODE);
+        String payload = id + ":" + OTHER_NODE + ":" + topic + ":" + (entityKey != null ? entityKey : "");
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null,
+            CacheInvalidationBus.CHANNEL, payload);
+        return id;
+    }
+
+    private Cache productsByCode() {
+        return cacheManager.getCache(CacheConfig.PRODUCTS_BY_CODE);
+    }
+
+    private void await(String description, BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for " + description);
+            }
+        }
+        fail("Timed out waiting for " + description);
+    }
+}
@@ -0,0 +1,109 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.FlightRecordingStatus;
+import id.ac.tazkia.minibank.service.FlightRecordingService;
+import id.ac.tazkia.minibank.service.PostingService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Flight Recording Tests")
+class FlightRecordingTest extends BaseIntegrationTest {
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private PostingService postingService;
+
+    @AfterEach
+    void stopRecording() {
+        if (flightRecordingService.status().running()) {
+            flightRecordingService.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should record posting and sequence events with account and amount")
+    void shouldRecordBankingEvents() throws IOException {
+        UUID accountId = createAccount(new BigDecimal("100000.00"));
+        FlightRecordingStatus started = flightRecordingService.start(null);
+        assertTrue(started.running());
+        assertEquals("default", started.settings());
+
+        postingService.deposit(accountId, new BigDecimal("25000.00"), "Setoran", null);
+        assertThrows(IllegalArgumentException.class,
+            () -> postingService.withdraw(accountId, new BigDecimal("999999999.00"), "Penarikan", null));
+
+        Path file = flightRecordingService.stop();
+        assertTrue(Files.size(file) > 0);
+        assertFalse(flightRecordingService.status().running());
+        assertEquals(file.toString(), flightRecordingService.status().lastDumpPath());
+
+        List<RecordedEvent> postings = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals("id.ac.tazkia.minibank.Posting"))
+            .filter(event -> accountId.toString().equals(event.getString("accountId")))
+            .toList();
+        assertEquals(2, postings.size());
+
+        RecordedEvent deposit = postings.stream()
+            .filter(event -> event.getString("transactionType").equals("DEPOSIT"))
+            .findFirst().orElseThrow();
+        assertEquals(25000.0, deposit.getDouble("amount"));
+        assertNotNull(deposit.getString("transactionNumber"));
+        assertEquals("", deposit.getString("rejectionReason"));
+
+        RecordedEvent rejected = postings.stream()
+            .filter(event -> event.getString("transactionType").equals("WITHDRAWAL"))
+            .findFirst().orElseThrow();
+        assertEquals("INSUFFICIENT_BALANCE", rejected.getString("rejectionReason"));
+
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .anyMatch(event -> event.getEventType().getName().equals("id.ac.tazkia.minibank.SequenceAllocation")
+                    && "TRANSACTION_NUMBER".equals(event.getString("sequenceName"))),
+            "Sequence allocation event");
+    }
+
+    @Test
+    @DisplayName("Should dump a running recording without stopping it")
+    void shouldDumpWhileRunning() throws IOException {
+        flightRecordingService.start("default");
+        postingService.deposit(createAccount(BigDecimal.ZERO), new BigDecimal("10000.00"), "Setoran", null);
+
+        Path dump = flightRecordingService.dump();
+
+        assertTrue(Files.size(dump) > 0);
+        assertTrue(flightRecordingService.status().running());
+        assertThrows(IllegalStateException.class, () -> flightRecordingService.start(null));
+    }
+
+    @Test
+    @DisplayName("Should refuse to stop or dump when nothing is recording and reject unknown settings")
+    void shouldRejectInvalidTransitions() {
+        assertThrows(IllegalStateException.class, () -> flightRecordingService.stop());
+        assertThrows(IllegalStateException.class, () -> flightRecordingService.dump());
+        assertThrows(IllegalArgumentException.class, () -> flightRecordingService.start("no-such-settings"));
+    }
+
+    private UUID createAccount(BigDecimal balance) {
+        return insertAccount("JFR" + TestDataFactory.generateAccountNumber(), "Flight Recording Test Account", balance);
+    }
+}
@@ -0,0 +1,258 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.service.IdempotencyService;
+import id.ac.tazkia.minibank.service.IdempotencyService.IdempotencyConflictException;
+import id.ac.tazkia.minibank.service.IdempotencyService.StoredResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Idempotency Service Tests")
+class IdempotencyServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Test
+    @DisplayName("Should replay stored response for repeated key")
+    void shouldReplayStoredResponse() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("amount", "100.00"));
+        AtomicInteger executions = new AtomicInteger();
+
+        StoredResponse first = idempotencyService.execute("TEST", key, fingerprint, () -> {
+            executions.incrementAndGet();
+            return idempotencyService.toStoredResponse(201, Map.of("transactionNumber", "T0000001"));
+        });
+        StoredResponse second = idempotencyService.execute("TEST", key, fingerprint, () -> {
+            executions.incrementAndGet();
+            return idempotencyService.toStoredResponse(201, Map.of("transactionNumber", "T0000002"));
+        });
+
+        assertEquals(1, executions.get());
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(201, second.status());
+        assertEquals(first.body(), second.body());
+        String status = jdbcTemplate.queryForObject(
+            "SELECT status FROM idempotency_keys WHERE scope = 'TEST' AND idempotency_key = ?", String.class, key);
+        assertEquals("COMPLETED", status);
+    }
+
+    @Test
+    @DisplayName("Should run concurrent duplicates exactly once")
+    void shouldRunConcurrentDuplicatesOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("amount", "250.00"));
+        AtomicInteger executions = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<StoredResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute("TEST", key, fingerprint, () -> {
+                        executions.incrementAndGet();
+                        sleep(200);
+                        return idempotencyService.toStoredResponse(201, Map.of("ok", true));
+                    });
+                }));
+            }
+            start.countDown();
+
+            int replayed = 0;
+            for (Future<StoredResponse> future : futures) {
+                StoredResponse response = future.get();
+                assertEquals(201, response.status());
+                if (response.replayed()) {
+                    replayed++;
+                }
+            }
+            assertEquals(1, executions.get());
+            assertEquals(threads - 1, replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject key reused with a different payload")
+    void shouldRejectKeyReuse() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute("TEST", key, idempotencyService.fingerprint(Map.of("amount", "1.00")),
+            () -> idempotencyService.toStoredResponse(201, Map.of("ok", true)));
+
+        IdempotencyConflictException exception = assertThrows(IdempotencyConflictException.class,
+            () -> idempotencyService.execute("TEST", key, idempotencyService.fingerprint(Map.of("amount", "2.00")),
+                () -> idempotencyService.toStoredResponse(201, Map.of("ok", true))));
+        assertEquals(IdempotencyConflictException.Reason.KEY_REUSED, exception.getReason());
+    }
+
+    @Test
+    @DisplayName("Should release key when the first attempt fails")
+    void shouldReleaseKeyOnFailure() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("amount", "3.00"));
+
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("TEST", key, fingerprint, () -> {
+            throw new IllegalStateException("posting failed");
+        }));
+        StoredResponse retry = idempotencyService.execute("TEST", key, fingerprint,
+            () -> idempotencyService.toStoredResponse(201, Map.of("ok", true)));
+
+        assertEquals(201, retry.status());
+        assertFalse(retry.replayed());
+    }
+
+    @Test
+    @DisplayName("Should store the response on a second attempt instead of releasing the key")
+    void shouldNotRunAgainWhenStoringFailsOnce() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("amount", "4.00"));
+        AtomicInteger executions = new AtomicInteger();
+
+        withFailingCompletion(key, 1, () -> {
+            StoredResponse first = idempotencyService.execute("TEST", key, fingerprint, () -> {
+                executions.incrementAndGet();
+                return idempotencyService.toStoredResponse(201, Map.of("ok", true));
+            });
+            assertEquals(201, first.status());
+        });
+        StoredResponse retry = idempotencyService.execute("TEST", key, fingerprint, () -> {
+            executions.incrementAndGet();
+            return idempotencyService.toStoredResponse(201, Map.of("ok", true));
+        });
+
+        assertEquals(1, executions.get());
+        assertTrue(retry.replayed());
+        assertEquals("COMPLETED", keyStatus(key));
+    }
+
+    @Test
+    @DisplayName("Should close the key as outcome unknown when the response cannot be stored")
+    void shouldKeepKeyClaimedWhenStoringFails() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("amount", "5.00"));
+        AtomicInteger executions = new AtomicInteger();
+
+        withFailingCompletion(key, Integer.MAX_VALUE, () -> idempotencyService.execute("TEST", key, fingerprint, () -> {
+            executions.incrementAndGet();
+            return idempotencyService.toStoredResponse(201, Map.of("ok", true));
+        }));
+        StoredResponse retry = idempotencyService.execute("TEST", key, fingerprint, () -> {
+            executions.incrementAndGet();
+            return idempotencyService.toStoredResponse(201, Map.of("ok", true));
+        });
+
+        assertEquals(1, executions.get(), "The posting must not run twice");
+        assertTrue(retry.replayed());
+        assertEquals("OUTCOME_UNKNOWN", keyStatus(key));
+    }
+
+    @Test
+    @DisplayName("Should answer a conflict instead of taking over a key whose lease has lapsed")
+    void shouldNotTakeOverLapsedClaim() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("amount", "6.00"));
+        // A node claimed the key and died, possibly after its posting committed
+        jdbcTemplate.update("""
+            INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, status, created_date, expires_at, locked_until)
+            VALUES ('TEST', ?, ?, 'IN_PROGRESS', CURRENT_TIMESTAMP - INTERVAL '10 minutes',
+                    CURRENT_TIMESTAMP + INTERVAL '23 hours', CURRENT_TIMESTAMP - INTERVAL '5 minutes')
+            """, key, fingerprint);
+        AtomicInteger executions = new AtomicInteger();
+
+        IdempotencyConflictException exception = assertThrows(IdempotencyConflictException.class,
+            () -> idempotencyService.execute("TEST", key, fingerprint, () -> {
+                executions.incrementAndGet();
+                return idempotencyService.toStoredResponse(201, Map.of("ok", true));
+            }));
+
+        assertEquals(0, executions.get());
+        assertEquals(IdempotencyConflictException.Reason.OUTCOME_UNKNOWN, exception.getReason());
+        assertEquals("IN_PROGRESS", keyStatus(key));
+    }
+
+    @Test
+    @DisplayName("Should answer a conflict for a key whose outcome is unknown")
+    void shouldRejectKeyWithUnknownOutcome() {
+        String key = UUID.randomUUID().toString();
+        String fingerprint = idempotencyService.fingerprint(Map.of("amount", "7.00"));
+        jdbcTemplate.update("""
+            INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, status, created_date, expires_at)
+            VALUES ('TEST', ?, ?, 'OUTCOME_UNKNOWN', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP + INTERVAL '24 hours')
+            """, key, fingerprint);
+        AtomicInteger executions = new AtomicInteger();
+
+        IdempotencyConflictException exception = assertThrows(IdempotencyConflictException.class,
+            () -> idempotencyService.execute("TEST", key, fingerprint, () -> {
+                executions.incrementAndGet();
+                return idempotencyService.toStoredResponse(201, Map.of("ok", true));
+            }));
+
+        assertEquals(0, executions.get());
+        assertEquals(IdempotencyConflictException.Reason.OUTCOME_UNKNOWN, exception.getReason());
+    }
+
+    /**
+     * Makes storing the response for {@code key} fail the first {@code failures} times. A sequence
+     * counts the attempts because, unlike a table, it is not rolled back with the failed update.
+     */
+    private void withFailingCompletion(String key, int failures, Runnable action) {
+        jdbcTemplate.execute("CREATE SEQUENCE idempotency_complete_attempts");
+        jdbcTemplate.execute("""
+            CREATE FUNCTION fail_idempotency_complete() RETURNS trigger AS $$
+            BEGIN
+                IF NEW.status = 'COMPLETED' AND NEW.idempotency_key = '%s'
+                   AND nextval('idempotency_complete_attempts') <= %d THEN
+                    RAISE EXCEPTION 'simulated failure storing idempotent response';
+                END IF;
+                RETURN NEW;
+            END
+            $$ LANGUAGE plpgsql
+            """.formatted(key, failures));
+        jdbcTemplate.execute("""
+            CREATE TRIGGER fail_idempotency_complete BEFORE UPDATE ON idempotency_keys
+            FOR EACH ROW EXECUTE FUNCTION fail_idempotency_complete()
+            """);
+        try {
+            action.run();
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER fail_idempotency_complete ON idempotency_keys");
+            jdbcTemplate.execute("DROP FUNCTION fail_idempotency_complete()");
+            jdbcTemplate.execute("DROP SEQUENCE idempotency_complete_attempts");
+        }
+    }
+
+    private String keyStatus(String key) {
+        return jdbcTemplate.queryForObject(
+            "SELECT status FROM idempotency_keys WHERE scope = 'TEST' AND idempotency_key = ?", String.class, key);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
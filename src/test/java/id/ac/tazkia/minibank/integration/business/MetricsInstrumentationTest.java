@@ -0,0 +1,81 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.SequenceNumberService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureObservability
+@DisplayName("Metrics Instrumentation Tests")
+class MetricsInstrumentationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private SequenceNumberService sequenceNumberService;
+
+    @Test
+    @DisplayName("Should time cash postings per type and tag rejected postings with the exception")
+    void shouldTimeCashPostings() {
+        UUID accountId = createAccount(new BigDecimal("100000.00"));
+
+        postingService.deposit(accountId, new BigDecimal("50000.00"), "Setoran", null);
+        postingService.withdraw(accountId, new BigDecimal("20000.00"), "Penarikan", null);
+        assertThrows(IllegalArgumentException.class,
+            () -> postingService.withdraw(accountId, new BigDecimal("999999999.00"), "Penarikan", null));
+
+        assertTrue(timer("minibank.posting", "type", "deposit", "exception", "none").count() >= 1);
+        assertTrue(timer("minibank.posting", "type", "withdrawal", "exception", "none").count() >= 1);
+        assertTrue(timer("minibank.posting", "type", "withdrawal", "exception", "PostingRejectedException").count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should expose timers, pool and Hibernate gauges in Prometheus format")
+    void shouldExposePrometheusScrape() {
+        postingService.deposit(createAccount(BigDecimal.ZERO), new BigDecimal("10000.00"), "Setoran", null);
+        sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
+
+        String scrape = prometheusMeterRegistry.scrape();
+
+        assertTrue(scrape.contains("minibank_posting_seconds_bucket"), "Posting histogram buckets");
+        assertTrue(scrape.contains("minibank_posting_seconds{") && scrape.contains("quantile=\"0.95\""),
+            "Posting percentiles");
+        assertTrue(scrape.contains("minibank_sequence_allocation_seconds_count"), "Sequence allocation timer");
+        assertTrue(scrape.contains("minibank_transfer_retries_total"), "Transfer retry counter");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "Connection pool gauges");
+        assertTrue(scrape.contains("hibernate_sessions_open_total"), "Hibernate statistics");
+    }
+
+    private Timer timer(String name, String... tags) {
+        Timer timer = meterRegistry.find(name).tags(tags).timer();
+        assertNotNull(timer, "Timer " + name + " with tags " + String.join(",", tags));
+        return timer;
+    }
+
+    private UUID createAccount(BigDecimal balance) {
+        return insertAccount("MET" + TestDataFactory.generateAccountNumber(), "Metrics Test Account", balance);
+    }
+}
@@ -0,0 +1,168 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.PassbookPage;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.PassbookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Passbook Incremental Printing Tests")
+class PassbookServiceTest extends BaseIntegrationTest {
+
+    private static final int TRANSACTION_COUNT = 25;
+
+    @Autowired
+    private PassbookService passbookService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = insertAccount("PB" + TestDataFactory.generateAccountNumber(), "Passbook Test Account",
+            new BigDecimal(TRANSACTION_COUNT * 10));
+
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 9, 0);
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+                "balance_before, balance_after, transaction_date, created_by) " +
+                "VALUES (?, ?, 'DEPOSIT', 10, ?, ?, ?, 'TEST_SYSTEM')",
+                accountId, "PB" + UUID.randomUUID().toString().substring(0, 12), i * 10, (i + 1) * 10,
+                Timestamp.valueOf(base.plusHours(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should print only unprinted lines and advance after confirmation")
+    void shouldPrintIncrementally() {
+        PassbookPage first = passbookService.findUnprintedLines(accountId, 10);
+        assertEquals(10, first.getLines().size());
+        assertEquals(1, first.getFirstLineNumber());
+        assertTrue(first.isHasMore());
+        assertEquals(0, new BigDecimal("10").compareTo(first.getLines().get(0).getBalanceAfter()));
+
+        // Reprinting before confirmation shows the same lines
+        assertEquals(first.getLastTransactionId(), passbookService.findUnprintedLines(accountId, 10).getLastTransactionId());
+
+        assertEquals(10, passbookService.confirmPrinted(accountId, first.getLastTransactionId()));
+        PassbookPage second = passbookService.findUnprintedLines(accountId, 10);
+        assertEquals(11, second.getFirstLineNumber());
+        assertEquals(0, new BigDecimal("110").compareTo(second.getLines().get(0).getBalanceAfter()));
+
+        assertEquals(10, passbookService.confirmPrinted(accountId, second.getLastTransactionId()));
+        PassbookPage third = passbookService.findUnprintedLines(accountId, 10);
+        assertEquals(5, third.getLines().size());
+        assertFalse(third.isHasMore());
+
+        assertEquals(5, passbookService.confirmPrinted(accountId, third.getLastTransactionId()));
+        assertTrue(passbookService.findUnprintedLines(accountId, 10).getLines().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ignore repeated confirmation of the same page")
+    void shouldIgnoreRepeatedConfirmation() {
+        PassbookPage first = passbookService.findUnprintedLines(accountId, 10);
+        assertEquals(10, passbookService.confirmPrinted(accountId, first.getLastTransactionId()));
+        assertEquals(0, passbookService.confirmPrinted(accountId, first.getLastTransactionId()));
+        assertEquals(11, passbookService.findUnprintedLines(accountId, 10).getFirstLineNumber());
+    }
+
+    @Test
+    @DisplayName("Should create the cursor once when the first page is confirmed concurrently")
+    void shouldConfirmFirstPageOnceUnderConcurrency() throws Exception {
+        PassbookPage first = passbookService.findUnprintedLines(accountId, 10);
+        int tellers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(tellers);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < tellers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return passbookService.confirmPrinted(accountId, first.getLastTransactionId());
+            }));
+        }
+        start.countDown();
+        long confirmed = 0;
+        for (Future<Long> result : results) {
+            confirmed += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(10, confirmed, "Exactly one teller should confirm the page");
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM passbook_cursors WHERE id_accounts = ?", Integer.class, accountId));
+        assertEquals(11, passbookService.findUnprintedLines(accountId, 10).getFirstLineNumber());
+    }
+
+    @Test
+    @DisplayName("Should count each line once when different first pages are confirmed concurrently")
+    void shouldCountLinesOnceWhenFirstPagesRace() throws Exception {
+        UUID tenth = passbookService.findUnprintedLines(accountId, 10).getLastTransactionId();
+        UUID twentieth = passbookService.findUnprintedLines(accountId, 20).getLastTransactionId();
+        int tellers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(tellers);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < tellers; i++) {
+            UUID last = i % 2 == 0 ? tenth : twentieth;
+            results.add(executor.submit(() -> {
+                start.await();
+                return passbookService.confirmPrinted(accountId, last);
+            }));
+        }
+        start.countDown();
+        long confirmed = 0;
+        for (Future<Long> result : results) {
+            confirmed += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(20, confirmed, "Lines confirmed by the tellers together should add up to the cursor");
+        assertEquals(20L, jdbcTemplate.queryForObject(
+            "SELECT printed_lines FROM passbook_cursors WHERE id_accounts = ?", Long.class, accountId));
+    }
+
+    @Test
+    @DisplayName("Should not move the cursor back when an older page is confirmed late")
+    void shouldNotMoveCursorBackwards() {
+        PassbookPage first = passbookService.findUnprintedLines(accountId, 10);
+        PassbookPage both = passbookService.findUnprintedLines(accountId, 20);
+        assertEquals(20, passbookService.confirmPrinted(accountId, both.getLastTransactionId()));
+
+        assertEquals(0, passbookService.confirmPrinted(accountId, first.getLastTransactionId()));
+        PassbookPage next = passbookService.findUnprintedLines(accountId, 10);
+        assertEquals(21, next.getFirstLineNumber());
+        assertEquals(5, next.getLines().size());
+    }
+
+    @Test
+    @DisplayName("Should reject confirmation with a transaction from another account")
+    void shouldRejectForeignTransaction() {
+        PassbookPage first = passbookService.findUnprintedLines(accountId, 10);
+        Transaction line = first.getLines().get(0);
+        assertThrows(IllegalArgumentException.class,
+            () -> passbookService.confirmPrinted(UUID.randomUUID(), line.getId()));
+    }
+}
@@ -0,0 +1,143 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.security.PermissionSet;
+import id.ac.tazkia.minibank.security.PermissionTable;
+import id.ac.tazkia.minibank.security.UserPrincipal;
+import id.ac.tazkia.minibank.service.AuthenticationService;
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
+import id.ac.tazkia.minibank.service.CustomUserDetailsService;
+import id.ac.tazkia.minibank.service.PermissionTableService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Permission Table Tests")
+class PermissionTableTest extends BaseIntegrationTest {
+
+    private static final String NEW_PERMISSION = "PERMTABLE_TEST";
+
+    @Autowired
+    private PermissionTableService permissionTableService;
+
+    @Autowired
+    private AuthorizationVersionService authorizationVersionService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        if (jdbcTemplate.update("DELETE FROM permissions WHERE permission_code = ?", NEW_PERMISSION) > 0) {
+            authorizationVersionService.invalidate("test cleanup");
+        }
+    }
+
+    @Test
+    @DisplayName("Should compile each role into a bitset and OR them for a user")
+    void shouldCompileRoleBitsets() {
+        PermissionTable table = permissionTableService.current();
+        int deposit = table.ordinal("TRANSACTION_DEPOSIT");
+        int approvalView = table.ordinal("APPROVAL_VIEW");
+        int customerCreate = table.ordinal("CUSTOMER_CREATE");
+
+        assertTrue(deposit >= 0);
+        assertEquals(deposit, table.ordinal("transaction", "deposit"));
+        assertEquals(-1, table.ordinal("NO_SUCH_PERMISSION"));
+        assertEquals(-1, table.ordinal("transaction", "fly"));
+
+        PermissionSet teller = table.permissionsOf("TELLER");
+        PermissionSet customerService = table.permissionsOf("CUSTOMER_SERVICE");
+        assertTrue(teller.contains(deposit));
+        assertFalse(teller.contains(approvalView));
+        assertTrue(customerService.contains(customerCreate));
+        assertFalse(table.permissionsOf("NO_SUCH_ROLE").contains(deposit));
+
+        PermissionSet both = table.effectivePermissions(List.of("TELLER", "CUSTOMER_SERVICE"));
+        assertEquals(teller.or(customerService), both);
+        assertTrue(both.contains(deposit) && both.contains(customerCreate));
+
+        UserPrincipal manager = userDetailsService.loadUserByUsername("manager1");
+        assertEquals(table.permissionsOf("BRANCH_MANAGER"), manager.getPermissions());
+        assertEquals(table.codesOf(manager.getPermissions()), manager.getPermissionCodes());
+    }
+
+    @Test
+    @DisplayName("Should keep ordinals stable and pick up new grants when assignments change")
+    void shouldRebuildWithStableOrdinals() {
+        PermissionTable before = permissionTableService.current();
+        int deposit = before.ordinal("TRANSACTION_DEPOSIT");
+        int approvalView = before.ordinal("APPROVAL_VIEW");
+
+        jdbcTemplate.update("""
+            INSERT INTO permissions (permission_code, permission_name, permission_category, created_by)
+            VALUES (?, 'Permission Table Test', 'TEST', 'TEST')
+            """, NEW_PERMISSION);
+        jdbcTemplate.update("""
+            INSERT INTO role_permissions (id_roles, id_permissions, granted_by)
+            SELECT r.id, p.id, 'TEST' FROM roles r, permissions p
+             WHERE r.role_code = 'TELLER' AND p.permission_code = ?
+            """, NEW_PERMISSION);
+        assertEquals(-1, permissionTableService.current().ordinal(NEW_PERMISSION), "Not visible before the rebuild");
+
+        authorizationVersionService.invalidate("test grant");
+
+        PermissionTable after = permissionTableService.current();
+        assertNotSame(before, after);
+        assertEquals(deposit, after.ordinal("TRANSACTION_DEPOSIT"));
+        assertEquals(approvalView, after.ordinal("APPROVAL_VIEW"));
+        int added = after.ordinal(NEW_PERMISSION);
+        assertTrue(added >= before.size(), "New permissions are appended after existing ordinals");
+        assertTrue(after.permissionsOf("TELLER").contains(added));
+        assertFalse(before.permissionsOf("TELLER").contains(added), "Old table is never modified");
+        assertTrue(userDetailsService.loadUserByUsername("teller1").hasPermission(NEW_PERMISSION));
+    }
+
+    @Test
+    @DisplayName("Should check resource and action permissions without allocating")
+    void shouldCheckPermissionsWithoutAllocating() {
+        UserPrincipal teller = userDetailsService.loadUserByUsername("teller1");
+        SecurityContextHolder.getContext().setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated(teller, null, teller.getAuthorities()));
+
+        assertTrue(authenticationService.hasPermission("transaction", "deposit"));
+        assertTrue(authenticationService.hasPermission("TRANSACTION_WITHDRAWAL"));
+        assertFalse(authenticationService.hasPermission("approval", "view"));
+        assertFalse(authenticationService.hasPermission("no", "such"));
+
+        // Measured below the service proxy, whose interceptor lookup is not part of the check itself
+        PermissionTable table = permissionTableService.current();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        int checks = 200_000;
+        int granted = 0;
+        for (int i = 0; i < checks; i++) {
+            granted += teller.hasPermission(table.ordinal("transaction", "deposit")) ? 1 : 0;
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < checks; i++) {
+            granted += teller.hasPermission(table.ordinal("transaction", "deposit")) ? 1 : 0;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertEquals(2 * checks, granted);
+        assertTrue(allocated < checks, "Expected no per-check allocation but " + allocated + " bytes were allocated");
+    }
+}
@@ -0,0 +1,166 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.PostingService.PostingRejectedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Posting Service Tests")
+class PostingServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Test
+    @DisplayName("Should post deposit and withdrawal with consistent balance chain")
+    void shouldPostDepositAndWithdrawal() {
+        UUID accountId = createAccount(new BigDecimal("100000.00"), "ACTIVE");
+
+        PostingResult deposit = postingService.deposit(accountId, new BigDecimal("50000.00"), "Setoran Tunai", null);
+        PostingResult withdrawal = postingService.withdraw(accountId, new BigDecimal("30000.00"), "Penarikan Tunai", "REF-1");
+
+        assertEquals(0, new BigDecimal("100000.00").compareTo(deposit.getBalanceBefore()));
+        assertEquals(0, new BigDecimal("150000.00").compareTo(deposit.getBalanceAfter()));
+        assertEquals(0, deposit.getBalanceAfter().compareTo(withdrawal.getBalanceBefore()));
+        assertEquals(0, new BigDecimal("120000.00").compareTo(withdrawal.getBalanceAfter()));
+        assertEquals("WITHDRAWAL", withdrawal.getTransactionType());
+        assertEquals("REF-1", withdrawal.getReferenceNumber());
+        assertNotNull(withdrawal.getTransactionNumber());
+        assertEquals(0, new BigDecimal("120000.00").compareTo(currentBalance(accountId)));
+        assertEquals(2, transactionCount(accountId));
+    }
+
+    @Test
+    @DisplayName("Should reject withdrawal exceeding balance without writing anything")
+    void shouldRejectInsufficientBalance() {
+        UUID accountId = createAccount(new BigDecimal("10000.00"), "ACTIVE");
+
+        PostingRejectedException exception = assertThrows(PostingRejectedException.class,
+            () -> postingService.withdraw(accountId, new BigDecimal("10000.01"), null, null));
+
+        assertEquals(PostingRejectedException.Reason.INSUFFICIENT_BALANCE, exception.getReason());
+        assertEquals(0, new BigDecimal("10000.00").compareTo(currentBalance(accountId)));
+        assertEquals(0, transactionCount(accountId));
+    }
+
+    @Test
+    @DisplayName("Should reject postings on inactive and unknown accounts")
+    void shouldRejectInactiveAndUnknownAccounts() {
+        UUID frozenAccountId = createAccount(new BigDecimal("10000.00"), "FROZEN");
+
+        PostingRejectedException notActive = assertThrows(PostingRejectedException.class,
+            () -> postingService.deposit(frozenAccountId, new BigDecimal("1000.00"), null, null));
+        PostingRejectedException notFound = assertThrows(PostingRejectedException.class,
+            () -> postingService.deposit(UUID.randomUUID(), new BigDecimal("1000.00"), null, null));
+
+        assertEquals(PostingRejectedException.Reason.ACCOUNT_NOT_ACTIVE, notActive.getReason());
+        assertEquals(PostingRejectedException.Reason.ACCOUNT_NOT_FOUND, notFound.getReason());
+    }
+
+    @Test
+    @DisplayName("Should not lose updates under concurrent postings")
+    void shouldNotLoseConcurrentUpdates() throws Exception {
+        UUID accountId = createAccount(new BigDecimal("0.00"), "ACTIVE");
+        int threads = 16;
+        int postingsPerThread = 25;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < postingsPerThread; i++) {
+                    postingService.deposit(accountId, new BigDecimal("1000.00"), null, null);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BigDecimal expected = new BigDecimal("1000.00").multiply(BigDecimal.valueOf((long) threads * postingsPerThread));
+        assertEquals(0, expected.compareTo(currentBalance(accountId)));
+        assertEquals(threads * postingsPerThread, transactionCount(accountId));
+    }
+
+    @Test
+    @DisplayName("Should date concurrent postings in the order they change the balance")
+    void shouldKeepBalanceChainInTransactionDateOrder() throws Exception {
+        UUID accountId = createAccount(new BigDecimal("1000000.00"), "ACTIVE");
+        int threads = 12;
+        int postingsPerThread = 20;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            boolean deposits = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < postingsPerThread; i++) {
+                    if (deposits) {
+                        postingService.deposit(accountId, new BigDecimal("700.00"), null, null);
+                    } else {
+                        postingService.withdraw(accountId, new BigDecimal("300.00"), null, null);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Integer brokenLinks = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*) FROM (
+                SELECT balance_before,
+                       LAG(balance_after) OVER (ORDER BY transaction_date, id) AS previous
+                  FROM transactions WHERE id_accounts = ?
+            ) chain
+             WHERE previous IS NOT NULL AND previous <> balance_before
+            """, Integer.class, accountId);
+        Integer duplicateTimestamps = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM transactions WHERE id_accounts = ? GROUP BY transaction_date HAVING COUNT(*) > 1
+            ) duplicates
+            """, Integer.class, accountId);
+
+        assertEquals(threads * postingsPerThread, transactionCount(accountId));
+        assertEquals(0, brokenLinks, "Each posting should continue from the previous one by transaction_date");
+        assertEquals(0, duplicateTimestamps, "Postings of one account should be strictly ordered in time");
+    }
+
+    private UUID createAccount(BigDecimal balance, String status) {
+        return insertAccount("C1000001", "PST" + TestDataFactory.generateAccountNumber(), "Posting Test Account",
+            balance, status);
+    }
+
+    private BigDecimal currentBalance(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+
+    private int transactionCount(UUID accountId) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE id_accounts = ?", Integer.class, accountId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,124 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.repository.TransactionRepository;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.ReceiptCacheService;
+import id.ac.tazkia.minibank.service.ReceiptCacheService.Receipt;
+import id.ac.tazkia.minibank.service.TransactionReceiptPdfService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Receipt Cache Tests")
+class ReceiptCacheServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ReceiptCacheService receiptCacheService;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionReceiptPdfService receiptPdfService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${minibank.receipt.cache.dir}")
+    private Path cacheDirectory;
+
+    @Test
+    @DisplayName("Should pre-render receipt after posting and serve it with a stable ETag")
+    void shouldPrerenderAndReuseReceipt() throws Exception {
+        PostingResult posted = postingService.deposit(createAccount(), new BigDecimal("250000.00"), "Setoran", null);
+
+        Path cacheFile = cacheDirectory.resolve(posted.getTransactionId() + ".receipt");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(cacheFile) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(cacheFile), "Receipt should be pre-rendered after commit");
+
+        Receipt first = receiptCacheService.findReceipt(posted.getTransactionId()).orElseThrow();
+        Receipt second = receiptCacheService.findReceipt(posted.getTransactionId()).orElseThrow();
+
+        assertEquals(first.etag(), second.etag());
+        assertArrayEquals(first.content(), second.content());
+        assertEquals("receipt_" + posted.getTransactionNumber() + ".pdf", first.filename());
+        assertEquals("W/\"" + posted.getTransactionId() + "-v" + TransactionReceiptPdfService.RECEIPT_TEMPLATE_VERSION + "\"",
+            first.etag());
+    }
+
+    @Test
+    @DisplayName("Should keep the ETag when a receipt is rendered again from scratch")
+    void shouldKeepEtagAcrossRenders(@TempDir Path emptyCacheDirectory) {
+        PostingResult posted = postingService.deposit(createAccount(), new BigDecimal("125000.00"), "Setoran", null);
+        Receipt cached = receiptCacheService.findReceipt(posted.getTransactionId()).orElseThrow();
+
+        // A second cache with nothing in memory or on disk, as after a restart with a wiped cache
+        ReceiptCacheService coldCache = new ReceiptCacheService(
+            transactionRepository, receiptPdfService, emptyCacheDirectory, 10, 1, false, 10);
+        try {
+            Receipt rerendered = coldCache.findReceipt(posted.getTransactionId()).orElseThrow();
+            assertEquals(cached.etag(), rerendered.etag());
+        } finally {
+            coldCache.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown transaction")
+    void shouldReturnEmptyForUnknownTransaction() {
+        assertTrue(receiptCacheService.findReceipt(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Should answer If-None-Match with 304 and immutable caching headers")
+    void shouldHonourIfNoneMatch() throws Exception {
+        PostingResult posted = postingService.deposit(createAccount(), new BigDecimal("75000.00"), "Setoran", null);
+        String etag = receiptCacheService.findReceipt(posted.getTransactionId()).orElseThrow().etag();
+
+        mockMvc.perform(get("/transaction/receipt/{id}", posted.getTransactionId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+
+        mockMvc.perform(get("/transaction/receipt/{id}", posted.getTransactionId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag.substring(2)))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    private UUID createAccount() {
+        return insertAccount("RCP" + TestDataFactory.generateAccountNumber(), "Receipt Test Account", BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,112 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.StatementJob;
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.repository.AccountRepository;
+import id.ac.tazkia.minibank.service.StatementJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Statement Job Service Tests")
+class StatementJobServiceTest extends BaseIntegrationTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 31);
+
+    @Autowired
+    private StatementJobService statementJobService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("Should generate statement in background and reuse the job for identical pending requests")
+    void shouldGenerateStatementAndDeduplicate() throws Exception {
+        Account account = createAccountWithTransactions();
+
+        StatementJob first = statementJobService.submit(account, START, END);
+        StatementJob second = statementJobService.submit(account, START, END);
+        StatementJob otherPeriod = statementJobService.submit(account, START, END.plusDays(1));
+
+        assertEquals(first.getJobId(), second.getJobId());
+        assertNotEquals(first.getJobId(), otherPeriod.getJobId());
+
+        StatementJob finished = awaitFinished(first.getJobId());
+        assertEquals(StatementJob.JobStatus.COMPLETED, finished.getStatus());
+        assertNotNull(finished.getExpiresAt());
+        assertTrue(Files.exists(finished.getFile()));
+        assertEquals(Files.size(finished.getFile()), finished.getFileSize());
+        byte[] header = new byte[4];
+        try (var in = Files.newInputStream(finished.getFile())) {
+            assertEquals(4, in.read(header));
+        }
+        assertEquals("%PDF", new String(header, StandardCharsets.US_ASCII));
+
+        // Once finished, the same request renders a fresh statement and the old file stays downloadable
+        StatementJob fresh = statementJobService.submit(account, START, END);
+        assertNotEquals(first.getJobId(), fresh.getJobId());
+        assertTrue(statementJobService.findJob(first.getJobId()).isPresent());
+        awaitFinished(fresh.getJobId());
+        awaitFinished(otherPeriod.getJobId());
+    }
+
+    @Test
+    @DisplayName("Should delete expired artifacts and start a new job afterwards")
+    void shouldPurgeExpiredJobs() throws Exception {
+        Account account = createAccountWithTransactions();
+        StatementJob job = awaitFinished(statementJobService.submit(account, START, END).getJobId());
+        assertEquals(StatementJob.JobStatus.COMPLETED, job.getStatus());
+
+        job.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        statementJobService.purgeExpiredJobs();
+
+        assertTrue(statementJobService.findJob(job.getJobId()).isEmpty());
+        assertFalse(Files.exists(job.getFile()));
+        StatementJob resubmitted = statementJobService.submit(account, START, END);
+        assertNotEquals(job.getJobId(), resubmitted.getJobId());
+        awaitFinished(resubmitted.getJobId());
+    }
+
+    private StatementJob awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            StatementJob job = statementJobService.findJob(jobId).orElseThrow();
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("Statement job " + jobId + " did not finish in time");
+        return null;
+    }
+
+    private Account createAccountWithTransactions() {
+        UUID accountId = insertAccount("JOB" + TestDataFactory.generateAccountNumber(), "Statement Job Test Account",
+            new BigDecimal("300"));
+        jdbcTemplate.update("""
+            INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, balance_before,
+                                      balance_after, description, transaction_date, created_by)
+            SELECT ?, 'JOB' || substr(md5(random()::text), 1, 12) || i, 'DEPOSIT', 100,
+                   (i - 1) * 100, i * 100, 'Setoran ' || i,
+                   TIMESTAMP '2025-01-05' + i * INTERVAL '1 day', 'TEST_SYSTEM'
+              FROM generate_series(1, 3) AS i
+            """, accountId);
+        return accountRepository.findById(accountId).orElseThrow();
+    }
+}
@@ -0,0 +1,135 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.CursorPage;
+import id.ac.tazkia.minibank.dto.TransactionHistoryItem;
+import id.ac.tazkia.minibank.service.TransactionHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Transaction History Keyset Pagination Tests")
+class TransactionHistoryServiceTest extends BaseIntegrationTest {
+
+    private static final int TRANSACTION_COUNT = 25;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = insertAccount("HIST" + TestDataFactory.generateAccountNumber(), "History Test Account",
+            new BigDecimal(TRANSACTION_COUNT));
+
+        // Pairs of rows share a timestamp so the id tiebreaker is exercised
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+                "balance_before, balance_after, transaction_date, created_by) " +
+                "VALUES (?, ?, 'DEPOSIT', 1, ?, ?, ?, 'TEST_SYSTEM')",
+                accountId, "HIST" + UUID.randomUUID().toString().substring(0, 12), i, i + 1,
+                Timestamp.valueOf(base.plusMinutes(i / 2)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should walk all pages newest first without gaps or duplicates")
+    void shouldWalkAllPages() {
+        List<TransactionHistoryItem> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<TransactionHistoryItem> page = transactionHistoryService.findHistory(accountId, null, cursor, null, 10);
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+            assertEquals(pages > 1, page.isHasPrevious());
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(TRANSACTION_COUNT, seen.size());
+        Set<UUID> ids = new HashSet<>();
+        seen.forEach(item -> ids.add(item.getTransactionId()));
+        assertEquals(TRANSACTION_COUNT, ids.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getTransactionDate().isAfter(seen.get(i - 1).getTransactionDate()));
+        }
+        assertEquals(0, new BigDecimal(TRANSACTION_COUNT).compareTo(seen.get(0).getBalanceAfter()));
+    }
+
+    @Test
+    @DisplayName("Should page back to the same rows with the previous cursor")
+    void shouldPageBackwards() {
+        CursorPage<TransactionHistoryItem> first = transactionHistoryService.findHistory(accountId, null, null, null, 10);
+        CursorPage<TransactionHistoryItem> second = transactionHistoryService.findHistory(accountId, null,
+            first.getNextCursor(), null, 10);
+        CursorPage<TransactionHistoryItem> back = transactionHistoryService.findHistory(accountId, null,
+            null, second.getPreviousCursor(), 10);
+
+        assertEquals(ids(first), ids(back));
+        assertFalse(back.isHasPrevious());
+        assertTrue(back.isHasNext());
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursor")
+    void shouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionHistoryService.findHistory(accountId, null, "not-a-cursor", null, 10));
+    }
+
+    @Test
+    @DisplayName("Should report an estimated total only for the unfiltered list")
+    void shouldEstimateUnfilteredTotal() {
+        assertNotNull(transactionHistoryService.findTransactions(null, null, null, null, null, 10).getEstimatedTotal());
+        assertNull(transactionHistoryService.findHistory(accountId, null, null, null, 10).getEstimatedTotal());
+    }
+
+    @Test
+    @DisplayName("Should search number, description and reference with wildcards taken literally")
+    void shouldSearchWithLiteralWildcards() {
+        String token = "zq" + UUID.randomUUID().toString().substring(0, 8);
+        insertDescribed("Setoran " + token + " 100%", "REF-" + token);
+        insertDescribed("Setoran " + token + " 1000", null);
+
+        assertEquals(2, transactionHistoryService.findTransactions(null, null, token.toUpperCase(), null, null, 10)
+            .getContent().size());
+        assertEquals(1, transactionHistoryService.findTransactions(null, null, token + " 100%", null, null, 10)
+            .getContent().size());
+
+        List<TransactionHistoryItem> ranked = transactionHistoryService.search("REF-" + token, 10);
+        assertEquals("REF-" + token, ranked.get(0).getReferenceNumber());
+    }
+
+    private void insertDescribed(String description, String referenceNumber) {
+        jdbcTemplate.update(
+            "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+            "balance_before, balance_after, description, reference_number, created_by) " +
+            "VALUES (?, ?, 'DEPOSIT', 1, 0, 1, ?, ?, 'TEST_SYSTEM')",
+            accountId, "HIST" + UUID.randomUUID().toString().substring(0, 12), description, referenceNumber);
+    }
+
+    private List<UUID> ids(CursorPage<TransactionHistoryItem> page) {
+        return page.getContent().stream().map(TransactionHistoryItem::getTransactionId).toList();
+    }
+}
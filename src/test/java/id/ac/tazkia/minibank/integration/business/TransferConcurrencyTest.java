@@ -0,0 +1,120 @@
+package id.ac.tazkia.minibank.integration.business;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.TransferRequest;
+import id.ac.tazkia.minibank.service.TransferService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Transfer Concurrency Tests")
+class TransferConcurrencyTest extends BaseIntegrationTest {
+
+    private static final int ACCOUNT_COUNT = 6;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 40;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("500000.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    @Test
+    @DisplayName("Should conserve total money under concurrent opposite-direction transfers")
+    void shouldConserveMoneyUnderConcurrentTransfers() throws Exception {
+        // Given - a small pool of accounts so that most transfers collide
+        List<UUID> accountIds = new ArrayList<>();
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            String accountNumber = "TRF" + TestDataFactory.generateAccountNumber();
+            accountIds.add(insertAccount(accountNumber, "Transfer Stress Account", INITIAL_BALANCE));
+            accountNumbers.add(accountNumber);
+        }
+        BigDecimal totalBefore = totalBalance(accountIds);
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - every thread moves money back and forth between random pairs
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNT_COUNT);
+                    int to = (from + 1 + random.nextInt(ACCOUNT_COUNT - 1)) % ACCOUNT_COUNT;
+                    TransferRequest request = new TransferRequest();
+                    request.setFromAccountId(accountIds.get(from));
+                    request.setToAccountNumber(accountNumbers.get(to));
+                    request.setAmount(BigDecimal.valueOf(random.nextInt(1, 200_000)));
+                    request.setReferenceNumber("STRESS-" + UUID.randomUUID());
+                    try {
+                        transferService.processTransfer(request);
+                        completed.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // Insufficient balance is an expected business rejection
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(3, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Then - money is neither created nor destroyed
+        log.info("Transfers completed: {}, rejected: {}, retries: {}",
+            completed.get(), rejected.get(), transferService.getRetryCount());
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, completed.get() + rejected.get());
+        assertTrue(completed.get() > 0, "At least some transfers should succeed");
+        assertEquals(0, totalBefore.compareTo(totalBalance(accountIds)), "Total money must be conserved");
+        assertEquals(0, transferService.getRetryExhaustedCount());
+
+        for (UUID accountId : accountIds) {
+            BigDecimal balance = jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+            BigDecimal netPostings = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN transaction_type = 'TRANSFER_IN' THEN amount ELSE -amount END), 0) " +
+                "FROM transactions WHERE id_accounts = ?", BigDecimal.class, accountId);
+            assertTrue(balance.signum() >= 0, "Balance must never go negative");
+            assertEquals(0, INITIAL_BALANCE.add(netPostings).compareTo(balance),
+                "Balance must match the sum of its postings");
+        }
+
+        Integer unmatchedLegs = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM (SELECT reference_number FROM transactions WHERE reference_number LIKE 'STRESS-%' " +
+            "GROUP BY reference_number HAVING COUNT(*) <> 2) legs", Integer.class);
+        assertEquals(0, unmatchedLegs, "Every transfer must have exactly one debit and one credit leg");
+    }
+
+    private BigDecimal totalBalance(List<UUID> accountIds) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (UUID accountId : accountIds) {
+            total = total.add(jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId));
+        }
+        return total;
+    }
+}
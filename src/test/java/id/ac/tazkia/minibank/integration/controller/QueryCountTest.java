@@ -0,0 +1,123 @@
+package id.ac.tazkia.minibank.integration.controller;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static id.ac.tazkia.minibank.config.QueryCountAssertions.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("SQL Statement Count Tests")
+class QueryCountTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostingService postingService;
+
+    private UUID accountId;
+    private String accountNumber;
+
+    /**
+     * Also queues approval requests for the accounts and two customers; the newest page holds
+     * both entity types whatever its size.
+     */
+    @BeforeAll
+    void createAccounts() {
+        for (int i = 0; i < 25; i++) {
+            String number = "QRY" + TestDataFactory.generateAccountNumber();
+            accountId = insertAccount(i % 2 == 0 ? "C1000001" : "C1000002", number, "Query Count Account",
+                new BigDecimal("100000.00"), "ACTIVE");
+            accountNumber = number;
+        }
+        jdbcTemplate.update("""
+            INSERT INTO approval_requests (request_type, entity_type, entity_id, requested_by, requested_date, branch_id)
+            SELECT 'CUSTOMER_CREATION', 'CUSTOMER', id, 'QRY_TEST', CURRENT_TIMESTAMP + INTERVAL '1 minute', id_branches
+              FROM customers WHERE customer_number IN ('C1000001', 'C1000002')
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO approval_requests (request_type, entity_type, entity_id, requested_by, branch_id)
+            SELECT 'ACCOUNT_OPENING', 'ACCOUNT', id, 'QRY_TEST', id_branches FROM accounts
+             WHERE account_number LIKE 'QRY%' AND id <> ?
+            """, accountId);
+        jdbcTemplate.update("""
+            INSERT INTO approval_requests (request_type, entity_type, entity_id, requested_by, requested_date, branch_id)
+            SELECT 'ACCOUNT_OPENING', 'ACCOUNT', id, 'QRY_TEST', CURRENT_TIMESTAMP + INTERVAL '2 minutes', id_branches
+              FROM accounts WHERE id = ?
+            """, accountId);
+    }
+
+    @AfterAll
+    void deleteApprovalRequests() {
+        jdbcTemplate.update("DELETE FROM approval_requests WHERE requested_by = 'QRY_TEST'");
+    }
+
+    @Test
+    @WithMockUser(authorities = {"ACCOUNT_VIEW"})
+    @DisplayName("Account list should not load customer and product per row")
+    void accountListShouldNotRunQueryPerRow() {
+        assertNoNPlusOne(
+            () -> mockMvc.perform(get("/account/list").param("size", "2")).andExpect(status().isOk()),
+            () -> mockMvc.perform(get("/account/list").param("size", "25")).andExpect(status().isOk()));
+        assertNoNPlusOne(
+            () -> mockMvc.perform(get("/account/list").param("size", "2").param("status", "ACTIVE"))
+                .andExpect(status().isOk()),
+            () -> mockMvc.perform(get("/account/list").param("size", "25").param("status", "ACTIVE"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    @WithMockUser(username = "manager1", authorities = {"APPROVAL_VIEW"})
+    @DisplayName("Approval queue should resolve customers and accounts per entity type, not per row")
+    void approvalQueueShouldNotResolveTargetPerRow() throws Exception {
+        // Fills the cached per-type counts so neither measured request pays for them
+        mockMvc.perform(get("/approval/queue")).andExpect(status().isOk());
+
+        assertNoNPlusOne(
+            () -> mockMvc.perform(get("/approval/queue").param("size", "2")).andExpect(status().isOk()),
+            () -> mockMvc.perform(get("/approval/queue").param("size", "25")).andExpect(status().isOk()));
+
+        mockMvc.perform(get("/approval/queue").param("size", "5"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString(accountNumber + " - ")));
+    }
+
+    @Test
+    @WithMockUser(authorities = {"ACCOUNT_VIEW"})
+    @DisplayName("Should report statement count and DB time in the Server-Timing header")
+    void shouldSendServerTimingHeader() throws Exception {
+        mockMvc.perform(get("/account/list"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Server-Timing", matchesPattern("db;dur=\\d+;desc=\"\\d+ queries\"")));
+    }
+
+    @Test
+    @DisplayName("Cash deposit should post with a single statement once a sequence block is reserved")
+    void depositShouldUseSingleStatement() {
+        postingService.deposit(accountId, new BigDecimal("1000.00"), "Setoran", null);
+
+        assertStatementCount(1, () -> postingService.deposit(accountId, new BigDecimal("1000.00"), "Setoran", null));
+    }
+}
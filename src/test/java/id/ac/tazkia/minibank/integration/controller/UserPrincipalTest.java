@@ -0,0 +1,144 @@
+package id.ac.tazkia.minibank.integration.controller;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.security.UserPrincipal;
+import id.ac.tazkia.minibank.service.AuthorizationVersionService;
+import id.ac.tazkia.minibank.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static id.ac.tazkia.minibank.config.QueryCountAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("User Principal Tests")
+class UserPrincipalTest extends BaseIntegrationTest {
+
+    private static final String USERNAME = "principal_test_user";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private AuthorizationVersionService authorizationVersionService;
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", USERNAME);
+    }
+
+    @Test
+    @DisplayName("Should load roles, permissions and display role name in one statement")
+    void shouldLoadPrincipalInOneStatement() {
+        UserPrincipal[] loaded = new UserPrincipal[1];
+        assertStatementCount(1, () -> loaded[0] = userDetailsService.loadUserByUsername("admin"));
+
+        UserPrincipal admin = loaded[0];
+        assertEquals("Branch Manager", admin.getDisplayRoleName());
+        assertTrue(admin.hasPermission("APPROVAL_VIEW"));
+        assertTrue(admin.hasPermission("SYSTEM_PROFILE"));
+        assertTrue(admin.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_BRANCH_MANAGER")));
+        assertTrue(admin.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ACCOUNT_APPROVE")));
+        assertNotNull(admin.getPassword());
+
+        UserPrincipal teller = userDetailsService.loadUserByUsername("teller1");
+        assertEquals("Teller", teller.getDisplayRoleName());
+        assertTrue(teller.hasPermission("TRANSACTION_DEPOSIT"));
+        assertFalse(teller.hasPermission("APPROVAL_VIEW"));
+    }
+
+    @Test
+    @DisplayName("Should render pages without user or role queries")
+    void shouldRenderPagesWithoutUserQueries() {
+        MockHttpSession session = sessionFor(userDetailsService.loadUserByUsername("teller1"));
+
+        assertStatementCount(0, () -> mockMvc.perform(get("/welcome").session(session))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("currentUserRoleName", "Teller")));
+    }
+
+    @Test
+    @DisplayName("Should rebuild a stale principal once after role assignments change")
+    void shouldRefreshPrincipalAfterInvalidation() throws Exception {
+        createUser("CUSTOMER_SERVICE");
+        MockHttpSession session = sessionFor(userDetailsService.loadUserByUsername(USERNAME));
+
+        jdbcTemplate.update("""
+            INSERT INTO user_roles (id_users, id_roles, assigned_by)
+            SELECT u.id, r.id, 'TEST' FROM users u, roles r WHERE u.username = ? AND r.role_code = 'TELLER'
+            """, USERNAME);
+        authorizationVersionService.invalidate("test role assignment");
+
+        assertStatementCount(1, () -> mockMvc.perform(get("/welcome").session(session))
+            .andExpect(status().isOk()));
+        UserPrincipal refreshed = principalIn(session);
+        assertTrue(refreshed.hasPermission("TRANSACTION_DEPOSIT"));
+        assertTrue(authorizationVersionService.isCurrent(refreshed.getAuthorizationVersion()));
+        assertNull(refreshed.getPassword(), "Credentials should not be kept in the session");
+
+        assertStatementCount(0, () -> mockMvc.perform(get("/welcome").session(session))
+            .andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("Should end the session of a user deactivated after login")
+    void shouldEndSessionOfDeactivatedUser() throws Exception {
+        createUser("CUSTOMER_SERVICE");
+        MockHttpSession session = sessionFor(userDetailsService.loadUserByUsername(USERNAME));
+
+        jdbcTemplate.update("UPDATE users SET is_active = false WHERE username = ?", USERNAME);
+        authorizationVersionService.invalidate("test deactivation");
+
+        mockMvc.perform(get("/welcome").session(session))
+            .andExpect(status().is3xxRedirection());
+        assertTrue(session.isInvalid());
+    }
+
+    private void createUser(String roleCode) {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, full_name, created_by) VALUES (?, ?, ?, ?, 'TEST')",
+            UUID.randomUUID(), USERNAME, USERNAME + "@example.com", "Principal Test User");
+        jdbcTemplate.update("""
+            INSERT INTO user_passwords (id_users, password_hash, created_by)
+            SELECT id, 'not-a-real-hash', 'TEST' FROM users WHERE username = ?
+            """, USERNAME);
+        jdbcTemplate.update("""
+            INSERT INTO user_roles (id_users, id_roles, assigned_by)
+            SELECT u.id, r.id, 'TEST' FROM users u, roles r WHERE u.username = ? AND r.role_code = ?
+            """, USERNAME, roleCode);
+    }
+
+    private MockHttpSession sessionFor(UserPrincipal principal) {
+        principal.eraseCredentials();
+        SecurityContext context = new SecurityContextImpl(
+            UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        return session;
+    }
+
+    private UserPrincipal principalIn(MockHttpSession session) {
+        SecurityContext context = (SecurityContext) session.getAttribute(
+            HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+        return (UserPrincipal) context.getAuthentication().getPrincipal();
+    }
+}
@@ -0,0 +1,160 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.LargeDatasetGenerator;
+import id.ac.tazkia.minibank.config.LargeDatasetGenerator.Options;
+import id.ac.tazkia.minibank.config.LargeDatasetGenerator.Summary;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Large Dataset Generator Tests")
+class LargeDatasetGeneratorTest extends BaseIntegrationTest {
+
+    private static final String PREFIX = "LDG";
+    private static final String ACCOUNTS = PREFIX + "A%";
+
+    private Summary summary;
+
+    @BeforeAll
+    void generate() {
+        Options options = Options.defaults()
+            .withCustomers(600)
+            .withYears(2)
+            .withMonthlyTransactions(4)
+            .withThreads(2)
+            .withPrefix(PREFIX);
+        summary = new LargeDatasetGenerator(dataSource).generate(options);
+    }
+
+    @AfterAll
+    void dropDataset() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE transaction_number LIKE ?", PREFIX + "T%");
+        jdbcTemplate.update("DELETE FROM accounts WHERE account_number LIKE ?", ACCOUNTS);
+        jdbcTemplate.update("DELETE FROM customers WHERE customer_number LIKE ?", PREFIX + "C%");
+    }
+
+    @Test
+    @DisplayName("Should load customers, accounts and transactions with their subtype rows")
+    void shouldLoadAllEntities() {
+        assertEquals(600, summary.customers());
+        assertEquals(summary.accounts(), count("SELECT COUNT(*) FROM accounts WHERE account_number LIKE ?", ACCOUNTS));
+        assertEquals(summary.transactions(), count("""
+            SELECT COUNT(*) FROM transactions t JOIN accounts a ON a.id = t.id_accounts
+             WHERE a.account_number LIKE ?
+            """, ACCOUNTS));
+        assertTrue(summary.transactions() > summary.accounts() * 10, "Expected months of history per account");
+
+        long personal = count("""
+            SELECT COUNT(*) FROM customers c JOIN personal_customers p ON p.id = c.id
+             WHERE c.customer_number LIKE ? AND c.customer_type = 'PERSONAL'
+            """, PREFIX + "C%");
+        long corporate = count("""
+            SELECT COUNT(*) FROM customers c JOIN corporate_customers p ON p.id = c.id
+             WHERE c.customer_number LIKE ? AND c.customer_type = 'CORPORATE'
+            """, PREFIX + "C%");
+        assertEquals(600, personal + corporate);
+        assertTrue(corporate > 0, "Expected some corporate customers");
+    }
+
+    @Test
+    @DisplayName("Should keep every balance chain consistent with the account balance")
+    void shouldKeepBalanceChainsConsistent() {
+        long brokenLinks = count("""
+            SELECT COUNT(*) FROM (
+                SELECT t.balance_before,
+                       LAG(t.balance_after) OVER (PARTITION BY t.id_accounts ORDER BY t.transaction_date, t.id) AS previous
+                  FROM transactions t JOIN accounts a ON a.id = t.id_accounts
+                 WHERE a.account_number LIKE ?
+            ) chain
+             WHERE COALESCE(previous, 0) <> balance_before
+            """, ACCOUNTS);
+        long mismatchedBalances = count("""
+            SELECT COUNT(*) FROM accounts a
+             WHERE a.account_number LIKE ?
+               AND a.balance <> (SELECT t.balance_after FROM transactions t WHERE t.id_accounts = a.id
+                                  ORDER BY t.transaction_date DESC, t.id DESC LIMIT 1)
+            """, ACCOUNTS);
+        long duplicateTimestamps = count("""
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM transactions t JOIN accounts a ON a.id = t.id_accounts
+                 WHERE a.account_number LIKE ?
+                 GROUP BY t.id_accounts, t.transaction_date HAVING COUNT(*) > 1
+            ) duplicates
+            """, ACCOUNTS);
+
+        assertEquals(0, brokenLinks, "Every transaction should continue from the previous balance");
+        assertEquals(0, mismatchedBalances, "Account balance should equal the last balance_after");
+        assertEquals(0, duplicateTimestamps, "Postings of one account should be strictly ordered in time");
+    }
+
+    @Test
+    @DisplayName("Should open every account with its opening deposit on the opening date")
+    void shouldStartHistoryWithOpeningDeposit() {
+        long wrongFirstPostings = count("""
+            SELECT COUNT(*) FROM (
+                SELECT DISTINCT ON (t.id_accounts) t.transaction_type, t.description
+                  FROM transactions t JOIN accounts a ON a.id = t.id_accounts
+                 WHERE a.account_number LIKE ?
+                 ORDER BY t.id_accounts, t.transaction_date, t.id
+            ) first_posting
+             WHERE transaction_type <> 'DEPOSIT' OR description <> 'Setoran awal pembukaan rekening'
+            """, ACCOUNTS);
+        long postingsBeforeOpening = count("""
+            SELECT COUNT(*) FROM transactions t JOIN accounts a ON a.id = t.id_accounts
+             WHERE a.account_number LIKE ? AND t.transaction_date < a.opened_date
+            """, ACCOUNTS);
+
+        assertEquals(0, wrongFirstPostings, "The first posting of every account should be its opening deposit");
+        assertEquals(0, postingsBeforeOpening, "No account should be posted to before it was opened");
+    }
+
+    @Test
+    @DisplayName("Should pair transfers and skew activity toward hot accounts")
+    void shouldPairTransfersAndSkewActivity() {
+        long transfersOut = count("""
+            SELECT COUNT(*) FROM transactions WHERE transaction_number LIKE ? AND transaction_type = 'TRANSFER_OUT'
+            """, PREFIX + "T%");
+        long transfersIn = count("""
+            SELECT COUNT(*) FROM transactions WHERE transaction_number LIKE ? AND transaction_type = 'TRANSFER_IN'
+            """, PREFIX + "T%");
+        assertTrue(transfersOut > 0);
+        assertEquals(transfersOut, transfersIn);
+
+        List<Long> activity = jdbcTemplate.queryForList("""
+            SELECT COUNT(*) FROM transactions t JOIN accounts a ON a.id = t.id_accounts
+             WHERE a.account_number LIKE ?
+             GROUP BY t.id_accounts ORDER BY COUNT(*)
+            """, Long.class, ACCOUNTS);
+        long median = activity.get(activity.size() / 2);
+        long busiest = activity.get(activity.size() - 1);
+        log.info("Generated {} rows/s, median account has {} transactions, busiest {}",
+            String.format("%.0f", summary.rowsPerSecond()), median, busiest);
+        assertTrue(busiest > median * 10, "Hot accounts should be far busier than the median account");
+
+        long span = count("""
+            SELECT EXTRACT(YEAR FROM AGE(MAX(transaction_date), MIN(transaction_date)))::bigint
+              FROM transactions WHERE transaction_number LIKE ?
+            """, PREFIX + "T%");
+        assertTrue(span >= 1, "History should span multiple years");
+    }
+
+    private long count(String sql, Object... args) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return value != null ? value : 0;
+    }
+}
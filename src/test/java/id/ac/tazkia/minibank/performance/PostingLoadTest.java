@@ -0,0 +1,422 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.config.TestSecurityConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives deposits, withdrawals and transfers over HTTP against a running application backed by
+ * the Testcontainers PostgreSQL, then reports throughput, latency percentiles and any violation
+ * of the balance invariants.
+ *
+ * Deposits and withdrawals go through the REST API, transfers through the teller form flow. Each
+ * virtual thread plays one client issuing requests back to back until the run ends. The test
+ * fails when throughput or latency regress past the configured thresholds, when any request
+ * fails with a server error, or when the ledger no longer adds up.
+ *
+ * The run takes about a minute, so it only runs on request:
+ * {@code mvn test -Dtest=PostingLoadTest -Dminibank.loadtest=true [-Dminibank.loadtest.concurrency=64]}
+ *
+ * Other settings: {@code accounts}, {@code duration-seconds}, {@code warmup-seconds},
+ * {@code min-throughput} (ops/s), {@code max-p95-ms}, {@code max-p99-ms} and {@code max-errors},
+ * all under {@code minibank.loadtest.}.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(TestSecurityConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "minibank.loadtest", matches = "true")
+@DisplayName("Posting Load Test")
+class PostingLoadTest extends BaseIntegrationTest {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("10000000.00");
+    private static final String CREATED_BY = "LOAD_TEST";
+
+    private final int accountCount = Integer.getInteger("minibank.loadtest.accounts", 200);
+    private final int concurrency = Integer.getInteger("minibank.loadtest.concurrency", 64);
+    private final int durationSeconds = Integer.getInteger("minibank.loadtest.duration-seconds", 30);
+    private final int warmupSeconds = Integer.getInteger("minibank.loadtest.warmup-seconds", 5);
+    private final double minThroughput = Double.parseDouble(System.getProperty("minibank.loadtest.min-throughput", "50"));
+    private final long maxP95Millis = Long.getLong("minibank.loadtest.max-p95-ms", 500);
+    private final long maxP99Millis = Long.getLong("minibank.loadtest.max-p99-ms", 1500);
+    private final long maxErrors = Long.getLong("minibank.loadtest.max-errors", 0);
+
+    @LocalServerPort
+    private int port;
+
+    private final String runTag = "LT" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+    private final List<UUID> accountIds = new ArrayList<>();
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final LongAdder depositedRupiah = new LongAdder();
+    private final LongAdder withdrawnRupiah = new LongAdder();
+    private final Map<Operation, LongAdder> postedCounts = new EnumMap<>(Operation.class);
+    private HttpClient httpClient;
+
+    @BeforeAll
+    void seedAccounts() {
+        for (Operation operation : Operation.values()) {
+            postedCounts.put(operation, new LongAdder());
+        }
+        httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        long start = System.currentTimeMillis();
+        List<Object[]> customers = new ArrayList<>(accountCount);
+        List<Object[]> personalCustomers = new ArrayList<>(accountCount);
+        List<Object[]> accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            UUID customerId = UUID.randomUUID();
+            UUID accountId = UUID.randomUUID();
+            String accountNumber = String.format("%s%06d", runTag, i);
+            String[] name = TestDataFactory.generateIndonesianPersonName().split(" ", 2);
+            String firstName = name[0];
+            String lastName = name.length > 1 ? name[1] : name[0];
+
+            customers.add(new Object[] {customerId, String.format("%sC%06d", runTag, i),
+                TestDataFactory.generateIndonesianPhoneNumber(), CREATED_BY});
+            personalCustomers.add(new Object[] {customerId, firstName, lastName,
+                Date.valueOf(LocalDate.of(1970, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(12_000))),
+                TestDataFactory.generateNIK()});
+            accounts.add(new Object[] {accountId, customerId, accountNumber, firstName + " " + lastName,
+                INITIAL_BALANCE, CREATED_BY});
+            accountIds.add(accountId);
+            accountNumbers.add(accountNumber);
+        }
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO customers (id, customer_type, customer_number, id_branches, phone_number, created_by) " +
+            "VALUES (?, 'PERSONAL', ?, (SELECT id FROM branches LIMIT 1), ?, ?)", customers);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO personal_customers (id, first_name, last_name, date_of_birth, identity_number, identity_type) " +
+            "VALUES (?, ?, ?, ?, ?, 'KTP')", personalCustomers);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO accounts (id, id_customers, id_products, id_branches, account_number, account_name, balance, status, created_by) " +
+            "VALUES (?, ?, (SELECT id FROM products WHERE product_code = 'TAB001'), (SELECT id FROM branches LIMIT 1), " +
+            "?, ?, ?, 'ACTIVE', ?)", accounts);
+        log.info("Seeded {} load test accounts with prefix {} in {} ms", accountCount, runTag,
+            System.currentTimeMillis() - start);
+    }
+
+    @AfterAll
+    void dropAccounts() {
+        String pattern = runTag + "%";
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts IN " +
+            "(SELECT id FROM accounts WHERE account_number LIKE ?)", pattern);
+        jdbcTemplate.update("DELETE FROM accounts WHERE account_number LIKE ?", pattern);
+        jdbcTemplate.update("DELETE FROM customers WHERE customer_number LIKE ?", pattern);
+    }
+
+    @Test
+    @DisplayName("Should sustain posting load within thresholds and keep the ledger balanced")
+    void shouldSustainPostingLoad() throws InterruptedException {
+        if (warmupSeconds > 0) {
+            drive(Duration.ofSeconds(warmupSeconds));
+        }
+        LoadResult result = drive(Duration.ofSeconds(durationSeconds));
+        List<String> violations = findInvariantViolations();
+
+        log.info("Posting load: {} clients, {} accounts, {} s", concurrency, accountCount, durationSeconds);
+        log.info(String.format("%-10s %8s %8s %8s %8s %8s %8s %8s",
+            "operation", "requests", "posted", "rejected", "errors", "p50 ms", "p95 ms", "p99 ms"));
+        for (Operation operation : Operation.values()) {
+            log.info(result.summaryLine(operation.name().toLowerCase(), result.samplesFor(operation)));
+        }
+        log.info(result.summaryLine("total", result.samples()));
+        log.info("Throughput {} ops/s, invariant violations: {}",
+            String.format("%.1f", result.throughput()), violations.size());
+        violations.forEach(violation -> log.error("Invariant violation: {}", violation));
+
+        long[] latencies = result.sortedLatencies(result.samples());
+        assertTrue(violations.isEmpty(), "Balance invariants violated: " + violations);
+        assertTrue(result.errors() <= maxErrors,
+            result.errors() + " requests failed with a server error, allowed " + maxErrors);
+        assertTrue(result.throughput() >= minThroughput, String.format(
+            "Throughput %.1f ops/s is below %.1f ops/s", result.throughput(), minThroughput));
+        assertTrue(percentileMillis(latencies, 95) <= maxP95Millis,
+            "p95 latency " + percentileMillis(latencies, 95) + " ms exceeds " + maxP95Millis + " ms");
+        assertTrue(percentileMillis(latencies, 99) <= maxP99Millis,
+            "p99 latency " + percentileMillis(latencies, 99) + " ms exceeds " + maxP99Millis + " ms");
+    }
+
+    /**
+     * Runs {@link #concurrency} clients on virtual threads until {@code duration} has passed.
+     */
+    private LoadResult drive(Duration duration) throws InterruptedException {
+        ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        samples.add(issueRandomRequest());
+                    }
+                });
+            }
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Load test interrupted");
+        }
+        return new LoadResult(List.copyOf(samples), System.nanoTime() - start);
+    }
+
+    /**
+     * Half the traffic is transfers, the rest split between deposits and withdrawals, which
+     * roughly matches a teller day.
+     */
+    private Sample issueRandomRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountCount);
+        long amount = random.nextLong(10, 500) * 1_000L;
+        int pick = random.nextInt(10);
+        if (pick < 3) {
+            return deposit(accountIds.get(from), amount);
+        }
+        if (pick < 5) {
+            return withdraw(accountIds.get(from), amount);
+        }
+        int to = (from + 1 + random.nextInt(accountCount - 1)) % accountCount;
+        return transfer(accountIds.get(from), accountNumbers.get(to), amount);
+    }
+
+    private Sample deposit(UUID accountId, long amount) {
+        HttpRequest request = jsonRequest("/api/transactions/deposit", accountId, amount, "Setoran load test");
+        Sample sample = send(Operation.DEPOSIT, request, response -> response.statusCode() == 201);
+        if (sample.outcome() == Outcome.POSTED) {
+            depositedRupiah.add(amount);
+        }
+        return sample;
+    }
+
+    private Sample withdraw(UUID accountId, long amount) {
+        HttpRequest request = jsonRequest("/api/transactions/withdrawal", accountId, amount, "Penarikan load test");
+        Sample sample = send(Operation.WITHDRAWAL, request, response -> response.statusCode() == 201);
+        if (sample.outcome() == Outcome.POSTED) {
+            withdrawnRupiah.add(amount);
+        }
+        return sample;
+    }
+
+    /**
+     * The transfer form redirects to the transaction list when posted and back to the form when
+     * rejected. Unexpected failures answer 500, which {@link #send} counts as an error.
+     */
+    private Sample transfer(UUID fromAccountId, String toAccountNumber, long amount) {
+        String form = "fromAccountId=" + fromAccountId
+            + "&toAccountNumber=" + URLEncoder.encode(toAccountNumber, StandardCharsets.UTF_8)
+            + "&amount=" + amount
+            + "&description=" + URLEncoder.encode("Transfer load test", StandardCharsets.UTF_8)
+            + "&referenceNumber=" + runTag + "-" + UUID.randomUUID();
+        HttpRequest request = HttpRequest.newBuilder(uri("/transaction/transfer/process"))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build();
+        return send(Operation.TRANSFER, request, response -> response.statusCode() == 302
+            && response.headers().firstValue("Location").orElse("").endsWith("/transaction/list"));
+    }
+
+    private HttpRequest jsonRequest(String path, UUID accountId, long amount, String description) {
+        String body = String.format(
+            "{\"accountId\":\"%s\",\"amount\":%d,\"description\":\"%s\",\"referenceNumber\":\"%s-%s\"}",
+            accountId, amount, description, runTag, UUID.randomUUID());
+        return HttpRequest.newBuilder(uri(path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private Sample send(Operation operation, HttpRequest request, Predicate<HttpResponse<String>> posted) {
+        long start = System.nanoTime();
+        Outcome outcome;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 500) {
+                outcome = Outcome.ERROR;
+                log.warn("{} failed with {}: {}", operation, response.statusCode(), response.body());
+            } else if (posted.test(response)) {
+                outcome = Outcome.POSTED;
+                postedCounts.get(operation).increment();
+            } else {
+                outcome = Outcome.REJECTED;
+            }
+        } catch (IOException e) {
+            outcome = Outcome.ERROR;
+            log.warn("{} failed: {}", operation, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Outcome.ERROR;
+        }
+        return new Sample(operation, outcome, System.nanoTime() - start);
+    }
+
+    /**
+     * Checks the ledger of the seeded accounts after the run: every balance must equal its opening
+     * balance plus the posted movements, every transaction must continue from a balance the account
+     * actually had, money only enters or leaves through acknowledged deposits and withdrawals, and
+     * every acknowledged posting must have exactly its transaction rows.
+     */
+    private List<String> findInvariantViolations() {
+        String pattern = runTag + "%";
+        List<String> violations = new ArrayList<>();
+
+        jdbcTemplate.query("""
+            SELECT a.account_number, a.balance,
+                   ? + COALESCE(SUM(CASE WHEN t.transaction_type IN ('DEPOSIT', 'TRANSFER_IN')
+                                         THEN t.amount ELSE -t.amount END), 0) AS expected
+              FROM accounts a
+              LEFT JOIN transactions t ON t.id_accounts = a.id
+             WHERE a.account_number LIKE ?
+             GROUP BY a.id, a.account_number, a.balance
+            HAVING a.balance <> ? + COALESCE(SUM(CASE WHEN t.transaction_type IN ('DEPOSIT', 'TRANSFER_IN')
+                                                      THEN t.amount ELSE -t.amount END), 0)
+            """, (RowCallbackHandler) rs -> {
+                violations.add(String.format("account %s balance %s does not match its transactions (%s)",
+                    rs.getString("account_number"), rs.getBigDecimal("balance"), rs.getBigDecimal("expected")));
+            }, INITIAL_BALANCE, pattern, INITIAL_BALANCE);
+
+        // In a serial history every balance_before is the balance_after of an earlier posting
+        Integer brokenLinks = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*)
+              FROM transactions t
+              JOIN accounts a ON a.id = t.id_accounts
+             WHERE a.account_number LIKE ?
+               AND t.balance_before <> ?
+               AND NOT EXISTS (SELECT 1 FROM transactions p
+                                WHERE p.id_accounts = t.id_accounts
+                                  AND p.id <> t.id
+                                  AND p.balance_after = t.balance_before)
+            """, Integer.class, pattern, INITIAL_BALANCE);
+        if (brokenLinks != null && brokenLinks > 0) {
+            violations.add(brokenLinks + " transactions start from a balance the account never had");
+        }
+
+        Integer negative = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM accounts WHERE account_number LIKE ? AND balance < 0", Integer.class, pattern);
+        if (negative != null && negative > 0) {
+            violations.add(negative + " accounts have a negative balance");
+        }
+
+        BigDecimal total = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(balance), 0) FROM accounts WHERE account_number LIKE ?", BigDecimal.class, pattern);
+        BigDecimal expectedTotal = INITIAL_BALANCE.multiply(BigDecimal.valueOf(accountCount))
+            .add(BigDecimal.valueOf(depositedRupiah.sum()))
+            .subtract(BigDecimal.valueOf(withdrawnRupiah.sum()));
+        if (total == null || total.compareTo(expectedTotal) != 0) {
+            violations.add("total balance " + total + " differs from " + expectedTotal
+                + " expected from acknowledged deposits and withdrawals");
+        }
+
+        Long rows = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*) FROM transactions t JOIN accounts a ON a.id = t.id_accounts
+             WHERE a.account_number LIKE ?
+            """, Long.class, pattern);
+        long expectedRows = postedCounts.get(Operation.DEPOSIT).sum()
+            + postedCounts.get(Operation.WITHDRAWAL).sum()
+            + 2 * postedCounts.get(Operation.TRANSFER).sum();
+        if (rows == null || rows != expectedRows) {
+            violations.add(rows + " transaction rows written for " + expectedRows + " acknowledged postings");
+        }
+        return violations;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long percentileMillis(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)] / 1_000_000;
+    }
+
+    private enum Operation {
+        DEPOSIT, WITHDRAWAL, TRANSFER
+    }
+
+    private enum Outcome {
+        POSTED, REJECTED, ERROR
+    }
+
+    private record Sample(Operation operation, Outcome outcome, long nanos) {
+    }
+
+    private record LoadResult(List<Sample> samples, long elapsedNanos) {
+
+        List<Sample> samplesFor(Operation operation) {
+            return samples.stream().filter(sample -> sample.operation() == operation).toList();
+        }
+
+        long errors() {
+            return samples.stream().filter(sample -> sample.outcome() == Outcome.ERROR).count();
+        }
+
+        double throughput() {
+            long completed = samples.stream().filter(sample -> sample.outcome() != Outcome.ERROR).count();
+            return completed / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        long[] sortedLatencies(List<Sample> selection) {
+            long[] latencies = selection.stream().mapToLong(Sample::nanos).toArray();
+            Arrays.sort(latencies);
+            return latencies;
+        }
+
+        String summaryLine(String label, List<Sample> selection) {
+            long[] latencies = sortedLatencies(selection);
+            return String.format("%-10s %8d %8d %8d %8d %8d %8d %8d", label, selection.size(),
+                count(selection, Outcome.POSTED), count(selection, Outcome.REJECTED), count(selection, Outcome.ERROR),
+                percentileMillis(latencies, 50), percentileMillis(latencies, 95), percentileMillis(latencies, 99));
+        }
+
+        private static long count(List<Sample> selection, Outcome outcome) {
+            return selection.stream().filter(sample -> sample.outcome() == outcome).count();
+        }
+    }
+}
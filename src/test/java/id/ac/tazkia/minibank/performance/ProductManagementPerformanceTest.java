@@ -1,6 +1,7 @@
 package id.ac.tazkia.minibank.performance;
 
 import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.CacheConfig;
 import id.ac.tazkia.minibank.entity.Product;
 import id.ac.tazkia.minibank.repository.ProductRepository;
 import id.ac.tazkia.minibank.service.ProductService;
@@ -9,6 +10,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +26,8 @@ import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import lombok.extern.slf4j.Slf4j;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +44,9 @@ class ProductManagementPerformanceTest extends BaseIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private static final int LARGE_DATASET_SIZE = 1000;
     private static final int CONCURRENT_THREADS = 10;
     private static final long ACCEPTABLE_RESPONSE_TIME_MS = 3000; // 3 seconds
@@ -47,6 +55,8 @@ class ProductManagementPerformanceTest extends BaseIntegrationTest {
     @Transactional
     void setUp() {
         productRepository.deleteAll();
+        // Products were deleted behind the service's back
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
@@ -528,6 +538,108 @@ class ProductManagementPerformanceTest extends BaseIntegrationTest {
         log.info("✅ Memory efficiency test completed successfully");
     }
 
+    @Test
+    @DisplayName("Should serve account-opening product lookups from the cache")
+    void shouldServeProductLookupsFromCache() {
+        log.info("Performance Test: Cached vs uncached product catalog lookups");
+
+        // Given - A catalog a little larger than the real one
+        final int catalogSize = 50;
+        final int iterations = 500;
+        for (int i = 1; i <= catalogSize; i++) {
+            productService.save(createTestProduct(
+                String.format("CACHE%03d", i),
+                String.format("Cache Test Product %03d", i),
+                i % 2 == 0 ? Product.ProductType.TABUNGAN_WADIAH : Product.ProductType.TABUNGAN_MUDHARABAH
+            ));
+        }
+        CacheStats before = stats(CacheConfig.ACTIVE_PRODUCTS).plus(stats(CacheConfig.PRODUCTS_BY_CODE))
+            .plus(stats(CacheConfig.PRODUCT_CATEGORIES));
+
+        // When - The same lookups straight from the repository and through the cached service
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertEquals(catalogSize, productRepository.findByIsActiveTrue().size());
+            assertTrue(productRepository.findByProductCode(String.format("CACHE%03d", i % catalogSize + 1)).isPresent());
+            assertFalse(productRepository.findDistinctActiveCategories().isEmpty());
+        }
+        long uncachedNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertEquals(catalogSize, productService.findActiveProducts().size());
+            assertTrue(productService.findByProductCode(String.format("CACHE%03d", i % catalogSize + 1)).isPresent());
+            assertFalse(productService.findDistinctCategories().isEmpty());
+        }
+        long cachedNanos = System.nanoTime() - startTime;
+
+        // Then - Only the first lookup of each key reaches the database
+        CacheStats delta = stats(CacheConfig.ACTIVE_PRODUCTS).plus(stats(CacheConfig.PRODUCTS_BY_CODE))
+            .plus(stats(CacheConfig.PRODUCT_CATEGORIES)).minus(before);
+        long expectedMisses = 1 + catalogSize + 1;
+        assertEquals(expectedMisses, delta.missCount());
+        assertEquals(iterations * 3L - expectedMisses, delta.hitCount());
+
+        // Timings are only reported; wall-clock ratios are too noisy on shared runners to assert on
+
+        log.info("✅ Product cache test completed");
+        log.info("Cache metrics - Uncached: {}ms, Cached: {}ms, Speedup: {}x, Hits: {}, Misses: {}",
+                uncachedNanos / 1_000_000, cachedNanos / 1_000_000,
+                Math.round((double) uncachedNanos / Math.max(1, cachedNanos)), delta.hitCount(), delta.missCount());
+    }
+
+    @Test
+    @DisplayName("Should evict cached products when they are written through the service")
+    void shouldEvictCachedProductsOnWrite() {
+        // Given - Cached lookups
+        Product saved = productService.save(createTestProduct("EVICT001", "Eviction Test Product",
+            Product.ProductType.TABUNGAN_WADIAH));
+        assertEquals(1, productService.findActiveProducts().size());
+        assertEquals("Product created for performance testing",
+            productService.findByProductCode("EVICT001").orElseThrow().getDescription());
+
+        // When - Update is committed
+        Product changed = productRepository.findById(saved.getId()).orElseThrow();
+        changed.setDescription("Updated description");
+        productService.update(changed);
+
+        // Then - The next lookup sees the new row
+        assertEquals("Updated description",
+            productService.findByProductCode("EVICT001").orElseThrow().getDescription());
+
+        // When - Deactivated and a new category added
+        Product cached = productService.findById(saved.getId()).orElseThrow();
+        productService.softDelete(saved.getId());
+        Product other = createTestProduct("EVICT002", "Other Category Product", Product.ProductType.TABUNGAN_WADIAH);
+        other.setProductCategory("Other Category");
+        productService.save(other);
+
+        // Then
+        assertEquals(List.of("EVICT002"), productService.findActiveProducts().stream().map(Product::getProductCode).toList());
+        assertEquals(List.of("Other Category"), productService.findDistinctCategories());
+        assertTrue(productService.findByProductCode("MISSING").isEmpty());
+
+        // When - Reactivated
+        assertTrue(productService.activate(saved.getId()));
+
+        // Then - The previously cached instance is left untouched and the next lookup sees the change
+        assertTrue(cached.getIsActive(), "Writes must not modify cached products");
+        assertNotSame(cached, productService.findById(saved.getId()).orElseThrow());
+        assertTrue(productService.findById(saved.getId()).orElseThrow().getIsActive());
+        assertEquals(2, productService.findActiveProducts().size());
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_BY_CODE).get("MISSING"),
+            "Lookups that find nothing are not cached");
+    }
+
+    private CacheStats stats(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        assertNotNull(cache, "Cache " + cacheName);
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache =
+            (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        return caffeineCache.stats();
+    }
+
     // Helper method to create test products
     private Product createTestProduct(String code, String name, Product.ProductType type) {
         Product product = new Product();
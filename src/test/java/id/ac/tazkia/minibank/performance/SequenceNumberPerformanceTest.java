@@ -0,0 +1,95 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.service.SequenceNumberService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "minibank.sequence.block-size=1000",
+    "minibank.sequence.block-allocated=TRANSACTION_NUMBER,PERF_BLOCK_SEQUENCE"
+})
+@DisplayName("Sequence Number Generator Performance Tests")
+class SequenceNumberPerformanceTest extends BaseIntegrationTest {
+
+    private static final String BLOCK_SEQUENCE = "PERF_BLOCK_SEQUENCE";
+    private static final String LOCKED_SEQUENCE = "PERF_LOCKED_SEQUENCE";
+    private static final int BLOCK_OPERATIONS = 20_000;
+    private static final int LOCKED_OPERATIONS = 2_000;
+
+    @Autowired
+    private SequenceNumberService sequenceNumberService;
+
+    @ParameterizedTest(name = "block allocated, {0} threads")
+    @ValueSource(ints = {1, 8, 64})
+    @DisplayName("Block allocated generator should hand out unique numbers under contention")
+    void shouldGenerateUniqueNumbersFromBlocks(int threads) throws Exception {
+        long reservedBefore = sequenceNumberService.getCurrentNumber(BLOCK_SEQUENCE);
+
+        Set<String> numbers = runConcurrently(BLOCK_SEQUENCE, threads, BLOCK_OPERATIONS);
+
+        assertEquals(BLOCK_OPERATIONS, numbers.size(), "Every generated number must be unique");
+        long reserved = sequenceNumberService.getCurrentNumber(BLOCK_SEQUENCE) - reservedBefore;
+        assertTrue(reserved <= BLOCK_OPERATIONS + 1000L,
+            "Database sequence should only advance by whole blocks, advanced by " + reserved);
+    }
+
+    @ParameterizedTest(name = "row locked, {0} threads")
+    @ValueSource(ints = {1, 8, 64})
+    @DisplayName("Row locked generator should stay unique as a baseline")
+    void shouldGenerateUniqueNumbersWithRowLock(int threads) throws Exception {
+        Set<String> numbers = runConcurrently(LOCKED_SEQUENCE, threads, LOCKED_OPERATIONS);
+
+        assertEquals(LOCKED_OPERATIONS, numbers.size(), "Every generated number must be unique");
+    }
+
+    private Set<String> runConcurrently(String sequenceName, int threads, int operations) throws Exception {
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        int perThread = operations / threads;
+        int remainder = operations % threads;
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int count = perThread + (t < remainder ? 1 : 0);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < count; i++) {
+                    numbers.add(sequenceNumberService.generateNextSequence(sequenceName, "PRF"));
+                }
+                return null;
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+        executor.shutdown();
+
+        double throughput = operations / (elapsedNanos / 1_000_000_000.0);
+        log.info("Sequence {} with {} threads: {} numbers in {} ms ({} ops/sec)",
+            sequenceName, threads, operations, elapsedNanos / 1_000_000, String.format("%.0f", throughput));
+        return numbers;
+    }
+}
@@ -0,0 +1,134 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.TestDataFactory;
+import id.ac.tazkia.minibank.dto.TransactionHistoryItem;
+import id.ac.tazkia.minibank.service.TransactionHistoryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the old LOWER(...) LIKE '%term%' search with the trigram backed ILIKE search over a
+ * generated multi-million-row transactions table.
+ *
+ * Generating the data takes minutes, so the benchmark only runs on request:
+ * {@code mvn test -Dtest=TransactionSearchBenchmarkTest -Dminibank.benchmark=true [-Dminibank.benchmark.rows=2000000]}
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "minibank.benchmark", matches = "true")
+@DisplayName("Transaction Search Benchmark")
+class TransactionSearchBenchmarkTest extends BaseIntegrationTest {
+
+    private static final int CHUNK_SIZE = 500_000;
+    private static final int RUNS = 7;
+
+    private static final String LEGACY_SQL = """
+        SELECT id FROM transactions
+         WHERE LOWER(transaction_number) LIKE LOWER(CONCAT('%', ?, '%'))
+            OR LOWER(description) LIKE LOWER(CONCAT('%', ?, '%'))
+            OR LOWER(reference_number) LIKE LOWER(CONCAT('%', ?, '%'))
+         ORDER BY transaction_date DESC
+         LIMIT 20
+        """;
+
+    private static final String TRIGRAM_SQL = """
+        SELECT id FROM transactions
+         WHERE transaction_number ILIKE CONCAT('%', ?, '%')
+            OR description ILIKE CONCAT('%', ?, '%')
+            OR reference_number ILIKE CONCAT('%', ?, '%')
+         ORDER BY transaction_date DESC
+         LIMIT 20
+        """;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    private final int rows = Integer.getInteger("minibank.benchmark.rows", 2_000_000);
+    private UUID accountId;
+    private String rareTerm;
+
+    @BeforeAll
+    void generateDataset() {
+        accountId = insertAccount("BENCH" + TestDataFactory.generateAccountNumber(), "Search Benchmark Account",
+            BigDecimal.ZERO);
+
+        long start = System.currentTimeMillis();
+        for (int from = 1; from <= rows; from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE - 1, rows);
+            jdbcTemplate.update("""
+                INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount,
+                                          balance_before, balance_after, description, reference_number,
+                                          transaction_date, created_by)
+                SELECT ?, 'BNC' || lpad(i::text, 10, '0'), 'DEPOSIT', 1, 0, 1,
+                       'Setoran tunai ' || md5(i::text), 'REF' || i,
+                       TIMESTAMP '2020-01-01' + i * INTERVAL '1 second', 'BENCHMARK'
+                  FROM generate_series(?, ?) AS i
+                """, accountId, from, to);
+        }
+        jdbcTemplate.execute("ANALYZE transactions");
+        rareTerm = jdbcTemplate.queryForObject("SELECT substr(md5(?::text), 3, 12)", String.class, rows / 2);
+        log.info("Generated {} transactions in {} ms, rare term '{}'", rows, System.currentTimeMillis() - start, rareTerm);
+    }
+
+    @AfterAll
+    void dropDataset() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts = ?", accountId);
+        jdbcTemplate.update("DELETE FROM accounts WHERE id = ?", accountId);
+    }
+
+    @Test
+    @DisplayName("Trigram search should beat the LIKE scan on a rare term")
+    void shouldBeatLikeScan() {
+        long legacy = medianMillis(LEGACY_SQL, rareTerm);
+        long trigram = medianMillis(TRIGRAM_SQL, rareTerm);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + TRIGRAM_SQL, String.class,
+            rareTerm, rareTerm, rareTerm));
+
+        log.info("Search over {} rows, median of {} runs: LOWER LIKE {} ms, trigram ILIKE {} ms", rows, RUNS, legacy, trigram);
+        log.info("Trigram plan:\n{}", plan);
+        assertTrue(plan.contains("_trgm"), "Search should use the trigram indexes");
+        assertTrue(trigram < legacy, "Trigram search (" + trigram + " ms) should be faster than LIKE (" + legacy + " ms)");
+    }
+
+    @Test
+    @DisplayName("Ranked search should return the exact match first")
+    void shouldRankExactMatchFirst() {
+        long start = System.currentTimeMillis();
+        List<TransactionHistoryItem> results = transactionHistoryService.search(rareTerm, 20);
+        log.info("Ranked search over {} rows took {} ms", rows, System.currentTimeMillis() - start);
+
+        assertFalse(results.isEmpty());
+        assertTrue(results.get(0).getDescription().contains(rareTerm));
+    }
+
+    private long medianMillis(String sql, String term) {
+        jdbcTemplate.queryForList(sql, UUID.class, term, term, term);
+        long[] timings = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            jdbcTemplate.queryForList(sql, UUID.class, term, term, term);
+            timings[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+}
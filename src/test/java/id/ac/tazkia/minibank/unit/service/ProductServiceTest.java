@@ -2,6 +2,7 @@ package id.ac.tazkia.minibank.unit.service;
 
 import id.ac.tazkia.minibank.entity.Product;
 import id.ac.tazkia.minibank.repository.ProductRepository;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import id.ac.tazkia.minibank.service.ProductService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @InjectMocks
     private ProductService productService;
 
@@ -354,6 +358,43 @@ class ProductServiceTest {
         verify(productRepository).save(argThat(p -> !p.getIsActive()));
     }
 
+    @Test
+    @DisplayName("Should activate the product loaded from the repository")
+    void shouldActivateProduct() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        Product product = createValidProduct("TWB001", "Product to Activate");
+        product.setId(productId);
+        product.setIsActive(false);
+        
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        
+        // When
+        boolean activated = productService.activate(productId);
+        
+        // Then
+        assertTrue(activated);
+        verify(productRepository).findById(productId);
+        verify(productRepository).save(argThat(Product::getIsActive));
+    }
+
+    @Test
+    @DisplayName("Should report activation of non-existing product")
+    void shouldNotActivateNonExistingProduct() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        
+        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        
+        // When
+        boolean activated = productService.activate(productId);
+        
+        // Then
+        assertFalse(activated);
+        verify(productRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should handle soft delete of non-existing product gracefully")
     void shouldHandleSoftDeleteOfNonExistingProduct() {